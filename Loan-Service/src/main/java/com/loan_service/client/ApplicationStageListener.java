@@ -0,0 +1,36 @@
+package com.loan_service.client;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.loan_service.service.ApplicationPipelineService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Consumers for the application pipeline stages. Records are keyed by
+ * application number, so one application's stages stay on one partition
+ * while different applications are processed in parallel.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationStageListener {
+	private final ApplicationPipelineService pipelineService;
+
+	@KafkaListener(topics = ApplicationPipelineService.SCREENING_TOPIC,
+			groupId = "loan-application-screening",
+			containerFactory = "applicationPipelineListenerContainerFactory",
+			concurrency = "${loan.application-pipeline.screening-concurrency:6}")
+	public void onScreeningRequested(ConsumerRecord<String, String> record) {
+		pipelineService.screen(record.key());
+	}
+
+	@KafkaListener(topics = ApplicationPipelineService.DECISION_TOPIC,
+			groupId = "loan-application-decision",
+			containerFactory = "applicationPipelineListenerContainerFactory",
+			concurrency = "${loan.application-pipeline.decision-concurrency:3}")
+	public void onScreened(ConsumerRecord<String, String> record) {
+		pipelineService.decide(record.key());
+	}
+}
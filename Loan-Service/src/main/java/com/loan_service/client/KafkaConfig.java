@@ -9,6 +9,7 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
@@ -17,9 +18,16 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.loan_service.exception.LoanApplicationException;
+import com.loan_service.exception.ResourceNotFoundException;
+import com.loan_service.service.ApplicationPipelineService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -131,6 +139,59 @@ public class KafkaConfig {
 		return factory;
 	}
 
+	/**
+	 * Consumer for the application pipeline stages. Only the record key is
+	 * read, so values are left as strings.
+	 */
+	@Bean
+	public ConsumerFactory<String, String> applicationPipelineConsumerFactory() {
+		Map<String, Object> configProps = new HashMap<>();
+		configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
+				org.apache.kafka.common.serialization.StringDeserializer.class);
+		configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+				org.apache.kafka.common.serialization.StringDeserializer.class);
+		configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+		configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+		// A screening record waits on the bureau, so keep polls small
+		configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 20);
+		configProps.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000);
+		return new DefaultKafkaConsumerFactory<>(configProps);
+	}
+
+	/**
+	 * Retries a failing stage a few times, then parks the application for
+	 * manual review and moves on. A missing application or bad input will
+	 * not get better on retry.
+	 */
+	@Bean
+	public ConcurrentKafkaListenerContainerFactory<String, String> applicationPipelineListenerContainerFactory(
+			@Lazy ApplicationPipelineService pipelineService,
+			@Value("${loan.application-pipeline.retry-interval-ms:2000}") long retryInterval,
+			@Value("${loan.application-pipeline.max-retries:3}") long maxRetries) {
+		ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(applicationPipelineConsumerFactory());
+		factory.getContainerProperties().setPollTimeout(3000);
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+
+		DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+				(record, ex) -> pipelineService.sendToManualReview((String) record.key(), ex),
+				new FixedBackOff(retryInterval, maxRetries));
+		errorHandler.addNotRetryableExceptions(ResourceNotFoundException.class, LoanApplicationException.class);
+		factory.setCommonErrorHandler(errorHandler);
+		return factory;
+	}
+
+	@Bean
+	public NewTopic applicationScreeningTopic(@Value("${loan.application-pipeline.partitions:12}") int partitions) {
+		return TopicBuilder.name(ApplicationPipelineService.SCREENING_TOPIC).partitions(partitions).replicas(1).build();
+	}
+
+	@Bean
+	public NewTopic applicationDecisionTopic(@Value("${loan.application-pipeline.partitions:12}") int partitions) {
+		return TopicBuilder.name(ApplicationPipelineService.DECISION_TOPIC).partitions(partitions).replicas(1).build();
+	}
+
 	@Bean
 	public NewTopic loanApplicationSubmittedTopic() {
 		return TopicBuilder.name("banking.loan.applications").partitions(3).replicas(1).build();
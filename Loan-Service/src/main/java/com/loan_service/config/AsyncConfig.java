@@ -0,0 +1,106 @@
+package com.loan_service.config;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class AsyncConfig {
+
+	/**
+	 * Workers for EMI collection runs, one chunk per task. The run caps how
+	 * many chunks it queues, so the caller-runs fallback is only a safety net.
+	 */
+	@Bean(name = "emiCollectionExecutor")
+	public ThreadPoolTaskExecutor emiCollectionExecutor(MeterRegistry meterRegistry,
+			@Value("${loan.emi-collection.workers:8}") int workers) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(workers);
+		executor.setMaxPoolSize(workers);
+		executor.setQueueCapacity(workers * 2);
+		executor.setThreadNamePrefix("emi-collection-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(60);
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "loan.emi.collection");
+		return executor;
+	}
+
+	/**
+	 * Bureau pulls for credit score prefetches. Small on purpose: the bureau
+	 * is slow and rate-limited, and a full pool makes the caller pull too.
+	 */
+	@Bean(name = "creditBureauExecutor")
+	public ThreadPoolTaskExecutor creditBureauExecutor(MeterRegistry meterRegistry,
+			@Value("${loan.credit-score.bureau-concurrency:4}") int concurrency) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(concurrency);
+		executor.setMaxPoolSize(concurrency);
+		executor.setQueueCapacity(concurrency * 2);
+		executor.setThreadNamePrefix("credit-bureau-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "loan.credit.bureau");
+		return executor;
+	}
+
+	/**
+	 * Fraud checks run next to the credit lookup during screening. One
+	 * slot per screening consumer thread, so screening never queues here.
+	 */
+	@Bean(name = "fraudCheckExecutor")
+	public ThreadPoolTaskExecutor fraudCheckExecutor(MeterRegistry meterRegistry,
+			@Value("${loan.application-pipeline.screening-concurrency:6}") int concurrency) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(concurrency);
+		executor.setMaxPoolSize(concurrency);
+		executor.setQueueCapacity(concurrency);
+		executor.setThreadNamePrefix("fraud-check-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "loan.fraud.check");
+		return executor;
+	}
+
+	/**
+	 * CPU-bound re-amortization for repricing runs. Kept apart from the
+	 * common pool so a large run does not starve other parallel streams.
+	 */
+	@Bean(name = "repricingPool", destroyMethod = "shutdown")
+	public ForkJoinPool repricingPool(MeterRegistry meterRegistry,
+			@Value("${loan.repricing.parallelism:0}") int parallelism) {
+		ForkJoinPool pool = new ForkJoinPool(
+				parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+		new ExecutorServiceMetrics(pool, "loan.repricing", Tags.empty()).bindTo(meterRegistry);
+		return pool;
+	}
+
+	/**
+	 * Prepayment what-if scenarios for customer requests. Separate from the
+	 * repricing pool so a running repricing does not hold up quotes.
+	 */
+	@Bean(name = "simulationPool", destroyMethod = "shutdown")
+	public ForkJoinPool simulationPool(MeterRegistry meterRegistry,
+			@Value("${loan.simulation.parallelism:0}") int parallelism) {
+		ForkJoinPool pool = new ForkJoinPool(
+				parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+		new ExecutorServiceMetrics(pool, "loan.simulation", Tags.empty()).bindTo(meterRegistry);
+		return pool;
+	}
+}
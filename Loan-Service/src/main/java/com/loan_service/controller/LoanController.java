@@ -1,9 +1,11 @@
 package com.loan_service.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,6 +17,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.loan_service.dto.CreditScorePrefetchRequest;
+import com.loan_service.dto.CreditScorePrefetchResponse;
+import com.loan_service.dto.EmiCollectionRunResponse;
 import com.loan_service.dto.EmiScheduleResponse;
 import com.loan_service.dto.LoanApplicationRequest;
 import com.loan_service.dto.LoanApplicationResponse;
@@ -22,13 +27,24 @@ import com.loan_service.dto.LoanApprovalRequest;
 import com.loan_service.dto.LoanRejectionRequest;
 import com.loan_service.dto.LoanResponse;
 import com.loan_service.dto.LoanSummaryResponse;
+import com.loan_service.dto.PortfolioAnalyticsResponse;
+import com.loan_service.dto.PortfolioRefreshSummary;
 import com.loan_service.dto.PrepaymentRequest;
 import com.loan_service.dto.PrepaymentResponse;
+import com.loan_service.dto.PrepaymentSimulationRequest;
+import com.loan_service.dto.PrepaymentSimulationResponse;
+import com.loan_service.dto.RepricingRequest;
+import com.loan_service.dto.RepricingSummary;
 import com.loan_service.entity.LoanApplication;
 import com.loan_service.exception.ResourceNotFoundException;
 import com.loan_service.exception.UnauthorizedAccessException;
+import com.loan_service.service.CreditScoreCacheService;
+import com.loan_service.service.EmiCollectionService;
 import com.loan_service.service.LoanApplicationService;
 import com.loan_service.service.LoanService;
+import com.loan_service.service.PortfolioAnalyticsService;
+import com.loan_service.service.PrepaymentSimulationService;
+import com.loan_service.service.RepricingService;
 
 import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
@@ -47,6 +63,11 @@ import lombok.extern.slf4j.Slf4j;
 public class LoanController {
 	private final LoanService loanService;
 	private final LoanApplicationService loanApplicationService;
+	private final EmiCollectionService emiCollectionService;
+	private final RepricingService repricingService;
+	private final PrepaymentSimulationService prepaymentSimulationService;
+	private final CreditScoreCacheService creditScoreCacheService;
+	private final PortfolioAnalyticsService portfolioAnalyticsService;
 	
 
     @PostMapping("/applications")
@@ -135,6 +156,19 @@ public class LoanController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{loanNumber}/prepayment-simulations")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Simulate prepayments",
+        description = "Quote lump-sum, recurring and foreclosure scenarios without changing the loan")
+    public ResponseEntity<PrepaymentSimulationResponse> simulatePrepayments(
+            @PathVariable String loanNumber,
+            @Valid @RequestBody PrepaymentSimulationRequest request,
+            Authentication authentication) {
+        
+        Long userId = extractUserId(authentication);
+        return ResponseEntity.ok(prepaymentSimulationService.simulate(loanNumber, request, userId));
+    }
+
     @PostMapping("/{loanNumber}/foreclose")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Foreclose loan", description = "Close loan with full payment")
@@ -180,6 +214,47 @@ public class LoanController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/emi-collections/{dueDate}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get EMI collection run", description = "Progress and totals of the auto-debit run for a due date")
+    public ResponseEntity<EmiCollectionRunResponse> getEmiCollectionRun(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate) {
+        return ResponseEntity.ok(emiCollectionService.getRun(dueDate));
+    }
+
+    @PostMapping("/repricing")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reprice floating-rate loans",
+        description = "Re-amortize every loan on a benchmark after a benchmark rate change; dryRun only reports the impact")
+    public ResponseEntity<RepricingSummary> repriceLoans(@Valid @RequestBody RepricingRequest request) {
+        return ResponseEntity.ok(repricingService.reprice(request));
+    }
+
+    @PostMapping("/credit-scores/prefetch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Prefetch credit scores",
+        description = "Pull bureau scores for a pre-approved list ahead of its applications; cached pairs are skipped")
+    public ResponseEntity<CreditScorePrefetchResponse> prefetchCreditScores(
+            @Valid @RequestBody CreditScorePrefetchRequest request) {
+        return ResponseEntity.ok(creditScoreCacheService.prefetch(request.getLookups()));
+    }
+
+    @GetMapping("/portfolio")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get portfolio analytics",
+        description = "Exposure by product, DPD bucket and branch with NPA ratios, from the portfolio read model")
+    public ResponseEntity<PortfolioAnalyticsResponse> getPortfolio() {
+        return ResponseEntity.ok(portfolioAnalyticsService.getPortfolio());
+    }
+
+    @PostMapping("/portfolio/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild portfolio analytics",
+        description = "Recompute the portfolio read model from the loan book and report drift")
+    public ResponseEntity<PortfolioRefreshSummary> rebuildPortfolio() {
+        return ResponseEntity.ok(portfolioAnalyticsService.rebuild(LocalDate.now()));
+    }
+
     @GetMapping("/applications/{applicationNumber}")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Get application details")
@@ -0,0 +1,21 @@
+package com.loan_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditScoreLookup {
+	@NotNull
+    private Long userId;
+    @NotBlank
+    @Pattern(regexp = "[A-Z]{5}[0-9]{4}[A-Z]")
+    private String panNumber;
+}
@@ -0,0 +1,22 @@
+package com.loan_service.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditScorePrefetchRequest {
+	@NotEmpty
+    @Size(max = 5000)
+    @Valid
+    private List<CreditScoreLookup> lookups; // e.g. a pre-approved campaign list
+}
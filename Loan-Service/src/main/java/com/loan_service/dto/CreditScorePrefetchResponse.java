@@ -0,0 +1,20 @@
+package com.loan_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditScorePrefetchResponse {
+	private int requested;
+	private int distinct; // after dropping repeated user + PAN pairs
+	private int alreadyCached;
+	private int fetched; // bureau hits made by this call
+	private int fallbacks; // bureau unavailable, default score cached briefly
+	private int failed;
+	private long elapsedMillis;
+}
@@ -1,5 +1,7 @@
 package com.loan_service.dto;
 
+import java.time.LocalDateTime;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,4 +15,6 @@ public class CreditScoreResponse {
 	private Integer score;
 	private String bureau;
 	private String rating;
+	private boolean fallback; // default score served while the bureau is unavailable
+	private LocalDateTime fetchedAt;
 }
@@ -0,0 +1,21 @@
+package com.loan_service.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DelinquencySummary {
+	private LocalDate asOf;
+	private int newlyOverdueEmis;
+	private int accruedEmis; // overdue EMIs whose days overdue and late charges moved
+	private int loansUpdated;
+	private int loansMovedToOverdue;
+	private int loansCured; // OVERDUE loans with nothing overdue left, moved back to ACTIVE
+}
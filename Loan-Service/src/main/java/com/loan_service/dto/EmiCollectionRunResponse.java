@@ -0,0 +1,32 @@
+package com.loan_service.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.loan_service.enums.EmiCollectionRunStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiCollectionRunResponse {
+	private LocalDate dueDate;
+	private EmiCollectionRunStatus status;
+	private String owner;
+	private Integer attempt;
+	private Long claimed;
+	private Long paid;
+	private Long bounced;
+	private Integer failedChunks;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+	private String lastError;
+	private boolean executed; // false when another instance holds the run or it already completed
+	private Long elapsedMillis; // this attempt only
+	private Double emisPerSecond; // this attempt only
+}
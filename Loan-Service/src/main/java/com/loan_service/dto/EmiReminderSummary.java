@@ -0,0 +1,23 @@
+package com.loan_service.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiReminderSummary {
+	private LocalDate reminderDate;
+	private long loansEvaluated;
+	private long alreadySent; // reminded earlier the same day
+	private long upcoming;
+	private long dueToday;
+	private long overdue;
+	private int batches; // outbox events written
+	private long elapsedMillis;
+}
@@ -10,6 +10,7 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,6 +28,9 @@ public class LoanApplicationRequest {
     @NotNull(message = "Account ID is required")
     private Long accountId;
     
+    @Size(max = 20)
+    private String branchCode; // sourcing branch, omitted for online applications
+    
     @NotNull(message = "Loan type is required")
     private LoanType loanType;
     
@@ -53,6 +57,10 @@ public class LoanApplicationRequest {
     
     private String companyName;
     
+    @NotBlank(message = "PAN is required")
+    @Pattern(regexp = "[A-Z]{5}[0-9]{4}[A-Z]", message = "PAN must be 10 characters, e.g. ABCDE1234F")
+    private String panNumber;
+    
     private BigDecimal monthlyObligations;
     
     private Boolean collateralOffered = false;
@@ -23,6 +23,8 @@ public class LoanApprovalRequest {
     @DecimalMin("1.0")
     @DecimalMax("50.0")
     private BigDecimal interestRate;
+    private String rateBenchmark; // set for floating-rate loans
+    private BigDecimal rateSpread;
     private Integer tenureMonths;
     private String approvalNotes;
 }
@@ -0,0 +1,25 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LumpSumPrepayment {
+	@NotNull
+    @FutureOrPresent
+    private LocalDate date; // applied after the installments due on or before this date
+    @NotNull
+    @DecimalMin("1.0")
+    private BigDecimal amount;
+}
@@ -0,0 +1,26 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAnalyticsResponse {
+	private LocalDateTime asOf; // last time the aggregates moved
+	private long totalLoans;
+	private BigDecimal totalOutstanding;
+	private BigDecimal totalMonthlyEmi;
+	private BigDecimal npaOutstanding;
+	private BigDecimal npaRatio; // in percent
+	private List<PortfolioExposure> byProduct;
+	private List<PortfolioExposure> byDpdBucket;
+	private List<PortfolioExposure> byBranch;
+}
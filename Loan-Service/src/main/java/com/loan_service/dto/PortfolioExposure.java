@@ -0,0 +1,22 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioExposure {
+	private String key; // product, DPD bucket or branch code
+	private long loans;
+	private BigDecimal outstanding;
+	private BigDecimal monthlyEmi;
+	private BigDecimal sharePercentage; // of total outstanding
+	private BigDecimal npaOutstanding; // outstanding in the DPD_90 bucket
+	private BigDecimal npaRatio; // npaOutstanding / outstanding, in percent
+}
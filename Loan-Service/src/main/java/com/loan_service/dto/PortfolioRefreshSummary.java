@@ -0,0 +1,20 @@
+package com.loan_service.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioRefreshSummary {
+	private LocalDate asOf;
+	private boolean rebuild;
+	private long loansRefreshed;
+	private int segmentsDrifted; // rebuild only: segments the incremental refreshes had wrong
+	private long elapsedMillis;
+}
@@ -0,0 +1,32 @@
+package com.loan_service.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.loan_service.enums.PrepaymentMode;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrepaymentScenario {
+	private String name;
+    @NotNull
+    private PrepaymentMode mode;
+    @Valid
+    @Size(max = 24)
+    private List<LumpSumPrepayment> lumpSums;
+    @Valid
+    private RecurringPrepayment recurring;
+    @FutureOrPresent
+    private LocalDate forecloseOn; // pays off whatever is left on this date
+}
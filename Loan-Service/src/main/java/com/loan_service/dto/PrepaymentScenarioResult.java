@@ -0,0 +1,30 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.loan_service.enums.PrepaymentMode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrepaymentScenarioResult {
+	private String name;
+	private PrepaymentMode mode;
+	private BigDecimal totalPrepaid; // principal prepaid, foreclosure included
+	private BigDecimal prepaymentCharges;
+	private BigDecimal foreclosureAmount; // only for scenarios that foreclose
+	private BigDecimal newEmiAmount;
+	private Integer newRemainingTenure;
+	private Integer tenureReducedBy;
+	private LocalDate newMaturityDate;
+	private LocalDate paidOffOn; // set when a prepayment clears the balance before the last installment
+	private BigDecimal totalInterest;
+	private BigDecimal interestSaved;
+}
@@ -0,0 +1,26 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrepaymentSimulationResponse {
+	private String loanNumber;
+	private Long loanVersion;
+	// The schedule as it stands, which every scenario is compared against
+	private BigDecimal outstandingPrincipal;
+	private BigDecimal currentEmiAmount;
+	private Integer remainingTenure;
+	private LocalDate maturityDate;
+	private BigDecimal remainingInterest;
+	private List<PrepaymentScenarioResult> scenarios;
+}
@@ -0,0 +1,28 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringPrepayment {
+	@NotNull
+    @DecimalMin("1.0")
+    private BigDecimal amount; // paid on top of the EMI, on its due date
+    @Min(1)
+    @Max(12)
+    private Integer everyMonths; // defaults to every installment
+    private LocalDate startDate; // defaults to the next installment
+    private LocalDate endDate;
+}
@@ -0,0 +1,32 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.loan_service.enums.RepricingMode;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingRequest {
+	@NotBlank
+    private String benchmark;
+    @NotNull
+    @DecimalMin("0.0")
+    @DecimalMax("50.0")
+    private BigDecimal newBenchmarkRate;
+    @NotNull
+    private RepricingMode mode;
+    private LocalDate effectiveDate; // installments due after this date are re-amortized; defaults to today
+    private boolean dryRun;
+}
@@ -0,0 +1,37 @@
+package com.loan_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.loan_service.enums.RepricingMode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingSummary {
+	private String runId;
+	private String benchmark;
+	private BigDecimal newBenchmarkRate;
+	private RepricingMode mode;
+	private LocalDate effectiveDate;
+	private boolean dryRun;
+	private long loansEvaluated;
+	private long loansRepriced;
+	private long loansUnchanged; // already at the new rate, or nothing left to re-amortize
+	private long tenureFallbacks; // NEW_TENURE loans whose EMI no longer fits, given a new EMI instead
+	private int chunks;
+	// Sum of monthly EMIs over the repriced loans
+	private BigDecimal monthlyEmiBefore;
+	private BigDecimal monthlyEmiAfter;
+	// EMI x installments left - principal, over the repriced loans
+	private BigDecimal remainingInterestBefore;
+	private BigDecimal remainingInterestAfter;
+	private long elapsedMillis;
+	private double loansPerSecond;
+}
@@ -0,0 +1,76 @@
+package com.loan_service.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.loan_service.enums.EmiCollectionRunStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One EMI auto-debit run per due date. The row doubles as the lease that
+ * keeps two instances from collecting the same date, and holds the running
+ * totals that chunks add to as they commit.
+ */
+@Entity
+@Table(name = "emi_collection_runs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiCollectionRun {
+	@Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "due_date", unique = true, nullable = false)
+    private LocalDate dueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmiCollectionRunStatus status;
+
+    @Column(name = "owner", length = 100)
+    private String owner; // instance holding the lease
+
+    @Column(name = "attempt")
+    private Integer attempt = 1;
+
+    @Column(name = "claimed")
+    private Long claimed = 0L;
+
+    @Column(name = "paid")
+    private Long paid = 0L;
+
+    @Column(name = "bounced")
+    private Long bounced = 0L;
+
+    @Column(name = "failed_chunks")
+    private Integer failedChunks = 0;
+
+    @Column(name = "last_emi_id")
+    private Long lastEmiId; // highest EMI id handed to a worker in this attempt
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
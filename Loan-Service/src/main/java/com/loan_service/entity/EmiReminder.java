@@ -0,0 +1,57 @@
+package com.loan_service.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.loan_service.enums.ReminderStage;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One reminder per loan per day. Reminder runs claim rows here before
+ * rendering, so a rerun on the same day skips loans already notified.
+ */
+@Entity
+@Table(name = "emi_reminders", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_emi_reminder_loan_date", columnNames = {"loan_id", "reminder_date"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiReminder {
+	@Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(name = "reminder_date", nullable = false)
+    private LocalDate reminderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReminderStage stage;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate; // installment the reminder is about
+
+    @Column(name = "batch_id", nullable = false, length = 36)
+    private String batchId; // outbox event that carried it
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
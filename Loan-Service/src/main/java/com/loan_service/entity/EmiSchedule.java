@@ -29,7 +29,8 @@ import lombok.NoArgsConstructor;
     indexes = {
         @Index(name = "idx_loan_id", columnList = "loan_id"),
         @Index(name = "idx_due_date", columnList = "due_date"),
-        @Index(name = "idx_status", columnList = "status")
+        @Index(name = "idx_status", columnList = "status"),
+        @Index(name = "idx_due_date_status_id", columnList = "due_date, status, id")
     }
 )
 @Data
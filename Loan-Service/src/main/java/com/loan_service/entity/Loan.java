@@ -6,12 +6,11 @@ import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.annotation.Version;
 
 import com.loan_service.enums.InterestType;
 import com.loan_service.enums.LoanStatus;
 import com.loan_service.enums.LoanType;
+import com.loan_service.enums.ScheduleMode;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -19,8 +18,10 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -35,7 +36,11 @@ import lombok.NoArgsConstructor;
         @Index(name = "idx_account_id", columnList = "account_id"),
         @Index(name = "idx_status", columnList = "status"),
         @Index(name = "idx_loan_type", columnList = "loan_type"),
-        @Index(name = "idx_composite", columnList = "user_id, status, created_at DESC")
+        @Index(name = "idx_composite", columnList = "user_id, status, created_at DESC"),
+        @Index(name = "idx_next_materialize_date", columnList = "next_materialize_date"),
+        @Index(name = "idx_next_emi_date", columnList = "next_emi_date"),
+        @Index(name = "idx_rate_benchmark_id", columnList = "rate_benchmark, id"),
+        @Index(name = "idx_updated_at", columnList = "updated_at")
     }
 )
 @Data
@@ -59,6 +64,9 @@ public class Loan {
     @Column(name = "account_id", nullable = false)
     private Long accountId; 
     
+    @Column(name = "branch_code", length = 20)
+    private String branchCode; // sourcing branch, null for direct/online loans
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "loan_type", nullable = false, length = 30)
     private LoanType loanType;
@@ -93,6 +101,13 @@ public class Loan {
     @Column(name = "interest_rate", precision = 5, scale = 2, nullable = false)
     private BigDecimal interestRate; // Annual percentage rate
     
+    // Floating-rate loans: interest rate = benchmark rate + spread
+    @Column(name = "rate_benchmark", length = 30)
+    private String rateBenchmark; // e.g. REPO, MCLR_1Y
+    
+    @Column(name = "rate_spread", precision = 5, scale = 2)
+    private BigDecimal rateSpread;
+    
     @Column(name = "tenure_months", nullable = false)
     private Integer tenureMonths;
     
@@ -122,9 +137,25 @@ public class Loan {
     @Column(name = "total_emis")
     private Integer totalEmis;
     
+    // Schedule: COMPUTED loans only store installments once they fall due
+    @Enumerated(EnumType.STRING)
+    @Column(name = "schedule_mode", length = 20)
+    private ScheduleMode scheduleMode;
+    
+    @Column(name = "materialized_emis")
+    private Integer materializedEmis;
+    
+    // Opening balance of the first installment not yet materialized, as scheduled
+    @Column(name = "scheduled_principal", precision = 19, scale = 4)
+    private BigDecimal scheduledPrincipal;
+    
+    @Column(name = "next_materialize_date")
+    private LocalDate nextMaterializeDate;
+    
     @Column(name = "paid_emis")
     private Integer paidEmis = 0;
     
+    // EMIs overdue right now, kept by the delinquency pass; paid ones stop counting
     @Column(name = "missed_emis")
     private Integer missedEmis = 0;
     
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.loan_service.enums.ApplicationStatus;
 import com.loan_service.enums.LoanType;
 
@@ -46,6 +47,9 @@ public class LoanApplication {
 	@Column(name = "account_id", nullable = false)
 	private Long accountId;
 
+	@Column(name = "branch_code", length = 20)
+	private String branchCode;
+
 	@Enumerated(EnumType.STRING)
 	@Column(name = "loan_type", nullable = false, length = 30)
 	private LoanType loanType;
@@ -72,6 +76,11 @@ public class LoanApplication {
 	@Column(name = "company_name", length = 200)
 	private String companyName;
 
+	// Needed for the bureau pull; kept out of the serialized application events
+	@JsonIgnore
+	@Column(name = "pan_number", length = 10)
+	private String panNumber;
+
 	@Column(name = "monthly_obligations", precision = 19, scale = 4)
 	private BigDecimal monthlyObligations;
 
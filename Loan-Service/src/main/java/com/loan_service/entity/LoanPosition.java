@@ -0,0 +1,80 @@
+package com.loan_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.loan_service.enums.DpdBucket;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.enums.LoanType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a loan last contributed to the portfolio aggregates. Refreshes diff
+ * a loan's current state against this row, so the aggregates only move by
+ * the change.
+ */
+@Entity
+@Table(
+    name = "portfolio_loan_positions",
+    indexes = {
+        @Index(name = "idx_position_source_updated_at", columnList = "source_updated_at"),
+        @Index(name = "idx_position_bucket_until", columnList = "bucket_until")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanPosition {
+	@Id
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "loan_type", nullable = false, length = 30)
+    private LoanType loanType;
+
+    @Column(name = "branch_code", nullable = false, length = 20)
+    private String branchCode; // UNASSIGNED when the loan has none
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private LoanStatus status;
+
+    @Column(name = "outstanding_principal", precision = 19, scale = 4, nullable = false)
+    private BigDecimal outstandingPrincipal;
+
+    @Column(name = "emi_amount", precision = 19, scale = 4, nullable = false)
+    private BigDecimal emiAmount;
+
+    @Column(name = "oldest_unpaid_due_date")
+    private LocalDate oldestUnpaidDueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dpd_bucket", nullable = false, length = 10)
+    private DpdBucket dpdBucket;
+
+    @Column(name = "bucket_until")
+    private LocalDate bucketUntil; // first day the loan belongs in the next bucket if still unpaid
+
+    @Column(name = "source_updated_at")
+    private LocalDateTime sourceUpdatedAt; // loans.updated_at this row was built from
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
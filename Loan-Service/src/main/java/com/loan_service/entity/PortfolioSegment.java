@@ -0,0 +1,63 @@
+package com.loan_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.loan_service.enums.DpdBucket;
+import com.loan_service.enums.LoanType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Live loans per product, DPD bucket and branch. Product, bucket and
+ * branch views are folded from these rows, whose count does not grow with
+ * the book.
+ */
+@Entity
+@Table(name = "portfolio_segments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_portfolio_segment", columnNames = {"loan_type", "dpd_bucket", "branch_code"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSegment {
+	@Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "loan_type", nullable = false, length = 30)
+    private LoanType loanType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dpd_bucket", nullable = false, length = 10)
+    private DpdBucket dpdBucket;
+
+    @Column(name = "branch_code", nullable = false, length = 20)
+    private String branchCode;
+
+    @Column(name = "loans", nullable = false)
+    private Long loans;
+
+    @Column(name = "outstanding", precision = 21, scale = 4, nullable = false)
+    private BigDecimal outstanding;
+
+    @Column(name = "monthly_emi", precision = 21, scale = 4, nullable = false)
+    private BigDecimal monthlyEmi;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,43 @@
+package com.loan_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A borrower's live loans in one row, read by the loan summary endpoint.
+ */
+@Entity
+@Table(name = "portfolio_user_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioUserSummary {
+	@Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "active_loans", nullable = false)
+    private Long activeLoans; // ACTIVE and OVERDUE
+
+    @Column(name = "total_outstanding", precision = 21, scale = 4, nullable = false)
+    private BigDecimal totalOutstanding; // over ACTIVE and OVERDUE
+
+    @Column(name = "total_monthly_emi", precision = 21, scale = 4, nullable = false)
+    private BigDecimal totalMonthlyEmi; // over ACTIVE
+
+    @Column(name = "delinquent_loans", nullable = false)
+    private Long delinquentLoans; // OVERDUE and DEFAULTED
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
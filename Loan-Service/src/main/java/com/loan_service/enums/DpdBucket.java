@@ -0,0 +1,12 @@
+package com.loan_service.enums;
+
+/**
+ * Days past due on a loan's oldest unpaid installment. DPD_90 is the NPA
+ * bucket.
+ */
+public enum DpdBucket {
+	DPD_0, // current, or under 30 days past due
+    DPD_30,
+    DPD_60,
+    DPD_90
+}
@@ -0,0 +1,6 @@
+package com.loan_service.enums;
+
+public enum PrepaymentMode {
+    REDUCE_EMI,
+    REDUCE_TENURE
+}
@@ -0,0 +1,7 @@
+package com.loan_service.enums;
+
+public enum ReminderStage {
+	UPCOMING,
+    DUE_TODAY,
+    OVERDUE
+}
@@ -0,0 +1,6 @@
+package com.loan_service.enums;
+
+public enum RepricingMode {
+    NEW_EMI,
+    NEW_TENURE
+}
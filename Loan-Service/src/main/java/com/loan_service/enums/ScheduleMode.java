@@ -0,0 +1,6 @@
+package com.loan_service.enums;
+
+public enum ScheduleMode {
+    MATERIALIZED,
+    COMPUTED
+}
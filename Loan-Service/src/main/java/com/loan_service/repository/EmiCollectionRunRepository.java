@@ -0,0 +1,79 @@
+package com.loan_service.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.loan_service.entity.EmiCollectionRun;
+import com.loan_service.enums.EmiCollectionRunStatus;
+
+public interface EmiCollectionRunRepository extends JpaRepository<EmiCollectionRun, Long>{
+	Optional<EmiCollectionRun> findByDueDate(LocalDate dueDate);
+
+	/**
+	 * Takes over a failed run, or one whose owner stopped heartbeating.
+	 * Returns 0 when the run is completed, still held by a live owner or
+	 * out of attempts.
+	 */
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE EmiCollectionRun r SET r.owner = :owner, r.status = :running, " +
+	       "r.attempt = r.attempt + 1, r.heartbeatAt = :now, r.lastEmiId = null, r.lastError = null " +
+	       "WHERE r.dueDate = :dueDate AND r.attempt < :maxAttempts AND (r.status = :failed " +
+	       "OR (r.status = :running AND r.heartbeatAt < :staleBefore))")
+	int takeOver(
+	    @Param("dueDate") LocalDate dueDate,
+	    @Param("owner") String owner,
+	    @Param("now") LocalDateTime now,
+	    @Param("staleBefore") LocalDateTime staleBefore,
+	    @Param("maxAttempts") int maxAttempts,
+	    @Param("running") EmiCollectionRunStatus running,
+	    @Param("failed") EmiCollectionRunStatus failed
+	);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE EmiCollectionRun r SET r.claimed = r.claimed + :claimed, " +
+	       "r.lastEmiId = :lastEmiId, r.heartbeatAt = :now WHERE r.id = :id")
+	int recordClaim(
+	    @Param("id") Long id,
+	    @Param("claimed") long claimed,
+	    @Param("lastEmiId") Long lastEmiId,
+	    @Param("now") LocalDateTime now
+	);
+
+	// Joins the chunk's transaction so the totals commit with the outcomes
+	@Transactional
+	@Modifying
+	@Query("UPDATE EmiCollectionRun r SET r.paid = r.paid + :paid, r.bounced = r.bounced + :bounced, " +
+	       "r.heartbeatAt = :now WHERE r.id = :id")
+	int recordChunk(
+	    @Param("id") Long id,
+	    @Param("paid") long paid,
+	    @Param("bounced") long bounced,
+	    @Param("now") LocalDateTime now
+	);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE EmiCollectionRun r SET r.failedChunks = r.failedChunks + 1, " +
+	       "r.lastError = :error WHERE r.id = :id")
+	int recordFailedChunk(@Param("id") Long id, @Param("error") String error);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE EmiCollectionRun r SET r.status = :status, r.finishedAt = :now, " +
+	       "r.heartbeatAt = :now, r.lastError = COALESCE(:error, r.lastError) WHERE r.id = :id")
+	int finish(
+	    @Param("id") Long id,
+	    @Param("status") EmiCollectionRunStatus status,
+	    @Param("now") LocalDateTime now,
+	    @Param("error") String error
+	);
+}
@@ -0,0 +1,202 @@
+package com.loan_service.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Reducing-balance EMI and schedule arithmetic on longs, in paise, giving
+ * the same answers as the BigDecimal code in {@link EmiCalculatorService}
+ * and the EMI schedule generator, to the paisa.
+ *
+ * Rounding policy, identical to the BigDecimal path:
+ * <ul>
+ * <li>monthly rate = annual rate / 1200, rounded half-up to 10 decimals;
+ *     it is carried as a long in units of 1e-10 ("rate units")</li>
+ * <li>EMI = P * m * (1+m)^n / ((1+m)^n - 1), rounded half-up to the paisa</li>
+ * <li>each month's interest = outstanding * m, rounded half-up to the
+ *     paisa; principal = EMI - interest, except that the last month takes
+ *     whatever principal is left</li>
+ * </ul>
+ *
+ * The annuity factor m(1+m)^n/((1+m)^n - 1) is precomputed once per
+ * monthly rate for every tenure up to {@link #MAX_TENURE_MONTHS}. Each
+ * factor is stored as a long in units of 1e-18 and is within 2 units of
+ * the exact value. An EMI is then a 64x64-bit product, split so that
+ * nothing overflows. The result is rounded directly unless the known error
+ * could move it across a half-paisa boundary. That band is under 1e-4 of
+ * a paisa wide even at the largest principal. Inside it, the exact
+ * BigDecimal formula decides, so the result is always the correctly
+ * rounded one.
+ *
+ * Schedule generation fills caller-supplied primitive arrays and allocates
+ * nothing.
+ */
+@Component
+public class AmortizationEngine {
+    public static final int MAX_TENURE_MONTHS = 600;
+    // Rs 10,000 crore
+    public static final long MAX_PRINCIPAL_PAISE = 10_000_000_000_000L;
+
+    private static final long E9 = 1_000_000_000L;
+    private static final long E10 = 10_000_000_000L;
+    private static final long E18 = 1_000_000_000_000_000_000L;
+    private static final long HALF_E18 = E18 / 2;
+    private static final long HALF_E10 = E10 / 2;
+    private static final BigDecimal RATE_DIVISOR = new BigDecimal("1200");
+    private static final BigDecimal MAX_ANNUAL_RATE = new BigDecimal("100");
+    private static final MathContext FACTOR_PRECISION = new MathContext(50, RoundingMode.HALF_EVEN);
+    // Every rate in 0.05% steps up to 51% (about 5 MB); past this, factors are computed uncached
+    private static final int MAX_CACHED_RATES = 1024;
+
+    private final ConcurrentMap<Long, long[]> factorTables = new ConcurrentHashMap<>();
+
+    /**
+     * Annual percentage rate to monthly rate units, rounded exactly as the
+     * BigDecimal path rounds it.
+     */
+    public static long monthlyRateUnits(BigDecimal annualRate) {
+        return annualRate.divide(RATE_DIVISOR, 10, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Whether the long path covers these terms: a positive whole number of
+     * paise below {@link #MAX_PRINCIPAL_PAISE}, a positive rate up to 100%
+     * and a tenure of 1 to {@link #MAX_TENURE_MONTHS} months.
+     */
+    public static boolean supports(BigDecimal principal, BigDecimal annualRate, int tenureMonths) {
+        if (principal == null || annualRate == null || tenureMonths < 1 || tenureMonths > MAX_TENURE_MONTHS) {
+            return false;
+        }
+        if (principal.signum() <= 0 || principal.stripTrailingZeros().scale() > 2
+                || principal.compareTo(BigDecimal.valueOf(MAX_PRINCIPAL_PAISE, 2)) >= 0) {
+            return false;
+        }
+        if (annualRate.signum() <= 0 || annualRate.compareTo(MAX_ANNUAL_RATE) > 0) {
+            return false;
+        }
+        return monthlyRateUnits(annualRate) > 0;
+    }
+
+    public static long toPaise(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * EMI in paise. Callers check {@link #supports} first.
+     */
+    public long emiPaise(long principalPaise, long rateUnits, int tenureMonths) {
+        long factor = factorTable(rateUnits)[tenureMonths];
+
+        // principal * factor / 1e18 as whole paise plus a fraction in 1e-18 paise
+        long p1 = principalPaise / E9;
+        long p0 = principalPaise % E9;
+        long f1 = factor / E9;
+        long f0 = factor % E9;
+        long mid = p1 * f0 + p0 * f1;
+        long whole = p1 * f1 + mid / E9;
+        long fraction = (mid % E9) * E9 + p0 * f0;
+        whole += fraction / E18;
+        fraction %= E18;
+
+        // factor is within 2 units of exact, so the exact product is within 2 * principal units
+        long slack = 2 * principalPaise;
+        if (fraction - slack >= HALF_E18) {
+            return whole + 1;
+        }
+        if (fraction + slack < HALF_E18) {
+            return whole;
+        }
+        return exactEmiPaise(principalPaise, rateUnits, tenureMonths);
+    }
+
+    /**
+     * One month's interest in paise on {@code outstandingPaise}.
+     */
+    public static long interestPaise(long outstandingPaise, long rateUnits) {
+        long magnitude = Math.abs(outstandingPaise);
+        // Split so that the product stays below 2^63: remainder < 1e10, and rate units
+        // are at most 833,333,333 at the 100% cap
+        long high = magnitude / E10;
+        long low = magnitude % E10;
+        long product = low * rateUnits;
+        long interest = high * rateUnits + product / E10;
+        if (product % E10 >= HALF_E10) {
+            interest++;
+        }
+        // Half-up rounds away from zero, so negative balances mirror positive ones
+        return outstandingPaise < 0 ? -interest : interest;
+    }
+
+    /**
+     * Fills the first {@code tenureMonths} slots of each array with that
+     * month's interest, principal and closing outstanding, all in paise.
+     */
+    public static void schedule(long principalPaise, long rateUnits, int tenureMonths, long emiPaise,
+            long[] interest, long[] principal, long[] outstanding) {
+        long remaining = principalPaise;
+        int last = tenureMonths - 1;
+        for (int i = 0; i < tenureMonths; i++) {
+            long monthInterest = interestPaise(remaining, rateUnits);
+            long monthPrincipal = i == last ? remaining : emiPaise - monthInterest;
+            remaining -= monthPrincipal;
+            interest[i] = monthInterest;
+            principal[i] = monthPrincipal;
+            outstanding[i] = remaining;
+        }
+    }
+
+    /**
+     * The exact formula, used only when the long product lands too close to
+     * a half paisa to round safely.
+     */
+    static long exactEmiPaise(long principalPaise, long rateUnits, int tenureMonths) {
+        BigDecimal monthlyRate = BigDecimal.valueOf(rateUnits, 10);
+        BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(tenureMonths);
+        return BigDecimal.valueOf(principalPaise, 2)
+            .multiply(monthlyRate)
+            .multiply(growth)
+            .divide(growth.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP)
+            .movePointRight(2)
+            .longValueExact();
+    }
+
+    private long[] factorTable(long rateUnits) {
+        long[] table = factorTables.get(rateUnits);
+        if (table != null) {
+            return table;
+        }
+        table = buildFactorTable(rateUnits);
+        if (factorTables.size() < MAX_CACHED_RATES) {
+            long[] existing = factorTables.putIfAbsent(rateUnits, table);
+            return existing != null ? existing : table;
+        }
+        return table;
+    }
+
+    /**
+     * Annuity factors for tenures 1..MAX_TENURE_MONTHS, floored to 1e-18.
+     * (1+m)^n is built up at 50 significant digits; after 600 steps its
+     * relative error is still far below 1e-40, so floor(factor * 1e18) is
+     * off by at most one unit.
+     */
+    static long[] buildFactorTable(long rateUnits) {
+        BigDecimal monthlyRate = BigDecimal.valueOf(rateUnits, 10);
+        BigDecimal onePlusRate = BigDecimal.ONE.add(monthlyRate);
+        long[] table = new long[MAX_TENURE_MONTHS + 1];
+        BigDecimal growth = BigDecimal.ONE;
+        for (int n = 1; n <= MAX_TENURE_MONTHS; n++) {
+            growth = growth.multiply(onePlusRate, FACTOR_PRECISION);
+            table[n] = monthlyRate.multiply(growth)
+                .divide(growth.subtract(BigDecimal.ONE), FACTOR_PRECISION)
+                .movePointRight(18)
+                .setScale(0, RoundingMode.FLOOR)
+                .longValueExact();
+        }
+        return table;
+    }
+}
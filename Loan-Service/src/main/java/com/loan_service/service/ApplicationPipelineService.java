@@ -0,0 +1,31 @@
+package com.loan_service.service;
+
+/**
+ * Moves a submitted application through screening and decision. Each stage
+ * is started by a record on its topic, keyed by application number, and
+ * hands over to the next one through the outbox once its transaction
+ * commits.
+ */
+public interface ApplicationPipelineService {
+	String SCREENING_TOPIC = "banking.loan.application.screening";
+	String DECISION_TOPIC = "banking.loan.application.decision";
+
+	/**
+	 * Fraud check and credit score for a SUBMITTED application, run side by
+	 * side. Rejects it or moves it to CREDIT_CHECK_COMPLETED in one write.
+	 * Applications already past screening are left alone.
+	 */
+	void screen(String applicationNumber);
+
+	/**
+	 * Eligibility and auto-approval for a screened application: rejects it,
+	 * approves it, or leaves it for an underwriter as DOCUMENTS_PENDING.
+	 */
+	void decide(String applicationNumber);
+
+	/**
+	 * Parks an application whose stage kept failing as UNDER_REVIEW so an
+	 * underwriter picks it up. Applications already decided are left alone.
+	 */
+	void sendToManualReview(String applicationNumber, Exception cause);
+}
@@ -0,0 +1,21 @@
+package com.loan_service.service;
+
+import java.util.List;
+
+import com.loan_service.dto.CreditScoreLookup;
+import com.loan_service.dto.CreditScorePrefetchResponse;
+import com.loan_service.dto.CreditScoreResponse;
+
+public interface CreditScoreCacheService {
+	/**
+	 * The cached score for this user and PAN while it is fresh, otherwise a
+	 * bureau pull. Concurrent lookups for the same pair share one pull.
+	 */
+	CreditScoreResponse getCreditScore(Long userId, String panNumber);
+
+	/**
+	 * Pulls every pair not already cached, a few at a time, so that later
+	 * applications from the list are served from the cache.
+	 */
+	CreditScorePrefetchResponse prefetch(List<CreditScoreLookup> lookups);
+}
@@ -2,6 +2,7 @@ package com.loan_service.service;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import org.springframework.core.ParameterizedTypeReference;
@@ -33,7 +34,8 @@ public class CreditScoringService {
 			Integer score = (Integer) response.get("score");
 			String bureau = (String) response.get("bureau");
 
-			return CreditScoreResponse.builder().score(score).bureau(bureau).rating(getRating(score)).build();
+			return CreditScoreResponse.builder().score(score).bureau(bureau).rating(getRating(score))
+					.fetchedAt(LocalDateTime.now()).build();
 
 		} catch (Exception e) {
 			log.error("Failed to fetch credit score: {}", e.getMessage());
@@ -85,7 +87,8 @@ public class CreditScoringService {
 
 	private CreditScoreResponse creditScoreFallback(Long userId, String panNumber, Exception e) {
 		log.warn("Credit bureau unavailable, using default score");
-		return CreditScoreResponse.builder().score(700).bureau("DEFAULT").rating("FAIR").build();
+		return CreditScoreResponse.builder().score(700).bureau("DEFAULT").rating("FAIR").fallback(true)
+				.fetchedAt(LocalDateTime.now()).build();
 	}
 
 	private String getRating(Integer score) {
@@ -0,0 +1,27 @@
+package com.loan_service.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.loan_service.dto.DelinquencySummary;
+
+public interface DelinquencyService {
+	/**
+	 * Marks unpaid EMIs past the grace period as OVERDUE, accrues days
+	 * overdue and late charges on every overdue EMI as of {@code today},
+	 * and brings each affected loan's missed EMI count, late charges and
+	 * status in line: ACTIVE loans with an overdue EMI become OVERDUE, and
+	 * OVERDUE loans with none left become ACTIVE again. The missed EMI count
+	 * is the number of EMIs overdue right now, so it falls as they are paid.
+	 * Safe to rerun on the same day.
+	 */
+	DelinquencySummary processOverdueEmis(LocalDate today);
+
+	/**
+	 * Moves OVERDUE loans with at least {@code threshold} missed EMIs to
+	 * DEFAULTED.
+	 *
+	 * @return loan numbers that were moved
+	 */
+	List<String> flagDefaultedLoans(int threshold);
+}
@@ -8,11 +8,15 @@ import org.springframework.stereotype.Service;
 import com.loan_service.dto.EmiCalculationResult;
 import com.loan_service.enums.InterestType;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class EmiCalculatorService {
+	private final AmortizationEngine amortizationEngine;
+
 	public EmiCalculationResult calculateEmi(
             BigDecimal principal,
             BigDecimal annualInterestRate,
@@ -36,6 +40,14 @@ public class EmiCalculatorService {
             BigDecimal annualInterestRate,
             Integer tenureMonths) {
         
+        if (AmortizationEngine.supports(principal, annualInterestRate, tenureMonths)) {
+            long emiPaise = amortizationEngine.emiPaise(
+                AmortizationEngine.toPaise(principal),
+                AmortizationEngine.monthlyRateUnits(annualInterestRate),
+                tenureMonths);
+            return reducingBalanceResult(principal, BigDecimal.valueOf(emiPaise, 2), tenureMonths);
+        }
+        
         // Monthly interest rate
         BigDecimal monthlyRate = annualInterestRate
             .divide(new BigDecimal("1200"), 10, RoundingMode.HALF_UP);
@@ -48,6 +60,14 @@ public class EmiCalculatorService {
         BigDecimal denominator = onePlusRPowerN.subtract(BigDecimal.ONE);
         
         BigDecimal emiAmount = numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+        return reducingBalanceResult(principal, emiAmount, tenureMonths);
+    }
+
+    private EmiCalculationResult reducingBalanceResult(
+            BigDecimal principal,
+            BigDecimal emiAmount,
+            Integer tenureMonths) {
+        
         BigDecimal totalPayment = emiAmount.multiply(new BigDecimal(tenureMonths));
         BigDecimal totalInterest = totalPayment.subtract(principal);
         
@@ -107,6 +127,46 @@ public class EmiCalculatorService {
             .build();
     }
 
+    /**
+     * Fewest reducing-balance installments whose EMI is at most
+     * {@code emiAmount}, or null if that takes more than
+     * {@code maxTenureMonths} (including when the EMI does not even cover
+     * a month's interest).
+     */
+    public Integer calculateTenureForEmi(
+            BigDecimal principal,
+            BigDecimal annualInterestRate,
+            BigDecimal emiAmount,
+            int maxTenureMonths) {
+
+        BigDecimal monthlyRate = annualInterestRate
+            .divide(new BigDecimal("1200"), 10, RoundingMode.HALF_UP);
+        if (emiAmount.compareTo(principal.multiply(monthlyRate)) <= 0) {
+            return null;
+        }
+
+        // n = -ln(1 - P*r/EMI) / ln(1+r), which can be a month off once the EMI is rounded
+        double r = monthlyRate.doubleValue();
+        double estimate = -Math.log1p(-principal.doubleValue() * r / emiAmount.doubleValue()) / Math.log1p(r);
+        if (estimate > maxTenureMonths + 1) {
+            return null;
+        }
+        int tenure = Math.max(1, (int) Math.ceil(estimate));
+        while (tenure > 1 && reducingBalanceEmi(principal, annualInterestRate, tenure - 1)
+                .compareTo(emiAmount) <= 0) {
+            tenure--;
+        }
+        while (tenure <= maxTenureMonths && reducingBalanceEmi(principal, annualInterestRate, tenure)
+                .compareTo(emiAmount) > 0) {
+            tenure++;
+        }
+        return tenure <= maxTenureMonths ? tenure : null;
+    }
+
+    private BigDecimal reducingBalanceEmi(BigDecimal principal, BigDecimal annualInterestRate, int tenureMonths) {
+        return calculateReducingBalanceEmi(principal, annualInterestRate, tenureMonths).getEmiAmount();
+    }
+
     public BigDecimal calculateLatePaymentCharges(
             BigDecimal emiAmount,
             Integer daysOverdue,
@@ -0,0 +1,22 @@
+package com.loan_service.service;
+
+import java.time.LocalDate;
+
+import com.loan_service.dto.EmiCollectionRunResponse;
+
+public interface EmiCollectionService {
+	/**
+	 * Auto-debits every scheduled EMI due on {@code dueDate}. Resumes a
+	 * failed or abandoned run for the date; returns the current state
+	 * without doing anything if the run completed or is held elsewhere.
+	 */
+	EmiCollectionRunResponse collect(LocalDate dueDate);
+
+	/**
+	 * Picks up the run for {@code dueDate} if it failed or its owner died.
+	 * Never starts a run that has not been started yet.
+	 */
+	void resume(LocalDate dueDate);
+
+	EmiCollectionRunResponse getRun(LocalDate dueDate);
+}
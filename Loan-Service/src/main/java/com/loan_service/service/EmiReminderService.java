@@ -0,0 +1,16 @@
+package com.loan_service.service;
+
+import java.time.LocalDate;
+
+import com.loan_service.dto.EmiReminderSummary;
+
+public interface EmiReminderService {
+	/**
+	 * Reminds every live loan with an installment coming up, due
+	 * {@code today}, or overdue by one of the configured day counts, in
+	 * batches of notifications for notification-service. A loan gets at
+	 * most one reminder per day, the most urgent one, so a rerun only
+	 * sends what an earlier run missed.
+	 */
+	EmiReminderSummary sendReminders(LocalDate today);
+}
@@ -0,0 +1,46 @@
+package com.loan_service.service;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import com.loan_service.dto.EmiScheduleResponse;
+import com.loan_service.entity.Loan;
+
+public interface EmiScheduleService {
+	/**
+	 * Sets up the schedule of a loan being disbursed. MATERIALIZED loans get
+	 * every installment stored now; COMPUTED loans get none until they fall
+	 * due. The caller saves the loan.
+	 */
+	void initializeSchedule(Loan loan);
+
+	/**
+	 * Stores this loan's installments due on or before {@code asOf}. A
+	 * no-op for MATERIALIZED loans. The caller holds the loan's row lock
+	 * and saves the loan.
+	 */
+	void materializeDue(Loan loan, LocalDate asOf);
+
+	/**
+	 * Stores every COMPUTED loan's installments due on or before
+	 * {@code asOf}, in batches.
+	 *
+	 * @return number of installments stored
+	 */
+	int materializeDueInstallments(LocalDate asOf);
+
+	/**
+	 * Re-amortizes the installments not yet due over the loan's current
+	 * outstanding principal and rate, and sets the new EMI on the loan.
+	 * Installments already due keep their stored values. A MATERIALIZED
+	 * loan drops its future rows and becomes COMPUTED. The caller saves
+	 * the loan.
+	 */
+	void reamortize(Loan loan, LocalDate asOf);
+
+	/**
+	 * Stored installments followed by the computed ones still to come, in
+	 * installment order.
+	 */
+	Stream<EmiScheduleResponse> streamSchedule(Loan loan);
+}
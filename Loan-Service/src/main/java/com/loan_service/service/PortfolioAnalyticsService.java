@@ -0,0 +1,34 @@
+package com.loan_service.service;
+
+import java.time.LocalDate;
+
+import com.loan_service.dto.LoanSummaryResponse;
+import com.loan_service.dto.PortfolioAnalyticsResponse;
+import com.loan_service.dto.PortfolioRefreshSummary;
+
+public interface PortfolioAnalyticsService {
+	/**
+	 * Folds loans changed since the last refresh, and loans whose DPD
+	 * bucket moves as of {@code today}, into the read model. Rebuilds it
+	 * instead when it has never been built.
+	 */
+	PortfolioRefreshSummary refresh(LocalDate today);
+
+	/**
+	 * Recomputes the read model from the loan book and reports how far the
+	 * incremental aggregates had drifted.
+	 */
+	PortfolioRefreshSummary rebuild(LocalDate today);
+
+	/**
+	 * Exposure by product, DPD bucket and branch, with NPA ratios. Reads
+	 * the segment aggregates only.
+	 */
+	PortfolioAnalyticsResponse getPortfolio();
+
+	/**
+	 * The borrower's live loans as of the last refresh. Credit utilization
+	 * is left to the caller.
+	 */
+	LoanSummaryResponse getUserSummary(Long userId);
+}
@@ -0,0 +1,13 @@
+package com.loan_service.service;
+
+import com.loan_service.dto.PrepaymentSimulationRequest;
+import com.loan_service.dto.PrepaymentSimulationResponse;
+
+public interface PrepaymentSimulationService {
+	/**
+	 * Quotes each what-if scenario against the loan's current schedule
+	 * without changing anything. Results are reused for as long as the
+	 * loan stays at the same version.
+	 */
+	PrepaymentSimulationResponse simulate(String loanNumber, PrepaymentSimulationRequest request, Long userId);
+}
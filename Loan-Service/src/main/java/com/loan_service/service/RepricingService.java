@@ -0,0 +1,15 @@
+package com.loan_service.service;
+
+import com.loan_service.dto.RepricingRequest;
+import com.loan_service.dto.RepricingSummary;
+
+public interface RepricingService {
+	/**
+	 * Moves every live loan linked to the request's benchmark to the new
+	 * benchmark rate plus the loan's spread, re-amortizing the installments
+	 * due after the effective date either to a new EMI or to a new tenure
+	 * at the same EMI. With {@code dryRun} nothing is written and the
+	 * summary reports what the run would change.
+	 */
+	RepricingSummary reprice(RepricingRequest request);
+}
@@ -0,0 +1,222 @@
+package com.loan_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.client.FraudCheckResult;
+import com.loan_service.client.FraudServiceClient;
+import com.loan_service.dto.CreditScoreResponse;
+import com.loan_service.dto.LoanApprovalRequest;
+import com.loan_service.entity.LoanApplication;
+import com.loan_service.enums.ApplicationStatus;
+import com.loan_service.exception.LoanApplicationException;
+import com.loan_service.exception.ResourceNotFoundException;
+import com.loan_service.repository.LoanApplicationRepository;
+import com.loan_service.service.ApplicationPipelineService;
+import com.loan_service.service.CreditScoreCacheService;
+import com.loan_service.service.CreditScoringService;
+import com.loan_service.service.LoanService;
+import com.loan_service.service.OutboxService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Screening and decision as separate consumer stages. The remote calls of
+ * a stage run before its transaction opens, so a slow bureau or fraud
+ * service does not hold a connection, and each stage writes the
+ * application once.
+ *
+ * Stages only act on the status they expect, and the application's
+ * version rejects a concurrent write, so a redelivered record is a no-op.
+ */
+@Slf4j
+@Service
+public class ApplicationPipelineServiceImpl implements ApplicationPipelineService {
+	private static final int MIN_CREDIT_SCORE = 650;
+	private static final int AUTO_APPROVE_SCORE = 750;
+	private static final BigDecimal AUTO_APPROVE_LIMIT = new BigDecimal("500000");
+
+	private final LoanApplicationRepository applicationRepository;
+	private final LoanService loanService;
+	private final CreditScoringService creditScoringService;
+	private final CreditScoreCacheService creditScoreCacheService;
+	private final FraudServiceClient fraudServiceClient;
+	private final OutboxService outboxService;
+	private final TransactionTemplate transactionTemplate;
+	private final ThreadPoolTaskExecutor fraudCheckExecutor;
+	private final MeterRegistry meterRegistry;
+
+	public ApplicationPipelineServiceImpl(LoanApplicationRepository applicationRepository,
+			LoanService loanService,
+			CreditScoringService creditScoringService,
+			CreditScoreCacheService creditScoreCacheService,
+			FraudServiceClient fraudServiceClient,
+			OutboxService outboxService,
+			TransactionTemplate transactionTemplate,
+			@Qualifier("fraudCheckExecutor") ThreadPoolTaskExecutor fraudCheckExecutor,
+			MeterRegistry meterRegistry) {
+		this.applicationRepository = applicationRepository;
+		this.loanService = loanService;
+		this.creditScoringService = creditScoringService;
+		this.creditScoreCacheService = creditScoreCacheService;
+		this.fraudServiceClient = fraudServiceClient;
+		this.outboxService = outboxService;
+		this.transactionTemplate = transactionTemplate;
+		this.fraudCheckExecutor = fraudCheckExecutor;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void screen(String applicationNumber) {
+		long startedAt = System.nanoTime();
+		LoanApplication application = findApplication(applicationNumber);
+		if (application.getStatus() != ApplicationStatus.SUBMITTED) {
+			record("screening", "skipped", startedAt);
+			return;
+		}
+		if (application.getPanNumber() == null) {
+			throw new LoanApplicationException("PAN missing on application");
+		}
+
+		// Neither check depends on the other; the bureau lookup is usually the slower one
+		CompletableFuture<FraudCheckResult> fraudCheck = CompletableFuture.supplyAsync(
+				() -> fraudServiceClient.checkLoanApplication(application.getUserId(),
+						application.getRequestedAmount(), application.getAnnualIncome()),
+				fraudCheckExecutor);
+		CreditScoreResponse creditScore = creditScoreCacheService
+			.getCreditScore(application.getUserId(), application.getPanNumber());
+		FraudCheckResult fraud;
+		try {
+			fraud = fraudCheck.join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException cause ? cause : e;
+		}
+
+		String rejectionReason = fraud.isBlocked() ? "Failed fraud check"
+				: creditScore.getScore() < MIN_CREDIT_SCORE ? "Credit score below minimum requirement"
+				: null;
+
+		String outcome = transactionTemplate.execute(status -> {
+			LoanApplication current = findApplication(applicationNumber);
+			if (current.getStatus() != ApplicationStatus.SUBMITTED) {
+				return "skipped";
+			}
+			current.setFraudScore(fraud.getFraudScore());
+			current.setCreditScore(creditScore.getScore());
+			if (rejectionReason != null) {
+				reject(current, rejectionReason);
+				return "rejected";
+			}
+			current.setStatus(ApplicationStatus.CREDIT_CHECK_COMPLETED);
+			applicationRepository.save(current);
+			outboxService.saveEvent("LOAN_APPLICATION", applicationNumber, "ApplicationScreened",
+					DECISION_TOPIC, Map.of("applicationId", current.getId(), "applicationNumber", applicationNumber));
+			return "screened";
+		});
+		record("screening", outcome, startedAt);
+	}
+
+	@Override
+	public void decide(String applicationNumber) {
+		long startedAt = System.nanoTime();
+		String outcome = transactionTemplate.execute(status -> {
+			LoanApplication application = findApplication(applicationNumber);
+			if (application.getStatus() != ApplicationStatus.CREDIT_CHECK_COMPLETED) {
+				return "skipped";
+			}
+
+			BigDecimal maxEligibleAmount = calculateMaxEligibleAmount(
+				application.getAnnualIncome(),
+				application.getMonthlyObligations()
+			);
+			if (application.getRequestedAmount().compareTo(maxEligibleAmount) > 0) {
+				reject(application, "Requested amount exceeds eligibility");
+				return "rejected";
+			}
+
+			if (application.getCreditScore() >= AUTO_APPROVE_SCORE
+					&& application.getRequestedAmount().compareTo(AUTO_APPROVE_LIMIT) <= 0) {
+				BigDecimal interestRate = creditScoringService.calculateInterestRate(
+					application.getCreditScore(),
+					application.getRequestedAmount(),
+					application.getRequestedTenureMonths()
+				);
+				loanService.approveLoan(LoanApprovalRequest.builder()
+					.applicationId(application.getId())
+					.sanctionedAmount(application.getRequestedAmount())
+					.interestRate(interestRate)
+					.tenureMonths(application.getRequestedTenureMonths())
+					.approvalNotes("Auto-approved based on credit score")
+					.build(), 0L); // System approval
+				return "approved";
+			}
+
+			// Manual review required
+			application.setStatus(ApplicationStatus.DOCUMENTS_PENDING);
+			applicationRepository.save(application);
+			return "documents-pending";
+		});
+		record("decision", outcome, startedAt);
+	}
+
+	@Override
+	public void sendToManualReview(String applicationNumber, Exception cause) {
+		log.error("Application {} failed in the pipeline, sending to manual review: {}", applicationNumber,
+				cause.getMessage(), cause);
+		transactionTemplate.executeWithoutResult(status -> {
+			applicationRepository.findByApplicationNumber(applicationNumber)
+				.filter(application -> application.getStatus() == ApplicationStatus.SUBMITTED
+						|| application.getStatus() == ApplicationStatus.CREDIT_CHECK_COMPLETED)
+				.ifPresent(application -> {
+					application.setStatus(ApplicationStatus.UNDER_REVIEW);
+					application.setReviewNotes("Automated processing failed: " + cause.getMessage());
+					applicationRepository.save(application);
+				});
+		});
+	}
+
+	private void reject(LoanApplication application, String reason) {
+		application.setStatus(ApplicationStatus.REJECTED);
+		application.setRejectionReason(reason);
+		applicationRepository.save(application);
+		outboxService.saveEvent("LOAN_APPLICATION", application.getApplicationNumber(),
+				"LoanApplicationRejected", "banking.loan.applications", application);
+	}
+
+	private LoanApplication findApplication(String applicationNumber) {
+		return applicationRepository.findByApplicationNumber(applicationNumber)
+			.orElseThrow(() -> new ResourceNotFoundException("Application not found"));
+	}
+
+	private void record(String stage, String outcome, long startedAt) {
+		meterRegistry.timer("loan.application.stage", "stage", stage, "outcome", outcome)
+			.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+	}
+
+	private BigDecimal calculateMaxEligibleAmount(
+			BigDecimal annualIncome,
+			BigDecimal monthlyObligations) {
+
+		BigDecimal monthlyIncome = annualIncome.divide(new BigDecimal("12"), 2,
+			RoundingMode.HALF_UP);
+		BigDecimal availableIncome = monthlyIncome.subtract(
+			monthlyObligations != null ? monthlyObligations : BigDecimal.ZERO);
+
+		// Max EMI = 50% of available income
+		BigDecimal maxEmi = availableIncome.multiply(new BigDecimal("0.5"));
+
+		// Calculate max loan for 20 years at 12% interest
+		// Using reducing balance formula rearranged
+		return maxEmi.multiply(new BigDecimal("100")); // Simplified
+	}
+}
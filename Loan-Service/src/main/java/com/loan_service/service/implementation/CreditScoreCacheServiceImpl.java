@@ -0,0 +1,229 @@
+package com.loan_service.service.implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loan_service.dto.CreditScoreLookup;
+import com.loan_service.dto.CreditScorePrefetchResponse;
+import com.loan_service.dto.CreditScoreResponse;
+import com.loan_service.service.CreditScoreCacheService;
+import com.loan_service.service.CreditScoringService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bureau scores in Redis, keyed by user and a hash of the PAN so the PAN
+ * itself never reaches the cache. Bureau pulls are slow and billed per
+ * hit, so:
+ * <ul>
+ * <li>a real score is reused until {@code loan.credit-score.ttl} expires</li>
+ * <li>the circuit breaker's default score is cached for
+ *     {@code fallback-ttl} only, so that an outage does not send every
+ *     retry to the bureau but a real score is pulled soon after it
+ *     recovers</li>
+ * <li>concurrent lookups for the same pair on this instance wait for the
+ *     first one's pull instead of making their own</li>
+ * </ul>
+ *
+ * Redis errors are logged and treated as a miss; the lookup still
+ * completes against the bureau.
+ */
+@Slf4j
+@Service
+public class CreditScoreCacheServiceImpl implements CreditScoreCacheService {
+	private static final String KEY_PREFIX = "loan:credit-score:";
+
+	private final CreditScoringService creditScoringService;
+	private final StringRedisTemplate redisTemplate;
+	private final ObjectMapper objectMapper;
+	private final ThreadPoolTaskExecutor creditBureauExecutor;
+	private final MeterRegistry meterRegistry;
+	private final ConcurrentMap<String, CompletableFuture<CreditScoreResponse>> inFlight = new ConcurrentHashMap<>();
+
+	@Value("${loan.credit-score.ttl:P30D}")
+	private Duration ttl;
+
+	@Value("${loan.credit-score.fallback-ttl:PT5M}")
+	private Duration fallbackTtl;
+
+	@Value("${loan.credit-score.prefetch-batch-size:500}")
+	private int prefetchBatchSize;
+
+	public CreditScoreCacheServiceImpl(CreditScoringService creditScoringService,
+			StringRedisTemplate redisTemplate,
+			ObjectMapper objectMapper,
+			@Qualifier("creditBureauExecutor") ThreadPoolTaskExecutor creditBureauExecutor,
+			MeterRegistry meterRegistry) {
+		this.creditScoringService = creditScoringService;
+		this.redisTemplate = redisTemplate;
+		this.objectMapper = objectMapper;
+		this.creditBureauExecutor = creditBureauExecutor;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public CreditScoreResponse getCreditScore(Long userId, String panNumber) {
+		String key = key(userId, panNumber);
+		CreditScoreResponse cached = read(key);
+		if (cached != null) {
+			count("hit");
+			return cached;
+		}
+
+		CompletableFuture<CreditScoreResponse> pull = new CompletableFuture<>();
+		CompletableFuture<CreditScoreResponse> leader = inFlight.putIfAbsent(key, pull);
+		if (leader != null) {
+			count("coalesced");
+			try {
+				return leader.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException cause ? cause : e;
+			}
+		}
+
+		try {
+			// Another instance, or a pull that finished just before ours started, may have filled it
+			CreditScoreResponse result = read(key);
+			if (result == null) {
+				count("miss");
+				result = creditScoringService.fetchCreditScore(userId, panNumber);
+				write(key, result);
+			} else {
+				count("hit");
+			}
+			pull.complete(result);
+			return result;
+		} catch (RuntimeException e) {
+			pull.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, pull);
+		}
+	}
+
+	@Override
+	public CreditScorePrefetchResponse prefetch(List<CreditScoreLookup> lookups) {
+		long startedAt = System.nanoTime();
+
+		// Campaign lists repeat customers
+		Map<String, CreditScoreLookup> byKey = new LinkedHashMap<>();
+		for (CreditScoreLookup lookup : lookups) {
+			byKey.putIfAbsent(key(lookup.getUserId(), lookup.getPanNumber()), lookup);
+		}
+
+		List<String> keys = new ArrayList<>(byKey.keySet());
+		List<CreditScoreLookup> missing = new ArrayList<>();
+		for (int from = 0; from < keys.size(); from += prefetchBatchSize) {
+			List<String> page = keys.subList(from, Math.min(from + prefetchBatchSize, keys.size()));
+			List<String> values = readAll(page);
+			for (int i = 0; i < page.size(); i++) {
+				if (values == null || values.get(i) == null) {
+					missing.add(byKey.get(page.get(i)));
+				}
+			}
+		}
+
+		// Bounded by the bureau executor; once it is full the caller pulls too
+		List<CompletableFuture<CreditScoreResponse>> pulls = missing.stream()
+			.map(lookup -> CompletableFuture.supplyAsync(
+					() -> getCreditScore(lookup.getUserId(), lookup.getPanNumber()), creditBureauExecutor))
+			.toList();
+
+		int fetched = 0;
+		int fallbacks = 0;
+		int failed = 0;
+		for (CompletableFuture<CreditScoreResponse> pull : pulls) {
+			try {
+				if (pull.join().isFallback()) {
+					fallbacks++;
+				} else {
+					fetched++;
+				}
+			} catch (CompletionException e) {
+				failed++;
+				log.warn("Credit score prefetch failed: {}", e.getCause().getMessage());
+			}
+		}
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+		log.info("Credit score prefetch: {} requested, {} distinct, {} cached, {} fetched, {} fallbacks, "
+				+ "{} failed in {}ms", lookups.size(), keys.size(), keys.size() - missing.size(), fetched,
+				fallbacks, failed, elapsed);
+
+		return CreditScorePrefetchResponse.builder()
+			.requested(lookups.size())
+			.distinct(keys.size())
+			.alreadyCached(keys.size() - missing.size())
+			.fetched(fetched)
+			.fallbacks(fallbacks)
+			.failed(failed)
+			.elapsedMillis(elapsed)
+			.build();
+	}
+
+	private CreditScoreResponse read(String key) {
+		try {
+			String json = redisTemplate.opsForValue().get(key);
+			return json != null ? objectMapper.readValue(json, CreditScoreResponse.class) : null;
+		} catch (Exception e) {
+			log.warn("Credit score cache read failed: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private List<String> readAll(List<String> keys) {
+		try {
+			return redisTemplate.opsForValue().multiGet(keys);
+		} catch (Exception e) {
+			log.warn("Credit score cache read failed: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private void write(String key, CreditScoreResponse score) {
+		try {
+			redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(score),
+					score.isFallback() ? fallbackTtl : ttl);
+			if (score.isFallback()) {
+				count("fallback");
+			}
+		} catch (Exception e) {
+			log.warn("Credit score cache write failed: {}", e.getMessage());
+		}
+	}
+
+	private void count(String result) {
+		meterRegistry.counter("loan.credit-score.lookups", "result", result).increment();
+	}
+
+	private static String key(Long userId, String panNumber) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+				.digest(panNumber.trim().toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+			return KEY_PREFIX + userId + ":" + HexFormat.of().formatHex(digest, 0, 16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.loan_service.service.implementation;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.loan_service.dto.DelinquencySummary;
+import com.loan_service.service.DelinquencyService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delinquency bookkeeping as a handful of set-based statements instead of
+ * loading every overdue EMI and its loan. Each statement only touches rows
+ * whose values actually change, so a rerun on the same day writes nothing.
+ *
+ * Late charges use the same formula as
+ * {@link com.loan_service.service.EmiCalculatorService#calculateLatePaymentCharges}:
+ * EMI * penalty rate * days overdue / 3000, rounded half-up to paise.
+ * Postgres ROUND on numeric rounds half away from zero, which is half-up for
+ * these non-negative amounts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DelinquencyServiceImpl implements DelinquencyService {
+    private static final String LIVE_LOAN = "('ACTIVE', 'OVERDUE', 'DEFAULTED')";
+
+    private static final String MARK_OVERDUE_SQL =
+            "UPDATE emi_schedules SET status = 'OVERDUE', version = version + 1 " +
+            "WHERE due_date < ? AND status IN ('SCHEDULED', 'PENDING', 'BOUNCED')";
+
+    private static final String ACCRUE_SQL =
+            "UPDATE emi_schedules e SET " +
+            "days_overdue = ?::date - e.due_date, " +
+            "late_payment_charges = ROUND(e.emi_amount * COALESCE(l.late_payment_penalty_rate, 0) " +
+            "* (?::date - e.due_date) / 3000, 2), " +
+            "version = e.version + 1 " +
+            "FROM loans l " +
+            "WHERE l.id = e.loan_id AND e.status = 'OVERDUE' AND l.status IN " + LIVE_LOAN + " " +
+            "AND e.days_overdue IS DISTINCT FROM (?::date - e.due_date)";
+
+    private static final String MOVE_TO_OVERDUE_SQL =
+            "UPDATE loans l SET status = 'OVERDUE', updated_at = now(), version = l.version + 1 " +
+            "WHERE l.status = 'ACTIVE' " +
+            "AND EXISTS (SELECT 1 FROM emi_schedules e WHERE e.loan_id = l.id AND e.status = 'OVERDUE')";
+
+    // OVERDUE loans whose overdue EMIs have all been paid are current again. DEFAULTED loans
+    // stay defaulted; leaving that state is a recovery decision, not bookkeeping.
+    private static final String CURE_SQL =
+            "UPDATE loans l SET status = 'ACTIVE', updated_at = now(), version = l.version + 1 " +
+            "WHERE l.status = 'OVERDUE' " +
+            "AND NOT EXISTS (SELECT 1 FROM emi_schedules e WHERE e.loan_id = l.id AND e.status = 'OVERDUE')";
+
+    // missed_emis is the number of EMIs currently overdue, not a lifetime count: an EMI is
+    // missed once however long it stays unpaid, and stops counting once it is paid.
+    // Driven from the live loans so a loan whose overdue EMIs have all been paid drops back to zero
+    private static final String AGGREGATE_SQL =
+            "UPDATE loans l SET missed_emis = t.missed, total_late_payment_charges = t.charges, " +
+            "updated_at = now(), version = l.version + 1 " +
+            "FROM (SELECT x.id, COALESCE(a.missed, 0) AS missed, COALESCE(a.charges, 0) AS charges " +
+            "      FROM loans x LEFT JOIN (" +
+            "        SELECT loan_id, COUNT(*) AS missed, SUM(late_payment_charges) AS charges " +
+            "        FROM emi_schedules WHERE status = 'OVERDUE' GROUP BY loan_id) a ON a.loan_id = x.id " +
+            "      WHERE x.status IN " + LIVE_LOAN + ") t " +
+            "WHERE l.id = t.id " +
+            "AND (l.missed_emis IS DISTINCT FROM t.missed " +
+            "OR l.total_late_payment_charges IS DISTINCT FROM t.charges)";
+
+    private static final String DEFAULT_SQL =
+            "UPDATE loans SET status = 'DEFAULTED', updated_at = now(), version = version + 1 " +
+            "WHERE status = 'OVERDUE' AND missed_emis >= ? " +
+            "RETURNING loan_number";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.delinquency.grace-days:1}")
+    private int graceDays;
+
+    @Override
+    @Transactional
+    public DelinquencySummary processOverdueEmis(LocalDate today) {
+        Date asOf = Date.valueOf(today);
+
+        int newlyOverdue = jdbcTemplate.update(MARK_OVERDUE_SQL, Date.valueOf(today.minusDays(graceDays)));
+        int accrued = jdbcTemplate.update(ACCRUE_SQL, asOf, asOf, asOf);
+        int movedToOverdue = jdbcTemplate.update(MOVE_TO_OVERDUE_SQL);
+        int cured = jdbcTemplate.update(CURE_SQL);
+        int loansUpdated = jdbcTemplate.update(AGGREGATE_SQL);
+
+        meterRegistry.counter("loan.delinquency.emis.overdue").increment(newlyOverdue);
+        meterRegistry.counter("loan.delinquency.loans.overdue").increment(movedToOverdue);
+        meterRegistry.counter("loan.delinquency.loans.cured").increment(cured);
+
+        log.info("Delinquency as of {}: {} EMIs newly overdue, {} accrued, {} loans moved to OVERDUE, "
+            + "{} cured back to ACTIVE, {} loans updated",
+            today, newlyOverdue, accrued, movedToOverdue, cured, loansUpdated);
+
+        return DelinquencySummary.builder()
+            .asOf(today)
+            .newlyOverdueEmis(newlyOverdue)
+            .accruedEmis(accrued)
+            .loansUpdated(loansUpdated)
+            .loansMovedToOverdue(movedToOverdue)
+            .loansCured(cured)
+            .build();
+    }
+
+    @Override
+    @Transactional
+    public List<String> flagDefaultedLoans(int threshold) {
+        List<String> defaulted = jdbcTemplate.queryForList(DEFAULT_SQL, String.class, threshold);
+
+        if (!defaulted.isEmpty()) {
+            meterRegistry.counter("loan.delinquency.loans.defaulted").increment(defaulted.size());
+            log.warn("{} loans marked as defaulted", defaulted.size());
+            log.debug("Defaulted loans: {}", defaulted);
+        }
+        return defaulted;
+    }
+}
@@ -0,0 +1,409 @@
+package com.loan_service.service.implementation;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.client.AccountServiceClient;
+import com.loan_service.dto.EmiCollectionRunResponse;
+import com.loan_service.entity.EmiCollectionRun;
+import com.loan_service.enums.EmiCollectionRunStatus;
+import com.loan_service.exception.ResourceNotFoundException;
+import com.loan_service.repository.EmiCollectionRunRepository;
+import com.loan_service.service.EmiCollectionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects a due date's EMIs in chunks:
+ * 1. The calling thread pages through SCHEDULED (and, on resume, PENDING)
+ *    EMIs by id and claims each page as PENDING in its own short
+ *    transaction, skipping rows another transaction has locked
+ * 2. Each chunk goes to a worker, which debits its EMIs one by one. Calls
+ *    to account-service are capped across all workers, and no transaction
+ *    is open while they are in flight
+ * 3. The worker writes the chunk's outcomes with JDBC batches in one
+ *    transaction, together with the run totals
+ *
+ * A debit failure bounces only that EMI; a failed chunk leaves its EMIs
+ * PENDING and the rest of the run carries on. Committed chunks are the
+ * checkpoint. A rerun for the same date pages from the start again, but
+ * only PAID/BOUNCED rows drop out of the scan, so it picks up exactly the
+ * EMIs that never resolved. Debit references are stable
+ * ({@code <loan>-EMI-<n>}) so account-service can recognise a repeat
+ * debit for an EMI whose outcome was lost.
+ */
+@Slf4j
+@Service
+public class EmiCollectionServiceImpl implements EmiCollectionService {
+    private static final String CLAIM_SQL =
+            "SELECT e.id, e.loan_id, e.emi_number, e.emi_amount, e.principal_component, " +
+            "l.loan_number, l.account_id " +
+            "FROM emi_schedules e JOIN loans l ON l.id = e.loan_id " +
+            "WHERE e.due_date = ? AND e.status IN ('SCHEDULED', 'PENDING') AND e.id > ? " +
+            "AND l.status IN ('ACTIVE', 'OVERDUE') " +
+            "ORDER BY e.id LIMIT ? " +
+            "FOR UPDATE OF e SKIP LOCKED";
+
+    private static final String MARK_PENDING_SQL =
+            "UPDATE emi_schedules SET status = 'PENDING', version = version + 1 " +
+            "WHERE id = ANY (?) AND status = 'SCHEDULED'";
+
+    private static final String MARK_PAID_SQL =
+            "UPDATE emi_schedules SET status = 'PAID', paid_amount = emi_amount, paid_date = ?, " +
+            "payment_reference = ?, version = version + 1 " +
+            "WHERE id = ? AND status = 'PENDING'";
+
+    private static final String MARK_BOUNCED_SQL =
+            "UPDATE emi_schedules SET status = 'BOUNCED', version = version + 1 " +
+            "WHERE id = ? AND status = 'PENDING'";
+
+    // Same bookkeeping as LoanServiceImpl.processEmiPayment, on the row's current values
+    private static final String APPLY_PAYMENT_SQL =
+            "UPDATE loans SET " +
+            "outstanding_principal = outstanding_principal - ?, " +
+            "total_paid = COALESCE(total_paid, 0) + ?, " +
+            "paid_emis = COALESCE(paid_emis, 0) + 1, " +
+            "remaining_tenure_months = remaining_tenure_months - 1, " +
+            "next_emi_date = CASE WHEN COALESCE(paid_emis, 0) + 1 < total_emis THEN ? ELSE next_emi_date END, " +
+            "status = CASE WHEN COALESCE(paid_emis, 0) + 1 < total_emis THEN status ELSE 'CLOSED' END, " +
+            "closed_date = CASE WHEN COALESCE(paid_emis, 0) + 1 < total_emis THEN closed_date ELSE ? END, " +
+            "updated_at = now(), version = version + 1 " +
+            "WHERE id = ?";
+
+    private final EmiCollectionRunRepository runRepository;
+    private final AccountServiceClient accountServiceClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor emiCollectionExecutor;
+    private final MeterRegistry meterRegistry;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Value("${loan.emi-collection.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${loan.emi-collection.workers:8}")
+    private int workers;
+
+    @Value("${loan.emi-collection.lease-timeout:PT10M}")
+    private Duration leaseTimeout;
+
+    @Value("${loan.emi-collection.max-attempts:5}")
+    private int maxAttempts;
+
+    private final Semaphore accountServicePermits;
+
+    public EmiCollectionServiceImpl(EmiCollectionRunRepository runRepository,
+            AccountServiceClient accountServiceClient,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("emiCollectionExecutor") ThreadPoolTaskExecutor emiCollectionExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${loan.emi-collection.account-service-concurrency:6}") int accountServiceConcurrency) {
+        this.runRepository = runRepository;
+        this.accountServiceClient = accountServiceClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.emiCollectionExecutor = emiCollectionExecutor;
+        this.meterRegistry = meterRegistry;
+        this.accountServicePermits = new Semaphore(accountServiceConcurrency);
+    }
+
+    @Override
+    public EmiCollectionRunResponse collect(LocalDate dueDate) {
+        EmiCollectionRun run = acquire(dueDate);
+        if (run == null) {
+            EmiCollectionRunResponse current = getRun(dueDate);
+            log.info("EMI collection for {} not started here: status={}, owner={}",
+                    dueDate, current.getStatus(), current.getOwner());
+            return current;
+        }
+
+        log.info("EMI collection for {} started: attempt={}, owner={}", dueDate, run.getAttempt(), owner);
+        long startedAt = System.nanoTime();
+        RunTotals totals = new RunTotals();
+        String error = null;
+
+        try {
+            claimAndDispatch(run, dueDate, totals);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("EMI collection for {} aborted: {}", dueDate, e.getMessage(), e);
+            error = e.toString();
+        }
+
+        EmiCollectionRunStatus status = error == null && totals.failedChunks == 0
+                ? EmiCollectionRunStatus.COMPLETED
+                : EmiCollectionRunStatus.FAILED;
+        runRepository.finish(run.getId(), status, LocalDateTime.now(), error);
+
+        long elapsed = System.nanoTime() - startedAt;
+        double seconds = Math.max(elapsed / 1e9, 0.001);
+        meterRegistry.timer("loan.emi.collection.run", "status", status.name())
+                .record(elapsed, TimeUnit.NANOSECONDS);
+
+        log.info("EMI collection for {} {}: claimed={}, paid={}, bounced={}, failedChunks={} in {}ms ({} EMIs/s)",
+                dueDate, status, totals.claimed, totals.paid, totals.bounced, totals.failedChunks,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(totals.claimed / seconds));
+
+        EmiCollectionRunResponse response = getRun(dueDate);
+        response.setExecuted(true);
+        response.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        response.setEmisPerSecond(totals.claimed / seconds);
+        return response;
+    }
+
+    @Override
+    public void resume(LocalDate dueDate) {
+        runRepository.findByDueDate(dueDate)
+                .filter(run -> run.getStatus() != EmiCollectionRunStatus.COMPLETED)
+                .filter(run -> run.getAttempt() < maxAttempts)
+                .ifPresent(run -> collect(dueDate));
+    }
+
+    @Override
+    public EmiCollectionRunResponse getRun(LocalDate dueDate) {
+        EmiCollectionRun run = runRepository.findByDueDate(dueDate)
+                .orElseThrow(() -> new ResourceNotFoundException("No EMI collection run for " + dueDate));
+        return EmiCollectionRunResponse.builder()
+                .dueDate(run.getDueDate())
+                .status(run.getStatus())
+                .owner(run.getOwner())
+                .attempt(run.getAttempt())
+                .claimed(run.getClaimed())
+                .paid(run.getPaid())
+                .bounced(run.getBounced())
+                .failedChunks(run.getFailedChunks())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .lastError(run.getLastError())
+                .build();
+    }
+
+    private EmiCollectionRun acquire(LocalDate dueDate) {
+        LocalDateTime now = LocalDateTime.now();
+        if (runRepository.findByDueDate(dueDate).isEmpty()) {
+            try {
+                return runRepository.saveAndFlush(EmiCollectionRun.builder()
+                        .dueDate(dueDate)
+                        .status(EmiCollectionRunStatus.RUNNING)
+                        .owner(owner)
+                        .attempt(1)
+                        .claimed(0L)
+                        .paid(0L)
+                        .bounced(0L)
+                        .failedChunks(0)
+                        .startedAt(now)
+                        .heartbeatAt(now)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the run first
+                return null;
+            }
+        }
+
+        int taken = runRepository.takeOver(dueDate, owner, now, now.minus(leaseTimeout), maxAttempts,
+                EmiCollectionRunStatus.RUNNING, EmiCollectionRunStatus.FAILED);
+        return taken == 1 ? runRepository.findByDueDate(dueDate).orElse(null) : null;
+    }
+
+    private void claimAndDispatch(EmiCollectionRun run, LocalDate dueDate, RunTotals totals)
+            throws InterruptedException {
+        // At most two chunks queued per worker; the claim loop waits for a slot
+        Semaphore chunkSlots = new Semaphore(workers * 2);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        long cursor = 0L;
+
+        try {
+            while (true) {
+                List<EmiDebit> chunk = claimChunk(dueDate, cursor);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                cursor = chunk.get(chunk.size() - 1).emiId();
+                runRepository.recordClaim(run.getId(), chunk.size(), cursor, LocalDateTime.now());
+                totals.addClaimed(chunk.size());
+
+                chunkSlots.acquire();
+                pending.add(CompletableFuture
+                        .runAsync(() -> processChunk(run.getId(), dueDate, chunk, totals), emiCollectionExecutor)
+                        .whenComplete((ignored, e) -> chunkSlots.release()));
+                pending.removeIf(CompletableFuture::isDone);
+            }
+        } finally {
+            // Let dispatched chunks commit before the run is closed, even if claiming failed
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        }
+    }
+
+    private List<EmiDebit> claimChunk(LocalDate dueDate, long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<EmiDebit> chunk = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new EmiDebit(
+                    rs.getLong("id"),
+                    rs.getLong("loan_id"),
+                    rs.getInt("emi_number"),
+                    rs.getBigDecimal("emi_amount"),
+                    rs.getBigDecimal("principal_component"),
+                    rs.getString("loan_number"),
+                    rs.getLong("account_id")),
+                    Date.valueOf(dueDate), afterId, chunkSize);
+
+            if (!chunk.isEmpty()) {
+                Long[] ids = chunk.stream().map(EmiDebit::emiId).toArray(Long[]::new);
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(MARK_PENDING_SQL);
+                    statement.setArray(1, connection.createArrayOf("bigint", ids));
+                    return statement;
+                });
+            }
+            return chunk;
+        });
+    }
+
+    private void processChunk(Long runId, LocalDate dueDate, List<EmiDebit> chunk, RunTotals totals) {
+        List<EmiDebit> paid = new ArrayList<>(chunk.size());
+        List<EmiDebit> bounced = new ArrayList<>();
+
+        try {
+            for (EmiDebit emi : chunk) {
+                if (debit(emi)) {
+                    paid.add(emi);
+                } else {
+                    bounced.add(emi);
+                }
+            }
+
+            int[] applied = transactionTemplate.execute(status -> {
+                int[] counts = applyOutcomes(dueDate, paid, bounced);
+                runRepository.recordChunk(runId, counts[0], counts[1], LocalDateTime.now());
+                return counts;
+            });
+
+            totals.addOutcomes(applied[0], applied[1]);
+            meterRegistry.counter("loan.emi.collection.emis", "outcome", "paid").increment(applied[0]);
+            meterRegistry.counter("loan.emi.collection.emis", "outcome", "bounced").increment(applied[1]);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // The chunk's EMIs stay PENDING for the next attempt
+            log.error("EMI collection chunk for {} failed ({} EMIs from id {}): {}", dueDate, chunk.size(),
+                    chunk.get(0).emiId(), e.getMessage(), e);
+            totals.addFailedChunk();
+            meterRegistry.counter("loan.emi.collection.chunks.failed").increment();
+            runRepository.recordFailedChunk(runId, e.getMessage());
+        }
+    }
+
+    private boolean debit(EmiDebit emi) throws InterruptedException {
+        accountServicePermits.acquire();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            accountServiceClient.debitEmiPayment(emi.accountId(), emi.amount(), emi.reference());
+            return true;
+        } catch (Exception e) {
+            log.warn("EMI auto-debit failed: loan={}, emi={}, error={}",
+                    emi.loanNumber(), emi.emiNumber(), e.getMessage());
+            return false;
+        } finally {
+            sample.stop(meterRegistry.timer("loan.emi.collection.debit"));
+            accountServicePermits.release();
+        }
+    }
+
+    /**
+     * @return paid and bounced EMIs actually written; rows another path
+     *         already resolved are left alone and not counted
+     */
+    private int[] applyOutcomes(LocalDate dueDate, List<EmiDebit> paid, List<EmiDebit> bounced) {
+        Date today = Date.valueOf(LocalDate.now());
+        int paidCount = 0;
+        int bouncedCount = 0;
+
+        if (!paid.isEmpty()) {
+            int[][] marked = jdbcTemplate.batchUpdate(MARK_PAID_SQL, paid, paid.size(), (ps, emi) -> {
+                ps.setDate(1, today);
+                ps.setString(2, emi.reference());
+                ps.setLong(3, emi.emiId());
+            });
+
+            List<EmiDebit> newlyPaid = new ArrayList<>(paid.size());
+            for (int i = 0; i < paid.size(); i++) {
+                if (marked[0][i] != 0) {
+                    newlyPaid.add(paid.get(i));
+                }
+            }
+
+            if (!newlyPaid.isEmpty()) {
+                Date nextEmiDate = Date.valueOf(dueDate.plusMonths(1));
+                jdbcTemplate.batchUpdate(APPLY_PAYMENT_SQL, newlyPaid, newlyPaid.size(), (ps, emi) -> {
+                    ps.setBigDecimal(1, emi.principal());
+                    ps.setBigDecimal(2, emi.amount());
+                    ps.setDate(3, nextEmiDate);
+                    ps.setDate(4, today);
+                    ps.setLong(5, emi.loanId());
+                });
+            }
+            paidCount = newlyPaid.size();
+        }
+
+        if (!bounced.isEmpty()) {
+            int[][] marked = jdbcTemplate.batchUpdate(MARK_BOUNCED_SQL, bounced, bounced.size(),
+                    (ps, emi) -> ps.setLong(1, emi.emiId()));
+            for (int count : marked[0]) {
+                bouncedCount += count != 0 ? 1 : 0;
+            }
+        }
+
+        return new int[] {paidCount, bouncedCount};
+    }
+
+    private record EmiDebit(long emiId, long loanId, int emiNumber, BigDecimal amount,
+            BigDecimal principal, String loanNumber, long accountId) {
+
+        String reference() {
+            return loanNumber + "-EMI-" + emiNumber;
+        }
+    }
+
+    private static final class RunTotals {
+        private long claimed;
+        private long paid;
+        private long bounced;
+        private int failedChunks;
+
+        synchronized void addClaimed(int count) {
+            claimed += count;
+        }
+
+        synchronized void addOutcomes(int paidCount, int bouncedCount) {
+            paid += paidCount;
+            bounced += bouncedCount;
+        }
+
+        synchronized void addFailedChunk() {
+            failedChunks++;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.loan_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.dto.EmiReminderSummary;
+import com.loan_service.enums.ReminderStage;
+import com.loan_service.service.EmiReminderService;
+import com.loan_service.service.OutboxService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMI reminders and dunning, batch by batch in loan id order:
+ * 1. Read the next batch of loans that need a reminder today, one row per
+ *    loan carrying its most urgent installment
+ * 2. Claim them in {@code emi_reminders}; loans already claimed today
+ *    drop out here
+ * 3. Render the claimed loans' messages into one outbox event on the
+ *    notifications topic, which notification-service fans out
+ *
+ * The claim and the event commit together, so a loan is either reminded
+ * and recorded or neither, and a run that fails partway can simply be
+ * run again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmiReminderServiceImpl implements EmiReminderService {
+    private static final String NOTIFICATION_TOPIC = "banking.loan.notifications";
+
+    // Upcoming and due-today come from next_emi_date, since computed schedules do not store future rows
+    private static final String SELECT_BATCH_SQL =
+            "SELECT DISTINCT ON (c.loan_id) c.loan_id, l.loan_number, l.user_id, c.stage, c.due_date, c.amount_due " +
+            "FROM (" +
+            "  SELECT id AS loan_id, 'UPCOMING' AS stage, 0 AS urgency, next_emi_date AS due_date, " +
+            "  emi_amount AS amount_due " +
+            "  FROM loans WHERE next_emi_date = ? AND status IN ('ACTIVE', 'OVERDUE') AND id > ? " +
+            "  UNION ALL " +
+            "  SELECT id, 'DUE_TODAY', 1, next_emi_date, emi_amount " +
+            "  FROM loans WHERE next_emi_date = ? AND status IN ('ACTIVE', 'OVERDUE') AND id > ? " +
+            "  UNION ALL " +
+            "  SELECT loan_id, 'OVERDUE', 1 + (?::date - due_date), due_date, " +
+            "  emi_amount - COALESCE(paid_amount, 0) + COALESCE(late_payment_charges, 0) " +
+            "  + COALESCE(bounce_charges, 0) " +
+            "  FROM emi_schedules WHERE due_date = ANY (?) AND status NOT IN ('PAID', 'WAIVED') AND loan_id > ? " +
+            ") c JOIN loans l ON l.id = c.loan_id " +
+            "WHERE l.status IN ('ACTIVE', 'OVERDUE', 'DEFAULTED') " +
+            "ORDER BY c.loan_id, c.urgency DESC " +
+            "LIMIT ?";
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO emi_reminders (loan_id, reminder_date, stage, due_date, batch_id, created_at) " +
+            "SELECT u.loan_id, ?, u.stage, u.due_date, ?, now() " +
+            "FROM unnest(?, ?, ?) AS u(loan_id, stage, due_date) " +
+            "ON CONFLICT (loan_id, reminder_date) DO NOTHING " +
+            "RETURNING loan_id";
+
+    private static final String CLEANUP_SQL = "DELETE FROM emi_reminders WHERE reminder_date < ?";
+
+    private final OutboxService outboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.reminders.batch-size:500}")
+    private int batchSize;
+
+    @Value("${loan.reminders.upcoming-days:3}")
+    private int upcomingDays;
+
+    @Value("${loan.reminders.overdue-days:1,7,30}")
+    private List<Integer> overdueDays;
+
+    @Value("${loan.reminders.retention-days:90}")
+    private int retentionDays;
+
+    @Override
+    public EmiReminderSummary sendReminders(LocalDate today) {
+        long startedAt = System.nanoTime();
+        RunTotals totals = new RunTotals();
+
+        int purged = jdbcTemplate.update(CLEANUP_SQL, Date.valueOf(today.minusDays(retentionDays)));
+        if (purged > 0) {
+            log.debug("Purged {} EMI reminder records older than {} days", purged, retentionDays);
+        }
+
+        long cursor = 0L;
+        while (true) {
+            long afterId = cursor;
+            Long lastId = transactionTemplate.execute(status -> processBatch(today, afterId, totals));
+            if (lastId == null) {
+                break;
+            }
+            cursor = lastId;
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("EMI reminders for {}: {} loans, {} upcoming, {} due today, {} overdue, {} already sent, "
+            + "{} batches in {}ms", today, totals.evaluated, totals.upcoming, totals.dueToday, totals.overdue,
+            totals.alreadySent, totals.batches, elapsed);
+
+        return EmiReminderSummary.builder()
+            .reminderDate(today)
+            .loansEvaluated(totals.evaluated)
+            .alreadySent(totals.alreadySent)
+            .upcoming(totals.upcoming)
+            .dueToday(totals.dueToday)
+            .overdue(totals.overdue)
+            .batches(totals.batches)
+            .elapsedMillis(elapsed)
+            .build();
+    }
+
+    /**
+     * @return id of the last loan read, or null once there are none left
+     */
+    private Long processBatch(LocalDate today, long afterId, RunTotals totals) {
+        List<Candidate> candidates = selectBatch(today, afterId);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        Set<Long> claimed = claim(candidates, today, batchId);
+
+        List<Map<String, Object>> notifications = new ArrayList<>(claimed.size());
+        for (Candidate candidate : candidates) {
+            if (claimed.contains(candidate.loanId())) {
+                notifications.add(render(candidate, today));
+                totals.count(candidate.stage());
+                meterRegistry.counter("loan.reminders.sent", "stage", candidate.stage().name()).increment();
+            }
+        }
+
+        if (!notifications.isEmpty()) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("batchId", batchId);
+            event.put("reminderDate", today.toString());
+            event.put("count", notifications.size());
+            event.put("notifications", notifications);
+            outboxService.saveEvent("EMI_REMINDER", batchId, "EmiRemindersBatch", NOTIFICATION_TOPIC, event);
+            totals.batches++;
+        }
+
+        totals.evaluated += candidates.size();
+        totals.alreadySent += candidates.size() - claimed.size();
+        return candidates.get(candidates.size() - 1).loanId();
+    }
+
+    private List<Candidate> selectBatch(LocalDate today, long afterId) {
+        Date[] overdueDueDates = overdueDays.stream()
+            .map(days -> Date.valueOf(today.minusDays(days)))
+            .toArray(Date[]::new);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BATCH_SQL);
+            statement.setDate(1, Date.valueOf(today.plusDays(upcomingDays)));
+            statement.setLong(2, afterId);
+            statement.setDate(3, Date.valueOf(today));
+            statement.setLong(4, afterId);
+            statement.setDate(5, Date.valueOf(today));
+            statement.setArray(6, connection.createArrayOf("date", overdueDueDates));
+            statement.setLong(7, afterId);
+            statement.setInt(8, batchSize);
+            return statement;
+        }, (rs, rowNum) -> new Candidate(
+            rs.getLong("loan_id"),
+            rs.getString("loan_number"),
+            rs.getLong("user_id"),
+            ReminderStage.valueOf(rs.getString("stage")),
+            rs.getDate("due_date").toLocalDate(),
+            rs.getBigDecimal("amount_due")));
+    }
+
+    private Set<Long> claim(List<Candidate> candidates, LocalDate today, String batchId) {
+        Long[] loanIds = new Long[candidates.size()];
+        String[] stages = new String[candidates.size()];
+        Date[] dueDates = new Date[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            loanIds[i] = candidate.loanId();
+            stages[i] = candidate.stage().name();
+            dueDates[i] = Date.valueOf(candidate.dueDate());
+        }
+
+        Set<Long> claimed = new HashSet<>(candidates.size() * 2);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CLAIM_SQL);
+            statement.setDate(1, Date.valueOf(today));
+            statement.setString(2, batchId);
+            statement.setArray(3, connection.createArrayOf("bigint", loanIds));
+            statement.setArray(4, connection.createArrayOf("varchar", stages));
+            statement.setArray(5, connection.createArrayOf("date", dueDates));
+            return statement;
+        }, rs -> {
+            claimed.add(rs.getLong("loan_id"));
+        });
+        return claimed;
+    }
+
+    private static Map<String, Object> render(Candidate candidate, LocalDate today) {
+        String amount = candidate.amountDue().setScale(2, RoundingMode.HALF_UP).toPlainString();
+        long daysOverdue = ChronoUnit.DAYS.between(candidate.dueDate(), today);
+        String message = switch (candidate.stage()) {
+            case UPCOMING -> String.format("Your EMI of Rs. %s for loan %s is due on %s. "
+                + "Please keep sufficient balance in your linked account.", amount, candidate.loanNumber(),
+                candidate.dueDate());
+            case DUE_TODAY -> String.format("Your EMI of Rs. %s for loan %s is due today.", amount,
+                candidate.loanNumber());
+            case OVERDUE -> String.format("Your EMI for loan %s due on %s is %d day%s overdue. "
+                + "Please pay Rs. %s, including charges, to avoid further penalties.", candidate.loanNumber(),
+                candidate.dueDate(), daysOverdue, daysOverdue == 1 ? "" : "s", amount);
+        };
+
+        Map<String, Object> notification = new LinkedHashMap<>();
+        notification.put("userId", candidate.userId());
+        notification.put("loanNumber", candidate.loanNumber());
+        notification.put("stage", candidate.stage().name());
+        notification.put("dueDate", candidate.dueDate().toString());
+        if (candidate.stage() == ReminderStage.OVERDUE) {
+            notification.put("daysOverdue", daysOverdue);
+        }
+        notification.put("amountDue", amount);
+        notification.put("message", message);
+        return notification;
+    }
+
+    private record Candidate(Long loanId, String loanNumber, Long userId, ReminderStage stage, LocalDate dueDate,
+            BigDecimal amountDue) {
+    }
+
+    private static final class RunTotals {
+        private long evaluated;
+        private long alreadySent;
+        private long upcoming;
+        private long dueToday;
+        private long overdue;
+        private int batches;
+
+        void count(ReminderStage stage) {
+            switch (stage) {
+                case UPCOMING -> upcoming++;
+                case DUE_TODAY -> dueToday++;
+                case OVERDUE -> overdue++;
+            }
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.loan_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.dto.EmiScheduleResponse;
+import com.loan_service.entity.EmiSchedule;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.enums.ScheduleMode;
+import com.loan_service.repository.EmiScheduleRepository;
+import com.loan_service.service.AmortizationEngine;
+import com.loan_service.service.EmiCalculatorService;
+import com.loan_service.service.EmiScheduleService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMI schedules in two modes. MATERIALIZED stores every installment at
+ * disbursement, as before. COMPUTED stores an installment only once it
+ * falls due; after that it is paid, bounced or goes overdue like any
+ * other row. The installments still to come are derived from three
+ * columns on the loan:
+ * <ul>
+ * <li>{@code materialized_emis}: installments stored so far</li>
+ * <li>{@code scheduled_principal}: opening balance of the next one, as scheduled</li>
+ * <li>{@code next_materialize_date}: its due date, or null once none are left</li>
+ * </ul>
+ * together with the loan's rate, EMI and total installments. Storing an
+ * installment moves those columns on by one; a prepayment or rate change
+ * re-amortizes by rewriting them and the EMI, whatever the tenure.
+ *
+ * Computed installments use the same reducing-balance rounding as the
+ * stored schedule, so a COMPUTED loan's rows are the ones a MATERIALIZED
+ * loan with the same terms would have stored.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmiScheduleServiceImpl implements EmiScheduleService {
+    private static final BigDecimal RATE_DIVISOR = new BigDecimal("1200");
+
+    // Same loans the delinquency pass treats as live: a defaulted loan still falls due
+    private static final String DUE_LOANS_SQL =
+            "SELECT id, first_emi_date, total_emis, materialized_emis, scheduled_principal, " +
+            "interest_rate, emi_amount " +
+            "FROM loans " +
+            "WHERE next_materialize_date <= ? AND schedule_mode = 'COMPUTED' " +
+            "AND status IN ('ACTIVE', 'OVERDUE', 'DEFAULTED') AND id > ? " +
+            "ORDER BY id LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private static final String INSERT_EMI_SQL =
+            "INSERT INTO emi_schedules (loan_id, emi_number, due_date, emi_amount, principal_component, " +
+            "interest_component, outstanding_principal, status, paid_amount, late_payment_charges, " +
+            "bounce_charges, days_overdue, created_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'SCHEDULED', 0, 0, 0, 0, now(), 0)";
+
+    private static final String ADVANCE_SQL =
+            "UPDATE loans SET materialized_emis = ?, scheduled_principal = ?, next_materialize_date = ?, " +
+            "updated_at = now(), version = version + 1 " +
+            "WHERE id = ?";
+
+    private static final String DROP_FUTURE_SQL =
+            "DELETE FROM emi_schedules WHERE loan_id = ? AND status = 'SCHEDULED' AND due_date > ?";
+
+    // Principal of stored installments not yet paid is still in outstanding_principal
+    private static final String STORED_SQL =
+            "SELECT COALESCE(MAX(emi_number), 0) AS stored, " +
+            "COALESCE(SUM(principal_component) FILTER (WHERE status NOT IN ('PAID', 'WAIVED')), 0) AS unpaid " +
+            "FROM emi_schedules WHERE loan_id = ?";
+
+    private final EmiScheduleRepository emiScheduleRepository;
+    private final EmiCalculatorService emiCalculator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.schedule.mode:COMPUTED}")
+    private ScheduleMode scheduleMode;
+
+    @Value("${loan.schedule.materialize-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void initializeSchedule(Loan loan) {
+        loan.setScheduleMode(scheduleMode);
+        loan.setMaterializedEmis(0);
+        loan.setScheduledPrincipal(loan.getPrincipalAmount());
+        loan.setNextMaterializeDate(loan.getFirstEmiDate());
+
+        if (scheduleMode == ScheduleMode.MATERIALIZED) {
+            List<Installment> installments = project(loan, loan.getTotalEmis());
+            emiScheduleRepository.saveAll(installments.stream()
+                .map(installment -> toEntity(loan.getId(), installment))
+                .toList());
+            advance(loan, installments);
+            log.info("Generated {} EMI schedules for loan: {}", installments.size(),
+                loan.getLoanNumber());
+        }
+    }
+
+    @Override
+    public void materializeDue(Loan loan, LocalDate asOf) {
+        if (loan.getScheduleMode() != ScheduleMode.COMPUTED || loan.getNextMaterializeDate() == null
+                || loan.getNextMaterializeDate().isAfter(asOf)) {
+            return;
+        }
+        List<Installment> due = dueInstallments(loan, asOf);
+        emiScheduleRepository.saveAll(due.stream()
+            .map(installment -> toEntity(loan.getId(), installment))
+            .toList());
+        advance(loan, due);
+        meterRegistry.counter("loan.schedule.materialized").increment(due.size());
+    }
+
+    @Override
+    public int materializeDueInstallments(LocalDate asOf) {
+        long cursor = 0L;
+        int stored = 0;
+
+        while (true) {
+            long afterId = cursor;
+            Batch batch = transactionTemplate.execute(status -> materializeBatch(asOf, afterId));
+            if (batch == null) {
+                break;
+            }
+            cursor = batch.lastLoanId();
+            stored += batch.installments();
+        }
+
+        meterRegistry.counter("loan.schedule.materialized").increment(stored);
+        log.info("Materialized {} EMIs due on or before {}", stored, asOf);
+        return stored;
+    }
+
+    @Override
+    public void reamortize(Loan loan, LocalDate asOf) {
+        materializeDue(loan, asOf);
+        if (loan.getScheduleMode() != ScheduleMode.COMPUTED) {
+            int dropped = jdbcTemplate.update(DROP_FUTURE_SQL, loan.getId(), Date.valueOf(asOf));
+            log.info("Dropped {} future EMI rows of loan {}; its schedule is computed from now on",
+                dropped, loan.getLoanNumber());
+            loan.setScheduleMode(ScheduleMode.COMPUTED);
+        }
+
+        Map<String, Object> stored = jdbcTemplate.queryForMap(STORED_SQL, loan.getId());
+        int materialized = ((Number) stored.get("stored")).intValue();
+        BigDecimal opening = loan.getOutstandingPrincipal().subtract((BigDecimal) stored.get("unpaid"));
+        int remaining = loan.getTotalEmis() - materialized;
+
+        loan.setMaterializedEmis(materialized);
+        loan.setScheduledPrincipal(opening.max(BigDecimal.ZERO));
+        if (remaining <= 0 || opening.signum() <= 0) {
+            loan.setNextMaterializeDate(null);
+            return;
+        }
+        loan.setEmiAmount(emiCalculator.calculateEmi(opening, loan.getInterestRate(), remaining,
+            loan.getInterestType()).getEmiAmount());
+        loan.setNextMaterializeDate(dueDate(loan, materialized + 1));
+    }
+
+    @Override
+    public Stream<EmiScheduleResponse> streamSchedule(Loan loan) {
+        Stream<EmiScheduleResponse> stored = emiScheduleRepository.findByLoanId(loan.getId()).stream()
+            .map(this::toResponse);
+        if (loan.getScheduleMode() != ScheduleMode.COMPUTED || loan.getNextMaterializeDate() == null
+                || !isLive(loan.getStatus())) {
+            return stored;
+        }
+        // Projected lazily, but the stored rows are already loaded; a caller
+        // that collects the stream holds the whole schedule either way
+        Stream<EmiScheduleResponse> upcoming = Stream.of(loan)
+            .flatMap(l -> project(l, l.getTotalEmis()).stream())
+            .map(this::toResponse);
+        return Stream.concat(stored, upcoming);
+    }
+
+    private static boolean isLive(LoanStatus status) {
+        return status == LoanStatus.ACTIVE || status == LoanStatus.OVERDUE || status == LoanStatus.DEFAULTED;
+    }
+
+    private Batch materializeBatch(LocalDate asOf, long afterId) {
+        List<Loan> loans = jdbcTemplate.query(DUE_LOANS_SQL, this::mapDueLoan,
+            Date.valueOf(asOf), afterId, batchSize);
+        if (loans.isEmpty()) {
+            return null;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> advances = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            List<Installment> due = dueInstallments(loan, asOf);
+            for (Installment installment : due) {
+                rows.add(new Object[] {loan.getId(), installment.number(), Date.valueOf(installment.dueDate()),
+                    installment.emiAmount(), installment.principal(), installment.interest(),
+                    installment.closingPrincipal()});
+            }
+            advance(loan, due);
+            advances.add(new Object[] {loan.getMaterializedEmis(), loan.getScheduledPrincipal(),
+                loan.getNextMaterializeDate() != null ? Date.valueOf(loan.getNextMaterializeDate()) : null,
+                loan.getId()});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EMI_SQL, rows);
+        jdbcTemplate.batchUpdate(ADVANCE_SQL, advances);
+        return new Batch(loans.get(loans.size() - 1).getId(), rows.size());
+    }
+
+    private Loan mapDueLoan(ResultSet rs, int rowNum) throws SQLException {
+        return Loan.builder()
+            .id(rs.getLong("id"))
+            .scheduleMode(ScheduleMode.COMPUTED)
+            .firstEmiDate(rs.getDate("first_emi_date").toLocalDate())
+            .totalEmis(rs.getInt("total_emis"))
+            .materializedEmis(rs.getInt("materialized_emis"))
+            .scheduledPrincipal(rs.getBigDecimal("scheduled_principal"))
+            .interestRate(rs.getBigDecimal("interest_rate"))
+            .emiAmount(rs.getBigDecimal("emi_amount"))
+            .build();
+    }
+
+    private List<Installment> dueInstallments(Loan loan, LocalDate asOf) {
+        int due = 0;
+        int remaining = loan.getTotalEmis() - loan.getMaterializedEmis();
+        while (due < remaining && !dueDate(loan, loan.getMaterializedEmis() + due + 1).isAfter(asOf)) {
+            due++;
+        }
+        return project(loan, due);
+    }
+
+    // Moves the loan's schedule columns past the installments just stored
+    private void advance(Loan loan, List<Installment> stored) {
+        if (stored.isEmpty()) {
+            return;
+        }
+        Installment last = stored.get(stored.size() - 1);
+        loan.setMaterializedEmis(last.number());
+        loan.setScheduledPrincipal(last.closingPrincipal());
+        loan.setNextMaterializeDate(last.number() < loan.getTotalEmis() && last.closingPrincipal().signum() > 0
+            ? dueDate(loan, last.number() + 1)
+            : null);
+    }
+
+    /**
+     * The next {@code limit} installments after the stored ones, amortizing
+     * the scheduled balance over the installments left; the last one takes
+     * whatever principal remains.
+     */
+    private List<Installment> project(Loan loan, int limit) {
+        int first = loan.getMaterializedEmis() + 1;
+        int remaining = loan.getTotalEmis() - loan.getMaterializedEmis();
+        BigDecimal opening = loan.getScheduledPrincipal();
+        int count = Math.min(limit, remaining);
+        if (count <= 0 || opening == null || opening.signum() <= 0) {
+            return List.of();
+        }
+
+        BigDecimal emi = loan.getEmiAmount();
+        List<Installment> installments = new ArrayList<>(count);
+        if (AmortizationEngine.supports(opening, loan.getInterestRate(), remaining)
+                && emi.stripTrailingZeros().scale() <= 2) {
+            long[] interest = new long[remaining];
+            long[] principal = new long[remaining];
+            long[] outstanding = new long[remaining];
+            AmortizationEngine.schedule(
+                AmortizationEngine.toPaise(opening),
+                AmortizationEngine.monthlyRateUnits(loan.getInterestRate()),
+                remaining,
+                AmortizationEngine.toPaise(emi),
+                interest, principal, outstanding);
+            for (int i = 0; i < count; i++) {
+                installments.add(new Installment(first + i, dueDate(loan, first + i), emi,
+                    BigDecimal.valueOf(principal[i], 2),
+                    BigDecimal.valueOf(interest[i], 2),
+                    BigDecimal.valueOf(outstanding[i], 2)));
+            }
+            return installments;
+        }
+
+        // Terms the long engine does not cover (sub-paisa amounts, rates above 100%)
+        BigDecimal monthlyRate = loan.getInterestRate().divide(RATE_DIVISOR, 10, RoundingMode.HALF_UP);
+        BigDecimal remainingPrincipal = opening;
+        for (int i = 0; i < count; i++) {
+            BigDecimal interestComponent = remainingPrincipal.multiply(monthlyRate)
+                .setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalComponent = i == remaining - 1
+                ? remainingPrincipal
+                : emi.subtract(interestComponent);
+            remainingPrincipal = remainingPrincipal.subtract(principalComponent);
+            installments.add(new Installment(first + i, dueDate(loan, first + i), emi,
+                principalComponent, interestComponent, remainingPrincipal));
+        }
+        return installments;
+    }
+
+    private static LocalDate dueDate(Loan loan, int emiNumber) {
+        return loan.getFirstEmiDate().plusMonths(emiNumber - 1);
+    }
+
+    private static EmiSchedule toEntity(Long loanId, Installment installment) {
+        return EmiSchedule.builder()
+            .loanId(loanId)
+            .emiNumber(installment.number())
+            .dueDate(installment.dueDate())
+            .emiAmount(installment.emiAmount())
+            .principalComponent(installment.principal())
+            .interestComponent(installment.interest())
+            .outstandingPrincipal(installment.closingPrincipal())
+            .status(EmiStatus.SCHEDULED)
+            .paidAmount(BigDecimal.ZERO)
+            .latePaymentCharges(BigDecimal.ZERO)
+            .bounceCharges(BigDecimal.ZERO)
+            .daysOverdue(0)
+            .build();
+    }
+
+    private EmiScheduleResponse toResponse(EmiSchedule schedule) {
+        return EmiScheduleResponse.builder()
+            .id(schedule.getId())
+            .emiNumber(schedule.getEmiNumber())
+            .dueDate(schedule.getDueDate())
+            .emiAmount(schedule.getEmiAmount())
+            .principalComponent(schedule.getPrincipalComponent())
+            .interestComponent(schedule.getInterestComponent())
+            .outstandingPrincipal(schedule.getOutstandingPrincipal())
+            .status(schedule.getStatus())
+            .paidAmount(schedule.getPaidAmount())
+            .paidDate(schedule.getPaidDate())
+            .latePaymentCharges(schedule.getLatePaymentCharges())
+            .daysOverdue(schedule.getDaysOverdue())
+            .build();
+    }
+
+    private EmiScheduleResponse toResponse(Installment installment) {
+        return EmiScheduleResponse.builder()
+            .emiNumber(installment.number())
+            .dueDate(installment.dueDate())
+            .emiAmount(installment.emiAmount())
+            .principalComponent(installment.principal())
+            .interestComponent(installment.interest())
+            .outstandingPrincipal(installment.closingPrincipal())
+            .status(EmiStatus.SCHEDULED)
+            .paidAmount(BigDecimal.ZERO)
+            .latePaymentCharges(BigDecimal.ZERO)
+            .daysOverdue(0)
+            .build();
+    }
+
+    private record Installment(int number, LocalDate dueDate, BigDecimal emiAmount, BigDecimal principal,
+            BigDecimal interest, BigDecimal closingPrincipal) {
+    }
+
+    private record Batch(long lastLoanId, int installments) {
+    }
+}
@@ -2,7 +2,6 @@ package com.loan_service.service.implementation;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -16,9 +15,6 @@ import org.springframework.transaction.annotation.Transactional;
 import com.account_service.service.EventSourcingService;
 import com.account_service.service.OutboxService;
 import com.loan_service.client.AccountServiceClient;
-import com.loan_service.client.FraudCheckResult;
-import com.loan_service.client.FraudServiceClient;
-import com.loan_service.dto.CreditScoreResponse;
 import com.loan_service.dto.EmiCalculationResult;
 import com.loan_service.dto.EmiScheduleResponse;
 import com.loan_service.dto.LoanApplicationRequest;
@@ -43,9 +39,11 @@ import com.loan_service.exception.UnauthorizedAccessException;
 import com.loan_service.repository.EmiScheduleRepository;
 import com.loan_service.repository.LoanApplicationRepository;
 import com.loan_service.repository.LoanRepository;
-import com.loan_service.service.CreditScoringService;
+import com.loan_service.service.ApplicationPipelineService;
 import com.loan_service.service.EmiCalculatorService;
+import com.loan_service.service.EmiScheduleService;
 import com.loan_service.service.LoanService;
+import com.loan_service.service.PortfolioAnalyticsService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -59,11 +57,11 @@ public class LoanServiceImpl implements LoanService{
     private final LoanApplicationRepository applicationRepository;
     private final EmiScheduleRepository emiScheduleRepository;
     private final EmiCalculatorService emiCalculator;
-    private final CreditScoringService creditScoringService;
+    private final EmiScheduleService emiScheduleService;
     private final AccountServiceClient accountServiceClient;
-    private final FraudServiceClient fraudServiceClient;
     private final OutboxService outboxService; 
     private final EventSourcingService eventSourcingService;
+    private final PortfolioAnalyticsService portfolioAnalyticsService;
 
     @Override
     @Transactional
@@ -93,6 +91,7 @@ public class LoanServiceImpl implements LoanService{
             .applicationNumber(applicationNumber)
             .userId(userId)
             .accountId(request.getAccountId())
+            .branchCode(request.getBranchCode())
             .loanType(request.getLoanType())
             .status(ApplicationStatus.SUBMITTED)
             .requestedAmount(request.getRequestedAmount())
@@ -101,6 +100,7 @@ public class LoanServiceImpl implements LoanService{
             .annualIncome(request.getAnnualIncome())
             .employmentType(request.getEmploymentType())
             .companyName(request.getCompanyName())
+            .panNumber(request.getPanNumber())
             .monthlyObligations(request.getMonthlyObligations())
             .collateralOffered(request.getCollateralOffered())
             .collateralDetails(request.getCollateralDetails())
@@ -108,8 +108,10 @@ public class LoanServiceImpl implements LoanService{
         
         application = applicationRepository.save(application);
         
-        // Trigger async processing
-        processApplicationAsync(application.getId());
+        // Screening starts from the application pipeline once this commits
+        outboxService.saveEvent("LOAN_APPLICATION", applicationNumber,
+            "ApplicationScreeningRequested", ApplicationPipelineService.SCREENING_TOPIC,
+            Map.of("applicationId", application.getId(), "applicationNumber", applicationNumber));
         
         // Publish event using Loan Service's outbox
         outboxService.saveEvent("LOAN_APPLICATION", applicationNumber,
@@ -118,87 +120,6 @@ public class LoanServiceImpl implements LoanService{
         return mapApplicationToResponse(application);
     }
 
-    @Transactional
-    public void processApplicationAsync(Long applicationId) {
-        LoanApplication application = applicationRepository.findById(applicationId)
-            .orElseThrow(() -> new ResourceNotFoundException("Application not found"));
-        
-        try {
-            // Fraud check
-            application.setStatus(ApplicationStatus.UNDER_REVIEW);
-            applicationRepository.save(application);
-            
-            FraudCheckResult fraudCheck = fraudServiceClient.checkLoanApplication(
-                application.getUserId(),
-                application.getRequestedAmount(),
-                application.getAnnualIncome()
-            );
-            
-            application.setFraudScore(fraudCheck.getFraudScore());
-            
-            if (fraudCheck.isBlocked()) {
-                application.setStatus(ApplicationStatus.REJECTED);
-                application.setRejectionReason("Failed fraud check");
-                applicationRepository.save(application);
-                return;
-            }
-            
-            // Credit check
-            application.setStatus(ApplicationStatus.CREDIT_CHECK_PENDING);
-            applicationRepository.save(application);
-            
-            CreditScoreResponse creditScore = creditScoringService
-                .fetchCreditScore(application.getUserId(), "PAN123456"); // Get from user service
-            
-            application.setCreditScore(creditScore.getScore());
-            application.setStatus(ApplicationStatus.CREDIT_CHECK_COMPLETED);
-            applicationRepository.save(application);
-            
-            // Check minimum credit score
-            if (creditScore.getScore() < 650) {
-                application.setStatus(ApplicationStatus.REJECTED);
-                application.setRejectionReason("Credit score below minimum requirement");
-                applicationRepository.save(application);
-                return;
-            }
-            
-            // Eligibility check
-            BigDecimal maxEligibleAmount = calculateMaxEligibleAmount(
-                application.getAnnualIncome(),
-                application.getMonthlyObligations()
-            );
-            
-            if (application.getRequestedAmount().compareTo(maxEligibleAmount) > 0) {
-                application.setStatus(ApplicationStatus.REJECTED);
-                application.setRejectionReason("Requested amount exceeds eligibility");
-                applicationRepository.save(application);
-                return;
-            }
-            
-            // Auto-approve if conditions met
-            if (creditScore.getScore() >= 750 && 
-                application.getRequestedAmount().compareTo(new BigDecimal("500000")) <= 0) {
-                
-                BigDecimal interestRate = creditScoringService.calculateInterestRate(
-                    creditScore.getScore(),
-                    application.getRequestedAmount(),
-                    application.getRequestedTenureMonths()
-                );
-                
-                autoApproveLoan(application, interestRate);
-            } else {
-                // Manual review required
-                application.setStatus(ApplicationStatus.DOCUMENTS_PENDING);
-                applicationRepository.save(application);
-            }
-            
-        } catch (Exception e) {
-            log.error("Application processing failed: {}", e.getMessage(), e);
-            application.setStatus(ApplicationStatus.UNDER_REVIEW);
-            applicationRepository.save(application);
-        }
-    }
-
     @Override
     @Transactional
     public LoanResponse approveLoan(LoanApprovalRequest request, Long approvedBy) {
@@ -233,6 +154,7 @@ public class LoanServiceImpl implements LoanService{
             .applicationId(application.getId())
             .userId(application.getUserId())
             .accountId(application.getAccountId())
+            .branchCode(application.getBranchCode())
             .loanType(application.getLoanType())
             .status(LoanStatus.APPROVED)
             .principalAmount(request.getSanctionedAmount())
@@ -240,6 +162,8 @@ public class LoanServiceImpl implements LoanService{
             .outstandingPrincipal(request.getSanctionedAmount())
             .totalOutstanding(request.getSanctionedAmount())
             .interestRate(request.getInterestRate())
+            .rateBenchmark(request.getRateBenchmark())
+            .rateSpread(request.getRateSpread())
             .tenureMonths(request.getTenureMonths() != null ? 
                 request.getTenureMonths() : application.getRequestedTenureMonths())
             .remainingTenureMonths(request.getTenureMonths() != null ? 
@@ -324,10 +248,10 @@ public class LoanServiceImpl implements LoanService{
         loan.setMaturityDate(maturityDate);
         loan.setLastEmiDate(maturityDate);
         
-        loan = loanRepository.save(loan);
-        
         // Generate EMI schedule
-        generateEmiSchedule(loan);
+        emiScheduleService.initializeSchedule(loan);
+        
+        loan = loanRepository.save(loan);
         
         // Publish event using Loan Service's outbox
         outboxService.saveEvent("LOAN", loanNumber, "LoanDisbursed",
@@ -344,6 +268,9 @@ public class LoanServiceImpl implements LoanService{
         Loan loan = loanRepository.findByLoanNumberForUpdate(loanNumber)
             .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
         
+        // Computed schedules only store installments once they fall due
+        emiScheduleService.materializeDue(loan, emiDate);
+        
         EmiSchedule emiSchedule = emiScheduleRepository
             .findByLoanIdAndDueDate(loan.getId(), emiDate)
             .orElseThrow(() -> new ResourceNotFoundException("EMI schedule not found"));
@@ -437,16 +364,11 @@ public class LoanServiceImpl implements LoanService{
             // Full prepayment
             loan.setStatus(LoanStatus.FORECLOSED);
             loan.setClosedDate(LocalDate.now());
+            loan.setNextMaterializeDate(null);
             loanClosed = true;
         } else {
-            // Partial prepayment - recalculate EMI
-            EmiCalculationResult newEmi = emiCalculator.calculateEmi(
-                loan.getOutstandingPrincipal(),
-                loan.getInterestRate(),
-                loan.getRemainingTenureMonths(),
-                loan.getInterestType()
-            );
-            loan.setEmiAmount(newEmi.getEmiAmount());
+            // Partial prepayment - recalculate EMI over the installments not yet due
+            emiScheduleService.reamortize(loan, LocalDate.now());
         }
         
         loan = loanRepository.save(loan);
@@ -467,75 +389,6 @@ public class LoanServiceImpl implements LoanService{
     }
 
     // Helper methods
-    private void generateEmiSchedule(Loan loan) {
-        List<EmiSchedule> schedules = new ArrayList<>();
-        BigDecimal remainingPrincipal = loan.getPrincipalAmount();
-        BigDecimal monthlyRate = loan.getInterestRate()
-            .divide(new BigDecimal("1200"), 10, java.math.RoundingMode.HALF_UP);
-        
-        LocalDate emiDate = loan.getFirstEmiDate();
-        
-        for (int i = 1; i <= loan.getTenureMonths(); i++) {
-            BigDecimal interestComponent = remainingPrincipal.multiply(monthlyRate)
-                .setScale(2, java.math.RoundingMode.HALF_UP);
-            BigDecimal principalComponent = loan.getEmiAmount().subtract(interestComponent);
-            
-            if (i == loan.getTenureMonths()) {
-                // Last EMI adjusts for rounding
-                principalComponent = remainingPrincipal;
-            }
-            
-            remainingPrincipal = remainingPrincipal.subtract(principalComponent);
-            
-            EmiSchedule schedule = EmiSchedule.builder()
-                .loanId(loan.getId())
-                .emiNumber(i)
-                .dueDate(emiDate)
-                .emiAmount(loan.getEmiAmount())
-                .principalComponent(principalComponent)
-                .interestComponent(interestComponent)
-                .outstandingPrincipal(remainingPrincipal)
-                .status(EmiStatus.SCHEDULED)
-                .build();
-            
-            schedules.add(schedule);
-            emiDate = emiDate.plusMonths(1);
-        }
-        
-        emiScheduleRepository.saveAll(schedules);
-        log.info("Generated {} EMI schedules for loan: {}", schedules.size(), 
-            loan.getLoanNumber());
-    }
-
-    private void autoApproveLoan(LoanApplication application, BigDecimal interestRate) {
-        LoanApprovalRequest approvalRequest = LoanApprovalRequest.builder()
-            .applicationId(application.getId())
-            .sanctionedAmount(application.getRequestedAmount())
-            .interestRate(interestRate)
-            .tenureMonths(application.getRequestedTenureMonths())
-            .approvalNotes("Auto-approved based on credit score")
-            .build();
-        
-        approveLoan(approvalRequest, 0L); // System approval
-    }
-
-    private BigDecimal calculateMaxEligibleAmount(
-            BigDecimal annualIncome, 
-            BigDecimal monthlyObligations) {
-        
-        BigDecimal monthlyIncome = annualIncome.divide(new BigDecimal("12"), 2, 
-            java.math.RoundingMode.HALF_UP);
-        BigDecimal availableIncome = monthlyIncome.subtract(
-            monthlyObligations != null ? monthlyObligations : BigDecimal.ZERO);
-        
-        // Max EMI = 50% of available income
-        BigDecimal maxEmi = availableIncome.multiply(new BigDecimal("0.5"));
-        
-        // Calculate max loan for 20 years at 12% interest
-        // Using reducing balance formula rearranged
-        return maxEmi.multiply(new BigDecimal("100")); // Simplified
-    }
-
     private Loan findLoanByNumberForUpdate(String loanNumber, Long userId) {
         Loan loan = loanRepository.findByLoanNumberForUpdate(loanNumber)
             .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
@@ -673,10 +526,7 @@ public class LoanServiceImpl implements LoanService{
             throw new UnauthorizedAccessException("Unauthorized access to loan");
         }
         
-        List<EmiSchedule> schedules = emiScheduleRepository.findByLoanId(loan.getId());
-        
-        return schedules.stream()
-            .map(this::mapEmiScheduleToResponse)
+        return emiScheduleService.streamSchedule(loan)
             .collect(Collectors.toList());
     }
 
@@ -720,6 +570,7 @@ public class LoanServiceImpl implements LoanService{
         loan.setOutstandingInterest(BigDecimal.ZERO);
         loan.setTotalOutstanding(BigDecimal.ZERO);
         loan.setClosedDate(LocalDate.now());
+        loan.setNextMaterializeDate(null);
         loan.setTotalPaid(loan.getTotalPaid().add(totalPayment));
         
         loan = loanRepository.save(loan);
@@ -741,46 +592,15 @@ public class LoanServiceImpl implements LoanService{
         return mapLoanToResponse(loan);
     }
 
-    // Helper method to map EMI schedule to response
-    private EmiScheduleResponse mapEmiScheduleToResponse(EmiSchedule schedule) {
-        return EmiScheduleResponse.builder()
-            .id(schedule.getId())
-            .emiNumber(schedule.getEmiNumber())
-            .dueDate(schedule.getDueDate())
-            .emiAmount(schedule.getEmiAmount())
-            .principalComponent(schedule.getPrincipalComponent())
-            .interestComponent(schedule.getInterestComponent())
-            .outstandingPrincipal(schedule.getOutstandingPrincipal())
-            .status(schedule.getStatus())
-            .paidAmount(schedule.getPaidAmount())
-            .paidDate(schedule.getPaidDate())
-            .latePaymentCharges(schedule.getLatePaymentCharges())
-            .daysOverdue(schedule.getDaysOverdue())
-            .build();
-    }
-    
     @Override
     @Transactional(readOnly = true)
     public LoanSummaryResponse getLoanSummary(Long userId) {
         log.info("Fetching loan summary for user: {}", userId);
         
-        Long activeLoansCount = loanRepository.countActiveLoans(userId);
-        BigDecimal totalOutstanding = loanRepository.getTotalOutstandingByUser(userId);
-        
-        List<Loan> activeLoans = loanRepository.findByUserIdAndStatus(
-            userId, LoanStatus.ACTIVE, Pageable.unpaged()).getContent();
-        
-        BigDecimal totalMonthlyEmi = activeLoans.stream()
-            .map(Loan::getEmiAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return LoanSummaryResponse.builder()
-            .userId(userId)
-            .activeLoansCount(activeLoansCount.intValue())
-            .totalOutstanding(totalOutstanding != null ? totalOutstanding : BigDecimal.ZERO)
-            .totalMonthlyEmi(totalMonthlyEmi)
-            .creditUtilization(calculateCreditUtilization(userId, totalOutstanding))
-            .build();
+        // Maintained from loan changes by the portfolio refresh, so this is one row lookup
+        LoanSummaryResponse summary = portfolioAnalyticsService.getUserSummary(userId);
+        summary.setCreditUtilization(calculateCreditUtilization(userId, summary.getTotalOutstanding()));
+        return summary;
     }
 
     private BigDecimal calculateCreditUtilization(Long userId, BigDecimal totalOutstanding) {
@@ -0,0 +1,435 @@
+package com.loan_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.dto.LoanSummaryResponse;
+import com.loan_service.dto.PortfolioAnalyticsResponse;
+import com.loan_service.dto.PortfolioExposure;
+import com.loan_service.dto.PortfolioRefreshSummary;
+import com.loan_service.enums.DpdBucket;
+import com.loan_service.enums.LoanType;
+import com.loan_service.service.PortfolioAnalyticsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Portfolio read model kept next to the loan book:
+ * - portfolio_loan_positions: what each loan last contributed
+ * - portfolio_segments: live loans per product, DPD bucket and branch
+ * - portfolio_user_summaries: live loans per borrower
+ *
+ * A refresh picks up loans whose updated_at moved past their position,
+ * which every write path to loans already sets, plus loans whose oldest
+ * unpaid installment crosses a DPD boundary today. For each batch it
+ * takes the old positions out of the aggregates, rebuilds the positions
+ * from the loans and puts the new ones back, all in one transaction.
+ *
+ * Refreshes and rebuilds take a transaction-scoped advisory lock, so two
+ * instances never apply the same delta twice. The nightly rebuild
+ * recomputes everything and reconciles whatever the incremental path
+ * missed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PortfolioAnalyticsServiceImpl implements PortfolioAnalyticsService {
+    private static final long LOCK_KEY = 0x4C4F414E504F5254L; // "LOANPORT"
+    private static final String LIVE_LOAN = "('ACTIVE', 'OVERDUE', 'DEFAULTED')";
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private static final String POSITION_COLUMNS =
+            "loan_id, user_id, loan_type, branch_code, status, outstanding_principal, emi_amount, " +
+            "oldest_unpaid_due_date, dpd_bucket, bucket_until, source_updated_at, refreshed_at";
+
+    // Parameters: as-of date twice; callers append the WHERE clause
+    private static final String POSITION_SELECT =
+            "SELECT l.id, l.user_id, l.loan_type, COALESCE(l.branch_code, 'UNASSIGNED'), l.status, " +
+            "COALESCE(l.outstanding_principal, 0), COALESCE(l.emi_amount, 0), o.oldest, " +
+            "CASE WHEN d.dpd >= 90 THEN 'DPD_90' WHEN d.dpd >= 60 THEN 'DPD_60' " +
+            "WHEN d.dpd >= 30 THEN 'DPD_30' ELSE 'DPD_0' END, " +
+            "CASE WHEN o.oldest IS NULL OR d.dpd >= 90 OR l.status NOT IN " + LIVE_LOAN + " THEN NULL " +
+            "WHEN d.dpd >= 60 THEN o.oldest + 90 WHEN d.dpd >= 30 THEN o.oldest + 60 ELSE o.oldest + 30 END, " +
+            "l.updated_at, now() " +
+            "FROM loans l " +
+            "LEFT JOIN LATERAL (SELECT MIN(e.due_date) AS oldest FROM emi_schedules e " +
+            "  WHERE e.loan_id = l.id AND e.status NOT IN ('PAID', 'WAIVED') AND e.due_date < ?) o ON true " +
+            "CROSS JOIN LATERAL (SELECT COALESCE(?::date - o.oldest, 0) AS dpd) d ";
+
+    private static final String UPSERT_POSITIONS_SQL =
+            "INSERT INTO portfolio_loan_positions (" + POSITION_COLUMNS + ") " +
+            POSITION_SELECT + "WHERE l.id = ANY (?) " +
+            "ON CONFLICT (loan_id) DO UPDATE SET user_id = excluded.user_id, loan_type = excluded.loan_type, " +
+            "branch_code = excluded.branch_code, status = excluded.status, " +
+            "outstanding_principal = excluded.outstanding_principal, emi_amount = excluded.emi_amount, " +
+            "oldest_unpaid_due_date = excluded.oldest_unpaid_due_date, dpd_bucket = excluded.dpd_bucket, " +
+            "bucket_until = excluded.bucket_until, source_updated_at = excluded.source_updated_at, " +
+            "refreshed_at = excluded.refreshed_at";
+
+    private static final String REBUILD_POSITIONS_SQL =
+            "INSERT INTO portfolio_loan_positions (" + POSITION_COLUMNS + ") " +
+            POSITION_SELECT + "WHERE l.status IN " + LIVE_LOAN;
+
+    private static final String SEGMENT_TOTALS =
+            "SELECT loan_type, dpd_bucket, branch_code, COUNT(*) AS loans, " +
+            "SUM(outstanding_principal) AS outstanding, SUM(emi_amount) AS monthly_emi " +
+            "FROM portfolio_loan_positions WHERE status IN " + LIVE_LOAN + " %s " +
+            "GROUP BY loan_type, dpd_bucket, branch_code";
+
+    private static final String USER_TOTALS =
+            "SELECT user_id, " +
+            "COUNT(*) FILTER (WHERE status IN ('ACTIVE', 'OVERDUE')) AS active_loans, " +
+            "COALESCE(SUM(outstanding_principal) FILTER (WHERE status IN ('ACTIVE', 'OVERDUE')), 0) " +
+            "AS total_outstanding, " +
+            "COALESCE(SUM(emi_amount) FILTER (WHERE status = 'ACTIVE'), 0) AS total_monthly_emi, " +
+            "COUNT(*) FILTER (WHERE status IN ('OVERDUE', 'DEFAULTED')) AS delinquent_loans " +
+            "FROM portfolio_loan_positions WHERE status IN " + LIVE_LOAN + " %s " +
+            "GROUP BY user_id";
+
+    private static final String BY_IDS = "AND loan_id = ANY (?)";
+
+    private static final String SUBTRACT_SEGMENTS_SQL =
+            "UPDATE portfolio_segments s SET loans = s.loans - d.loans, outstanding = s.outstanding - d.outstanding, " +
+            "monthly_emi = s.monthly_emi - d.monthly_emi, updated_at = now() " +
+            "FROM (" + SEGMENT_TOTALS.formatted(BY_IDS) + ") d " +
+            "WHERE s.loan_type = d.loan_type AND s.dpd_bucket = d.dpd_bucket AND s.branch_code = d.branch_code";
+
+    private static final String ADD_SEGMENTS_SQL =
+            "INSERT INTO portfolio_segments (loan_type, dpd_bucket, branch_code, loans, outstanding, monthly_emi, " +
+            "updated_at) " +
+            "SELECT d.loan_type, d.dpd_bucket, d.branch_code, d.loans, d.outstanding, d.monthly_emi, now() " +
+            "FROM (" + SEGMENT_TOTALS.formatted(BY_IDS) + ") d " +
+            "ON CONFLICT (loan_type, dpd_bucket, branch_code) DO UPDATE SET " +
+            "loans = portfolio_segments.loans + excluded.loans, " +
+            "outstanding = portfolio_segments.outstanding + excluded.outstanding, " +
+            "monthly_emi = portfolio_segments.monthly_emi + excluded.monthly_emi, updated_at = excluded.updated_at";
+
+    private static final String SUBTRACT_USERS_SQL =
+            "UPDATE portfolio_user_summaries u SET active_loans = u.active_loans - d.active_loans, " +
+            "total_outstanding = u.total_outstanding - d.total_outstanding, " +
+            "total_monthly_emi = u.total_monthly_emi - d.total_monthly_emi, " +
+            "delinquent_loans = u.delinquent_loans - d.delinquent_loans, updated_at = now() " +
+            "FROM (" + USER_TOTALS.formatted(BY_IDS) + ") d WHERE u.user_id = d.user_id";
+
+    private static final String ADD_USERS_SQL =
+            "INSERT INTO portfolio_user_summaries (user_id, active_loans, total_outstanding, total_monthly_emi, " +
+            "delinquent_loans, updated_at) " +
+            "SELECT d.user_id, d.active_loans, d.total_outstanding, d.total_monthly_emi, d.delinquent_loans, now() " +
+            "FROM (" + USER_TOTALS.formatted(BY_IDS) + ") d " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "active_loans = portfolio_user_summaries.active_loans + excluded.active_loans, " +
+            "total_outstanding = portfolio_user_summaries.total_outstanding + excluded.total_outstanding, " +
+            "total_monthly_emi = portfolio_user_summaries.total_monthly_emi + excluded.total_monthly_emi, " +
+            "delinquent_loans = portfolio_user_summaries.delinquent_loans + excluded.delinquent_loans, " +
+            "updated_at = excluded.updated_at";
+
+    private static final String REBUILD_SEGMENTS_SQL =
+            "INSERT INTO portfolio_segments (loan_type, dpd_bucket, branch_code, loans, outstanding, monthly_emi, " +
+            "updated_at) " +
+            "SELECT d.loan_type, d.dpd_bucket, d.branch_code, d.loans, d.outstanding, d.monthly_emi, now() " +
+            "FROM (" + SEGMENT_TOTALS.formatted("") + ") d";
+
+    private static final String REBUILD_USERS_SQL =
+            "INSERT INTO portfolio_user_summaries (user_id, active_loans, total_outstanding, total_monthly_emi, " +
+            "delinquent_loans, updated_at) " +
+            "SELECT d.user_id, d.active_loans, d.total_outstanding, d.total_monthly_emi, d.delinquent_loans, now() " +
+            "FROM (" + USER_TOTALS.formatted("") + ") d";
+
+    // Loans written since their position was built, and positions whose DPD bucket moves today
+    private static final String CHANGED_SQL =
+            "SELECT id FROM (" +
+            "  SELECT l.id FROM loans l LEFT JOIN portfolio_loan_positions p ON p.loan_id = l.id " +
+            "  WHERE l.updated_at > ? AND l.id > ? " +
+            "  AND (p.loan_id IS NULL OR p.source_updated_at IS DISTINCT FROM l.updated_at) " +
+            "  UNION " +
+            "  SELECT loan_id FROM portfolio_loan_positions WHERE bucket_until <= ? AND loan_id > ? " +
+            ") c ORDER BY id LIMIT ?";
+
+    private static final String SEGMENTS_SQL =
+            "SELECT loan_type, dpd_bucket, branch_code, loans, outstanding, monthly_emi, updated_at " +
+            "FROM portfolio_segments WHERE loans <> 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.portfolio.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${loan.portfolio.watermark-overlap:PT5M}")
+    private Duration watermarkOverlap;
+
+    @Override
+    public PortfolioRefreshSummary refresh(LocalDate today) {
+        Timestamp latest = jdbcTemplate.queryForObject(
+            "SELECT MAX(source_updated_at) FROM portfolio_loan_positions", Timestamp.class);
+        if (latest == null) {
+            return rebuild(today);
+        }
+
+        long startedAt = System.nanoTime();
+        // Reach back far enough to catch writes that committed after later ones
+        Timestamp watermark = Timestamp.valueOf(latest.toLocalDateTime().minus(watermarkOverlap));
+        long refreshed = 0;
+        long cursor = 0L;
+        while (true) {
+            List<Long> ids = changedLoans(watermark, today, cursor);
+            if (ids.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                lock();
+                apply(ids, today);
+            });
+            refreshed += ids.size();
+            cursor = ids.get(ids.size() - 1);
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        meterRegistry.counter("loan.portfolio.refreshed.loans").increment(refreshed);
+        if (refreshed > 0) {
+            log.debug("Portfolio refresh as of {}: {} loans in {}ms", today, refreshed, elapsed);
+        }
+        return PortfolioRefreshSummary.builder()
+            .asOf(today)
+            .rebuild(false)
+            .loansRefreshed(refreshed)
+            .elapsedMillis(elapsed)
+            .build();
+    }
+
+    @Override
+    public PortfolioRefreshSummary rebuild(LocalDate today) {
+        long startedAt = System.nanoTime();
+        Date asOf = Date.valueOf(today);
+
+        PortfolioRefreshSummary summary = transactionTemplate.execute(status -> {
+            lock();
+            Map<String, BigDecimal[]> before = segmentTotals();
+
+            // DELETE rather than TRUNCATE, so dashboards keep reading the old totals until this commits
+            jdbcTemplate.update("DELETE FROM portfolio_user_summaries");
+            jdbcTemplate.update("DELETE FROM portfolio_segments");
+            jdbcTemplate.update("DELETE FROM portfolio_loan_positions");
+            int loans = jdbcTemplate.update(REBUILD_POSITIONS_SQL, asOf, asOf);
+            jdbcTemplate.update(REBUILD_SEGMENTS_SQL);
+            jdbcTemplate.update(REBUILD_USERS_SQL);
+
+            return PortfolioRefreshSummary.builder()
+                .asOf(today)
+                .rebuild(true)
+                .loansRefreshed(loans)
+                .segmentsDrifted(drifted(before, segmentTotals()))
+                .build();
+        });
+
+        summary.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        meterRegistry.counter("loan.portfolio.rebuild.drifted.segments").increment(summary.getSegmentsDrifted());
+        if (summary.getSegmentsDrifted() > 0) {
+            log.warn("Portfolio rebuild as of {} corrected {} segments", today, summary.getSegmentsDrifted());
+        }
+        log.info("Portfolio rebuilt as of {}: {} live loans in {}ms", today, summary.getLoansRefreshed(),
+            summary.getElapsedMillis());
+        return summary;
+    }
+
+    @Override
+    public PortfolioAnalyticsResponse getPortfolio() {
+        Map<LoanType, Totals> byProduct = new EnumMap<>(LoanType.class);
+        Map<DpdBucket, Totals> byBucket = new EnumMap<>(DpdBucket.class);
+        Map<String, Totals> byBranch = new TreeMap<>();
+        for (DpdBucket bucket : DpdBucket.values()) {
+            byBucket.put(bucket, new Totals());
+        }
+        Totals total = new Totals();
+        LocalDateTime[] asOf = new LocalDateTime[1];
+
+        jdbcTemplate.query(SEGMENTS_SQL, rs -> {
+            LoanType loanType = LoanType.valueOf(rs.getString("loan_type"));
+            DpdBucket bucket = DpdBucket.valueOf(rs.getString("dpd_bucket"));
+            long loans = rs.getLong("loans");
+            BigDecimal outstanding = rs.getBigDecimal("outstanding");
+            BigDecimal monthlyEmi = rs.getBigDecimal("monthly_emi");
+            boolean npa = bucket == DpdBucket.DPD_90;
+
+            byProduct.computeIfAbsent(loanType, type -> new Totals()).add(loans, outstanding, monthlyEmi, npa);
+            byBucket.get(bucket).add(loans, outstanding, monthlyEmi, npa);
+            byBranch.computeIfAbsent(rs.getString("branch_code"), branch -> new Totals())
+                .add(loans, outstanding, monthlyEmi, npa);
+            total.add(loans, outstanding, monthlyEmi, npa);
+
+            LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+            if (asOf[0] == null || updatedAt.isAfter(asOf[0])) {
+                asOf[0] = updatedAt;
+            }
+        });
+
+        return PortfolioAnalyticsResponse.builder()
+            .asOf(asOf[0])
+            .totalLoans(total.loans)
+            .totalOutstanding(total.outstanding)
+            .totalMonthlyEmi(total.monthlyEmi)
+            .npaOutstanding(total.npaOutstanding)
+            .npaRatio(percent(total.npaOutstanding, total.outstanding))
+            .byProduct(exposures(byProduct, total))
+            .byDpdBucket(exposures(byBucket, total))
+            .byBranch(exposures(byBranch, total))
+            .build();
+    }
+
+    @Override
+    public LoanSummaryResponse getUserSummary(Long userId) {
+        List<LoanSummaryResponse> rows = jdbcTemplate.query(
+            "SELECT active_loans, total_outstanding, total_monthly_emi FROM portfolio_user_summaries " +
+            "WHERE user_id = ?",
+            (rs, rowNum) -> LoanSummaryResponse.builder()
+                .userId(userId)
+                .activeLoansCount(rs.getInt("active_loans"))
+                .totalOutstanding(rs.getBigDecimal("total_outstanding"))
+                .totalMonthlyEmi(rs.getBigDecimal("total_monthly_emi"))
+                .build(),
+            userId);
+
+        return rows.isEmpty()
+            ? LoanSummaryResponse.builder()
+                .userId(userId)
+                .activeLoansCount(0)
+                .totalOutstanding(BigDecimal.ZERO)
+                .totalMonthlyEmi(BigDecimal.ZERO)
+                .build()
+            : rows.get(0);
+    }
+
+    private List<Long> changedLoans(Timestamp watermark, LocalDate today, long afterId) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CHANGED_SQL);
+            statement.setTimestamp(1, watermark);
+            statement.setLong(2, afterId);
+            statement.setDate(3, Date.valueOf(today));
+            statement.setLong(4, afterId);
+            statement.setInt(5, batchSize);
+            return statement;
+        }, (rs, rowNum) -> rs.getLong("id"));
+    }
+
+    private void apply(List<Long> ids, LocalDate today) {
+        Long[] loanIds = ids.toArray(Long[]::new);
+        Date asOf = Date.valueOf(today);
+
+        updateForIds(SUBTRACT_SEGMENTS_SQL, loanIds);
+        updateForIds(SUBTRACT_USERS_SQL, loanIds);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPSERT_POSITIONS_SQL);
+            statement.setDate(1, asOf);
+            statement.setDate(2, asOf);
+            statement.setArray(3, connection.createArrayOf("bigint", loanIds));
+            return statement;
+        });
+        updateForIds(ADD_SEGMENTS_SQL, loanIds);
+        updateForIds(ADD_USERS_SQL, loanIds);
+    }
+
+    private void updateForIds(String sql, Long[] loanIds) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", loanIds));
+            return statement;
+        });
+    }
+
+    private void lock() {
+        jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(?)", Integer.class, LOCK_KEY);
+    }
+
+    private Map<String, BigDecimal[]> segmentTotals() {
+        Map<String, BigDecimal[]> totals = new HashMap<>();
+        jdbcTemplate.query(SEGMENTS_SQL, rs -> {
+            totals.put(rs.getString("loan_type") + "/" + rs.getString("dpd_bucket") + "/" + rs.getString("branch_code"),
+                new BigDecimal[] {BigDecimal.valueOf(rs.getLong("loans")), rs.getBigDecimal("outstanding"),
+                    rs.getBigDecimal("monthly_emi")});
+        });
+        return totals;
+    }
+
+    private static int drifted(Map<String, BigDecimal[]> before, Map<String, BigDecimal[]> after) {
+        Set<String> keys = new HashSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        int drifted = 0;
+        for (String key : keys) {
+            BigDecimal[] was = before.get(key);
+            BigDecimal[] now = after.get(key);
+            if (was == null || now == null) {
+                drifted++;
+                continue;
+            }
+            for (int i = 0; i < was.length; i++) {
+                if (!Objects.equals(was[i] == null ? null : was[i].stripTrailingZeros(),
+                        now[i] == null ? null : now[i].stripTrailingZeros())) {
+                    drifted++;
+                    break;
+                }
+            }
+        }
+        return drifted;
+    }
+
+    private static <K> List<PortfolioExposure> exposures(Map<K, Totals> groups, Totals total) {
+        List<PortfolioExposure> exposures = new ArrayList<>(groups.size());
+        groups.forEach((key, totals) -> exposures.add(PortfolioExposure.builder()
+            .key(key.toString())
+            .loans(totals.loans)
+            .outstanding(totals.outstanding)
+            .monthlyEmi(totals.monthlyEmi)
+            .sharePercentage(percent(totals.outstanding, total.outstanding))
+            .npaOutstanding(totals.npaOutstanding)
+            .npaRatio(percent(totals.npaOutstanding, totals.outstanding))
+            .build()));
+        return exposures;
+    }
+
+    private static BigDecimal percent(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return part.multiply(HUNDRED).divide(whole, 2, RoundingMode.HALF_UP);
+    }
+
+    private static final class Totals {
+        private long loans;
+        private BigDecimal outstanding = BigDecimal.ZERO;
+        private BigDecimal monthlyEmi = BigDecimal.ZERO;
+        private BigDecimal npaOutstanding = BigDecimal.ZERO;
+
+        void add(long loans, BigDecimal outstanding, BigDecimal monthlyEmi, boolean npa) {
+            this.loans += loans;
+            this.outstanding = this.outstanding.add(outstanding);
+            this.monthlyEmi = this.monthlyEmi.add(monthlyEmi);
+            if (npa) {
+                this.npaOutstanding = this.npaOutstanding.add(outstanding);
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.loan_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.loan_service.dto.LumpSumPrepayment;
+import com.loan_service.dto.PrepaymentScenario;
+import com.loan_service.dto.PrepaymentScenarioResult;
+import com.loan_service.dto.PrepaymentSimulationRequest;
+import com.loan_service.dto.PrepaymentSimulationResponse;
+import com.loan_service.dto.RecurringPrepayment;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.InterestType;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.enums.PrepaymentMode;
+import com.loan_service.exception.InvalidLoanOperationException;
+import com.loan_service.exception.ResourceNotFoundException;
+import com.loan_service.exception.UnauthorizedAccessException;
+import com.loan_service.repository.LoanRepository;
+import com.loan_service.service.AmortizationEngine;
+import com.loan_service.service.EmiCalculatorService;
+import com.loan_service.service.PrepaymentSimulationService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prepayment and foreclosure quotes. A loan's remaining schedule is
+ * projected once per loan version and kept as its amortization state:
+ * the balance the future installments start from, and each one's closing
+ * balance and running interest in paise. A scenario picks up that
+ * baseline at its first payment instead of replaying the months before
+ * it. From there it steps month by month the way the schedule does:
+ * <ul>
+ * <li>a payment dated d lands after the installments due on or before d,
+ *     as a prepayment made that day would</li>
+ * <li>after a payment, REDUCE_EMI re-amortizes the installments left to a
+ *     new EMI, as {@code prepayLoan} does; REDUCE_TENURE keeps the EMI and
+ *     drops installments from the end</li>
+ * <li>the last installment takes whatever principal is left</li>
+ * </ul>
+ *
+ * Scenarios run in parallel on the simulation pool. Results are memoized
+ * per loan version and scenario, so a client moving a slider back and
+ * forth computes each position once. Any write to the loan bumps its
+ * version, which retires them.
+ */
+@Slf4j
+@Service
+public class PrepaymentSimulationServiceImpl implements PrepaymentSimulationService {
+    // Stored rows due after today would be re-amortized by a prepayment, so they count as future
+    private static final String STORED_SQL =
+            "SELECT COALESCE(MAX(emi_number), 0) AS stored, " +
+            "COALESCE(SUM(principal_component) FILTER (WHERE status NOT IN ('PAID', 'WAIVED')), 0) AS unpaid " +
+            "FROM emi_schedules WHERE loan_id = ? AND (due_date <= ? OR status <> 'SCHEDULED')";
+
+    private final LoanRepository loanRepository;
+    private final EmiCalculatorService emiCalculator;
+    private final AmortizationEngine amortizationEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool simulationPool;
+    private final MeterRegistry meterRegistry;
+    private final Map<StateKey, AmortizationState> states;
+    private final Map<ScenarioKey, PrepaymentScenarioResult> results;
+
+    public PrepaymentSimulationServiceImpl(LoanRepository loanRepository,
+            EmiCalculatorService emiCalculator,
+            AmortizationEngine amortizationEngine,
+            JdbcTemplate jdbcTemplate,
+            @Qualifier("simulationPool") ForkJoinPool simulationPool,
+            MeterRegistry meterRegistry,
+            @Value("${loan.simulation.state-cache-size:1000}") int stateCacheSize,
+            @Value("${loan.simulation.result-cache-size:20000}") int resultCacheSize) {
+        this.loanRepository = loanRepository;
+        this.emiCalculator = emiCalculator;
+        this.amortizationEngine = amortizationEngine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.simulationPool = simulationPool;
+        this.meterRegistry = meterRegistry;
+        this.states = lruCache(stateCacheSize);
+        this.results = lruCache(resultCacheSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PrepaymentSimulationResponse simulate(String loanNumber, PrepaymentSimulationRequest request,
+            Long userId) {
+        Loan loan = loanRepository.findByLoanNumber(loanNumber)
+            .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
+
+        if (!loan.getUserId().equals(userId)) {
+            throw new UnauthorizedAccessException("Unauthorized access to loan");
+        }
+        if (loan.getStatus() != LoanStatus.ACTIVE && loan.getStatus() != LoanStatus.OVERDUE) {
+            throw new InvalidLoanOperationException("Loan is not active");
+        }
+        if (!Boolean.TRUE.equals(loan.getPrepaymentAllowed())) {
+            throw new InvalidLoanOperationException("Prepayment not allowed for this loan");
+        }
+        if (loan.getInterestType() != null && loan.getInterestType() != InterestType.REDUCING_BALANCE) {
+            throw new InvalidLoanOperationException(
+                "Prepayment simulation is only available for reducing-balance loans");
+        }
+
+        StateKey stateKey = new StateKey(loan.getId(), loan.getVersion(), LocalDate.now());
+        AmortizationState state = states.get(stateKey);
+        if (state == null) {
+            state = loadState(loan, stateKey.asOf());
+            states.put(stateKey, state);
+        }
+
+        List<PrepaymentScenario> scenarios = request.getScenarios();
+        PrepaymentScenarioResult[] quoted = new PrepaymentScenarioResult[scenarios.size()];
+        List<Integer> misses = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            quoted[i] = results.get(new ScenarioKey(stateKey, scenarios.get(i)));
+            if (quoted[i] == null) {
+                misses.add(i);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            AmortizationState baseline = state;
+            List<PrepaymentScenarioResult> computed = simulationPool.submit(() -> misses.parallelStream()
+                    .map(i -> simulate(baseline, scenarios.get(i)))
+                    .toList())
+                .join();
+            for (int j = 0; j < misses.size(); j++) {
+                int i = misses.get(j);
+                quoted[i] = computed.get(j);
+                results.put(new ScenarioKey(stateKey, scenarios.get(i)), quoted[i]);
+            }
+        }
+
+        meterRegistry.counter("loan.simulation.scenarios", "cache", "hit")
+            .increment(scenarios.size() - misses.size());
+        meterRegistry.counter("loan.simulation.scenarios", "cache", "miss").increment(misses.size());
+        log.debug("Simulated {} scenarios for loan {} ({} memoized)", scenarios.size(), loanNumber,
+            scenarios.size() - misses.size());
+
+        int remaining = state.remaining();
+        return PrepaymentSimulationResponse.builder()
+            .loanNumber(loanNumber)
+            .loanVersion(loan.getVersion())
+            .outstandingPrincipal(loan.getOutstandingPrincipal())
+            .currentEmiAmount(BigDecimal.valueOf(state.emiPaise(), 2))
+            .remainingTenure(remaining)
+            .maturityDate(state.dueDate(remaining - 1))
+            .remainingInterest(BigDecimal.valueOf(state.interestBefore()[remaining], 2))
+            .scenarios(List.of(quoted))
+            .build();
+    }
+
+    private AmortizationState loadState(Loan loan, LocalDate asOf) {
+        Map<String, Object> stored = jdbcTemplate.queryForMap(STORED_SQL, loan.getId(), Date.valueOf(asOf));
+        int storedEmis = ((Number) stored.get("stored")).intValue();
+        BigDecimal arrears = (BigDecimal) stored.get("unpaid");
+        BigDecimal opening = loan.getOutstandingPrincipal().subtract(arrears);
+        int remaining = loan.getTotalEmis() - storedEmis;
+
+        if (remaining <= 0 || opening.signum() <= 0) {
+            throw new InvalidLoanOperationException("No installments left to prepay");
+        }
+        if (!AmortizationEngine.supports(opening, loan.getInterestRate(), remaining)
+                || loan.getEmiAmount().stripTrailingZeros().scale() > 2) {
+            throw new InvalidLoanOperationException("Prepayment simulation is not available for this loan's terms");
+        }
+
+        long rateUnits = AmortizationEngine.monthlyRateUnits(loan.getInterestRate());
+        long emiPaise = AmortizationEngine.toPaise(loan.getEmiAmount());
+        long[] interest = new long[remaining];
+        long[] principal = new long[remaining];
+        long[] outstanding = new long[remaining];
+        AmortizationEngine.schedule(AmortizationEngine.toPaise(opening), rateUnits, remaining, emiPaise,
+            interest, principal, outstanding);
+
+        long[] interestBefore = new long[remaining + 1];
+        for (int i = 0; i < remaining; i++) {
+            interestBefore[i + 1] = interestBefore[i] + interest[i];
+        }
+
+        return new AmortizationState(
+            loan.getFirstEmiDate().plusMonths(storedEmis),
+            AmortizationEngine.toPaise(opening),
+            arrears,
+            orZero(loan.getOutstandingInterest()).add(orZero(loan.getTotalLatePaymentCharges())),
+            loan.getInterestRate(),
+            rateUnits,
+            emiPaise,
+            loan.getPrepaymentChargesPercentage(),
+            outstanding,
+            interestBefore);
+    }
+
+    private PrepaymentScenarioResult simulate(AmortizationState state, PrepaymentScenario scenario) {
+        List<Payment> payments = payments(state, scenario);
+        int last = state.remaining() - 1;
+        long emi = state.emiPaise();
+
+        // Nothing differs from the baseline until the first payment
+        int i = payments.isEmpty() ? state.remaining() : installmentsDueBy(state, payments.get(0).date());
+        long balance = i == 0 ? state.openingPaise() : state.outstanding()[i - 1];
+        long interest = state.interestBefore()[i];
+
+        long prepaid = 0;
+        BigDecimal charges = BigDecimal.ZERO;
+        BigDecimal foreclosureAmount = null;
+        LocalDate paidOffOn = null;
+        int next = 0;
+
+        while (balance > 0 && i <= last) {
+            LocalDate due = state.dueDate(i);
+            boolean paid = false;
+            while (next < payments.size() && payments.get(next).date().isBefore(due) && balance > 0) {
+                Payment payment = payments.get(next++);
+                long amount = payment.foreclosure() ? balance : Math.min(payment.amountPaise(), balance);
+                if (payment.foreclosure()) {
+                    // Same dues as foreCloseLoan: arrears, interest and late charges on top of the balance
+                    BigDecimal principalDue = BigDecimal.valueOf(balance, 2).add(state.arrears());
+                    BigDecimal foreclosureCharges = prepaymentCharges(state, principalDue);
+                    foreclosureAmount = principalDue.add(state.otherDues()).add(foreclosureCharges);
+                    charges = charges.add(foreclosureCharges);
+                } else {
+                    charges = charges.add(prepaymentCharges(state, BigDecimal.valueOf(amount, 2)));
+                }
+                balance -= amount;
+                prepaid += amount;
+                paid = true;
+                if (balance == 0) {
+                    paidOffOn = payment.date();
+                }
+            }
+            if (balance == 0) {
+                break;
+            }
+
+            if (paid) {
+                int left = last - i + 1;
+                if (scenario.getMode() == PrepaymentMode.REDUCE_TENURE) {
+                    Integer tenure = emiCalculator.calculateTenureForEmi(BigDecimal.valueOf(balance, 2),
+                        state.rate(), BigDecimal.valueOf(emi, 2), left);
+                    if (tenure != null) {
+                        last = i + tenure - 1;
+                    }
+                } else {
+                    emi = amortizationEngine.emiPaise(balance, state.rateUnits(), left);
+                }
+            }
+
+            long monthInterest = AmortizationEngine.interestPaise(balance, state.rateUnits());
+            long monthPrincipal = i == last ? balance : Math.min(emi - monthInterest, balance);
+            balance -= monthPrincipal;
+            interest += monthInterest;
+            i++;
+        }
+
+        long baselineInterest = state.interestBefore()[state.remaining()];
+        return PrepaymentScenarioResult.builder()
+            .name(scenario.getName())
+            .mode(scenario.getMode())
+            .totalPrepaid(BigDecimal.valueOf(prepaid, 2))
+            .prepaymentCharges(charges)
+            .foreclosureAmount(foreclosureAmount)
+            .newEmiAmount(BigDecimal.valueOf(emi, 2))
+            .newRemainingTenure(i)
+            .tenureReducedBy(state.remaining() - i)
+            .newMaturityDate(paidOffOn != null ? paidOffOn : state.dueDate(i - 1))
+            .paidOffOn(paidOffOn)
+            .totalInterest(BigDecimal.valueOf(interest, 2))
+            .interestSaved(BigDecimal.valueOf(baselineInterest - interest, 2))
+            .build();
+    }
+
+    // Every payment in the scenario in date order; on the same day, foreclosure goes last
+    private List<Payment> payments(AmortizationState state, PrepaymentScenario scenario) {
+        List<Payment> payments = new ArrayList<>();
+        if (scenario.getLumpSums() != null) {
+            for (LumpSumPrepayment lumpSum : scenario.getLumpSums()) {
+                payments.add(new Payment(lumpSum.getDate(), paise(lumpSum.getAmount()), false));
+            }
+        }
+
+        RecurringPrepayment recurring = scenario.getRecurring();
+        if (recurring != null) {
+            int every = recurring.getEveryMonths() != null ? recurring.getEveryMonths() : 1;
+            int first = recurring.getStartDate() != null
+                ? installmentsDueBy(state, recurring.getStartDate().minusDays(1))
+                : 0;
+            for (int i = first; i < state.remaining(); i += every) {
+                LocalDate due = state.dueDate(i);
+                if (recurring.getEndDate() != null && due.isAfter(recurring.getEndDate())) {
+                    break;
+                }
+                payments.add(new Payment(due, paise(recurring.getAmount()), false));
+            }
+        }
+
+        if (scenario.getForecloseOn() != null) {
+            payments.add(new Payment(scenario.getForecloseOn(), 0L, true));
+        }
+        payments.sort(Comparator.comparing(Payment::date));
+        return payments;
+    }
+
+    private static int installmentsDueBy(AmortizationState state, LocalDate date) {
+        int due = 0;
+        while (due < state.remaining() && !state.dueDate(due).isAfter(date)) {
+            due++;
+        }
+        return due;
+    }
+
+    private BigDecimal prepaymentCharges(AmortizationState state, BigDecimal amount) {
+        return state.chargesPercentage() != null
+            ? emiCalculator.calculatePrepaymentCharges(amount, state.chargesPercentage())
+            : BigDecimal.ZERO;
+    }
+
+    private static long paise(BigDecimal amount) {
+        return AmortizationEngine.toPaise(amount.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    private static <K, V> Map<K, V> lruCache(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private record StateKey(Long loanId, Long version, LocalDate asOf) {
+    }
+
+    // Scenarios are request bodies and are not modified once bound
+    private record ScenarioKey(StateKey state, PrepaymentScenario scenario) {
+    }
+
+    private record Payment(LocalDate date, long amountPaise, boolean foreclosure) {
+    }
+
+    /**
+     * The future installments as the loan stands: installment {@code i}
+     * (from 0) closes at {@code outstanding[i]}, and {@code interestBefore[i]}
+     * is the interest of the installments before it.
+     */
+    private record AmortizationState(LocalDate firstDueDate, long openingPaise, BigDecimal arrears,
+            BigDecimal otherDues, BigDecimal rate, long rateUnits, long emiPaise, BigDecimal chargesPercentage,
+            long[] outstanding, long[] interestBefore) {
+
+        int remaining() {
+            return outstanding.length;
+        }
+
+        LocalDate dueDate(int index) {
+            return firstDueDate.plusMonths(index);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.loan_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.dto.RepricingRequest;
+import com.loan_service.dto.RepricingSummary;
+import com.loan_service.enums.InterestType;
+import com.loan_service.enums.RepricingMode;
+import com.loan_service.service.AmortizationEngine;
+import com.loan_service.service.EmiCalculatorService;
+import com.loan_service.service.OutboxService;
+import com.loan_service.service.RepricingService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Repricing of a floating-rate book after a benchmark change, chunk by
+ * chunk in loan id order:
+ * 1. Read the next chunk of live loans on the benchmark, locking them
+ *    unless this is a dry run, plus what their stored EMI rows still owe
+ * 2. Re-amortize each loan on the repricing fork-join pool through
+ *    {@link EmiCalculatorService}; this step touches no shared state
+ * 3. Drop the repriced loans' stored rows due after the effective date,
+ *    write the new terms with one JDBC batch and add one outbox event for
+ *    the chunk. All of this commits together
+ *
+ * A loan re-amortizes the same way {@code EmiScheduleService.reamortize}
+ * does a single loan. Installments due on or before the effective date
+ * keep their stored terms. The rest amortize the balance left after them
+ * at the new rate. Afterwards every repriced loan is on a COMPUTED schedule.
+ *
+ * Each chunk commits on its own, and a repriced loan is skipped when a
+ * run is repeated. So a run that fails partway can simply be run again.
+ */
+@Slf4j
+@Service
+public class RepricingServiceImpl implements RepricingService {
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id, loan_number, outstanding_principal, interest_rate, COALESCE(rate_spread, 0) AS rate_spread, " +
+            "emi_amount, total_emis, first_emi_date, interest_type " +
+            "FROM loans " +
+            "WHERE rate_benchmark = ? AND status IN ('ACTIVE', 'OVERDUE') AND id > ? " +
+            "ORDER BY id LIMIT ?";
+
+    // Rows due after the effective date are about to be replaced, so they do not count
+    private static final String STORED_SQL =
+            "SELECT loan_id, MAX(emi_number) AS stored, " +
+            "COALESCE(SUM(principal_component) FILTER (WHERE status NOT IN ('PAID', 'WAIVED')), 0) AS unpaid " +
+            "FROM emi_schedules " +
+            "WHERE loan_id = ANY (?) AND (due_date <= ? OR status <> 'SCHEDULED') " +
+            "GROUP BY loan_id";
+
+    private static final String DROP_FUTURE_SQL =
+            "DELETE FROM emi_schedules WHERE loan_id = ANY (?) AND status = 'SCHEDULED' AND due_date > ?";
+
+    private static final String UPDATE_SQL =
+            "UPDATE loans SET interest_rate = ?, emi_amount = ?, total_emis = ?, " +
+            "remaining_tenure_months = remaining_tenure_months + ?, maturity_date = ?, last_emi_date = ?, " +
+            "schedule_mode = 'COMPUTED', materialized_emis = ?, scheduled_principal = ?, " +
+            "next_materialize_date = ?, updated_at = now(), version = version + 1 " +
+            "WHERE id = ?";
+
+    private final EmiCalculatorService emiCalculator;
+    private final OutboxService outboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool repricingPool;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.repricing.chunk-size:1000}")
+    private int chunkSize;
+
+    public RepricingServiceImpl(EmiCalculatorService emiCalculator,
+            OutboxService outboxService,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("repricingPool") ForkJoinPool repricingPool,
+            MeterRegistry meterRegistry) {
+        this.emiCalculator = emiCalculator;
+        this.outboxService = outboxService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.repricingPool = repricingPool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public RepricingSummary reprice(RepricingRequest request) {
+        LocalDate effectiveDate = request.getEffectiveDate() != null ? request.getEffectiveDate() : LocalDate.now();
+        String runId = UUID.randomUUID().toString();
+        RunTotals totals = new RunTotals();
+        long startedAt = System.nanoTime();
+
+        log.info("Repricing {} to {} ({}, effective {}, dryRun={}): run {}", request.getBenchmark(),
+            request.getNewBenchmarkRate(), request.getMode(), effectiveDate, request.isDryRun(), runId);
+
+        long cursor = 0L;
+        while (true) {
+            long afterId = cursor;
+            int chunkNumber = totals.chunks + 1;
+            Long lastId = request.isDryRun()
+                ? processChunk(request, effectiveDate, runId, chunkNumber, afterId, totals)
+                : transactionTemplate.execute(status ->
+                    processChunk(request, effectiveDate, runId, chunkNumber, afterId, totals));
+            if (lastId == null) {
+                break;
+            }
+            cursor = lastId;
+        }
+
+        long elapsed = System.nanoTime() - startedAt;
+        double seconds = Math.max(elapsed / 1e9, 0.001);
+        meterRegistry.timer("loan.repricing.run", "mode", request.getMode().name(),
+                "dryRun", String.valueOf(request.isDryRun()))
+            .record(elapsed, TimeUnit.NANOSECONDS);
+
+        log.info("Repricing run {} done: evaluated={}, repriced={}, unchanged={}, tenureFallbacks={} "
+                + "in {} chunks, {}ms ({} loans/s)", runId, totals.evaluated, totals.repriced, totals.unchanged,
+            totals.tenureFallbacks, totals.chunks, TimeUnit.NANOSECONDS.toMillis(elapsed),
+            Math.round(totals.evaluated / seconds));
+
+        return RepricingSummary.builder()
+            .runId(runId)
+            .benchmark(request.getBenchmark())
+            .newBenchmarkRate(request.getNewBenchmarkRate())
+            .mode(request.getMode())
+            .effectiveDate(effectiveDate)
+            .dryRun(request.isDryRun())
+            .loansEvaluated(totals.evaluated)
+            .loansRepriced(totals.repriced)
+            .loansUnchanged(totals.unchanged)
+            .tenureFallbacks(totals.tenureFallbacks)
+            .chunks(totals.chunks)
+            .monthlyEmiBefore(totals.emiBefore)
+            .monthlyEmiAfter(totals.emiAfter)
+            .remainingInterestBefore(totals.interestBefore)
+            .remainingInterestAfter(totals.interestAfter)
+            .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+            .loansPerSecond(totals.evaluated / seconds)
+            .build();
+    }
+
+    private Long processChunk(RepricingRequest request, LocalDate effectiveDate, String runId, int chunkNumber,
+            long afterId, RunTotals totals) {
+        List<LoanTerms> loans = jdbcTemplate.query(
+            request.isDryRun() ? SELECT_CHUNK_SQL : SELECT_CHUNK_SQL + " FOR UPDATE",
+            (rs, rowNum) -> new LoanTerms(
+                rs.getLong("id"),
+                rs.getString("loan_number"),
+                rs.getBigDecimal("outstanding_principal"),
+                rs.getBigDecimal("interest_rate"),
+                rs.getBigDecimal("rate_spread"),
+                rs.getBigDecimal("emi_amount"),
+                rs.getInt("total_emis"),
+                rs.getDate("first_emi_date").toLocalDate(),
+                rs.getString("interest_type") != null
+                    ? InterestType.valueOf(rs.getString("interest_type")) : InterestType.REDUCING_BALANCE),
+            request.getBenchmark(), afterId, chunkSize);
+        if (loans.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, StoredEmis> stored = storedEmis(loans, effectiveDate);
+        List<Repriced> results = repricingPool.submit(() -> loans.parallelStream()
+                .map(loan -> reprice(loan, stored.getOrDefault(loan.id(), StoredEmis.NONE), request))
+                .toList())
+            .join();
+
+        List<Repriced> changed = results.stream().filter(Repriced::changed).toList();
+        if (!request.isDryRun() && !changed.isEmpty()) {
+            write(changed, effectiveDate);
+            outboxService.saveEvent("LOAN_REPRICING", runId, "LoansRepriced", "banking.loan.events",
+                chunkEvent(request, effectiveDate, runId, chunkNumber, changed));
+        }
+
+        totals.add(results);
+        meterRegistry.counter("loan.repricing.loans", "outcome", "repriced").increment(changed.size());
+        meterRegistry.counter("loan.repricing.loans", "outcome", "unchanged")
+            .increment(results.size() - changed.size());
+        return loans.get(loans.size() - 1).id();
+    }
+
+    private Map<Long, StoredEmis> storedEmis(List<LoanTerms> loans, LocalDate effectiveDate) {
+        Long[] ids = loans.stream().map(LoanTerms::id).toArray(Long[]::new);
+        Map<Long, StoredEmis> stored = new HashMap<>(loans.size() * 2);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(STORED_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setDate(2, Date.valueOf(effectiveDate));
+            return statement;
+        }, rs -> {
+            stored.put(rs.getLong("loan_id"), new StoredEmis(rs.getInt("stored"), rs.getBigDecimal("unpaid")));
+        });
+        return stored;
+    }
+
+    private Repriced reprice(LoanTerms loan, StoredEmis stored, RepricingRequest request) {
+        BigDecimal newRate = request.getNewBenchmarkRate().add(loan.spread());
+        BigDecimal opening = loan.outstanding().subtract(stored.unpaid());
+        int remaining = loan.totalEmis() - stored.count();
+
+        if (remaining <= 0 || opening.signum() <= 0 || newRate.signum() <= 0
+                || newRate.compareTo(loan.rate()) == 0) {
+            return Repriced.unchanged(loan);
+        }
+
+        BigDecimal newEmi = null;
+        int newRemaining = remaining;
+        boolean fallback = false;
+        if (request.getMode() == RepricingMode.NEW_TENURE) {
+            Integer tenure = emiCalculator.calculateTenureForEmi(opening, newRate, loan.emi(),
+                AmortizationEngine.MAX_TENURE_MONTHS - stored.count());
+            if (tenure != null) {
+                newEmi = loan.emi();
+                newRemaining = tenure;
+            } else {
+                fallback = true;
+            }
+        }
+        if (newEmi == null) {
+            newEmi = emiCalculator.calculateEmi(opening, newRate, remaining, loan.interestType()).getEmiAmount();
+        }
+
+        return new Repriced(loan, true, fallback, newRate, newEmi, stored.count(), opening, remaining, newRemaining);
+    }
+
+    private void write(List<Repriced> changed, LocalDate effectiveDate) {
+        // Only MATERIALIZED loans, or a backdated effective date, leave rows to drop
+        Long[] ids = changed.stream().map(repriced -> repriced.loan().id()).toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DROP_FUTURE_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setDate(2, Date.valueOf(effectiveDate));
+            return statement;
+        });
+
+        List<Object[]> rows = new ArrayList<>(changed.size());
+        for (Repriced repriced : changed) {
+            LoanTerms loan = repriced.loan();
+            int totalEmis = repriced.storedEmis() + repriced.newRemaining();
+            Date maturity = Date.valueOf(loan.firstEmiDate().plusMonths(totalEmis - 1));
+            rows.add(new Object[] {repriced.newRate(), repriced.newEmi(), totalEmis,
+                repriced.newRemaining() - repriced.remaining(), maturity, maturity,
+                repriced.storedEmis(), repriced.opening(),
+                Date.valueOf(loan.firstEmiDate().plusMonths(repriced.storedEmis())), loan.id()});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+    }
+
+    private Map<String, Object> chunkEvent(RepricingRequest request, LocalDate effectiveDate, String runId,
+            int chunkNumber, List<Repriced> changed) {
+        List<Map<String, Object>> loans = new ArrayList<>(changed.size());
+        for (Repriced repriced : changed) {
+            Map<String, Object> loan = new LinkedHashMap<>();
+            loan.put("loanNumber", repriced.loan().loanNumber());
+            loan.put("oldRate", repriced.loan().rate());
+            loan.put("newRate", repriced.newRate());
+            loan.put("oldEmi", repriced.loan().emi());
+            loan.put("newEmi", repriced.newEmi());
+            loan.put("oldRemainingEmis", repriced.remaining());
+            loan.put("newRemainingEmis", repriced.newRemaining());
+            loans.add(loan);
+        }
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("runId", runId);
+        event.put("chunk", chunkNumber);
+        event.put("benchmark", request.getBenchmark());
+        event.put("newBenchmarkRate", request.getNewBenchmarkRate());
+        event.put("mode", request.getMode());
+        event.put("effectiveDate", effectiveDate.toString());
+        event.put("loans", loans);
+        return event;
+    }
+
+    private record LoanTerms(long id, String loanNumber, BigDecimal outstanding, BigDecimal rate,
+            BigDecimal spread, BigDecimal emi, int totalEmis, LocalDate firstEmiDate,
+            InterestType interestType) {
+    }
+
+    private record StoredEmis(int count, BigDecimal unpaid) {
+        static final StoredEmis NONE = new StoredEmis(0, BigDecimal.ZERO);
+    }
+
+    private record Repriced(LoanTerms loan, boolean changed, boolean tenureFallback, BigDecimal newRate,
+            BigDecimal newEmi, int storedEmis, BigDecimal opening, int remaining, int newRemaining) {
+
+        static Repriced unchanged(LoanTerms loan) {
+            return new Repriced(loan, false, false, loan.rate(), loan.emi(), 0, null, 0, 0);
+        }
+
+        BigDecimal interestBefore() {
+            return loan.emi().multiply(BigDecimal.valueOf(remaining)).subtract(opening);
+        }
+
+        BigDecimal interestAfter() {
+            return newEmi.multiply(BigDecimal.valueOf(newRemaining)).subtract(opening);
+        }
+    }
+
+    // Only touched by the thread running the repricing
+    private static final class RunTotals {
+        private long evaluated;
+        private long repriced;
+        private long unchanged;
+        private long tenureFallbacks;
+        private int chunks;
+        private BigDecimal emiBefore = BigDecimal.ZERO;
+        private BigDecimal emiAfter = BigDecimal.ZERO;
+        private BigDecimal interestBefore = BigDecimal.ZERO;
+        private BigDecimal interestAfter = BigDecimal.ZERO;
+
+        void add(List<Repriced> results) {
+            chunks++;
+            for (Repriced result : results) {
+                evaluated++;
+                if (!result.changed()) {
+                    unchanged++;
+                    continue;
+                }
+                repriced++;
+                if (result.tenureFallback()) {
+                    tenureFallbacks++;
+                }
+                emiBefore = emiBefore.add(result.loan().emi());
+                emiAfter = emiAfter.add(result.newEmi());
+                interestBefore = interestBefore.add(result.interestBefore());
+                interestAfter = interestAfter.add(result.interestAfter());
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.loan_service.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.loan_service.service.AmortizationEngine;
+import com.loan_service.service.BigDecimalAmortization;
+
+/**
+ * EMI quote and full schedule, BigDecimal path against
+ * {@link AmortizationEngine}, for a personal, a car and a home loan tenure.
+ * The engine's factor tables are warm, as they are in a running service.
+ *
+ * Run with {@code mvn -o -Pbenchmark test -Dtest=AmortizationBenchmark}.
+ * The profile adds the JMH annotation processor; without it the generated
+ * benchmark classes are missing and JMH finds nothing to run.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmortizationBenchmark {
+
+	@Param({ "36", "84", "360" })
+	public int tenureMonths;
+
+	private final BigDecimal principal = new BigDecimal("2500000.0000");
+	private final BigDecimal annualRate = new BigDecimal("8.65");
+
+	private AmortizationEngine engine;
+	private long principalPaise;
+	private long rateUnits;
+	private BigDecimal emi;
+	private long emiPaise;
+	private long[] interest;
+	private long[] principalComponent;
+	private long[] outstanding;
+
+	@Setup
+	public void setUp() {
+		engine = new AmortizationEngine();
+		principalPaise = AmortizationEngine.toPaise(principal);
+		rateUnits = AmortizationEngine.monthlyRateUnits(annualRate);
+		emiPaise = engine.emiPaise(principalPaise, rateUnits, tenureMonths);
+		emi = BigDecimal.valueOf(emiPaise, 2).setScale(4);
+		interest = new long[tenureMonths];
+		principalComponent = new long[tenureMonths];
+		outstanding = new long[tenureMonths];
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalEmi() {
+		return BigDecimalAmortization.emi(principal, annualRate, tenureMonths);
+	}
+
+	@Benchmark
+	public long engineEmi() {
+		return engine.emiPaise(AmortizationEngine.toPaise(principal), AmortizationEngine.monthlyRateUnits(annualRate),
+				tenureMonths);
+	}
+
+	@Benchmark
+	public BigDecimal[][] bigDecimalSchedule() {
+		return BigDecimalAmortization.schedule(principal, annualRate, tenureMonths, emi);
+	}
+
+	@Benchmark
+	public void engineSchedule(Blackhole blackhole) {
+		AmortizationEngine.schedule(principalPaise, rateUnits, tenureMonths, emiPaise,
+				interest, principalComponent, outstanding);
+		blackhole.consume(outstanding);
+	}
+
+	@Test
+	void run() throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(AmortizationBenchmark.class.getName() + "\\.")
+				.build())
+				.run();
+	}
+}
@@ -0,0 +1,192 @@
+package com.loan_service.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.dto.RepricingRequest;
+import com.loan_service.dto.RepricingSummary;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.RepricingMode;
+import com.loan_service.repository.LoanRepository;
+import com.loan_service.service.EmiCalculatorService;
+import com.loan_service.service.RepricingService;
+
+/**
+ * Repricing over a synthetic floating-rate book. Seeds
+ * {@code -Dbenchmark.repricing.loans} loans (1M by default) on a private
+ * benchmark at 6.50% with generate_series. It then reports throughput for:
+ * - a dry run in each mode
+ * - a real NEW_EMI run to 6.75%
+ * - the loan-by-loan entity path it replaces
+ *
+ * The baseline only covers the first {@code -Dbenchmark.repricing.baseline-loans}
+ * loans, and its writes are rolled back.
+ *
+ * Run with {@code mvn -o -Pbenchmark test -Dtest=RepricingBenchmark}
+ * against a local Postgres. The synthetic loans and their outbox events
+ * are deleted afterwards.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"logging.level.com.loan_service=WARN",
+		"logging.level.org.hibernate.SQL=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RepricingBenchmark {
+
+	private static final long LOANS = Long.getLong("benchmark.repricing.loans", 1_000_000L);
+	private static final int BASELINE_LOANS = Integer.getInteger("benchmark.repricing.baseline-loans", 20_000);
+	private static final int SEED_BATCH = 200_000;
+	private static final BigDecimal NEW_RATE = new BigDecimal("6.75");
+
+	private final String benchmark = "BENCH-" + ThreadLocalRandom.current().nextInt(1_000_000);
+	private String writeRunId;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private EmiCalculatorService emiCalculator;
+
+	@Autowired
+	private RepricingService repricingService;
+
+	@BeforeAll
+	void seed() {
+		long started = System.nanoTime();
+		for (long from = 1; from <= LOANS; from += SEED_BATCH) {
+			long to = Math.min(from + SEED_BATCH - 1, LOANS);
+			// 1-40 lakh over 12-360 months at 8.00-10.99%, first EMI far enough ahead that nothing materializes
+			jdbcTemplate.update(
+					"INSERT INTO loans (loan_number, application_id, user_id, account_id, loan_type, status, "
+							+ "principal_amount, sanctioned_amount, outstanding_principal, interest_rate, "
+							+ "rate_benchmark, rate_spread, interest_type, tenure_months, remaining_tenure_months, "
+							+ "total_emis, emi_amount, emi_day, first_emi_date, schedule_mode, materialized_emis, "
+							+ "scheduled_principal, paid_emis, missed_emis, created_at, version) "
+							+ "SELECT ? || '-' || g, 0, g % 100000, g, 'PERSONAL', 'ACTIVE', p, p, p, rate, "
+							+ "?, rate - 6.50, 'REDUCING_BALANCE', n, n, n, "
+							+ "round(p * rate / 1200 * power(1 + rate / 1200, n) / (power(1 + rate / 1200, n) - 1), 2), "
+							+ "5, DATE '2090-01-05', 'COMPUTED', 0, p, 0, 0, now(), 0 "
+							+ "FROM (SELECT g, (100000 + (g % 4000) * 1000)::numeric(19,4) AS p, "
+							+ "(8 + (g % 300) / 100.0)::numeric(5,2) AS rate, (12 + g % 349)::int AS n "
+							+ "FROM generate_series(?::bigint, ?::bigint) g) s",
+					benchmark, benchmark, from, to);
+		}
+		jdbcTemplate.execute("ANALYZE loans");
+		System.out.printf("%nSeeded %,d loans on %s in %ds%n", LOANS, benchmark,
+				TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+	}
+
+	@AfterAll
+	void cleanup() {
+		if (writeRunId != null) {
+			jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_type = 'LOAN_REPRICING' "
+					+ "AND aggregate_id = ?", writeRunId);
+		}
+		jdbcTemplate.update("DELETE FROM loans WHERE rate_benchmark = ?", benchmark);
+	}
+
+	@Test
+	@Order(1)
+	void dryRunNewEmi() {
+		RepricingSummary summary = run(RepricingMode.NEW_EMI, true);
+		assertThat(summary.getLoansRepriced()).isEqualTo(LOANS);
+	}
+
+	@Test
+	@Order(2)
+	void dryRunNewTenure() {
+		RepricingSummary summary = run(RepricingMode.NEW_TENURE, true);
+		assertThat(summary.getLoansRepriced()).isEqualTo(LOANS);
+	}
+
+	@Test
+	@Order(3)
+	void loanByLoanBaseline() {
+		long[] ids = jdbcTemplate.queryForList("SELECT id FROM loans WHERE rate_benchmark = ? ORDER BY id LIMIT ?",
+				Long.class, benchmark, BASELINE_LOANS).stream().mapToLong(Long::longValue).toArray();
+		long started = System.nanoTime();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			for (long id : ids) {
+				Loan loan = loanRepository.findById(id).orElseThrow();
+				BigDecimal rate = NEW_RATE.add(loan.getRateSpread());
+				loan.setEmiAmount(emiCalculator.calculateEmi(loan.getOutstandingPrincipal(), rate,
+						loan.getTotalEmis(), loan.getInterestType()).getEmiAmount());
+				loan.setInterestRate(rate);
+				loanRepository.saveAndFlush(loan);
+			}
+			status.setRollbackOnly();
+		});
+
+		long elapsed = System.nanoTime() - started;
+		double seconds = elapsed / 1e9;
+		System.out.printf("%n=== loan-by-loan entity baseline ===%n");
+		System.out.printf("loans             %,14d%n", ids.length);
+		System.out.printf("elapsed           %14.1f s%n", seconds);
+		System.out.printf("throughput        %,14.0f loans/s%n", ids.length / seconds);
+		System.out.printf("  extrapolated to %,d loans: %ds%n", LOANS,
+				TimeUnit.NANOSECONDS.toSeconds((long) (elapsed * ((double) LOANS / ids.length))));
+	}
+
+	@Test
+	@Order(4)
+	void writeNewEmi() {
+		RepricingSummary summary = run(RepricingMode.NEW_EMI, false);
+		writeRunId = summary.getRunId();
+
+		assertThat(summary.getLoansRepriced()).isEqualTo(LOANS);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM loans WHERE rate_benchmark = ? AND interest_rate <> rate_spread + ?",
+				Long.class, benchmark, NEW_RATE)).isZero();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM outbox_events WHERE aggregate_type = 'LOAN_REPRICING' AND aggregate_id = ?",
+				Long.class, writeRunId)).isEqualTo((long) summary.getChunks());
+
+		// Same benchmark rate again: every loan is already there
+		assertThat(run(RepricingMode.NEW_EMI, false).getLoansRepriced()).isZero();
+	}
+
+	private RepricingSummary run(RepricingMode mode, boolean dryRun) {
+		RepricingSummary summary = repricingService.reprice(RepricingRequest.builder()
+				.benchmark(benchmark)
+				.newBenchmarkRate(NEW_RATE)
+				.mode(mode)
+				.dryRun(dryRun)
+				.build());
+
+		System.out.printf("%n=== %s %s ===%n", dryRun ? "dry run" : "write", mode);
+		System.out.printf("loans             %,14d (%,d repriced, %,d tenure fallbacks)%n",
+				summary.getLoansEvaluated(), summary.getLoansRepriced(), summary.getTenureFallbacks());
+		System.out.printf("elapsed           %14.1f s%n", summary.getElapsedMillis() / 1e3);
+		System.out.printf("throughput        %,14.0f loans/s%n", summary.getLoansPerSecond());
+		System.out.printf("monthly EMI       %s -> %s%n", summary.getMonthlyEmiBefore().toPlainString(),
+				summary.getMonthlyEmiAfter().toPlainString());
+		System.out.printf("interest left     %s -> %s%n", summary.getRemainingInterestBefore().toPlainString(),
+				summary.getRemainingInterestAfter().toPlainString());
+		return summary;
+	}
+}
@@ -0,0 +1,135 @@
+package com.loan_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.loan_service.dto.EmiCalculationResult;
+import com.loan_service.enums.InterestType;
+
+/**
+ * Randomised equivalence between {@link AmortizationEngine} and the
+ * BigDecimal code it replaces. Every generated case must agree to the
+ * paisa; the seed is in each failure message so a case can be replayed.
+ */
+class AmortizationEngineTest {
+
+	private static final long SEED = 20260901L;
+
+	private final AmortizationEngine engine = new AmortizationEngine();
+
+	@Test
+	void emiMatchesBigDecimalPath() {
+		Random random = new Random(SEED);
+		for (int i = 0; i < 5_000; i++) {
+			Terms terms = Terms.random(random);
+			long emi = engine.emiPaise(terms.principalPaise, AmortizationEngine.monthlyRateUnits(terms.rate),
+					terms.tenure);
+
+			assertThat(BigDecimal.valueOf(emi, 2))
+					.as("seed %d case %d: %s", SEED, i, terms)
+					.isEqualByComparingTo(BigDecimalAmortization.emi(terms.principal(), terms.rate, terms.tenure));
+		}
+	}
+
+	@Test
+	void scheduleMatchesBigDecimalPath() {
+		Random random = new Random(SEED + 1);
+		long[] interest = new long[AmortizationEngine.MAX_TENURE_MONTHS];
+		long[] principal = new long[AmortizationEngine.MAX_TENURE_MONTHS];
+		long[] outstanding = new long[AmortizationEngine.MAX_TENURE_MONTHS];
+
+		for (int i = 0; i < 500; i++) {
+			Terms terms = Terms.random(random);
+			long rateUnits = AmortizationEngine.monthlyRateUnits(terms.rate);
+			long emi = engine.emiPaise(terms.principalPaise, rateUnits, terms.tenure);
+			AmortizationEngine.schedule(terms.principalPaise, rateUnits, terms.tenure, emi,
+					interest, principal, outstanding);
+
+			// Stored loans carry amounts at scale 4
+			BigDecimal[][] expected = BigDecimalAmortization.schedule(terms.principal().setScale(4),
+					terms.rate, terms.tenure, BigDecimal.valueOf(emi, 2).setScale(4));
+			for (int month = 0; month < terms.tenure; month++) {
+				String row = String.format("seed %d case %d month %d: %s", SEED + 1, i, month + 1, terms);
+				assertThat(BigDecimal.valueOf(interest[month], 2)).as(row).isEqualByComparingTo(expected[month][0]);
+				assertThat(BigDecimal.valueOf(principal[month], 2)).as(row).isEqualByComparingTo(expected[month][1]);
+				assertThat(BigDecimal.valueOf(outstanding[month], 2)).as(row).isEqualByComparingTo(expected[month][2]);
+			}
+		}
+	}
+
+	@Test
+	void boundaryTermsMatchBigDecimalPath() {
+		long[] principals = {1L, 99L, 100_000_00L, AmortizationEngine.MAX_PRINCIPAL_PAISE - 1};
+		String[] rates = {"0.01", "0.5", "8.25", "10.5", "24", "99.99", "100"};
+		int[] tenures = {1, 2, 12, 360, AmortizationEngine.MAX_TENURE_MONTHS};
+
+		for (long principalPaise : principals) {
+			for (String rate : rates) {
+				for (int tenure : tenures) {
+					BigDecimal annualRate = new BigDecimal(rate);
+					long emi = engine.emiPaise(principalPaise, AmortizationEngine.monthlyRateUnits(annualRate), tenure);
+					assertThat(BigDecimal.valueOf(emi, 2))
+							.as("principal %d paise, rate %s, tenure %d", principalPaise, rate, tenure)
+							.isEqualByComparingTo(BigDecimalAmortization.emi(
+									BigDecimal.valueOf(principalPaise, 2), annualRate, tenure));
+				}
+			}
+		}
+	}
+
+	@Test
+	void fallbackFormulaAgreesWithFastPath() {
+		Random random = new Random(SEED + 2);
+		for (int i = 0; i < 2_000; i++) {
+			Terms terms = Terms.random(random);
+			long rateUnits = AmortizationEngine.monthlyRateUnits(terms.rate);
+			assertThat(engine.emiPaise(terms.principalPaise, rateUnits, terms.tenure))
+					.as("seed %d case %d: %s", SEED + 2, i, terms)
+					.isEqualTo(AmortizationEngine.exactEmiPaise(terms.principalPaise, rateUnits, terms.tenure));
+		}
+	}
+
+	@Test
+	void calculatorUsesEngineOnlyWhereItApplies() {
+		EmiCalculatorService calculator = new EmiCalculatorService(engine);
+
+		EmiCalculationResult result = calculator.calculateEmi(
+				new BigDecimal("500000.0000"), new BigDecimal("10.50"), 60, InterestType.REDUCING_BALANCE);
+		assertThat(result.getEmiAmount()).isEqualByComparingTo(
+				BigDecimalAmortization.emi(new BigDecimal("500000"), new BigDecimal("10.50"), 60));
+		assertThat(result.getTotalPayment()).isEqualByComparingTo(result.getEmiAmount().multiply(BigDecimal.valueOf(60)));
+
+		// Sub-paisa principal and out-of-range rate go down the BigDecimal path unchanged
+		assertThat(AmortizationEngine.supports(new BigDecimal("1000.005"), BigDecimal.TEN, 12)).isFalse();
+		assertThat(AmortizationEngine.supports(new BigDecimal("1000"), new BigDecimal("100.01"), 12)).isFalse();
+		assertThat(AmortizationEngine.supports(new BigDecimal("1000"), BigDecimal.ZERO, 12)).isFalse();
+		assertThat(AmortizationEngine.supports(new BigDecimal("1000"), BigDecimal.TEN, 601)).isFalse();
+		assertThat(calculator.calculateEmi(new BigDecimal("1000.005"), BigDecimal.TEN, 12,
+				InterestType.REDUCING_BALANCE).getEmiAmount())
+				.isEqualByComparingTo(BigDecimalAmortization.emi(new BigDecimal("1000.005"), BigDecimal.TEN, 12));
+	}
+
+	private record Terms(long principalPaise, BigDecimal rate, int tenure) {
+
+		static Terms random(Random random) {
+			// Log-uniform principal from 1 paisa up to the engine's limit, half of them in the retail range
+			long principalPaise = random.nextBoolean()
+					? 10_000_00L + random.nextLong(5_00_00_000_00L)
+					: Math.max(1L, (long) Math.pow(10, random.nextDouble() * 13) - 1);
+			// Mostly quoted rates in 5 bp steps up to 36%; the rest any rate up to 100%, each a cold factor table
+			BigDecimal rate = random.nextInt(10) == 0
+					? BigDecimal.valueOf(1 + random.nextInt(10_000), 2)
+					: BigDecimal.valueOf(5 + 5 * random.nextInt(720), 2);
+			int tenure = 1 + random.nextInt(random.nextBoolean() ? AmortizationEngine.MAX_TENURE_MONTHS : 84);
+			return new Terms(principalPaise, rate, tenure);
+		}
+
+		BigDecimal principal() {
+			return BigDecimal.valueOf(principalPaise, 2);
+		}
+	}
+}
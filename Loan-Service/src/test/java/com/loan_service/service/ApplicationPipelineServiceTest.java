@@ -0,0 +1,97 @@
+package com.loan_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.loan_service.entity.LoanApplication;
+import com.loan_service.enums.ApplicationStatus;
+import com.loan_service.enums.LoanType;
+import com.loan_service.repository.LoanApplicationRepository;
+
+/**
+ * Stage transitions that do not reach the bureau or fraud service.
+ */
+@DatabaseTest
+class ApplicationPipelineServiceTest {
+
+	// 12 lakh a year leaves 50,000 a month for EMIs, eligible up to 50 lakh
+	private static final BigDecimal ANNUAL_INCOME = new BigDecimal("1200000");
+
+	@Autowired
+	private ApplicationPipelineService pipelineService;
+
+	@Autowired
+	private LoanApplicationRepository applicationRepository;
+
+	@Test
+	void decisionRejectsAmountsOverEligibility() {
+		LoanApplication application = application(ApplicationStatus.CREDIT_CHECK_COMPLETED, "6000000");
+
+		pipelineService.decide(application.getApplicationNumber());
+
+		LoanApplication decided = reload(application);
+		assertThat(decided.getStatus()).isEqualTo(ApplicationStatus.REJECTED);
+		assertThat(decided.getRejectionReason()).isEqualTo("Requested amount exceeds eligibility");
+	}
+
+	@Test
+	void decisionLeavesMidScoresForUnderwritingAndIgnoresRedelivery() {
+		LoanApplication application = application(ApplicationStatus.CREDIT_CHECK_COMPLETED, "800000");
+
+		pipelineService.decide(application.getApplicationNumber());
+		LoanApplication decided = reload(application);
+		assertThat(decided.getStatus()).isEqualTo(ApplicationStatus.DOCUMENTS_PENDING);
+
+		pipelineService.decide(application.getApplicationNumber());
+		assertThat(reload(application).getVersion()).isEqualTo(decided.getVersion());
+	}
+
+	@Test
+	void screeningSkipsApplicationsPastSubmitted() {
+		LoanApplication application = application(ApplicationStatus.DOCUMENTS_PENDING, "800000");
+
+		pipelineService.screen(application.getApplicationNumber());
+
+		LoanApplication current = reload(application);
+		assertThat(current.getStatus()).isEqualTo(ApplicationStatus.DOCUMENTS_PENDING);
+		assertThat(current.getVersion()).isEqualTo(application.getVersion());
+	}
+
+	@Test
+	void manualReviewOnlyParksUndecidedApplications() {
+		LoanApplication pending = application(ApplicationStatus.SUBMITTED, "800000");
+		LoanApplication rejected = application(ApplicationStatus.REJECTED, "800000");
+
+		pipelineService.sendToManualReview(pending.getApplicationNumber(), new IllegalStateException("bureau down"));
+		pipelineService.sendToManualReview(rejected.getApplicationNumber(), new IllegalStateException("bureau down"));
+
+		assertThat(reload(pending).getStatus()).isEqualTo(ApplicationStatus.UNDER_REVIEW);
+		assertThat(reload(pending).getReviewNotes()).contains("bureau down");
+		assertThat(reload(rejected).getStatus()).isEqualTo(ApplicationStatus.REJECTED);
+	}
+
+	private LoanApplication reload(LoanApplication application) {
+		applicationRepository.flush();
+		return applicationRepository.findByApplicationNumber(application.getApplicationNumber()).orElseThrow();
+	}
+
+	private LoanApplication application(ApplicationStatus status, String amount) {
+		return applicationRepository.saveAndFlush(LoanApplication.builder()
+				.applicationNumber("PIPE-" + System.nanoTime())
+				.userId(0L)
+				.accountId(0L)
+				.loanType(LoanType.PERSONAL)
+				.status(status)
+				.requestedAmount(new BigDecimal(amount))
+				.requestedTenureMonths(36)
+				.annualIncome(ANNUAL_INCOME)
+				.panNumber("ABCDE1234F")
+				.creditScore(700)
+				.collateralOffered(false)
+				.build());
+	}
+}
@@ -0,0 +1,55 @@
+package com.loan_service.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The BigDecimal amortization code as it was before {@link AmortizationEngine},
+ * kept verbatim as the reference the engine is tested and benchmarked
+ * against.
+ */
+public final class BigDecimalAmortization {
+
+	private BigDecimalAmortization() {
+	}
+
+	/** EmiCalculatorService.calculateReducingBalanceEmi */
+	public static BigDecimal emi(BigDecimal principal, BigDecimal annualInterestRate, int tenureMonths) {
+		BigDecimal monthlyRate = annualInterestRate
+				.divide(new BigDecimal("1200"), 10, RoundingMode.HALF_UP);
+
+		BigDecimal onePlusR = BigDecimal.ONE.add(monthlyRate);
+		BigDecimal onePlusRPowerN = onePlusR.pow(tenureMonths);
+
+		BigDecimal numerator = principal.multiply(monthlyRate).multiply(onePlusRPowerN);
+		BigDecimal denominator = onePlusRPowerN.subtract(BigDecimal.ONE);
+
+		return numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * LoanServiceImpl.generateEmiSchedule, minus the entities: rows of
+	 * {interest, principal, outstanding}.
+	 */
+	public static BigDecimal[][] schedule(BigDecimal principalAmount, BigDecimal interestRate, int tenureMonths,
+			BigDecimal emiAmount) {
+		BigDecimal[][] rows = new BigDecimal[tenureMonths][];
+		BigDecimal remainingPrincipal = principalAmount;
+		BigDecimal monthlyRate = interestRate
+				.divide(new BigDecimal("1200"), 10, RoundingMode.HALF_UP);
+
+		for (int i = 1; i <= tenureMonths; i++) {
+			BigDecimal interestComponent = remainingPrincipal.multiply(monthlyRate)
+					.setScale(2, RoundingMode.HALF_UP);
+			BigDecimal principalComponent = emiAmount.subtract(interestComponent);
+
+			if (i == tenureMonths) {
+				principalComponent = remainingPrincipal;
+			}
+
+			remainingPrincipal = remainingPrincipal.subtract(principalComponent);
+			rows[i - 1] = new BigDecimal[] {interestComponent, principalComponent, remainingPrincipal};
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,217 @@
+package com.loan_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loan_service.dto.CreditScoreLookup;
+import com.loan_service.dto.CreditScorePrefetchResponse;
+import com.loan_service.dto.CreditScoreResponse;
+import com.loan_service.service.implementation.CreditScoreCacheServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cache hits, coalesced pulls and prefetching against a map standing in
+ * for Redis, with the bureau mocked.
+ */
+class CreditScoreCacheServiceTest {
+
+	private static final Duration TTL = Duration.ofDays(30);
+	private static final Duration FALLBACK_TTL = Duration.ofMinutes(5);
+	private static final String PAN = "ABCDE1234F";
+
+	private final CreditScoringService bureau = mock(CreditScoringService.class);
+	private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, String> values = mock(ValueOperations.class);
+	private final Map<String, String> redis = new ConcurrentHashMap<>();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ThreadPoolTaskExecutor executor;
+	private CreditScoreCacheService cacheService;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(values.get(anyString())).thenAnswer(call -> redis.get(call.<String>getArgument(0)));
+		when(values.multiGet(anyCollection())).thenAnswer(call ->
+				call.<Collection<String>>getArgument(0).stream().map(redis::get).toList());
+		doAnswer(call -> redis.put(call.getArgument(0), call.getArgument(1)))
+				.when(values).set(anyString(), anyString(), any(Duration.class));
+
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(4);
+		executor.initialize();
+		cacheService = new CreditScoreCacheServiceImpl(bureau, redisTemplate,
+				new ObjectMapper().findAndRegisterModules(), executor, meterRegistry);
+		ReflectionTestUtils.setField(cacheService, "ttl", TTL);
+		ReflectionTestUtils.setField(cacheService, "fallbackTtl", FALLBACK_TTL);
+		ReflectionTestUtils.setField(cacheService, "prefetchBatchSize", 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void pullsOnceThenServesTheCachedScore() {
+		when(bureau.fetchCreditScore(1L, PAN)).thenReturn(score(780, false));
+
+		CreditScoreResponse first = cacheService.getCreditScore(1L, PAN);
+		// The same PAN as typed on another form
+		CreditScoreResponse second = cacheService.getCreditScore(1L, " abcde1234f");
+
+		assertThat(first.getScore()).isEqualTo(780);
+		assertThat(second).isEqualTo(first);
+		verify(bureau, times(1)).fetchCreditScore(anyLong(), anyString());
+		verify(values).set(anyString(), anyString(), eq(TTL));
+		assertThat(lookups("miss")).isEqualTo(1);
+		assertThat(lookups("hit")).isEqualTo(1);
+		// Keyed by a hash, never the PAN itself
+		assertThat(redis.keySet()).singleElement().asString()
+				.startsWith("loan:credit-score:1:")
+				.doesNotContain(PAN);
+
+		// Another user with the same PAN is a different entry
+		when(bureau.fetchCreditScore(2L, PAN)).thenReturn(score(640, false));
+		assertThat(cacheService.getCreditScore(2L, PAN).getScore()).isEqualTo(640);
+		assertThat(lookups("miss")).isEqualTo(2);
+	}
+
+	@Test
+	void fallbackScoresAreCachedOnlyBriefly() {
+		when(bureau.fetchCreditScore(1L, PAN)).thenReturn(score(700, true));
+
+		assertThat(cacheService.getCreditScore(1L, PAN).isFallback()).isTrue();
+
+		verify(values).set(anyString(), anyString(), eq(FALLBACK_TTL));
+		verify(values, never()).set(anyString(), anyString(), eq(TTL));
+		assertThat(lookups("fallback")).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentLookupsShareOnePull() throws Exception {
+		CountDownLatch pulling = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(bureau.fetchCreditScore(1L, PAN)).thenAnswer(call -> {
+			pulling.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return score(780, false);
+		});
+
+		CompletableFuture<CreditScoreResponse> leader = CompletableFuture.supplyAsync(
+				() -> cacheService.getCreditScore(1L, PAN), executor);
+		assertThat(pulling.await(10, TimeUnit.SECONDS)).isTrue();
+		List<CompletableFuture<CreditScoreResponse>> followers = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			followers.add(CompletableFuture.supplyAsync(() -> cacheService.getCreditScore(1L, PAN), executor));
+		}
+		// Hold the pull until every follower is waiting on it
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (lookups("coalesced") < 3 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		assertThat(leader.get(10, TimeUnit.SECONDS).getScore()).isEqualTo(780);
+		for (CompletableFuture<CreditScoreResponse> follower : followers) {
+			assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo(leader.get());
+		}
+		assertThat(lookups("coalesced")).isEqualTo(3);
+		verify(bureau, times(1)).fetchCreditScore(anyLong(), anyString());
+	}
+
+	@Test
+	void aFailedPullIsReportedAndNotCached() {
+		when(bureau.fetchCreditScore(1L, PAN)).thenThrow(new IllegalStateException("bureau down"));
+
+		CreditScorePrefetchResponse response = cacheService.prefetch(List.of(lookup(1L, PAN)));
+
+		assertThat(response.getFailed()).isEqualTo(1);
+		assertThat(response.getFetched()).isZero();
+		assertThat(redis).isEmpty();
+	}
+
+	@Test
+	void prefetchPullsEachMissingPairOnce() {
+		when(bureau.fetchCreditScore(3L, PAN)).thenReturn(score(810, false));
+		cacheService.getCreditScore(3L, PAN);
+		clearInvocations(bureau);
+		when(bureau.fetchCreditScore(anyLong(), anyString())).thenReturn(score(760, false));
+		when(bureau.fetchCreditScore(eq(2L), anyString())).thenReturn(score(700, true));
+
+		CreditScorePrefetchResponse response = cacheService.prefetch(List.of(
+				lookup(1L, PAN),
+				lookup(2L, PAN),
+				lookup(1L, "abcde1234f"),
+				lookup(3L, PAN),
+				lookup(4L, PAN),
+				lookup(1L, PAN)));
+
+		assertThat(response.getRequested()).isEqualTo(6);
+		assertThat(response.getDistinct()).isEqualTo(4);
+		assertThat(response.getAlreadyCached()).isEqualTo(1);
+		assertThat(response.getFetched()).isEqualTo(2);
+		assertThat(response.getFallbacks()).isEqualTo(1);
+		assertThat(response.getFailed()).isZero();
+		verify(bureau, times(1)).fetchCreditScore(eq(1L), anyString());
+		verify(bureau, times(1)).fetchCreditScore(eq(2L), anyString());
+		verify(bureau, never()).fetchCreditScore(eq(3L), anyString());
+		verify(bureau, times(1)).fetchCreditScore(eq(4L), anyString());
+
+		// Later applications from the list are served from the cache
+		cacheService.getCreditScore(4L, PAN);
+		verify(bureau, times(1)).fetchCreditScore(eq(4L), anyString());
+	}
+
+	private double lookups(String result) {
+		return meterRegistry.counter("loan.credit-score.lookups", "result", result).count();
+	}
+
+	private static CreditScoreLookup lookup(Long userId, String panNumber) {
+		return CreditScoreLookup.builder().userId(userId).panNumber(panNumber).build();
+	}
+
+	private static CreditScoreResponse score(int score, boolean fallback) {
+		return CreditScoreResponse.builder()
+				.score(score)
+				.bureau(fallback ? "DEFAULT" : "CIBIL")
+				.rating("GOOD")
+				.fallback(fallback)
+				.fetchedAt(LocalDateTime.of(2026, 1, 5, 10, 0))
+				.build();
+	}
+}
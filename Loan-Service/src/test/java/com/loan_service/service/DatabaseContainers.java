@@ -0,0 +1,21 @@
+package com.loan_service.service;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * A throwaway PostgreSQL for the database tests, the same major version as
+ * docker-compose. Spring's test context cache shares it across test classes.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class DatabaseContainers {
+
+	@Bean
+	@ServiceConnection
+	PostgreSQLContainer<?> postgres() {
+		return new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+	}
+}
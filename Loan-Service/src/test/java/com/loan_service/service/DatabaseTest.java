@@ -0,0 +1,22 @@
+package com.loan_service.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs against a PostgreSQL container and rolls back. Part of the default
+ * build, so it needs a Docker daemon.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@Import(DatabaseContainers.class)
+@Transactional
+@interface DatabaseTest {
+}
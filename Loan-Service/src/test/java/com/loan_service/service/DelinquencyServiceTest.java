@@ -0,0 +1,208 @@
+package com.loan_service.service;
+
+import static com.loan_service.service.LoanFixtures.emi;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.loan_service.dto.DelinquencySummary;
+import com.loan_service.entity.EmiSchedule;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.repository.EmiScheduleRepository;
+import com.loan_service.repository.LoanRepository;
+
+/**
+ * Checks the set-based delinquency statements against the per-EMI Java
+ * calculation they replace, on randomised loans plus the half-up edge.
+ */
+@DatabaseTest
+class DelinquencyServiceTest {
+
+	// Far enough ahead that no real EMI is already accrued to this date
+	private static final LocalDate TODAY = LocalDate.of(2040, 1, 15);
+
+	@Autowired
+	private DelinquencyService delinquencyService;
+
+	@Autowired
+	private EmiCalculatorService emiCalculator;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private EmiScheduleRepository emiScheduleRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void lateChargesMatchJavaCalculationToThePaisa() {
+		Random random = new Random(42);
+		List<EmiSchedule> emis = new ArrayList<>();
+
+		for (int i = 0; i < 200; i++) {
+			BigDecimal rate = BigDecimal.valueOf(50 + random.nextInt(3550), 2); // 0.50% - 36.00%
+			Loan loan = saveLoan("DLQ-" + i, rate);
+			int overdue = 1 + random.nextInt(4);
+			for (int n = 1; n <= overdue; n++) {
+				BigDecimal emiAmount = BigDecimal.valueOf(100_0000L + random.nextLong(5_000_000_0000L), 4);
+				int daysOverdue = 2 + random.nextInt(400);
+				emis.add(emi(loan, n, emiAmount, TODAY.minusDays(daysOverdue), EmiStatus.SCHEDULED));
+			}
+			// Due yesterday: still inside the grace period
+			emis.add(emi(loan, overdue + 1, new BigDecimal("1000.0000"), TODAY.minusDays(1), EmiStatus.SCHEDULED));
+		}
+
+		// 5 * 1.00 * 3 / 3000 = 0.005 exactly, which must round up
+		Loan edge = saveLoan("DLQ-EDGE", new BigDecimal("1.00"));
+		emis.add(emi(edge, 1, new BigDecimal("5.0000"), TODAY.minusDays(3), EmiStatus.BOUNCED));
+
+		emiScheduleRepository.saveAllAndFlush(emis);
+
+		delinquencyService.processOverdueEmis(TODAY);
+
+		Map<Long, Integer> overduePerLoan = new HashMap<>();
+		Map<Long, BigDecimal> chargesPerLoan = new HashMap<>();
+		for (EmiSchedule emi : emis) {
+			Map<String, Object> row = jdbcTemplate.queryForMap(
+					"SELECT status, days_overdue, late_payment_charges FROM emi_schedules WHERE id = ?", emi.getId());
+			long days = ChronoUnit.DAYS.between(emi.getDueDate(), TODAY);
+
+			if (days <= 1) {
+				assertThat(row.get("status")).isEqualTo("SCHEDULED");
+				continue;
+			}
+
+			BigDecimal penaltyRate = loanRepository.findById(emi.getLoanId()).orElseThrow()
+					.getLatePaymentPenaltyRate();
+			BigDecimal expected = emiCalculator.calculateLatePaymentCharges(
+					emi.getEmiAmount(), (int) days, penaltyRate);
+
+			assertThat(row.get("status")).isEqualTo("OVERDUE");
+			assertThat(((Number) row.get("days_overdue")).longValue()).isEqualTo(days);
+			assertThat((BigDecimal) row.get("late_payment_charges"))
+					.as("EMI %s: %s * %s * %d", emi.getId(), emi.getEmiAmount(), penaltyRate, days)
+					.isEqualByComparingTo(expected);
+
+			overduePerLoan.merge(emi.getLoanId(), 1, Integer::sum);
+			chargesPerLoan.merge(emi.getLoanId(), expected, BigDecimal::add);
+		}
+
+		assertThat(chargesPerLoan.get(edge.getId())).isEqualByComparingTo("0.01");
+
+		overduePerLoan.forEach((loanId, missed) -> {
+			Map<String, Object> loan = jdbcTemplate.queryForMap(
+					"SELECT status, missed_emis, total_late_payment_charges FROM loans WHERE id = ?", loanId);
+			assertThat(loan.get("status")).isEqualTo("OVERDUE");
+			assertThat(((Number) loan.get("missed_emis")).intValue()).isEqualTo(missed);
+			assertThat((BigDecimal) loan.get("total_late_payment_charges"))
+					.isEqualByComparingTo(chargesPerLoan.get(loanId));
+		});
+	}
+
+	@Test
+	void rerunOnTheSameDayCountsEachEmiOnce() {
+		Loan loan = saveLoan("DLQ-RERUN", new BigDecimal("2.00"));
+		emiScheduleRepository.saveAllAndFlush(List.of(
+				emi(loan, 1, new BigDecimal("10000.0000"), TODAY.minusDays(40), EmiStatus.SCHEDULED),
+				emi(loan, 2, new BigDecimal("10000.0000"), TODAY.minusDays(10), EmiStatus.SCHEDULED)));
+
+		delinquencyService.processOverdueEmis(TODAY);
+		Long version = jdbcTemplate.queryForObject("SELECT version FROM loans WHERE id = ?", Long.class, loan.getId());
+
+		delinquencyService.processOverdueEmis(TODAY);
+		delinquencyService.processOverdueEmis(TODAY.plusDays(1));
+
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"SELECT missed_emis, total_late_payment_charges, version FROM loans WHERE id = ?", loan.getId());
+		assertThat(((Number) row.get("missed_emis")).intValue()).isEqualTo(2);
+		// 10000 * 2 * 41 / 3000 + 10000 * 2 * 11 / 3000, each rounded
+		assertThat((BigDecimal) row.get("total_late_payment_charges")).isEqualByComparingTo("346.66");
+		// The same-day rerun wrote nothing; the next day accrued once
+		assertThat(((Number) row.get("version")).longValue()).isEqualTo(version + 1);
+	}
+
+	@Test
+	void loansWithNoOverdueEmisLeftAreCured() {
+		Loan loan = saveLoan("DLQ-CURED", new BigDecimal("2.00"));
+		EmiSchedule missed = emi(loan, 1, new BigDecimal("10000.0000"), TODAY.minusDays(10), EmiStatus.SCHEDULED);
+		emiScheduleRepository.saveAndFlush(missed);
+
+		delinquencyService.processOverdueEmis(TODAY);
+		assertThat(jdbcTemplate.queryForObject("SELECT missed_emis FROM loans WHERE id = ?", Integer.class,
+				loan.getId())).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT status FROM loans WHERE id = ?", String.class, loan.getId()))
+				.isEqualTo(LoanStatus.OVERDUE.name());
+
+		jdbcTemplate.update("UPDATE emi_schedules SET status = 'PAID' WHERE id = ?", missed.getId());
+		DelinquencySummary summary = delinquencyService.processOverdueEmis(TODAY.plusDays(1));
+
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"SELECT status, missed_emis, total_late_payment_charges FROM loans WHERE id = ?", loan.getId());
+		assertThat(row.get("status")).isEqualTo(LoanStatus.ACTIVE.name());
+		assertThat(((Number) row.get("missed_emis")).intValue()).isZero();
+		assertThat((BigDecimal) row.get("total_late_payment_charges")).isEqualByComparingTo("0");
+		assertThat(summary.getLoansCured()).isPositive();
+	}
+
+	@Test
+	void defaultedLoansAreNotCured() {
+		Loan loan = saveLoan("DLQ-DEFAULTED", new BigDecimal("2.00"));
+		EmiSchedule missed = emi(loan, 1, new BigDecimal("10000.0000"), TODAY.minusDays(10), EmiStatus.SCHEDULED);
+		emiScheduleRepository.saveAndFlush(missed);
+		delinquencyService.processOverdueEmis(TODAY);
+		assertThat(delinquencyService.flagDefaultedLoans(1)).contains(loan.getLoanNumber());
+
+		jdbcTemplate.update("UPDATE emi_schedules SET status = 'PAID' WHERE id = ?", missed.getId());
+		delinquencyService.processOverdueEmis(TODAY.plusDays(1));
+
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"SELECT status, missed_emis FROM loans WHERE id = ?", loan.getId());
+		assertThat(row.get("status")).isEqualTo(LoanStatus.DEFAULTED.name());
+		assertThat(((Number) row.get("missed_emis")).intValue()).isZero();
+	}
+
+	@Test
+	void loansPastTheThresholdAreDefaultedInBulk() {
+		Loan below = saveLoan("DLQ-BELOW", new BigDecimal("2.00"));
+		Loan at = saveLoan("DLQ-AT", new BigDecimal("2.00"));
+		List<EmiSchedule> emis = new ArrayList<>();
+		for (int n = 1; n <= 2; n++) {
+			emis.add(emi(below, n, new BigDecimal("5000.0000"), TODAY.minusMonths(3 - n), EmiStatus.SCHEDULED));
+		}
+		for (int n = 1; n <= 3; n++) {
+			emis.add(emi(at, n, new BigDecimal("5000.0000"), TODAY.minusMonths(4 - n), EmiStatus.SCHEDULED));
+		}
+		emiScheduleRepository.saveAllAndFlush(emis);
+
+		delinquencyService.processOverdueEmis(TODAY);
+		List<String> defaulted = delinquencyService.flagDefaultedLoans(3);
+
+		assertThat(defaulted).contains(at.getLoanNumber()).doesNotContain(below.getLoanNumber());
+		assertThat(jdbcTemplate.queryForObject("SELECT status FROM loans WHERE id = ?", String.class, at.getId()))
+				.isEqualTo(LoanStatus.DEFAULTED.name());
+		assertThat(jdbcTemplate.queryForObject("SELECT status FROM loans WHERE id = ?", String.class, below.getId()))
+				.isEqualTo(LoanStatus.OVERDUE.name());
+	}
+
+	private Loan saveLoan(String loanNumber, BigDecimal penaltyRate) {
+		return loanRepository.saveAndFlush(LoanFixtures.personalLoan(loanNumber)
+				.totalLatePaymentCharges(BigDecimal.ZERO)
+				.latePaymentPenaltyRate(penaltyRate)
+				.build());
+	}
+}
@@ -0,0 +1,219 @@
+package com.loan_service.service;
+
+import static com.loan_service.service.LoanFixtures.EMI;
+import static com.loan_service.service.LoanFixtures.emi;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.loan_service.client.AccountServiceClient;
+import com.loan_service.dto.EmiCollectionRunResponse;
+import com.loan_service.entity.EmiSchedule;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiCollectionRunStatus;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.repository.EmiCollectionRunRepository;
+import com.loan_service.repository.EmiScheduleRepository;
+import com.loan_service.repository.LoanRepository;
+import com.loan_service.service.implementation.EmiCollectionServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Claiming, bounces and reruns of an EMI collection run. Workers commit on
+ * their own threads, so this class commits too and deletes its rows
+ * afterwards instead of rolling back.
+ */
+@SpringBootTest
+@Import(DatabaseContainers.class)
+class EmiCollectionServiceTest {
+
+	// Far enough ahead that no other test's EMI falls due on it
+	private static final LocalDate DUE = LocalDate.of(2042, 6, 5);
+	private static final long BOUNCING_ACCOUNT = 13L;
+
+	@Autowired
+	private EmiCollectionRunRepository runRepository;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private EmiScheduleRepository emiScheduleRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final AccountServiceClient accountClient = mock(AccountServiceClient.class);
+	private final List<Loan> loans = new ArrayList<>();
+
+	private ThreadPoolTaskExecutor executor;
+	private EmiCollectionService collectionService;
+
+	@BeforeEach
+	void setUp() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setQueueCapacity(4);
+		executor.initialize();
+		collectionService = new EmiCollectionServiceImpl(runRepository, accountClient, jdbcTemplate,
+				transactionTemplate, executor, new SimpleMeterRegistry(), 2);
+		ReflectionTestUtils.setField(collectionService, "chunkSize", 2);
+		ReflectionTestUtils.setField(collectionService, "workers", 2);
+		ReflectionTestUtils.setField(collectionService, "leaseTimeout", Duration.ofMinutes(10));
+		ReflectionTestUtils.setField(collectionService, "maxAttempts", 5);
+
+		doThrow(new IllegalStateException("Insufficient balance")).when(accountClient)
+				.debitEmiPayment(eq(BOUNCING_ACCOUNT), any(), anyString());
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+		loans.forEach(loan -> jdbcTemplate.update("DELETE FROM emi_schedules WHERE loan_id = ?", loan.getId()));
+		loans.forEach(loan -> jdbcTemplate.update("DELETE FROM loans WHERE id = ?", loan.getId()));
+		jdbcTemplate.update("DELETE FROM emi_collection_runs WHERE due_date = ?", DUE);
+	}
+
+	@Test
+	void claimsEachDueEmiOnceAndAppliesThePayment() {
+		List<EmiSchedule> due = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			due.add(dueEmi(saveLoan("COL-" + i, 100L + i, LoanStatus.ACTIVE), 1, DUE));
+		}
+		EmiSchedule nextMonth = dueEmi(saveLoan("COL-LATER", 200L, LoanStatus.ACTIVE), 1, DUE.plusMonths(1));
+		EmiSchedule closedLoan = dueEmi(saveLoan("COL-CLOSED", 201L, LoanStatus.CLOSED), 1, DUE);
+
+		EmiCollectionRunResponse run = collectionService.collect(DUE);
+
+		assertThat(run.isExecuted()).isTrue();
+		assertThat(run.getStatus()).isEqualTo(EmiCollectionRunStatus.COMPLETED);
+		assertThat(run.getClaimed()).isEqualTo(5);
+		assertThat(run.getPaid()).isEqualTo(5);
+		assertThat(run.getBounced()).isZero();
+		assertThat(run.getFailedChunks()).isZero();
+
+		for (EmiSchedule emi : due) {
+			Loan loan = loans.stream().filter(l -> l.getId().equals(emi.getLoanId())).findFirst().orElseThrow();
+			verify(accountClient).debitEmiPayment(loan.getAccountId(), EMI, loan.getLoanNumber() + "-EMI-1");
+
+			Map<String, Object> row = emiRow(emi);
+			assertThat(row.get("status")).isEqualTo("PAID");
+			assertThat(row.get("payment_reference")).isEqualTo(loan.getLoanNumber() + "-EMI-1");
+
+			Map<String, Object> loanRow = jdbcTemplate.queryForMap(
+					"SELECT paid_emis, outstanding_principal, next_emi_date FROM loans WHERE id = ?", loan.getId());
+			assertThat(((Number) loanRow.get("paid_emis")).intValue()).isEqualTo(1);
+			assertThat((BigDecimal) loanRow.get("outstanding_principal"))
+					.isEqualByComparingTo(loan.getOutstandingPrincipal().subtract(EMI));
+			assertThat(((Date) loanRow.get("next_emi_date")).toLocalDate()).isEqualTo(DUE.plusMonths(1));
+		}
+		assertThat(emiRow(nextMonth).get("status")).isEqualTo("SCHEDULED");
+		assertThat(emiRow(closedLoan).get("status")).isEqualTo("SCHEDULED");
+		verify(accountClient, times(5)).debitEmiPayment(any(), any(), anyString());
+	}
+
+	@Test
+	void aBouncedDebitBouncesOnlyItsEmi() {
+		EmiSchedule paid = dueEmi(saveLoan("COL-OK", 100L, LoanStatus.ACTIVE), 1, DUE);
+		Loan bouncing = saveLoan("COL-BOUNCE", BOUNCING_ACCOUNT, LoanStatus.OVERDUE);
+		EmiSchedule bounced = dueEmi(bouncing, 1, DUE);
+
+		EmiCollectionRunResponse run = collectionService.collect(DUE);
+
+		assertThat(run.getStatus()).isEqualTo(EmiCollectionRunStatus.COMPLETED);
+		assertThat(run.getPaid()).isEqualTo(1);
+		assertThat(run.getBounced()).isEqualTo(1);
+		assertThat(emiRow(paid).get("status")).isEqualTo("PAID");
+		assertThat(emiRow(bounced).get("status")).isEqualTo("BOUNCED");
+		assertThat(jdbcTemplate.queryForObject("SELECT COALESCE(paid_emis, 0) FROM loans WHERE id = ?",
+				Integer.class, bouncing.getId())).isZero();
+	}
+
+	@Test
+	void rerunsOnlyPickUpEmisThatNeverResolved() {
+		EmiSchedule paid = dueEmi(saveLoan("COL-PAID", 100L, LoanStatus.ACTIVE), 1, DUE);
+		EmiSchedule bounced = dueEmi(saveLoan("COL-BOUNCED", BOUNCING_ACCOUNT, LoanStatus.ACTIVE), 1, DUE);
+		collectionService.collect(DUE);
+
+		// A completed run is reported, not repeated
+		EmiCollectionRunResponse again = collectionService.collect(DUE);
+		assertThat(again.isExecuted()).isFalse();
+		assertThat(again.getAttempt()).isEqualTo(1);
+		verify(accountClient, times(2)).debitEmiPayment(any(), any(), anyString());
+
+		// An EMI a crashed attempt claimed but never resolved, on a run that then failed
+		Loan stranded = saveLoan("COL-STRANDED", 300L, LoanStatus.ACTIVE);
+		EmiSchedule pending = emiScheduleRepository.saveAndFlush(emi(stranded, 1, EMI, DUE, EmiStatus.PENDING));
+		jdbcTemplate.update("UPDATE emi_collection_runs SET status = 'FAILED' WHERE due_date = ?", DUE);
+
+		EmiCollectionRunResponse resumed = collectionService.collect(DUE);
+
+		assertThat(resumed.isExecuted()).isTrue();
+		assertThat(resumed.getAttempt()).isEqualTo(2);
+		assertThat(resumed.getStatus()).isEqualTo(EmiCollectionRunStatus.COMPLETED);
+		assertThat(emiRow(pending).get("status")).isEqualTo("PAID");
+		verify(accountClient).debitEmiPayment(300L, EMI, stranded.getLoanNumber() + "-EMI-1");
+		// Neither the paid nor the bounced EMI was debited again
+		verify(accountClient, times(3)).debitEmiPayment(any(), any(), anyString());
+		assertThat(emiRow(paid).get("status")).isEqualTo("PAID");
+		assertThat(emiRow(bounced).get("status")).isEqualTo("BOUNCED");
+	}
+
+	@Test
+	void resumeNeverStartsANewRun() {
+		dueEmi(saveLoan("COL-RESUME", 100L, LoanStatus.ACTIVE), 1, DUE);
+
+		collectionService.resume(DUE);
+
+		assertThat(runRepository.findByDueDate(DUE)).isEmpty();
+		verify(accountClient, never()).debitEmiPayment(any(), any(), anyString());
+	}
+
+	private Loan saveLoan(String prefix, long accountId, LoanStatus status) {
+		Loan loan = loanRepository.saveAndFlush(LoanFixtures.personalLoan(prefix)
+				.accountId(accountId)
+				.status(status)
+				.build());
+		loans.add(loan);
+		return loan;
+	}
+
+	private EmiSchedule dueEmi(Loan loan, int number, LocalDate dueDate) {
+		return emiScheduleRepository.saveAndFlush(emi(loan, number, EMI, dueDate, EmiStatus.SCHEDULED));
+	}
+
+	private Map<String, Object> emiRow(EmiSchedule emi) {
+		return jdbcTemplate.queryForMap("SELECT status, payment_reference FROM emi_schedules WHERE id = ?",
+				emi.getId());
+	}
+}
@@ -0,0 +1,107 @@
+package com.loan_service.service;
+
+import static com.loan_service.service.LoanFixtures.EMI;
+import static com.loan_service.service.LoanFixtures.emi;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.repository.EmiScheduleRepository;
+import com.loan_service.repository.LoanRepository;
+
+/**
+ * Reminder selection and per-day deduplication.
+ */
+@DatabaseTest
+class EmiReminderServiceTest {
+
+	// Far enough ahead that no real loan is due around this date
+	private static final LocalDate TODAY = LocalDate.of(2041, 3, 10);
+
+	@Autowired
+	private EmiReminderService reminderService;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private EmiScheduleRepository emiScheduleRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void eachLoanGetsItsMostUrgentReminder() {
+		Loan upcoming = saveLoan("REM-UP", TODAY.plusDays(3));
+		Loan dueToday = saveLoan("REM-TODAY", TODAY);
+		// Due today as well, but a week behind on the previous installment
+		Loan overdue = saveLoan("REM-OVERDUE", TODAY);
+		Loan between = saveLoan("REM-BETWEEN", TODAY.plusDays(10));
+		emiScheduleRepository.saveAllAndFlush(List.of(
+				emi(overdue, 1, EMI, TODAY.minusDays(7), EmiStatus.OVERDUE),
+				emi(between, 1, EMI, TODAY.minusDays(5), EmiStatus.OVERDUE)));
+
+		reminderService.sendReminders(TODAY);
+
+		assertThat(stage(upcoming)).isEqualTo("UPCOMING");
+		assertThat(stage(dueToday)).isEqualTo("DUE_TODAY");
+		assertThat(stage(overdue)).isEqualTo("OVERDUE");
+		assertThat(stage(between)).isNull();
+
+		String payload = jdbcTemplate.queryForObject(
+				"SELECT o.payload FROM outbox_events o JOIN emi_reminders r ON r.batch_id = o.aggregate_id "
+						+ "WHERE r.loan_id = ? AND r.reminder_date = ?",
+				String.class, overdue.getId(), TODAY);
+		assertThat(payload).contains(overdue.getLoanNumber(), "\"daysOverdue\":7", "8884.88");
+	}
+
+	@Test
+	void rerunOnTheSameDaySendsNothingTwice() {
+		Loan loan = saveLoan("REM-RERUN", TODAY.plusDays(3));
+
+		reminderService.sendReminders(TODAY);
+		String batchId = batchId(loan, TODAY);
+		reminderService.sendReminders(TODAY);
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM emi_reminders WHERE loan_id = ?", Long.class, loan.getId())).isEqualTo(1L);
+		assertThat(batchId(loan, TODAY)).isEqualTo(batchId);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM outbox_events WHERE aggregate_type = 'EMI_REMINDER' AND payload LIKE ?",
+				Long.class, "%" + loan.getLoanNumber() + "%")).isEqualTo(1L);
+
+		// Three days on the same installment is due today, which is a new reminder
+		reminderService.sendReminders(TODAY.plusDays(3));
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT stage FROM emi_reminders WHERE loan_id = ? AND reminder_date = ?", String.class,
+				loan.getId(), TODAY.plusDays(3))).isEqualTo("DUE_TODAY");
+	}
+
+	private String stage(Loan loan) {
+		List<String> stages = jdbcTemplate.queryForList(
+				"SELECT stage FROM emi_reminders WHERE loan_id = ? AND reminder_date = ?", String.class,
+				loan.getId(), TODAY);
+		return stages.isEmpty() ? null : stages.get(0);
+	}
+
+	private String batchId(Loan loan, LocalDate date) {
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"SELECT batch_id FROM emi_reminders WHERE loan_id = ? AND reminder_date = ?", loan.getId(), date);
+		return (String) row.get("batch_id");
+	}
+
+	private Loan saveLoan(String loanNumber, LocalDate nextEmiDate) {
+		return loanRepository.saveAndFlush(LoanFixtures.personalLoan(loanNumber)
+				.emiDay(nextEmiDate.getDayOfMonth())
+				.nextEmiDate(nextEmiDate)
+				.build());
+	}
+}
@@ -0,0 +1,196 @@
+package com.loan_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.loan_service.dto.EmiScheduleResponse;
+import com.loan_service.entity.EmiSchedule;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.enums.InterestType;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.enums.ScheduleMode;
+import com.loan_service.repository.EmiScheduleRepository;
+import com.loan_service.repository.LoanRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * COMPUTED schedules against the rows a MATERIALIZED loan stores for the
+ * same terms.
+ */
+@DatabaseTest
+class EmiScheduleServiceTest {
+
+	// Earlier than any real loan, so the batch pass only sees these
+	private static final LocalDate FIRST_EMI = LocalDate.of(2001, 1, 5);
+	private static final BigDecimal PRINCIPAL = new BigDecimal("250000.0000");
+	private static final BigDecimal RATE = new BigDecimal("11.25");
+	private static final int TENURE = 24;
+
+	@Autowired
+	private EmiScheduleService emiScheduleService;
+
+	@Autowired
+	private EmiCalculatorService emiCalculator;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private EmiScheduleRepository emiScheduleRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void computedScheduleMatchesMaterializedRows() {
+		Loan loan = disburse(ScheduleMode.COMPUTED);
+		assertThat(emiScheduleRepository.findByLoanId(loan.getId())).isEmpty();
+
+		BigDecimal[][] expected = BigDecimalAmortization.schedule(PRINCIPAL, RATE, TENURE, loan.getEmiAmount());
+
+		int stored = emiScheduleService.materializeDueInstallments(FIRST_EMI.plusMonths(5));
+		assertThat(stored).isEqualTo(6);
+
+		List<EmiSchedule> rows = emiScheduleRepository.findByLoanId(loan.getId());
+		assertThat(rows).hasSize(6);
+		for (EmiSchedule row : rows) {
+			int i = row.getEmiNumber() - 1;
+			assertThat(row.getDueDate()).isEqualTo(FIRST_EMI.plusMonths(i));
+			assertThat(row.getStatus()).isEqualTo(EmiStatus.SCHEDULED);
+			assertThat(row.getInterestComponent()).isEqualByComparingTo(expected[i][0]);
+			assertThat(row.getPrincipalComponent()).isEqualByComparingTo(expected[i][1]);
+			assertThat(row.getOutstandingPrincipal()).isEqualByComparingTo(expected[i][2]);
+		}
+
+		// The batch pass writes through JDBC
+		entityManager.clear();
+		Loan reloaded = loanRepository.findById(loan.getId()).orElseThrow();
+		assertThat(reloaded.getMaterializedEmis()).isEqualTo(6);
+		assertThat(reloaded.getScheduledPrincipal()).isEqualByComparingTo(expected[5][2]);
+		assertThat(reloaded.getNextMaterializeDate()).isEqualTo(FIRST_EMI.plusMonths(6));
+
+		List<EmiScheduleResponse> view = emiScheduleService.streamSchedule(reloaded).toList();
+		assertThat(view).hasSize(TENURE);
+		for (EmiScheduleResponse installment : view) {
+			int i = installment.getEmiNumber() - 1;
+			assertThat(installment.getDueDate()).isEqualTo(FIRST_EMI.plusMonths(i));
+			assertThat(installment.getInterestComponent()).isEqualByComparingTo(expected[i][0]);
+			assertThat(installment.getPrincipalComponent()).isEqualByComparingTo(expected[i][1]);
+			assertThat(installment.getOutstandingPrincipal()).isEqualByComparingTo(expected[i][2]);
+		}
+		assertThat(view.get(TENURE - 1).getOutstandingPrincipal()).isEqualByComparingTo("0");
+
+		// A rerun for the same day stores nothing twice
+		assertThat(emiScheduleService.materializeDueInstallments(FIRST_EMI.plusMonths(5))).isZero();
+	}
+
+	@Test
+	void defaultedLoanKeepsFallingDue() {
+		Loan loan = disburse(ScheduleMode.COMPUTED);
+		loan.setStatus(LoanStatus.DEFAULTED);
+		loanRepository.saveAndFlush(loan);
+
+		assertThat(emiScheduleService.materializeDueInstallments(FIRST_EMI.plusMonths(2))).isEqualTo(3);
+
+		entityManager.clear();
+		Loan reloaded = loanRepository.findById(loan.getId()).orElseThrow();
+		assertThat(reloaded.getMaterializedEmis()).isEqualTo(3);
+		assertThat(emiScheduleService.streamSchedule(reloaded).toList()).hasSize(TENURE);
+	}
+
+	@Test
+	void prepaymentReamortizesWithoutTouchingRows() {
+		Loan loan = disburse(ScheduleMode.COMPUTED);
+		LocalDate asOf = FIRST_EMI.plusMonths(2).plusDays(10);
+		emiScheduleService.materializeDue(loan, asOf);
+
+		// First two paid, third due and unpaid, then a prepayment of 50,000
+		List<EmiSchedule> rows = emiScheduleRepository.findByLoanId(loan.getId());
+		assertThat(rows).hasSize(3);
+		BigDecimal outstanding = PRINCIPAL
+				.subtract(rows.get(0).getPrincipalComponent())
+				.subtract(rows.get(1).getPrincipalComponent())
+				.subtract(new BigDecimal("50000"));
+		rows.get(0).setStatus(EmiStatus.PAID);
+		rows.get(1).setStatus(EmiStatus.PAID);
+		emiScheduleRepository.saveAllAndFlush(rows.subList(0, 2));
+		loan.setOutstandingPrincipal(outstanding);
+
+		emiScheduleService.reamortize(loan, asOf);
+
+		BigDecimal opening = outstanding.subtract(rows.get(2).getPrincipalComponent());
+		assertThat(emiScheduleRepository.findByLoanId(loan.getId())).hasSize(3);
+		assertThat(loan.getMaterializedEmis()).isEqualTo(3);
+		assertThat(loan.getScheduledPrincipal()).isEqualByComparingTo(opening);
+		assertThat(loan.getEmiAmount()).isEqualByComparingTo(
+				emiCalculator.calculateEmi(opening, RATE, TENURE - 3, InterestType.REDUCING_BALANCE).getEmiAmount());
+
+		List<EmiScheduleResponse> view = emiScheduleService.streamSchedule(loan).toList();
+		assertThat(view).hasSize(TENURE);
+		assertThat(view.get(3).getEmiAmount()).isEqualByComparingTo(loan.getEmiAmount());
+		assertThat(view.get(TENURE - 1).getOutstandingPrincipal()).isEqualByComparingTo("0");
+	}
+
+	@Test
+	void materializedLoanDropsFutureRowsOnReamortize() {
+		Loan loan = disburse(ScheduleMode.MATERIALIZED);
+		assertThat(emiScheduleRepository.findByLoanId(loan.getId())).hasSize(TENURE);
+		assertThat(loan.getNextMaterializeDate()).isNull();
+
+		List<EmiSchedule> rows = emiScheduleRepository.findByLoanId(loan.getId());
+		rows.get(0).setStatus(EmiStatus.PAID);
+		emiScheduleRepository.saveAndFlush(rows.get(0));
+		loan.setOutstandingPrincipal(PRINCIPAL.subtract(rows.get(0).getPrincipalComponent()));
+
+		emiScheduleService.reamortize(loan, FIRST_EMI.plusDays(3));
+		loan = loanRepository.saveAndFlush(loan);
+
+		assertThat(loan.getScheduleMode()).isEqualTo(ScheduleMode.COMPUTED);
+		assertThat(emiScheduleRepository.findByLoanId(loan.getId())).hasSize(1);
+		assertThat(loan.getNextMaterializeDate()).isEqualTo(FIRST_EMI.plusMonths(1));
+		assertThat(loan.getMaterializedEmis()).isEqualTo(1);
+
+		List<EmiScheduleResponse> view = emiScheduleService.streamSchedule(loan).toList();
+		assertThat(view).extracting(EmiScheduleResponse::getEmiNumber)
+				.containsExactlyElementsOf(IntStream.rangeClosed(1, TENURE).boxed().toList());
+		assertThat(view.get(0).getId()).isEqualTo(rows.get(0).getId());
+		assertThat(view.get(1).getOutstandingPrincipal()).isEqualByComparingTo(
+				loan.getOutstandingPrincipal().subtract(view.get(1).getPrincipalComponent()));
+		assertThat(view.get(TENURE - 1).getOutstandingPrincipal()).isEqualByComparingTo("0");
+	}
+
+	private Loan disburse(ScheduleMode mode) {
+		Loan loan = loanRepository.saveAndFlush(LoanFixtures.personalLoan("SCH")
+				.principalAmount(PRINCIPAL)
+				.sanctionedAmount(PRINCIPAL)
+				.outstandingPrincipal(PRINCIPAL)
+				.interestRate(RATE)
+				.tenureMonths(TENURE)
+				.remainingTenureMonths(TENURE)
+				.totalEmis(TENURE)
+				.emiAmount(emiCalculator.calculateEmi(PRINCIPAL, RATE, TENURE, InterestType.REDUCING_BALANCE)
+						.getEmiAmount())
+				.firstEmiDate(FIRST_EMI)
+				.nextEmiDate(FIRST_EMI)
+				.build());
+
+		Object configured = ReflectionTestUtils.getField(emiScheduleService, "scheduleMode");
+		ReflectionTestUtils.setField(emiScheduleService, "scheduleMode", mode);
+		try {
+			emiScheduleService.initializeSchedule(loan);
+		} finally {
+			ReflectionTestUtils.setField(emiScheduleService, "scheduleMode", configured);
+		}
+		return loanRepository.saveAndFlush(loan);
+	}
+}
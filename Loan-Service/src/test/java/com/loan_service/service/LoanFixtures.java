@@ -0,0 +1,62 @@
+package com.loan_service.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.loan_service.entity.EmiSchedule;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.enums.InterestType;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.enums.LoanType;
+
+/**
+ * Loans and installments for the database tests. Tests override whatever
+ * their assertions depend on.
+ */
+final class LoanFixtures {
+
+	// EMI of the default loan: 1,00,000 at 12% over 12 months
+	static final BigDecimal EMI = new BigDecimal("8884.8800");
+
+	private LoanFixtures() {
+	}
+
+	/**
+	 * An active personal loan with a unique number starting with {@code prefix}.
+	 */
+	static Loan.LoanBuilder personalLoan(String prefix) {
+		return Loan.builder()
+				.loanNumber(prefix + "-" + System.nanoTime())
+				.applicationId(0L)
+				.userId(0L)
+				.accountId(0L)
+				.loanType(LoanType.PERSONAL)
+				.status(LoanStatus.ACTIVE)
+				.principalAmount(new BigDecimal("100000.0000"))
+				.outstandingPrincipal(new BigDecimal("100000.0000"))
+				.interestRate(new BigDecimal("12.00"))
+				.interestType(InterestType.REDUCING_BALANCE)
+				.tenureMonths(12)
+				.totalEmis(12)
+				.emiAmount(EMI)
+				.emiDay(5)
+				.missedEmis(0);
+	}
+
+	/**
+	 * An all-principal installment, as stored before any delinquency pass.
+	 */
+	static EmiSchedule emi(Loan loan, int number, BigDecimal amount, LocalDate dueDate, EmiStatus status) {
+		return EmiSchedule.builder()
+				.loanId(loan.getId())
+				.emiNumber(number)
+				.dueDate(dueDate)
+				.emiAmount(amount)
+				.principalComponent(amount)
+				.interestComponent(BigDecimal.ZERO)
+				.status(status)
+				.daysOverdue(0)
+				.build();
+	}
+}
@@ -0,0 +1,136 @@
+package com.loan_service.service;
+
+import static com.loan_service.service.LoanFixtures.EMI;
+import static com.loan_service.service.LoanFixtures.emi;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.loan_service.dto.LoanSummaryResponse;
+import com.loan_service.dto.PortfolioAnalyticsResponse;
+import com.loan_service.dto.PortfolioExposure;
+import com.loan_service.entity.EmiSchedule;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.enums.LoanStatus;
+import com.loan_service.repository.EmiScheduleRepository;
+import com.loan_service.repository.LoanRepository;
+
+/**
+ * Incremental refreshes against a rebuild from the loan book, on loans in
+ * a branch of their own. Portfolio-wide figures are checked as deltas, since
+ * the rest of the loan book is whatever the database holds.
+ */
+@DatabaseTest
+class PortfolioAnalyticsServiceTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2041, 3, 10);
+
+	private final String branch = "T" + ThreadLocalRandom.current().nextInt(1_000_000);
+	private final long userId = 9_000_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+
+	@Autowired
+	private PortfolioAnalyticsService analyticsService;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private EmiScheduleRepository emiScheduleRepository;
+
+	@Test
+	void refreshFollowsLoanChangesAndMatchesRebuild() {
+		analyticsService.rebuild(TODAY);
+		PortfolioAnalyticsResponse before = analyticsService.getPortfolio();
+
+		Loan current = saveLoan(LoanStatus.ACTIVE, "100000.0000");
+		Loan npa = saveLoan(LoanStatus.OVERDUE, "200000.0000");
+		saveOverdueEmi(npa, 95);
+
+		assertThat(analyticsService.refresh(TODAY).getLoansRefreshed()).isGreaterThanOrEqualTo(2);
+
+		PortfolioExposure exposure = branchExposure();
+		assertThat(exposure.getLoans()).isEqualTo(2);
+		assertThat(exposure.getOutstanding()).isEqualByComparingTo("300000");
+		assertThat(exposure.getNpaOutstanding()).isEqualByComparingTo("200000");
+		assertThat(exposure.getNpaRatio()).isEqualByComparingTo("66.67");
+
+		PortfolioAnalyticsResponse after = analyticsService.getPortfolio();
+		assertThat(after.getTotalLoans() - before.getTotalLoans()).isEqualTo(2);
+		assertThat(after.getTotalOutstanding().subtract(before.getTotalOutstanding()))
+				.isEqualByComparingTo("300000");
+		assertThat(after.getNpaOutstanding().subtract(before.getNpaOutstanding()))
+				.isEqualByComparingTo("200000");
+
+		LoanSummaryResponse summary = analyticsService.getUserSummary(userId);
+		assertThat(summary.getActiveLoansCount()).isEqualTo(2);
+		assertThat(summary.getTotalOutstanding()).isEqualByComparingTo("300000");
+		// Only ACTIVE loans count towards the monthly EMI, as before
+		assertThat(summary.getTotalMonthlyEmi()).isEqualByComparingTo(EMI);
+
+		current.setOutstandingPrincipal(new BigDecimal("90000.0000"));
+		loanRepository.saveAndFlush(current);
+		npa.setStatus(LoanStatus.CLOSED);
+		loanRepository.saveAndFlush(npa);
+		analyticsService.refresh(TODAY);
+
+		exposure = branchExposure();
+		assertThat(exposure.getLoans()).isEqualTo(1);
+		assertThat(exposure.getOutstanding()).isEqualByComparingTo("90000");
+		assertThat(exposure.getNpaOutstanding()).isEqualByComparingTo("0");
+		assertThat(analyticsService.getUserSummary(userId).getTotalOutstanding()).isEqualByComparingTo("90000");
+
+		// The rebuild agrees with what the refreshes left for these loans
+		analyticsService.rebuild(TODAY);
+		exposure = branchExposure();
+		assertThat(exposure.getLoans()).isEqualTo(1);
+		assertThat(exposure.getOutstanding()).isEqualByComparingTo("90000");
+		assertThat(exposure.getNpaOutstanding()).isEqualByComparingTo("0");
+		summary = analyticsService.getUserSummary(userId);
+		assertThat(summary.getActiveLoansCount()).isEqualTo(1);
+		assertThat(summary.getTotalOutstanding()).isEqualByComparingTo("90000");
+		assertThat(summary.getTotalMonthlyEmi()).isEqualByComparingTo(EMI);
+	}
+
+	@Test
+	void loansMoveBucketAsTheyAgeWithoutBeingWritten() {
+		analyticsService.rebuild(TODAY);
+		Loan loan = saveLoan(LoanStatus.OVERDUE, "50000.0000");
+		saveOverdueEmi(loan, 89);
+
+		analyticsService.refresh(TODAY);
+		assertThat(branchExposure().getNpaOutstanding()).isEqualByComparingTo("0");
+
+		// Nothing writes the loan overnight, yet it turns NPA at 90 days past due
+		analyticsService.refresh(TODAY.plusDays(1));
+		assertThat(branchExposure().getNpaOutstanding()).isEqualByComparingTo("50000");
+	}
+
+	private PortfolioExposure branchExposure() {
+		return analyticsService.getPortfolio().getByBranch().stream()
+				.filter(exposure -> exposure.getKey().equals(branch))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private Loan saveLoan(LoanStatus status, String outstanding) {
+		return loanRepository.saveAndFlush(LoanFixtures.personalLoan("PORT")
+				.userId(userId)
+				.branchCode(branch)
+				.status(status)
+				.principalAmount(new BigDecimal(outstanding))
+				.outstandingPrincipal(new BigDecimal(outstanding))
+				.build());
+	}
+
+	private void saveOverdueEmi(Loan loan, int daysOverdue) {
+		EmiSchedule overdue = emi(loan, 1, EMI, TODAY.minusDays(daysOverdue), EmiStatus.OVERDUE);
+		overdue.setDaysOverdue(daysOverdue);
+		emiScheduleRepository.saveAndFlush(overdue);
+	}
+}
@@ -0,0 +1,166 @@
+package com.loan_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.loan_service.dto.LumpSumPrepayment;
+import com.loan_service.dto.PrepaymentScenario;
+import com.loan_service.dto.PrepaymentScenarioResult;
+import com.loan_service.dto.PrepaymentSimulationRequest;
+import com.loan_service.dto.PrepaymentSimulationResponse;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.InterestType;
+import com.loan_service.enums.PrepaymentMode;
+import com.loan_service.enums.ScheduleMode;
+import com.loan_service.repository.LoanRepository;
+
+/**
+ * Scenario quotes against the BigDecimal schedule for the same terms.
+ */
+@DatabaseTest
+class PrepaymentSimulationServiceTest {
+
+	private static final LocalDate FIRST_EMI = LocalDate.of(2001, 1, 5);
+	private static final BigDecimal PRINCIPAL = new BigDecimal("500000.0000");
+	private static final BigDecimal RATE = new BigDecimal("9.75");
+	private static final int TENURE = 60;
+	private static final BigDecimal LUMP_SUM = new BigDecimal("50000");
+
+	@Autowired
+	private PrepaymentSimulationService simulationService;
+
+	@Autowired
+	private EmiCalculatorService emiCalculator;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Test
+	void reduceEmiMatchesScheduleOfReducedPrincipal() {
+		Loan loan = activeLoan();
+		BigDecimal baselineInterest = totalInterest(BigDecimalAmortization.schedule(PRINCIPAL, RATE, TENURE,
+				loan.getEmiAmount()));
+
+		PrepaymentSimulationResponse response = simulate(loan,
+				PrepaymentScenario.builder().name("as is").mode(PrepaymentMode.REDUCE_EMI).build(),
+				lumpSum("before first EMI", PrepaymentMode.REDUCE_EMI, FIRST_EMI.minusDays(1)));
+
+		assertThat(response.getRemainingTenure()).isEqualTo(TENURE);
+		assertThat(response.getRemainingInterest()).isEqualByComparingTo(baselineInterest);
+
+		PrepaymentScenarioResult asIs = response.getScenarios().get(0);
+		assertThat(asIs.getInterestSaved()).isEqualByComparingTo("0");
+		assertThat(asIs.getNewEmiAmount()).isEqualByComparingTo(loan.getEmiAmount());
+		assertThat(asIs.getNewRemainingTenure()).isEqualTo(TENURE);
+		assertThat(asIs.getNewMaturityDate()).isEqualTo(FIRST_EMI.plusMonths(TENURE - 1));
+
+		BigDecimal reduced = PRINCIPAL.subtract(LUMP_SUM);
+		BigDecimal newEmi = emiCalculator.calculateEmi(reduced, RATE, TENURE, InterestType.REDUCING_BALANCE)
+				.getEmiAmount();
+		PrepaymentScenarioResult prepaid = response.getScenarios().get(1);
+		assertThat(prepaid.getNewEmiAmount()).isEqualByComparingTo(newEmi);
+		assertThat(prepaid.getNewRemainingTenure()).isEqualTo(TENURE);
+		assertThat(prepaid.getTotalPrepaid()).isEqualByComparingTo(LUMP_SUM);
+		assertThat(prepaid.getPrepaymentCharges()).isEqualByComparingTo("1000.00");
+		assertThat(prepaid.getTotalInterest()).isEqualByComparingTo(
+				totalInterest(BigDecimalAmortization.schedule(reduced, RATE, TENURE, newEmi)));
+		assertThat(prepaid.getInterestSaved()).isEqualByComparingTo(
+				baselineInterest.subtract(prepaid.getTotalInterest()));
+	}
+
+	@Test
+	void reduceTenureKeepsEmiAndSavesMoreInterest() {
+		Loan loan = activeLoan();
+		BigDecimal[][] baseline = BigDecimalAmortization.schedule(PRINCIPAL, RATE, TENURE, loan.getEmiAmount());
+		// Lands after the third installment
+		LocalDate date = FIRST_EMI.plusMonths(2).plusDays(3);
+
+		PrepaymentSimulationResponse response = simulate(loan,
+				lumpSum("tenure", PrepaymentMode.REDUCE_TENURE, date),
+				lumpSum("emi", PrepaymentMode.REDUCE_EMI, date));
+
+		PrepaymentScenarioResult tenure = response.getScenarios().get(0);
+		Integer remaining = emiCalculator.calculateTenureForEmi(baseline[2][2].subtract(LUMP_SUM), RATE,
+				loan.getEmiAmount(), TENURE - 3);
+		assertThat(tenure.getNewEmiAmount()).isEqualByComparingTo(loan.getEmiAmount());
+		assertThat(tenure.getNewRemainingTenure()).isEqualTo(3 + remaining);
+		assertThat(tenure.getTenureReducedBy()).isPositive();
+		assertThat(tenure.getNewMaturityDate()).isEqualTo(FIRST_EMI.plusMonths(3 + remaining - 1));
+
+		PrepaymentScenarioResult emi = response.getScenarios().get(1);
+		assertThat(emi.getNewEmiAmount()).isLessThan(loan.getEmiAmount());
+		assertThat(emi.getNewRemainingTenure()).isEqualTo(TENURE);
+		assertThat(tenure.getInterestSaved()).isGreaterThan(emi.getInterestSaved());
+		assertThat(emi.getInterestSaved()).isPositive();
+	}
+
+	@Test
+	void foreclosureIsQuotedAndResultsAreMemoizedPerVersion() {
+		Loan loan = activeLoan();
+		BigDecimal[][] baseline = BigDecimalAmortization.schedule(PRINCIPAL, RATE, TENURE, loan.getEmiAmount());
+		PrepaymentScenario foreclose = PrepaymentScenario.builder()
+				.mode(PrepaymentMode.REDUCE_EMI)
+				.forecloseOn(FIRST_EMI.plusMonths(5))
+				.build();
+
+		PrepaymentScenarioResult first = simulate(loan, foreclose).getScenarios().get(0);
+		BigDecimal balance = baseline[5][2];
+		assertThat(first.getNewRemainingTenure()).isEqualTo(6);
+		assertThat(first.getPaidOffOn()).isEqualTo(FIRST_EMI.plusMonths(5));
+		assertThat(first.getTotalPrepaid()).isEqualByComparingTo(balance);
+		assertThat(first.getForeclosureAmount()).isEqualByComparingTo(
+				balance.add(balance.multiply(new BigDecimal("0.02")).setScale(2, RoundingMode.HALF_UP)));
+
+		assertThat(simulate(loan, foreclose).getScenarios().get(0)).isSameAs(first);
+
+		loan.setLoanPurpose("version bump");
+		loan = loanRepository.saveAndFlush(loan);
+		assertThat(simulate(loan, foreclose).getScenarios().get(0)).isNotSameAs(first).isEqualTo(first);
+	}
+
+	private PrepaymentSimulationResponse simulate(Loan loan, PrepaymentScenario... scenarios) {
+		return simulationService.simulate(loan.getLoanNumber(),
+				PrepaymentSimulationRequest.builder().scenarios(List.of(scenarios)).build(), loan.getUserId());
+	}
+
+	private static PrepaymentScenario lumpSum(String name, PrepaymentMode mode, LocalDate date) {
+		return PrepaymentScenario.builder()
+				.name(name)
+				.mode(mode)
+				.lumpSums(List.of(LumpSumPrepayment.builder().date(date).amount(LUMP_SUM).build()))
+				.build();
+	}
+
+	private static BigDecimal totalInterest(BigDecimal[][] schedule) {
+		return Arrays.stream(schedule).map(row -> row[0]).reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	private Loan activeLoan() {
+		return loanRepository.saveAndFlush(LoanFixtures.personalLoan("SIM")
+				.principalAmount(PRINCIPAL)
+				.sanctionedAmount(PRINCIPAL)
+				.outstandingPrincipal(PRINCIPAL)
+				.interestRate(RATE)
+				.tenureMonths(TENURE)
+				.remainingTenureMonths(TENURE)
+				.totalEmis(TENURE)
+				.emiAmount(emiCalculator.calculateEmi(PRINCIPAL, RATE, TENURE, InterestType.REDUCING_BALANCE)
+						.getEmiAmount())
+				.firstEmiDate(FIRST_EMI)
+				.nextEmiDate(FIRST_EMI)
+				.scheduleMode(ScheduleMode.COMPUTED)
+				.materializedEmis(0)
+				.scheduledPrincipal(PRINCIPAL)
+				.prepaymentAllowed(true)
+				.prepaymentChargesPercentage(new BigDecimal("2.0"))
+				.build());
+	}
+}
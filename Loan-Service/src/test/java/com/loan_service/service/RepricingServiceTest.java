@@ -0,0 +1,218 @@
+package com.loan_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.loan_service.dto.RepricingRequest;
+import com.loan_service.dto.RepricingSummary;
+import com.loan_service.entity.EmiSchedule;
+import com.loan_service.entity.Loan;
+import com.loan_service.enums.EmiStatus;
+import com.loan_service.enums.InterestType;
+import com.loan_service.enums.RepricingMode;
+import com.loan_service.enums.ScheduleMode;
+import com.loan_service.repository.EmiScheduleRepository;
+import com.loan_service.repository.LoanRepository;
+
+/**
+ * Repricing in both modes against the terms {@link EmiCalculatorService}
+ * gives for the same balance, rate and tenure.
+ */
+@DatabaseTest
+class RepricingServiceTest {
+
+	private static final LocalDate FIRST_EMI = LocalDate.of(2001, 1, 5);
+	private static final BigDecimal PRINCIPAL = new BigDecimal("250000.0000");
+	private static final BigDecimal SPREAD = new BigDecimal("2.75");
+	private static final BigDecimal RATE = new BigDecimal("11.25"); // 8.50 benchmark + spread
+	private static final int TENURE = 24;
+
+	// A benchmark no other loan is linked to
+	private final String benchmark = "TEST-" + System.nanoTime();
+
+	@Autowired
+	private RepricingService repricingService;
+
+	@Autowired
+	private EmiScheduleService emiScheduleService;
+
+	@Autowired
+	private EmiCalculatorService emiCalculator;
+
+	@Autowired
+	private LoanRepository loanRepository;
+
+	@Autowired
+	private EmiScheduleRepository emiScheduleRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void newEmiKeepsTheTenureAndDropsFutureMaterializedRows() {
+		Loan loan = disburse(ScheduleMode.MATERIALIZED, PRINCIPAL, TENURE);
+		List<EmiSchedule> rows = emiScheduleRepository.findByLoanId(loan.getId());
+		assertThat(rows).hasSize(TENURE);
+
+		// Three paid; everything after them is re-amortized at the new rate
+		BigDecimal outstanding = PRINCIPAL;
+		for (EmiSchedule row : rows.subList(0, 3)) {
+			row.setStatus(EmiStatus.PAID);
+			outstanding = outstanding.subtract(row.getPrincipalComponent());
+		}
+		emiScheduleRepository.saveAllAndFlush(rows.subList(0, 3));
+		loan.setOutstandingPrincipal(outstanding);
+		loanRepository.saveAndFlush(loan);
+		LocalDate effective = FIRST_EMI.plusMonths(2).plusDays(10);
+
+		RepricingSummary summary = repricingService.reprice(request(RepricingMode.NEW_EMI, "9.50", effective, false));
+
+		assertThat(summary.getLoansRepriced()).isEqualTo(1);
+		assertThat(summary.getTenureFallbacks()).isZero();
+		assertThat(emiScheduleRepository.findByLoanId(loan.getId())).extracting(EmiSchedule::getEmiNumber)
+				.containsExactly(1, 2, 3);
+
+		BigDecimal expectedEmi = emiCalculator.calculateEmi(outstanding, new BigDecimal("12.25"), TENURE - 3,
+				InterestType.REDUCING_BALANCE).getEmiAmount();
+		Map<String, Object> terms = terms(loan);
+		assertThat((BigDecimal) terms.get("interest_rate")).isEqualByComparingTo("12.25");
+		assertThat((BigDecimal) terms.get("emi_amount")).isEqualByComparingTo(expectedEmi);
+		assertThat(((Number) terms.get("total_emis")).intValue()).isEqualTo(TENURE);
+		assertThat(terms.get("schedule_mode")).isEqualTo(ScheduleMode.COMPUTED.name());
+		assertThat(((Number) terms.get("materialized_emis")).intValue()).isEqualTo(3);
+		assertThat((BigDecimal) terms.get("scheduled_principal")).isEqualByComparingTo(outstanding);
+		assertThat(((Date) terms.get("next_materialize_date")).toLocalDate()).isEqualTo(FIRST_EMI.plusMonths(3));
+		assertThat(outboxEvents(summary)).isEqualTo(1);
+	}
+
+	@Test
+	void newTenureKeepsTheEmiAndShortensOnARateCut() {
+		Loan loan = disburse(ScheduleMode.COMPUTED, PRINCIPAL, TENURE);
+
+		RepricingSummary summary = repricingService.reprice(
+				request(RepricingMode.NEW_TENURE, "6.50", FIRST_EMI.minusDays(1), false));
+
+		Integer expectedTenure = emiCalculator.calculateTenureForEmi(PRINCIPAL, new BigDecimal("9.25"),
+				loan.getEmiAmount(), AmortizationEngine.MAX_TENURE_MONTHS);
+		assertThat(expectedTenure).isLessThan(TENURE);
+		assertThat(summary.getLoansRepriced()).isEqualTo(1);
+		assertThat(summary.getTenureFallbacks()).isZero();
+
+		Map<String, Object> terms = terms(loan);
+		assertThat((BigDecimal) terms.get("emi_amount")).isEqualByComparingTo(loan.getEmiAmount());
+		assertThat(((Number) terms.get("total_emis")).intValue()).isEqualTo(expectedTenure);
+		assertThat(((Number) terms.get("remaining_tenure_months")).intValue()).isEqualTo(expectedTenure);
+		assertThat(((Date) terms.get("maturity_date")).toLocalDate())
+				.isEqualTo(FIRST_EMI.plusMonths(expectedTenure - 1));
+	}
+
+	@Test
+	void newTenureFallsBackToANewEmiWhenTheEmiNoLongerCoversInterest() {
+		// A 30-year loan's EMI only just covers the interest; half a point more and it no longer does
+		int tenure = 360;
+		Loan loan = disburse(ScheduleMode.COMPUTED, new BigDecimal("100000.0000"), tenure);
+
+		RepricingSummary summary = repricingService.reprice(
+				request(RepricingMode.NEW_TENURE, "9.00", FIRST_EMI.minusDays(1), false));
+
+		assertThat(summary.getLoansRepriced()).isEqualTo(1);
+		assertThat(summary.getTenureFallbacks()).isEqualTo(1);
+		Map<String, Object> terms = terms(loan);
+		assertThat(((Number) terms.get("total_emis")).intValue()).isEqualTo(tenure);
+		assertThat((BigDecimal) terms.get("emi_amount")).isEqualByComparingTo(emiCalculator.calculateEmi(
+				new BigDecimal("100000.0000"), new BigDecimal("11.75"), tenure, InterestType.REDUCING_BALANCE)
+				.getEmiAmount());
+	}
+
+	@Test
+	void dryRunsWriteNothingAndRerunsLeaveRepricedLoansAlone() {
+		Loan loan = disburse(ScheduleMode.MATERIALIZED, PRINCIPAL, TENURE);
+		long version = version(loan);
+
+		RepricingSummary dryRun = repricingService.reprice(
+				request(RepricingMode.NEW_EMI, "9.50", FIRST_EMI.minusDays(1), true));
+		assertThat(dryRun.getLoansRepriced()).isEqualTo(1);
+		assertThat(dryRun.getMonthlyEmiAfter()).isGreaterThan(dryRun.getMonthlyEmiBefore());
+		assertThat(version(loan)).isEqualTo(version);
+		assertThat(emiScheduleRepository.findByLoanId(loan.getId())).hasSize(TENURE);
+		assertThat(outboxEvents(dryRun)).isZero();
+
+		RepricingSummary first = repricingService.reprice(
+				request(RepricingMode.NEW_EMI, "9.50", FIRST_EMI.minusDays(1), false));
+		long repricedVersion = version(loan);
+		Map<String, Object> repriced = terms(loan);
+
+		RepricingSummary rerun = repricingService.reprice(
+				request(RepricingMode.NEW_EMI, "9.50", FIRST_EMI.minusDays(1), false));
+
+		assertThat(first.getLoansRepriced()).isEqualTo(1);
+		assertThat(rerun.getLoansRepriced()).isZero();
+		assertThat(rerun.getLoansUnchanged()).isEqualTo(1);
+		assertThat(version(loan)).isEqualTo(repricedVersion);
+		assertThat(terms(loan)).isEqualTo(repriced);
+		assertThat(outboxEvents(first)).isEqualTo(1);
+		assertThat(outboxEvents(rerun)).isZero();
+	}
+
+	private RepricingRequest request(RepricingMode mode, String benchmarkRate, LocalDate effective, boolean dryRun) {
+		return RepricingRequest.builder()
+				.benchmark(benchmark)
+				.newBenchmarkRate(new BigDecimal(benchmarkRate))
+				.mode(mode)
+				.effectiveDate(effective)
+				.dryRun(dryRun)
+				.build();
+	}
+
+	private Loan disburse(ScheduleMode mode, BigDecimal principal, int tenure) {
+		Loan loan = loanRepository.saveAndFlush(LoanFixtures.personalLoan("RPR")
+				.principalAmount(principal)
+				.sanctionedAmount(principal)
+				.outstandingPrincipal(principal)
+				.interestRate(RATE)
+				.rateBenchmark(benchmark)
+				.rateSpread(SPREAD)
+				.tenureMonths(tenure)
+				.remainingTenureMonths(tenure)
+				.totalEmis(tenure)
+				.emiAmount(emiCalculator.calculateEmi(principal, RATE, tenure, InterestType.REDUCING_BALANCE)
+						.getEmiAmount())
+				.firstEmiDate(FIRST_EMI)
+				.nextEmiDate(FIRST_EMI)
+				.build());
+
+		Object configured = ReflectionTestUtils.getField(emiScheduleService, "scheduleMode");
+		ReflectionTestUtils.setField(emiScheduleService, "scheduleMode", mode);
+		try {
+			emiScheduleService.initializeSchedule(loan);
+		} finally {
+			ReflectionTestUtils.setField(emiScheduleService, "scheduleMode", configured);
+		}
+		return loanRepository.saveAndFlush(loan);
+	}
+
+	private Map<String, Object> terms(Loan loan) {
+		return jdbcTemplate.queryForMap("SELECT interest_rate, emi_amount, total_emis, remaining_tenure_months, "
+				+ "maturity_date, schedule_mode, materialized_emis, scheduled_principal, next_materialize_date "
+				+ "FROM loans WHERE id = ?", loan.getId());
+	}
+
+	private long version(Loan loan) {
+		return jdbcTemplate.queryForObject("SELECT version FROM loans WHERE id = ?", Long.class, loan.getId());
+	}
+
+	private int outboxEvents(RepricingSummary summary) {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_events WHERE aggregate_type = "
+				+ "'LOAN_REPRICING' AND aggregate_id = ?", Integer.class, summary.getRunId());
+	}
+}
@@ -0,0 +1,209 @@
+package com.banking_common.reference;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Time-ordered 64-bit IDs (Snowflake layout) rendered as fixed-width
+ * Crockford Base32, so references sort in creation order and B-tree
+ * inserts on the reference column stay append-only.
+ *
+ * Layout: 41 bits milliseconds since 2024-01-01 | 10 bits worker | 12 bits sequence.
+ *
+ * Worker id: reference.worker-id, else eureka.instance.metadata-map.worker-id,
+ * else the first free id leased in Redis at startup. A lease is the key
+ * reference:worker:{id}, set NX with a TTL (reference.worker-lease-ttl) and
+ * renewed every third of it, so an id is only reused once its holder has
+ * stopped renewing. It is released on shutdown.
+ */
+@Slf4j
+public class ReferenceGenerator {
+	static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+	static final int WORKER_BITS = 10;
+	static final int SEQUENCE_BITS = 12;
+	static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+	static final int ENCODED_LENGTH = 13; // ceil(64 / 5)
+
+	private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+	private static final String WORKER_LEASE_KEY = "reference:worker:";
+
+	// Renew or release the lease only while it still holds this instance's token
+	private static final DefaultRedisScript<Long> RENEW_LEASE = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+			"return 0",
+			Long.class);
+	private static final DefaultRedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+			"return 0",
+			Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final String leaseToken = UUID.randomUUID().toString();
+
+	// (timestamp << SEQUENCE_BITS) | sequence; a sequence overflow carries into the next millisecond
+	private final AtomicLong state = new AtomicLong();
+
+	@Value("${reference.worker-id:${eureka.instance.metadata-map.worker-id:-1}}")
+	private long configuredWorkerId;
+
+	@Value("${reference.worker-lease-ttl:PT1M}")
+	private Duration leaseTtl;
+
+	// Changes only if the lease is lost and a new id has to be leased
+	private volatile long workerId;
+
+	private ScheduledExecutorService heartbeat;
+
+	public ReferenceGenerator(StringRedisTemplate redisTemplate) {
+		this.redisTemplate = redisTemplate;
+	}
+
+	// Visible for tests
+	ReferenceGenerator(long workerId) {
+		this.redisTemplate = null;
+		this.workerId = workerId;
+	}
+
+	@PostConstruct
+	void init() {
+		workerId = configuredWorkerId >= 0 ? configuredWorkerId : leaseWorkerId();
+		if (workerId > MAX_WORKER_ID) {
+			throw new IllegalStateException("Reference worker id must be between 0 and " + MAX_WORKER_ID);
+		}
+		log.info("Reference generator using worker id {}", workerId);
+	}
+
+	@PreDestroy
+	void releaseLease() {
+		if (heartbeat == null) {
+			return;
+		}
+		heartbeat.shutdownNow();
+		try {
+			redisTemplate.execute(RELEASE_LEASE, List.of(WORKER_LEASE_KEY + workerId), leaseToken);
+		} catch (Exception e) {
+			log.warn("Could not release reference worker id {}; it frees up in {}: {}", workerId, leaseTtl,
+					e.getMessage());
+		}
+	}
+
+	/**
+	 * Next unique, time-ordered id. Lock-free; never goes backwards even if the
+	 * wall clock does (it keeps counting from the last issued timestamp).
+	 */
+	public long nextId() {
+		long now = System.currentTimeMillis() - EPOCH_MILLIS;
+		long next;
+		while (true) {
+			long current = state.get();
+			next = (now > (current >>> SEQUENCE_BITS)) ? now << SEQUENCE_BITS : current + 1;
+			if (state.compareAndSet(current, next)) {
+				break;
+			}
+		}
+		long timestamp = next >>> SEQUENCE_BITS;
+		long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+		return (timestamp << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+	}
+
+	/**
+	 * prefix + 13-char Base32 id, e.g. "TXN01HV4Z8Q2M3K7"
+	 */
+	public String nextReference(String prefix) {
+		char[] chars = new char[prefix.length() + ENCODED_LENGTH];
+		prefix.getChars(0, prefix.length(), chars, 0);
+		encode(nextId(), chars, prefix.length());
+		return new String(chars);
+	}
+
+	static void encode(long id, char[] dest, int offset) {
+		for (int i = offset + ENCODED_LENGTH - 1; i >= offset; i--) {
+			dest[i] = ALPHABET[(int) (id & 31)];
+			id >>>= 5;
+		}
+	}
+
+	static String encode(long id) {
+		char[] chars = new char[ENCODED_LENGTH];
+		encode(id, chars, 0);
+		return new String(chars);
+	}
+
+	private long leaseWorkerId() {
+		Long leased;
+		try {
+			leased = acquireLease();
+		} catch (Exception e) {
+			log.warn("Could not lease reference worker id from Redis: {}", e.getMessage());
+			long random = ThreadLocalRandom.current().nextLong(MAX_WORKER_ID + 1);
+			log.warn("Falling back to random reference worker id {}; set reference.worker-id", random);
+			return random;
+		}
+		if (leased == null) {
+			throw new IllegalStateException("All " + (MAX_WORKER_ID + 1)
+					+ " reference worker ids are leased; set reference.worker-id");
+		}
+
+		heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "reference-worker-lease");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, leaseTtl.toMillis() / 3);
+		heartbeat.scheduleWithFixedDelay(this::renewLease, period, period, TimeUnit.MILLISECONDS);
+		return leased;
+	}
+
+	/**
+	 * Claims the first free worker id, starting from a random one so instances
+	 * starting together rarely try the same ids. Null if every id is taken.
+	 */
+	private Long acquireLease() {
+		long start = ThreadLocalRandom.current().nextLong(MAX_WORKER_ID + 1);
+		for (long i = 0; i <= MAX_WORKER_ID; i++) {
+			long candidate = (start + i) & MAX_WORKER_ID;
+			if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+					.setIfAbsent(WORKER_LEASE_KEY + candidate, leaseToken, leaseTtl))) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private void renewLease() {
+		try {
+			Long renewed = redisTemplate.execute(RENEW_LEASE, List.of(WORKER_LEASE_KEY + workerId), leaseToken,
+					String.valueOf(leaseTtl.toMillis()));
+			if (renewed != null && renewed == 1L) {
+				return;
+			}
+
+			// The lease ran out (a long pause, a Redis failover) and another instance may hold the id now
+			Long replacement = acquireLease();
+			if (replacement == null) {
+				log.error("Reference worker id {} lost its lease and no other id is free", workerId);
+				return;
+			}
+			log.warn("Reference worker id {} lost its lease; moving to worker id {}", workerId, replacement);
+			workerId = replacement;
+		} catch (Exception e) {
+			// Thrown out of a scheduled task it would cancel the heartbeat
+			log.warn("Could not renew reference worker id {}: {}", workerId, e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.banking_common.reference;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Registers a {@link ReferenceGenerator} in every service that has this
+ * library on its classpath.
+ */
+@AutoConfiguration(after = RedisAutoConfiguration.class)
+public class ReferenceGeneratorAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ReferenceGenerator referenceGenerator(StringRedisTemplate redisTemplate) {
+		return new ReferenceGenerator(redisTemplate);
+	}
+}
@@ -0,0 +1,92 @@
+package com.banking_common.reference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * References per second from one generator shared by
+ * {@code -Dbenchmark.reference.threads} threads (8 by default), each making
+ * {@code -Dbenchmark.reference.per-thread} references (1,000,000 by
+ * default), next to the timestamp + UUID references it replaced. One
+ * worker id tops out at 4,096 ids a millisecond, so past that the figure
+ * shows threads waiting for the next millisecond rather than contention.
+ *
+ * Run with {@code mvn -o -Pbenchmark test -Dtest=ReferenceGeneratorBenchmark}.
+ */
+@Tag("benchmark")
+class ReferenceGeneratorBenchmark {
+
+	private static final int THREADS = Integer.getInteger("benchmark.reference.threads", 8);
+	private static final int PER_THREAD = Integer.getInteger("benchmark.reference.per-thread", 1_000_000);
+	private static final long MIN_RATE = Long.getLong("benchmark.reference.min-rate", 500_000L);
+
+	@Test
+	void referencesPerSecond() throws Exception {
+		ReferenceGenerator generator = new ReferenceGenerator(1);
+
+		// Warm up both paths before timing them
+		run(1, PER_THREAD / 10, () -> generator.nextReference("TXN"));
+		run(1, PER_THREAD / 10, ReferenceGeneratorBenchmark::timestampUuidReference);
+
+		double single = run(1, PER_THREAD, () -> generator.nextReference("TXN"));
+		double shared = run(THREADS, PER_THREAD, () -> generator.nextReference("TXN"));
+		double uuid = run(THREADS, PER_THREAD, ReferenceGeneratorBenchmark::timestampUuidReference);
+
+		System.out.printf("%n=== references, %d threads x %,d ===%n", THREADS, PER_THREAD);
+		System.out.printf("generator, 1 thread        %,14.0f refs/s%n", single);
+		System.out.printf("generator, %2d threads      %,14.0f refs/s%n", THREADS, shared);
+		System.out.printf("timestamp + UUID, %2d thr.  %,14.0f refs/s%n", THREADS, uuid);
+		System.out.printf("ceiling for one worker id  %,14d refs/s%n", (1L << ReferenceGenerator.SEQUENCE_BITS) * 1000);
+
+		assertThat(shared).isGreaterThanOrEqualTo(MIN_RATE);
+	}
+
+	/**
+	 * Starts {@code threads} threads together, each making {@code perThread}
+	 * references, and returns references per second across all of them.
+	 */
+	private static double run(int threads, int perThread, Supplier<String> reference) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				// Keeps the JIT from dropping the calls
+				int sink = 0;
+				for (int i = 0; i < perThread; i++) {
+					sink += reference.get().length();
+				}
+				return sink;
+			}));
+		}
+
+		long startedAt = System.nanoTime();
+		start.countDown();
+		long characters = 0;
+		for (Future<Integer> future : futures) {
+			characters += future.get();
+		}
+		long elapsed = System.nanoTime() - startedAt;
+		pool.shutdown();
+
+		assertThat(characters).isPositive();
+		return (double) threads * perThread / (elapsed / 1e9);
+	}
+
+	// The scheme the generator replaced
+	private static String timestampUuidReference() {
+		return "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+	}
+}
@@ -0,0 +1,124 @@
+package com.banking_common.reference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ReferenceGeneratorTest {
+
+	@Test
+	void idsAreUniqueAcrossThreads() throws Exception {
+		ReferenceGenerator generator = new ReferenceGenerator(7);
+		int threads = 8;
+		int perThread = 250_000;
+
+		Set<Long> seen = ConcurrentHashMap.newKeySet(threads * perThread);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					seen.add(generator.nextId());
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		pool.shutdown();
+
+		assertEquals(threads * perThread, seen.size(), "duplicate ids generated");
+	}
+
+	@Test
+	void idsAreMonotonicPerThreadAndCarryWorkerId() {
+		ReferenceGenerator generator = new ReferenceGenerator(513);
+		long previous = -1;
+		for (int i = 0; i < 100_000; i++) {
+			long id = generator.nextId();
+			assertTrue(id > previous);
+			assertEquals(513, (id >>> ReferenceGenerator.SEQUENCE_BITS) & ReferenceGenerator.MAX_WORKER_ID);
+			previous = id;
+		}
+	}
+
+	@Test
+	void encodedReferencesSortLikeIds() {
+		ReferenceGenerator generator = new ReferenceGenerator(1);
+		String previous = "";
+		for (int i = 0; i < 10_000; i++) {
+			String reference = generator.nextReference("TXN");
+			assertEquals(3 + ReferenceGenerator.ENCODED_LENGTH, reference.length());
+			assertTrue(reference.compareTo(previous) > 0);
+			previous = reference;
+		}
+		assertEquals("0000000000000", ReferenceGenerator.encode(0));
+		assertEquals("7ZZZZZZZZZZZZ", ReferenceGenerator.encode(Long.MAX_VALUE));
+	}
+
+	@Test
+	void leasesTheFirstFreeWorkerIdAndReleasesItOnShutdown() {
+		StringRedisTemplate redis = redisWithFreeWorkerIds(Set.of(300L));
+		ReferenceGenerator generator = leasingGenerator(redis);
+
+		generator.init();
+		assertEquals(300, (generator.nextId() >>> ReferenceGenerator.SEQUENCE_BITS) & ReferenceGenerator.MAX_WORKER_ID);
+
+		generator.releaseLease();
+		verify(redis).execute(any(RedisScript.class), eq(List.of("reference:worker:300")), anyString());
+	}
+
+	@Test
+	void refusesToStartWhenEveryWorkerIdIsLeased() {
+		ReferenceGenerator generator = leasingGenerator(redisWithFreeWorkerIds(Set.of()));
+
+		assertThrows(IllegalStateException.class, generator::init);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static StringRedisTemplate redisWithFreeWorkerIds(Set<Long> free) {
+		StringRedisTemplate redis = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> values = mock(ValueOperations.class);
+		when(redis.opsForValue()).thenReturn(values);
+		when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+			String key = invocation.getArgument(0);
+			return free.contains(Long.valueOf(key.substring("reference:worker:".length())));
+		});
+		return redis;
+	}
+
+	private static ReferenceGenerator leasingGenerator(StringRedisTemplate redis) {
+		ReferenceGenerator generator = new ReferenceGenerator(redis);
+		ReflectionTestUtils.setField(generator, "configuredWorkerId", -1L);
+		ReflectionTestUtils.setField(generator, "leaseTtl", Duration.ofMinutes(1));
+		return generator;
+	}
+}
@@ -5,12 +5,17 @@ import java.util.Base64;
 
 import org.springframework.stereotype.Service;
 
+import com.banking_common.reference.ReferenceGenerator;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class TokenGenerator {
 	private final SecureRandom random = new SecureRandom();
+	private final ReferenceGenerator referenceGenerator;
 
     public String generateCardToken() {
         // Generate PCI-DSS compliant token
@@ -24,7 +29,6 @@ public class TokenGenerator {
     }
 
     public String generateCardReference() {
-        return "CARD-" + System.currentTimeMillis() + "-" + 
-               String.format("%04d", random.nextInt(10000));
+        return referenceGenerator.nextReference("CARD");
     }
 }
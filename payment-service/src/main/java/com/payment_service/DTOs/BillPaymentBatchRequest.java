@@ -0,0 +1,21 @@
+package com.payment_service.DTOs;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillPaymentBatchRequest {
+	@NotEmpty(message = "At least one bill payment is required")
+	@Size(max = 2000, message = "Batch exceeds limit")
+	private List<@Valid BillPaymentRequest> payments;
+}
@@ -0,0 +1,20 @@
+package com.payment_service.DTOs;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillPaymentBatchResponse {
+	private int submitted;
+	private int completed;
+	private int failed;
+	private int duplicates; // Already paid under the same idempotency key
+	private List<PaymentResponse> payments;
+}
@@ -45,7 +45,7 @@ public class CardPaymentRequest {
     private String cardBrand;
     
     @NotBlank(message = "Gateway name is required")
-    private String gatewayName; // RAZORPAY, STRIPE, etc.
+    private String gatewayName; // RAZORPAY, STRIPE, or AUTO for latency-based routing
     
     @Size(max = 500)
     private String description;
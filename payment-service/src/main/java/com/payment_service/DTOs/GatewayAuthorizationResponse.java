@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class GatewayAuthorizationResponse {
     private boolean success;
+    private String gatewayName; // Gateway that handled the authorization
     private String gatewayPaymentId;
     private String authorizationCode;
     private String errorCode;
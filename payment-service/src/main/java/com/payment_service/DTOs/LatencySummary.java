@@ -0,0 +1,19 @@
+package com.payment_service.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencySummary {
+	private long count;
+    private double meanMs;
+    private long p50Ms;
+    private long p95Ms;
+    private long p99Ms;
+    private long maxMs;
+}
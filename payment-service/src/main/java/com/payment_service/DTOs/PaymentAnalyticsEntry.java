@@ -0,0 +1,29 @@
+package com.payment_service.DTOs;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.payment_service.enums.LatencyStage;
+import com.payment_service.enums.PaymentMethod;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentAnalyticsEntry {
+	private PaymentMethod paymentMethod;
+    private String gatewayName;
+    private String currency;
+    private long attempts;         // approved + declined + expired
+    private long approved;
+    private long declined;
+    private long expired;
+    private double approvalRate;
+    private BigDecimal approvedAmount;
+    private Map<LatencyStage, LatencySummary> latencies;
+}
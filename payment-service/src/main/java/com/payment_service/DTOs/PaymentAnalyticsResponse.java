@@ -0,0 +1,26 @@
+package com.payment_service.DTOs;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.payment_service.enums.AnalyticsWindow;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentAnalyticsResponse {
+	private AnalyticsWindow window;
+    private LocalDateTime generatedAt;
+    private int instances;         // service instances merged into this view
+    private boolean partial;       // peer snapshots could not be read
+    private Map<String, BigDecimal> approvedAmountByCurrency;
+    private List<PaymentAnalyticsEntry> entries;
+}
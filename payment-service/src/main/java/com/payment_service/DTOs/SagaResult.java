@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 public class SagaResult {
 	private String sagaId;
     private boolean success;
+    private boolean pending;
     private String errorMessage;
     
     public static SagaResult success(String sagaId, String message) {
@@ -22,6 +23,14 @@ public class SagaResult {
             .build();
     }
     
+    public static SagaResult pending(String sagaId, String message) {
+        return SagaResult.builder()
+            .sagaId(sagaId)
+            .pending(true)
+            .errorMessage(message)
+            .build();
+    }
+    
     public static SagaResult failure(String sagaId, String errorMessage) {
         return SagaResult.builder()
             .sagaId(sagaId)
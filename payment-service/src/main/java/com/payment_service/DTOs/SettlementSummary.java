@@ -0,0 +1,22 @@
+package com.payment_service.DTOs;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementSummary {
+	private Long merchantId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long rows;
+    private List<SettlementTotals> totals; // One entry per currency
+    private long elapsedMillis;
+}
@@ -0,0 +1,30 @@
+package com.payment_service.DTOs;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementTotals {
+	private String currency;
+	@Builder.Default
+    private long count = 0;
+	@Builder.Default
+    private BigDecimal amount = BigDecimal.ZERO;
+	@Builder.Default
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+	@Builder.Default
+    private BigDecimal feeAmount = BigDecimal.ZERO;
+	@Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+	@Builder.Default
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+	@Builder.Default
+    private BigDecimal netAmount = BigDecimal.ZERO; // amount - refunded, owed to the merchant
+}
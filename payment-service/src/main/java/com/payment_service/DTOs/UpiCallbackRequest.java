@@ -0,0 +1,23 @@
+package com.payment_service.DTOs;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpiCallbackRequest {
+	@NotBlank(message = "Transaction ID is required")
+    private String transactionId;
+    
+    private String paymentReference;
+    
+    @NotBlank(message = "Status is required")
+    private String status; // SUCCESS, FAILURE, PENDING
+    
+    private String failureReason;
+}
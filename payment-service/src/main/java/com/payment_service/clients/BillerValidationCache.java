@@ -0,0 +1,160 @@
+package com.payment_service.clients;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.payment_service.DTOs.BillerValidationResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process TTL cache of biller validations keyed by biller and bill
+ * number.
+ *
+ * Valid and invalid answers are both cached, invalid ones for a shorter
+ * time. Gateway errors are never cached. Concurrent lookups for the same
+ * key share a single in-flight validation. Expiry is jittered so entries
+ * loaded together during a spike do not all expire together.
+ *
+ * Entries live in an access-ordered map capped at maxEntries; adding one
+ * past the cap drops the least recently used, so a full cache costs the
+ * same per lookup as an empty one.
+ */
+@Component
+public class BillerValidationCache {
+
+    private final Map<String, Entry> entries;
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final double jitter;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evicted;
+
+    public BillerValidationCache(
+            MeterRegistry meterRegistry,
+            @Value("${payment.biller.validation-cache.ttl:PT10M}") Duration ttl,
+            @Value("${payment.biller.validation-cache.negative-ttl:PT1M}") Duration negativeTtl,
+            @Value("${payment.biller.validation-cache.jitter:0.1}") double jitter,
+            @Value("${payment.biller.validation-cache.max-entries:100000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.jitter = jitter;
+
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.coalesced = lookups(meterRegistry, "coalesced");
+        this.evicted = lookups(meterRegistry, "evicted");
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BillerValidationCache.Entry> eldest) {
+                // Waiters on an evicted in-flight load keep their own reference to it
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                evicted.increment();
+                return true;
+            }
+        });
+        Gauge.builder("payment.biller.validation.cache.size", entries, Map::size)
+                .description("Biller validations currently cached or in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached validation for the bill, loading it with
+     * {@code loader} on a miss. Exceptions from the loader propagate to
+     * every caller waiting on the same load and leave nothing cached.
+     */
+    public BillerValidationResponse get(String billerId, String billNumber,
+            Supplier<BillerValidationResponse> loader) {
+        String key = billerId + '|' + billNumber;
+
+        while (true) {
+            long now = System.nanoTime();
+            Entry entry = entries.get(key);
+
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key, entry);
+                entry = null;
+            }
+
+            if (entry != null) {
+                (entry.future.isDone() ? hits : coalesced).increment();
+                return join(entry);
+            }
+
+            Entry created = new Entry();
+            if (entries.putIfAbsent(key, created) == null) {
+                misses.increment();
+                return load(key, created, loader);
+            }
+            // Lost the race to another loader; wait on its entry instead
+        }
+    }
+
+    private BillerValidationResponse load(String key, Entry entry, Supplier<BillerValidationResponse> loader) {
+        BillerValidationResponse response;
+        try {
+            response = loader.get();
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+
+        long ttl = response != null && response.isValid() ? ttlNanos : negativeTtlNanos;
+        entry.expiresAt = System.nanoTime() + jittered(ttl);
+        entry.future.complete(response);
+        return response;
+    }
+
+    private long jittered(long ttl) {
+        if (jitter <= 0) {
+            return ttl;
+        }
+        return (long) (ttl * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    private static BillerValidationResponse join(Entry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payment.biller.validation.cache")
+                .description("Biller validation cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<BillerValidationResponse> future = new CompletableFuture<>();
+        // Stays "never" while the load is in flight
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt >= 0;
+        }
+    }
+}
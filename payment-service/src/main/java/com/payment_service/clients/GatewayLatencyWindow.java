@@ -0,0 +1,61 @@
+package com.payment_service.clients;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of recent call outcomes for one gateway or operation.
+ * Samples older than the requested window are ignored when summarising, so
+ * the percentiles and error rate always describe recent behaviour.
+ */
+final class GatewayLatencyWindow {
+
+    record Snapshot(int samples, double errorRate, long p50Nanos, long p95Nanos) {
+    }
+
+    private final long[] timestamps;
+    private final long[] latencies;
+    private final boolean[] failures;
+    private int next;
+    private int size;
+
+    GatewayLatencyWindow(int capacity) {
+        this.timestamps = new long[capacity];
+        this.latencies = new long[capacity];
+        this.failures = new boolean[capacity];
+    }
+
+    synchronized void record(long nowNanos, long latencyNanos, boolean success) {
+        timestamps[next] = nowNanos;
+        latencies[next] = latencyNanos;
+        failures[next] = !success;
+        next = (next + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    synchronized Snapshot snapshot(long nowNanos, long windowNanos) {
+        long cutoff = nowNanos - windowNanos;
+        long[] recent = new long[size];
+        int count = 0;
+        int errors = 0;
+        for (int i = 0; i < size; i++) {
+            if (timestamps[i] - cutoff >= 0) {
+                recent[count++] = latencies[i];
+                if (failures[i]) {
+                    errors++;
+                }
+            }
+        }
+        if (count == 0) {
+            return new Snapshot(0, 0.0, 0L, 0L);
+        }
+        Arrays.sort(recent, 0, count);
+        return new Snapshot(count, (double) errors / count,
+                recent[percentileIndex(count, 0.50)], recent[percentileIndex(count, 0.95)]);
+    }
+
+    private static int percentileIndex(int count, double percentile) {
+        return Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+    }
+}
@@ -0,0 +1,256 @@
+package com.payment_service.clients;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.payment_service.exception.PaymentGatewayException;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks a card gateway per authorization from recent latency and error
+ * rates, and optionally hedges idempotent lookups.
+ *
+ * Each gateway keeps its own Resilience4j circuit breaker (the "razorpay"
+ * and "stripe" instances on the gateway clients), so a brownout at one
+ * provider only removes that provider from rotation.
+ */
+@Slf4j
+@Component
+public class GatewayRouter {
+    public static final String AUTO = "AUTO";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final Executor hedgeExecutor;
+    private final MeterRegistry meterRegistry;
+    private final List<String> gateways;
+    private final ConcurrentHashMap<String, GatewayLatencyWindow> windows = new ConcurrentHashMap<>();
+
+    private final int windowCapacity;
+    private final long windowNanos;
+    private final int minSamples;
+    private final double maxErrorRate;
+    private final double explorationRate;
+    private final long defaultLatencyNanos;
+    private final boolean hedgingEnabled;
+    private final long minHedgeDelayNanos;
+    private final long hedgeTimeoutNanos;
+
+    public GatewayRouter(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            @Qualifier("gatewayHedgeExecutor") Executor hedgeExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${payment.gateway.routing.gateways:RAZORPAY,STRIPE}") List<String> gateways,
+            @Value("${payment.gateway.routing.window-size:512}") int windowCapacity,
+            @Value("${payment.gateway.routing.window:PT1M}") Duration window,
+            @Value("${payment.gateway.routing.min-samples:20}") int minSamples,
+            @Value("${payment.gateway.routing.max-error-rate:0.25}") double maxErrorRate,
+            @Value("${payment.gateway.routing.exploration-rate:0.05}") double explorationRate,
+            @Value("${payment.gateway.routing.default-latency:PT0.3S}") Duration defaultLatency,
+            @Value("${payment.gateway.hedging.enabled:false}") boolean hedgingEnabled,
+            @Value("${payment.gateway.hedging.min-delay:PT0.05S}") Duration minHedgeDelay,
+            @Value("${payment.gateway.hedging.timeout:PT15S}") Duration hedgeTimeout) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.hedgeExecutor = hedgeExecutor;
+        this.meterRegistry = meterRegistry;
+        this.gateways = gateways.stream().map(String::toUpperCase).toList();
+        this.windowCapacity = windowCapacity;
+        this.windowNanos = window.toNanos();
+        this.minSamples = minSamples;
+        this.maxErrorRate = maxErrorRate;
+        this.explorationRate = explorationRate;
+        this.defaultLatencyNanos = defaultLatency.toNanos();
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.hedgeTimeoutNanos = hedgeTimeout.toNanos();
+
+        for (String gateway : this.gateways) {
+            Gauge.builder("payment.gateway.latency.p95", () -> snapshot(gateway).p95Nanos() / 1_000_000.0)
+                .tag("gateway", gateway)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+            Gauge.builder("payment.gateway.error.rate", () -> snapshot(gateway).errorRate())
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Resolve the gateway for an authorization. An explicit gateway name is
+     * honoured; {@link #AUTO} (or no name) picks the healthy gateway with the
+     * lowest recent p95, occasionally sampling another one so its statistics
+     * stay current.
+     */
+    public String selectGateway(String requested) {
+        if (requested != null && !requested.isBlank() && !AUTO.equalsIgnoreCase(requested)) {
+            return requested.toUpperCase();
+        }
+
+        List<String> healthy = new ArrayList<>(gateways.size());
+        for (String gateway : gateways) {
+            if (isHealthy(gateway)) {
+                healthy.add(gateway);
+            }
+        }
+
+        String selected;
+        if (healthy.isEmpty()) {
+            // Nothing healthy: use the primary and let its breaker fallback answer
+            selected = gateways.get(0);
+        } else if (healthy.size() > 1 && ThreadLocalRandom.current().nextDouble() < explorationRate) {
+            selected = healthy.get(ThreadLocalRandom.current().nextInt(healthy.size()));
+        } else {
+            selected = healthy.stream()
+                .min(Comparator.comparingLong(this::routingLatency))
+                .orElseThrow();
+        }
+
+        meterRegistry.counter("payment.gateway.routed", "gateway", selected).increment();
+        return selected;
+    }
+
+    /**
+     * Run a gateway call and feed its latency and outcome into the window.
+     * {@code healthyOutcome} separates provider trouble from business
+     * declines, which must not push traffic away from a gateway.
+     */
+    public <T> T timed(String gateway, Supplier<T> call, Predicate<T> healthyOutcome) {
+        long start = System.nanoTime();
+        boolean healthy = false;
+        try {
+            T result = call.get();
+            healthy = healthyOutcome.test(result);
+            return result;
+        } finally {
+            long end = System.nanoTime();
+            window(gateway).record(end, end - start, healthy);
+        }
+    }
+
+    /**
+     * Run an idempotent call; if it has not answered within the operation's
+     * recent p95, issue one duplicate and take whichever succeeds first.
+     */
+    public <T> T hedged(String operation, Supplier<T> call) {
+        Supplier<T> measured = () -> timed(operation, call, result -> true);
+        GatewayLatencyWindow.Snapshot snapshot = snapshot(operation);
+        if (!hedgingEnabled || snapshot.samples() < minSamples) {
+            return measured.get();
+        }
+
+        long delayNanos = Math.max(minHedgeDelayNanos, snapshot.p95Nanos());
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(measured, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return measured.get();
+        }
+
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return awaitFirstSuccess(operation, primary, measured);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted during " + operation, e);
+        } catch (ExecutionException e) {
+            throw unwrap(operation, e);
+        }
+    }
+
+    private <T> T awaitFirstSuccess(String operation, CompletableFuture<T> primary, Supplier<T> measured) {
+        CompletableFuture<T> backup;
+        try {
+            backup = CompletableFuture.supplyAsync(measured, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return await(operation, primary); // Pool saturated: no hedge, keep waiting
+        }
+        meterRegistry.counter("payment.gateway.hedge", "operation", operation, "outcome", "fired").increment();
+
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((value, error) -> settle(first, value, error, failures));
+        backup.whenComplete((value, error) -> {
+            if (error == null && !first.isDone()) {
+                meterRegistry.counter("payment.gateway.hedge", "operation", operation, "outcome", "won")
+                    .increment();
+            }
+            settle(first, value, error, failures);
+        });
+        return await(operation, first);
+    }
+
+    private <T> T await(String operation, CompletableFuture<T> future) {
+        try {
+            return future.get(hedgeTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new PaymentGatewayException(operation + " timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted during " + operation, e);
+        } catch (ExecutionException e) {
+            throw unwrap(operation, e);
+        }
+    }
+
+    private static <T> void settle(CompletableFuture<T> first, T value, Throwable error, AtomicInteger failures) {
+        if (error == null) {
+            first.complete(value);
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
+
+    private boolean isHealthy(String gateway) {
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(gateway.toLowerCase()).getState();
+        if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+            return false;
+        }
+        GatewayLatencyWindow.Snapshot snapshot = snapshot(gateway);
+        return snapshot.samples() < minSamples || snapshot.errorRate() <= maxErrorRate;
+    }
+
+    private long routingLatency(String gateway) {
+        GatewayLatencyWindow.Snapshot snapshot = snapshot(gateway);
+        return snapshot.samples() < minSamples ? defaultLatencyNanos : snapshot.p95Nanos();
+    }
+
+    GatewayLatencyWindow.Snapshot snapshot(String name) {
+        return window(name).snapshot(System.nanoTime(), windowNanos);
+    }
+
+    private GatewayLatencyWindow window(String name) {
+        return windows.computeIfAbsent(name.toUpperCase(), k -> new GatewayLatencyWindow(windowCapacity));
+    }
+
+    private static RuntimeException unwrap(String operation, ExecutionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException ce && ce.getCause() != null
+            ? ce.getCause() : e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new PaymentGatewayException(operation + " failed", cause);
+    }
+}
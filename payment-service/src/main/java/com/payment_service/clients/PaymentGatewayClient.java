@@ -1,6 +1,10 @@
 package com.payment_service.clients;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
@@ -11,7 +15,6 @@ import com.payment_service.DTOs.GatewayCaptureResponse;
 import com.payment_service.DTOs.UpiStatusResponse;
 import com.payment_service.DTOs.UpiTransactionResponse;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,26 +23,37 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 
 public class PaymentGatewayClient {
+	private static final String GATEWAY_UNAVAILABLE = "GATEWAY_UNAVAILABLE";
+
 	private final RazorpayGatewayClient razorpayClient;
 	private final StripeGatewayClient stripeClient;
-
-	@CircuitBreaker(name = "payment-gateway")
+	private final GatewayRouter gatewayRouter;
+	private final BillerValidationCache billerValidationCache;
+
+	/**
+	 * Authorize with the requested gateway, or with the one picked by the
+	 * router when the request asks for {@link GatewayRouter#AUTO}. Circuit
+	 * breaking happens per gateway inside the Razorpay and Stripe clients.
+	 */
 	public GatewayAuthorizationResponse authorizePayment(String gatewayName, String cardToken, BigDecimal amount,
 			String currency, String reference) {
-		return switch (gatewayName.toUpperCase()) {
+		String gateway = gatewayRouter.selectGateway(gatewayName);
+		GatewayAuthorizationResponse response = gatewayRouter.timed(gateway, () -> switch (gateway) {
 		case "RAZORPAY" -> razorpayClient.authorize(cardToken, amount, currency, reference);
 		case "STRIPE" -> stripeClient.authorize(cardToken, amount, currency, reference);
 		default -> throw new IllegalArgumentException("Unsupported gateway: " + gatewayName);
-		};
+		}, this::isGatewayHealthy);
+		response.setGatewayName(gateway);
+		return response;
 	}
 
-	@CircuitBreaker(name = "payment-gateway")
 	public GatewayCaptureResponse capturePayment(String gatewayName, String gatewayPaymentId, BigDecimal amount) {
-		return switch (gatewayName.toUpperCase()) {
+		String gateway = gatewayName.toUpperCase();
+		return gatewayRouter.timed(gateway, () -> switch (gateway) {
 		case "RAZORPAY" -> razorpayClient.capture(gatewayPaymentId, amount);
 		case "STRIPE" -> stripeClient.capture(gatewayPaymentId, amount);
 		default -> throw new IllegalArgumentException("Unsupported gateway");
-		};
+		}, response -> !GATEWAY_UNAVAILABLE.equals(response.getErrorCode()));
 	}
 
 	public void refundPayment(String gatewayName, String gatewayPaymentId, BigDecimal amount) {
@@ -60,7 +74,7 @@ public class PaymentGatewayClient {
 		// Integrate with UPI gateway (NPCI/PhonePe/Paytm)
 		log.debug("Initiating UPI transaction: {}", reference);
 
-		return UpiTransactionResponse.builder().success(true).transactionId("UPI-" + System.currentTimeMillis())
+		return UpiTransactionResponse.builder().success(true).transactionId("UPI-" + UUID.randomUUID())
 				.build();
 	}
 
@@ -68,19 +82,46 @@ public class PaymentGatewayClient {
 		// Poll UPI gateway for transaction status
 		log.debug("Checking UPI status: {}", transactionId);
 
-		return UpiStatusResponse.builder().transactionId(transactionId).status("COMPLETED").completed(true)
-				.failed(false).build();
+		return gatewayRouter.hedged("upi-status", () -> UpiStatusResponse.builder().transactionId(transactionId)
+				.status("COMPLETED").completed(true).failed(false).build());
 	}
 
+	/**
+	 * Status lookup for many collect requests in one round trip. The UPI
+	 * switch exposes a bulk status API; until it is wired in, fall back to
+	 * per-transaction lookups so callers can already batch.
+	 */
+	public Map<String, UpiStatusResponse> checkUpiStatusBatch(List<String> transactionIds) {
+		log.debug("Checking UPI status for {} transactions", transactionIds.size());
+
+		Map<String, UpiStatusResponse> statuses = new HashMap<>(transactionIds.size() * 2);
+		for (String transactionId : transactionIds) {
+			statuses.put(transactionId, checkUpiStatus(transactionId));
+		}
+		return statuses;
+	}
+
+	/**
+	 * Validations are cached per biller and bill number, so retries and
+	 * autopay runs over the same bills reach the biller once.
+	 */
 	public BillerValidationResponse validateBiller(String billerId, String billNumber) {
-		log.debug("Validating biller: {} - {}", billerId, billNumber);
+		return billerValidationCache.get(billerId, billNumber, () -> {
+			log.debug("Validating biller: {} - {}", billerId, billNumber);
 
-		return BillerValidationResponse.builder().valid(true).billerName("Electricity Board").build();
+			return gatewayRouter.hedged("biller-validation",
+					() -> BillerValidationResponse.builder().valid(true).billerName("Electricity Board").build());
+		});
 	}
 
 	public BillPaymentResponse payBill(String billerId, String billNumber, BigDecimal amount, String reference) {
 		log.debug("Paying bill: {} - {} amount: {}", billerId, billNumber, amount);
 
-		return BillPaymentResponse.builder().success(true).transactionId("BILL-" + System.currentTimeMillis()).build();
+		return BillPaymentResponse.builder().success(true).transactionId("BILL-" + UUID.randomUUID()).build();
+	}
+
+	// Declines are business outcomes; only an unavailable gateway counts against it
+	private boolean isGatewayHealthy(GatewayAuthorizationResponse response) {
+		return !GATEWAY_UNAVAILABLE.equals(response.getErrorCode());
 	}
 }
@@ -0,0 +1,73 @@
+package com.payment_service.configuration;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class AsyncConfig {
+
+	/**
+	 * Small bounded pool for hedged gateway lookups. When it is full the
+	 * router skips the hedge rather than queueing more duplicate calls.
+	 */
+	@Bean(name = "gatewayHedgeExecutor")
+	public ThreadPoolTaskExecutor gatewayHedgeExecutor(MeterRegistry meterRegistry,
+			@Value("${payment.gateway.hedging.pool-size:16}") int poolSize) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(poolSize * 4);
+		executor.setThreadNamePrefix("gateway-hedge-");
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "payment.gateway.hedge");
+		return executor;
+	}
+
+	/**
+	 * Shared by bill payment batches for validation, holds and saga runs.
+	 * Per-biller limits are enforced by the batch itself; this only caps the
+	 * total. A saturated pool runs work on the submitting thread.
+	 */
+	@Bean(name = "billPaymentExecutor")
+	public ThreadPoolTaskExecutor billPaymentExecutor(MeterRegistry meterRegistry,
+			@Value("${payment.bill-batch.pool-size:32}") int poolSize) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(poolSize * 8);
+		executor.setThreadNamePrefix("bill-batch-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "payment.bill.batch");
+		return executor;
+	}
+
+	/**
+	 * Runs whole bill payment batches off the request thread. Kept apart from
+	 * {@code billPaymentExecutor} so a batch never waits on its own pool; when
+	 * it is full, new batches are refused rather than queued without limit.
+	 */
+	@Bean(name = "billBatchCoordinatorExecutor")
+	public ThreadPoolTaskExecutor billBatchCoordinatorExecutor(MeterRegistry meterRegistry,
+			@Value("${payment.bill-batch.max-concurrent-batches:2}") int maxBatches,
+			@Value("${payment.bill-batch.queued-batches:8}") int queuedBatches) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(maxBatches);
+		executor.setMaxPoolSize(maxBatches);
+		executor.setQueueCapacity(queuedBatches);
+		executor.setThreadNamePrefix("bill-batch-run-");
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "payment.bill.batch.run");
+		return executor;
+	}
+}
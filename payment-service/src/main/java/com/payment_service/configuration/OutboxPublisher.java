@@ -1,81 +1,180 @@
 package com.payment_service.configuration;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.payment_service.entity.OutboxEvent;
 import com.payment_service.enums.OutboxStatus;
 import com.payment_service.repository.OutboxEventRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Polling outbox relay (payment.outbox.relay-mode=polling, the default).
+ * In wal mode {@link OutboxWalRelay} publishes instead and this class only
+ * runs the retention cleanup. Back in polling mode it drops the relay's
+ * replication slot, which would otherwise pin WAL on the server for good;
+ * rows the relay already sent are marked SENT and are not published again.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OutboxPublisher {
+    // Matches the retry_count < 5 filter in OutboxEventRepository
+    private static final int MAX_RETRIES = 5;
+
 	private final OutboxEventRepository outboxRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
 
-    @Scheduled(fixedDelay = 5000) // Every 5 seconds
-    @Transactional
+    @Value("${payment.outbox.relay-mode:polling}")
+    private String relayMode;
+
+    @Value("${payment.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${payment.outbox.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${payment.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${payment.outbox.wal.slot-name:payment_outbox_slot}")
+    private String walSlotName;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropAbandonedWalSlot() {
+        if (isWalMode()) {
+            return;
+        }
+        try {
+            // An active slot belongs to an instance still in wal mode; leave it alone
+            List<String> dropped = jdbcTemplate.queryForList(
+                    "SELECT slot_name FROM (SELECT slot_name, pg_drop_replication_slot(slot_name) "
+                            + "FROM pg_replication_slots WHERE slot_name = ? AND NOT active) s",
+                    String.class, walSlotName);
+            if (!dropped.isEmpty()) {
+                log.info("Dropped replication slot {} left by the WAL relay", walSlotName);
+            }
+        } catch (Exception e) {
+            log.warn("Could not drop replication slot {}: {}", walSlotName, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval-ms:5000}")
     public void publishPendingEvents() {
-        List<OutboxEvent> pendingEvents = outboxRepository.findPendingEvents(OutboxStatus.PENDING);
+        if (isWalMode()) {
+            return;
+        }
+
+        // Claim in a short transaction of its own; no locks or connection are held while Kafka acks
+        LocalDateTime claimedAt = LocalDateTime.now();
+        List<OutboxEvent> pendingEvents = transactionTemplate.execute(status -> outboxRepository.claimPendingBatch(
+                batchSize, claimedAt, claimedAt.plus(Duration.ofMillis(sendTimeoutMs * 2))));
         
-        if (pendingEvents.isEmpty()) {
+        if (pendingEvents == null || pendingEvents.isEmpty()) {
             return;
         }
         
         log.info("Publishing {} pending outbox events", pendingEvents.size());
+        Timer.Sample sample = Timer.start(meterRegistry);
         
+        List<CompletableFuture<?>> sends = new ArrayList<>(pendingEvents.size());
         for (OutboxEvent event : pendingEvents) {
             try {
-                event.setStatus(OutboxStatus.PROCESSING);
-                outboxRepository.save(event);
-                
-                // Publish to Kafka
-                kafkaTemplate.send(event.getTopic(), event.getAggregateId(), event.getPayload())
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            handlePublishFailure(event, ex);
-                        } else {
-                            handlePublishSuccess(event);
-                        }
-                    });
-                
+                sends.add(kafkaTemplate.send(event.getTopic(), event.getAggregateId(), event.getPayload()));
             } catch (Exception e) {
-                log.error("Failed to publish event: {}", event.getId(), e);
-                handlePublishFailure(event, e);
+                sends.add(CompletableFuture.failedFuture(e));
             }
         }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<String> sentIds = new ArrayList<>(pendingEvents.size());
+        Map<OutboxEvent, Throwable> failures = new LinkedHashMap<>();
+        for (int i = 0; i < pendingEvents.size(); i++) {
+            OutboxEvent event = pendingEvents.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(event.getId());
+            } catch (InterruptedException e) {
+                // Unconfirmed events are picked up again once their lease runs out
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failures.put(event, e);
+            }
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            // One UPDATE for the whole batch instead of two saves per event
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, OutboxStatus.SENT, LocalDateTime.now());
+            }
+            failures.forEach(this::handlePublishFailure);
+        });
+        
+        sample.stop(meterRegistry.timer("outbox.relay.batch", "mode", "polling"));
+        meterRegistry.counter("outbox.relay.published", "mode", "polling").increment(sentIds.size());
     }
 
-    @Transactional
-    private void handlePublishSuccess(OutboxEvent event) {
-        event.setStatus(OutboxStatus.SENT);
-        event.setProcessedAt(LocalDateTime.now());
-        outboxRepository.save(event);
-        log.debug("Event published successfully: {}", event.getId());
-    }
-
-    @Transactional
+    /**
+     * Keeps the event PENDING and backs off exponentially from retryBackoffMs;
+     * the last attempt marks it FAILED, where it stays for findDeadLetterEvents.
+     */
     private void handlePublishFailure(OutboxEvent event, Throwable error) {
-        event.setStatus(OutboxStatus.FAILED);
-        event.setRetryCount(event.getRetryCount() + 1);
-        event.setErrorMessage(error.getMessage());
-        outboxRepository.save(event);
-        log.error("Event publish failed: {}", event.getId());
+        int attempts = event.getRetryCount() + 1;
+        boolean exhausted = attempts >= MAX_RETRIES;
+        LocalDateTime nextRetryAt = exhausted ? null
+                : LocalDateTime.now().plus(Duration.ofMillis(retryBackoffMs << (attempts - 1)));
+        String message = error.getMessage();
+        if (message != null && message.length() > 1000) {
+            message = message.substring(0, 1000);
+        }
+
+        outboxRepository.markFailed(event.getId(), exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                attempts, message, nextRetryAt);
+        if (exhausted) {
+            log.error("Event publish failed after {} attempts: {}", attempts, event.getId());
+        } else {
+            log.warn("Event publish failed, attempt {} of {}, retrying at {}: {}", attempts, MAX_RETRIES,
+                    nextRetryAt, event.getId());
+        }
     }
 
     @Scheduled(cron = "0 0 2 * * ?") // Daily at 2 AM
     @Transactional
     public void cleanupOldEvents() {
         LocalDateTime threshold = LocalDateTime.now().minusDays(7);
-        outboxRepository.deleteByStatusAndCreatedAtBefore(OutboxStatus.SENT, threshold);
+        if (isWalMode()) {
+            // The slot is past anything this old, including rows whose SENT mark was lost in a crash
+            outboxRepository.deleteByCreatedAtBefore(threshold);
+        } else {
+            outboxRepository.deleteByStatusAndCreatedAtBefore(OutboxStatus.SENT, threshold);
+        }
         log.info("Cleaned up old outbox events");
     }
+
+    private boolean isWalMode() {
+        return "wal".equalsIgnoreCase(relayMode);
+    }
 }
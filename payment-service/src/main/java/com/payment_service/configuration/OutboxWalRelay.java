@@ -0,0 +1,299 @@
+package com.payment_service.configuration;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payment_service.enums.OutboxStatus;
+import com.payment_service.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes outbox events by tailing outbox_events through Postgres logical
+ * replication (pgoutput) instead of polling the table.
+ *
+ * Events are sent to Kafka in commit order, a batch at a time. A batch goes
+ * out once it is full or its oldest event has waited the linger time. Once
+ * every send is acknowledged the batch's rows are marked SENT in a single
+ * UPDATE and the replication slot is advanced to the batch's last commit.
+ * The slot is the relay's position; the status only keeps the polling
+ * fallback from re-sending what was already relayed (the publication only
+ * carries inserts, so the UPDATE does not come back through the slot).
+ * After a crash or a failed send the relay reconnects and resumes from the
+ * last confirmed commit, so delivery is at-least-once.
+ *
+ * Enabled with payment.outbox.relay-mode=wal; the default polling mode in
+ * {@link OutboxPublisher} stays available as the fallback and drops the
+ * slot this relay leaves behind. Requires wal_level=logical and a role with
+ * REPLICATION.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.outbox.relay-mode", havingValue = "wal")
+public class OutboxWalRelay implements SmartLifecycle {
+	private static final String OUTBOX_TABLE = "outbox_events";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final String slotName;
+    private final String publicationName;
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration sendTimeout;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    private record PendingEvent(String id, String topic, String key, String payload) {
+    }
+
+    public OutboxWalRelay(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            OutboxEventRepository outboxRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${payment.outbox.wal.slot-name:payment_outbox_slot}") String slotName,
+            @Value("${payment.outbox.wal.publication-name:payment_outbox_pub}") String publicationName,
+            @Value("${payment.outbox.wal.batch-size:500}") int batchSize,
+            @Value("${payment.outbox.wal.linger:PT0.02S}") Duration linger,
+            @Value("${payment.outbox.wal.send-timeout:PT30S}") Duration sendTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.slotName = slotName;
+        this.publicationName = publicationName;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "outbox-wal-relay");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Outbox WAL relay started (slot={}, publication={})", slotName, publicationName);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runLoop() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = openReplicationConnection()) {
+                ensurePublicationAndSlot(connection);
+                stream(connection);
+                backoffMs = 1000;
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Outbox WAL relay failed, reconnecting in {} ms: {}", backoffMs, e.getMessage());
+                meterRegistry.counter("outbox.relay.reconnects").increment();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30000);
+            }
+        }
+        log.info("Outbox WAL relay stopped");
+    }
+
+    private void stream(Connection connection) throws Exception {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        PGReplicationStream stream = pgConnection.getReplicationAPI()
+            .replicationStream()
+            .logical()
+            .withSlotName(slotName)
+            .withSlotOption("proto_version", "1")
+            .withSlotOption("publication_names", publicationName)
+            .withStatusInterval(10, TimeUnit.SECONDS)
+            .start();
+
+        PgOutputDecoder decoder = new PgOutputDecoder();
+        List<PendingEvent> transaction = new ArrayList<>();
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        LogSequenceNumber batchEnd = null;
+        long batchStarted = 0L;
+
+        try {
+            while (running) {
+                // Checked on every iteration, so a steady trickle of commits cannot hold a batch back
+                if (!batch.isEmpty() && System.nanoTime() - batchStarted >= linger.toNanos()) {
+                    publish(batch, stream, batchEnd);
+                    batch.clear();
+                }
+
+                ByteBuffer message = stream.readPending();
+                if (message == null) {
+                    TimeUnit.MILLISECONDS.sleep(5);
+                    continue;
+                }
+
+                PgOutputDecoder.Message decoded = decoder.decode(message);
+                switch (decoded.kind()) {
+                    case BEGIN -> transaction.clear();
+                    case INSERT -> {
+                        if (OUTBOX_TABLE.equals(decoded.table())) {
+                            transaction.add(toEvent(decoded.columns()));
+                        }
+                    }
+                    case COMMIT -> {
+                        if (transaction.isEmpty()) {
+                            // Nothing for us; still let the slot move past it
+                            if (batch.isEmpty()) {
+                                acknowledge(stream, stream.getLastReceiveLSN());
+                            } else {
+                                batchEnd = stream.getLastReceiveLSN();
+                            }
+                            break;
+                        }
+                        if (batch.isEmpty()) {
+                            batchStarted = System.nanoTime();
+                        }
+                        batch.addAll(transaction);
+                        batchEnd = stream.getLastReceiveLSN();
+                        transaction.clear();
+                        if (batch.size() >= batchSize) {
+                            publish(batch, stream, batchEnd);
+                            batch.clear();
+                        }
+                    }
+                    default -> {
+                        // relation/type/origin messages carry no events
+                    }
+                }
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    private void publish(List<PendingEvent> batch, PGReplicationStream stream, LogSequenceNumber batchEnd)
+            throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (PendingEvent event : batch) {
+            sends.add(kafkaTemplate.send(event.topic(), event.key(), event.payload()));
+        }
+        // Any failure propagates and the slot is not advanced
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+            .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        List<String> ids = batch.stream().map(PendingEvent::id).toList();
+        transactionTemplate.executeWithoutResult(
+            status -> outboxRepository.markSent(ids, OutboxStatus.SENT, LocalDateTime.now()));
+        acknowledge(stream, batchEnd);
+        sample.stop(meterRegistry.timer("outbox.relay.batch", "mode", "wal"));
+        meterRegistry.counter("outbox.relay.published", "mode", "wal").increment(batch.size());
+        log.debug("Relayed {} outbox events up to {}", batch.size(), batchEnd);
+    }
+
+    private void acknowledge(PGReplicationStream stream, LogSequenceNumber lsn) throws Exception {
+        stream.setAppliedLSN(lsn);
+        stream.setFlushedLSN(lsn);
+        stream.forceUpdateStatus();
+    }
+
+    private PendingEvent toEvent(Map<String, String> columns) {
+        return new PendingEvent(columns.get("id"), columns.get("topic"), columns.get("aggregate_id"),
+            columns.get("payload"));
+    }
+
+    private Connection openReplicationConnection() throws Exception {
+        Properties properties = new Properties();
+        PGProperty.USER.set(properties, username);
+        PGProperty.PASSWORD.set(properties, password);
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, "10");
+        PGProperty.REPLICATION.set(properties, "database");
+        PGProperty.PREFER_QUERY_MODE.set(properties, "simple");
+        return DriverManager.getConnection(jdbcUrl, properties);
+    }
+
+    private void ensurePublicationAndSlot(Connection connection) throws Exception {
+        // Publication/slot lookups need a regular session
+        Properties properties = new Properties();
+        PGProperty.USER.set(properties, username);
+        PGProperty.PASSWORD.set(properties, password);
+        try (Connection admin = DriverManager.getConnection(jdbcUrl, properties)) {
+            if (!exists(admin, "SELECT 1 FROM pg_publication WHERE pubname = ?", publicationName)) {
+                try (Statement statement = admin.createStatement()) {
+                    statement.execute("CREATE PUBLICATION " + publicationName + " FOR TABLE " + OUTBOX_TABLE
+                        + " WITH (publish = 'insert')");
+                }
+                log.info("Created publication {}", publicationName);
+            }
+            if (!exists(admin, "SELECT 1 FROM pg_replication_slots WHERE slot_name = ?", slotName)) {
+                connection.unwrap(PGConnection.class).getReplicationAPI()
+                    .createReplicationSlot()
+                    .logical()
+                    .withSlotName(slotName)
+                    .withOutputPlugin("pgoutput")
+                    .make();
+                log.info("Created replication slot {}", slotName);
+            }
+        }
+    }
+
+    private static boolean exists(Connection connection, String sql, String name) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.payment_service.configuration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal decoder for the pgoutput logical replication protocol (version 1).
+ * It only understands what the outbox relay needs: relation metadata,
+ * transaction boundaries and INSERTs. Every other message is skipped.
+ */
+final class PgOutputDecoder {
+
+    enum Kind { BEGIN, COMMIT, INSERT, OTHER }
+
+    record Message(Kind kind, String table, Map<String, String> columns) {
+        static final Message BEGIN = new Message(Kind.BEGIN, null, null);
+        static final Message COMMIT = new Message(Kind.COMMIT, null, null);
+        static final Message OTHER = new Message(Kind.OTHER, null, null);
+    }
+
+    private record Relation(String table, List<String> columnNames) {
+    }
+
+    private final Map<Integer, Relation> relations = new HashMap<>();
+
+    Message decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case 'B':
+                return Message.BEGIN;
+            case 'C':
+                return Message.COMMIT;
+            case 'R':
+                readRelation(buffer);
+                return Message.OTHER;
+            case 'I':
+                return readInsert(buffer);
+            default:
+                return Message.OTHER;
+        }
+    }
+
+    private void readRelation(ByteBuffer buffer) {
+        int oid = buffer.getInt();
+        readString(buffer); // namespace
+        String table = readString(buffer);
+        buffer.get(); // replica identity
+        int columnCount = buffer.getShort();
+        List<String> names = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            buffer.get(); // flags
+            names.add(readString(buffer));
+            buffer.getInt(); // type oid
+            buffer.getInt(); // type modifier
+        }
+        relations.put(oid, new Relation(table, names));
+    }
+
+    private Message readInsert(ByteBuffer buffer) {
+        int oid = buffer.getInt();
+        buffer.get(); // 'N' - new tuple
+        Relation relation = relations.get(oid);
+        if (relation == null) {
+            throw new IllegalStateException("INSERT for unknown relation " + oid);
+        }
+
+        int columnCount = buffer.getShort();
+        Map<String, String> columns = new HashMap<>(columnCount * 2);
+        for (int i = 0; i < columnCount; i++) {
+            byte kind = buffer.get();
+            if (kind == 't') {
+                byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                columns.put(relation.columnNames().get(i), new String(value, StandardCharsets.UTF_8));
+            } else {
+                columns.put(relation.columnNames().get(i), null); // 'n' null, 'u' unchanged TOAST
+            }
+        }
+        return new Message(Kind.INSERT, relation.table(), columns);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // scan to the terminating NUL
+        }
+        byte[] bytes = new byte[buffer.position() - start - 1];
+        buffer.position(start);
+        buffer.get(bytes);
+        buffer.get(); // NUL
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
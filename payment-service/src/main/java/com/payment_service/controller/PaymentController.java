@@ -1,27 +1,46 @@
 package com.payment_service.controller;
 
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.payment_service.DTOs.BillPaymentBatchRequest;
+import com.payment_service.DTOs.BillPaymentBatchResponse;
 import com.payment_service.DTOs.BillPaymentRequest;
 import com.payment_service.DTOs.CardPaymentRequest;
+import com.payment_service.DTOs.PaymentAnalyticsResponse;
 import com.payment_service.DTOs.PaymentResponse;
+import com.payment_service.DTOs.UpiCallbackRequest;
 import com.payment_service.DTOs.UpiPaymentRequest;
+import com.payment_service.enums.AnalyticsWindow;
+import com.payment_service.enums.SettlementFileFormat;
+import com.payment_service.service.BillPaymentBatchService;
+import com.payment_service.service.PaymentAnalyticsService;
 import com.payment_service.service.PaymentService;
+import com.payment_service.service.SettlementExportService;
+import com.payment_service.service.UpiConfirmationService;
 
 import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -37,6 +56,10 @@ import lombok.extern.slf4j.Slf4j;
 @SecurityRequirement(name = "bearer-jwt")
 public class PaymentController {
 	private final PaymentService paymentService;
+	private final UpiConfirmationService upiConfirmationService;
+	private final BillPaymentBatchService billPaymentBatchService;
+	private final SettlementExportService settlementExportService;
+	private final PaymentAnalyticsService paymentAnalyticsService;
 
     @PostMapping("/card")
     @PreAuthorize("hasRole('USER')")
@@ -86,6 +109,25 @@ public class PaymentController {
             .body(response);
     }
 
+    @PostMapping("/upi/callback")
+    @Operation(summary = "UPI status callback", description = "Gateway webhook that resumes a UPI payment awaiting confirmation")
+    public ResponseEntity<Void> handleUpiCallback(
+            @Valid @RequestBody UpiCallbackRequest callback,
+            @RequestHeader(value = "X-UPI-Signature", required = false) String signature) {
+        
+        if (!upiConfirmationService.verifyCallbackSignature(callback, signature)) {
+            log.warn("UPI callback rejected, bad signature: txn={}", callback.getTransactionId());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        log.info("UPI callback: txn={}, status={}", callback.getTransactionId(), callback.getStatus());
+        upiConfirmationService.handleCallback(callback);
+        
+        // Duplicates and still-pending notifications are acknowledged too,
+        // otherwise the gateway keeps redelivering them.
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/bill")
     @PreAuthorize("hasRole('USER')")
     @Timed(value = "payment.bill.process", description = "Time to process bill payment")
@@ -107,6 +149,22 @@ public class PaymentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bill/batch")
+    @PreAuthorize("hasAnyRole('SYSTEM', 'ADMIN')")
+    @Timed(value = "payment.bill.batch.process", description = "Time to process a bill payment batch")
+    @Operation(summary = "Process bill payment batch", description = "Autopay runs: validates each bill once, reserves funds in chunks and pays billers concurrently")
+    public CompletableFuture<ResponseEntity<BillPaymentBatchResponse>> processBillPaymentBatch(
+            @Valid @RequestBody BillPaymentBatchRequest request,
+            HttpServletRequest httpRequest) {
+        
+        log.info("Bill payment batch received: {} payments", request.getPayments().size());
+        
+        // Completes on the batch pool; the request thread is released meanwhile
+        return billPaymentBatchService.processBatch(
+            request.getPayments(), extractIpAddress(httpRequest)
+        ).thenApply(ResponseEntity::ok);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Get user payments", description = "Get paginated list of user's payments")
@@ -138,6 +196,42 @@ public class PaymentController {
         return ResponseEntity.ok(payment);
     }
 
+    @GetMapping("/settlements/merchants/{merchantId}")
+    @PreAuthorize("hasAnyRole('SYSTEM', 'ADMIN')")
+    @Operation(summary = "Export merchant settlement file", description = "Streams the merchant's payments completed in [from, to) as a CSV or fixed-width settlement file")
+    public ResponseEntity<StreamingResponseBody> exportSettlement(
+            @PathVariable Long merchantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") SettlementFileFormat format) {
+        
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        String fileName = String.format("settlement-%d-%s-%s.%s", merchantId,
+            from.toLocalDate(), to.toLocalDate(), format == SettlementFileFormat.CSV ? "csv" : "txt");
+        
+        StreamingResponseBody body = out -> settlementExportService.export(merchantId, from, to, format, out);
+        
+        return ResponseEntity.ok()
+            .contentType(format == SettlementFileFormat.CSV ? MediaType.parseMediaType("text/csv") : MediaType.TEXT_PLAIN)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(body);
+    }
+
+    @GetMapping("/analytics")
+    @PreAuthorize("hasAnyRole('SYSTEM', 'ADMIN')")
+    @Operation(summary = "Payment analytics", description = "Rolling per method and gateway counts, amounts, approval rates and latency percentiles, merged across instances unless local=true")
+    public ResponseEntity<PaymentAnalyticsResponse> getAnalytics(
+            @RequestParam(defaultValue = "ONE_MINUTE") AnalyticsWindow window,
+            @RequestParam(defaultValue = "false") boolean local) {
+        
+        return ResponseEntity.ok(local
+            ? paymentAnalyticsService.getLocalAnalytics(window)
+            : paymentAnalyticsService.getClusterAnalytics(window));
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check", description = "Check payment service health")
     public ResponseEntity<String> healthCheck() {
@@ -60,4 +60,7 @@ public class OutboxEvent {
     
     @Column(name = "error_message", length = 1000)
     private String errorMessage;
+    
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt;
 }
@@ -37,7 +37,10 @@ import lombok.NoArgsConstructor;
         @Index(name = "idx_created_at", columnList = "created_at"),
         @Index(name = "idx_idempotency", columnList = "idempotency_key", unique = true),
         @Index(name = "idx_composite", columnList = "user_id, status, created_at DESC"),
-        @Index(name = "idx_external_ref", columnList = "external_transaction_id")
+        @Index(name = "idx_external_ref", columnList = "external_transaction_id"),
+        @Index(name = "idx_upi_txn", columnList = "upi_transaction_id"),
+        @Index(name = "idx_method_status", columnList = "payment_method, status, id"),
+        @Index(name = "idx_merchant_settlement", columnList = "merchant_id, status, completed_at")
     }
 )
 @Data
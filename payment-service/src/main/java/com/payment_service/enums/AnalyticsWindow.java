@@ -0,0 +1,39 @@
+package com.payment_service.enums;
+
+import java.time.Duration;
+
+/**
+ * Rolling windows kept by the payment analytics. Each window is a ring of
+ * {@code slots} equal time slots, so a window covers between
+ * (slots - 1) and slots slot lengths of history.
+ */
+public enum AnalyticsWindow {
+	ONE_MINUTE("1m", Duration.ofMinutes(1), 6),
+    ONE_HOUR("1h", Duration.ofHours(1), 12);
+
+    private final String label;
+    private final Duration length;
+    private final int slots;
+
+    AnalyticsWindow(String label, Duration length, int slots) {
+        this.label = label;
+        this.length = length;
+        this.slots = slots;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public long getSlotMillis() {
+        return length.toMillis() / slots;
+    }
+}
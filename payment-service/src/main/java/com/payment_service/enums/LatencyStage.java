@@ -0,0 +1,7 @@
+package com.payment_service.enums;
+
+public enum LatencyStage {
+	AUTHORIZE,      // Gateway authorization call
+    CAPTURE,        // Gateway capture call
+    END_TO_END      // Payment created to terminal status
+}
@@ -0,0 +1,6 @@
+package com.payment_service.enums;
+
+public enum SettlementFileFormat {
+	CSV,
+    FIXED_WIDTH
+}
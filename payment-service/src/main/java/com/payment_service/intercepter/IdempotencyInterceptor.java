@@ -2,13 +2,14 @@ package com.payment_service.intercepter;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,7 +17,9 @@ import com.payment_service.entity.IdempotencyKey;
 import com.payment_service.enums.IdempotencyStatus;
 import com.payment_service.exception.IdempotencyConflictException;
 import com.payment_service.exception.IdempotencyException;
+import com.payment_service.service.IdempotencyCompletionNotifier;
 import com.payment_service.service.IdempotencyService;
+import com.payment_service.service.IdempotencyService.ClaimResult;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -35,10 +38,10 @@ import lombok.extern.slf4j.Slf4j;
 public class IdempotencyInterceptor extends OncePerRequestFilter {
 
     private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
-    private static final int MAX_WAIT_TIME_MS = 30000; // 30 seconds
-    private static final int POLL_INTERVAL_MS = 500;
+    private static final Duration MAX_WAIT_TIME = Duration.ofSeconds(30);
 
     private final IdempotencyService idempotencyService;
+    private final IdempotencyCompletionNotifier completionNotifier;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -76,21 +79,20 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
         }
 
         // Wrap request and response for body caching
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
+        CachedBodyHttpServletRequest wrappedRequest = new CachedBodyHttpServletRequest(request);
         ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
 
         try {
             // Get or create idempotency key
-            Object requestBody = parseRequestBody(wrappedRequest);
-
-            IdempotencyKey key = idempotencyService.createOrGet(
+            ClaimResult claim = idempotencyService.createOrGet(
                     idempotencyKey,
                     userId,
                     request.getRequestURI(),
                     request.getMethod(),
-                    requestBody,
+                    wrappedRequest.getBody(),
                     extractIpAddress(request),
                     request.getHeader("User-Agent"));
+            IdempotencyKey key = claim.key();
 
             // Handle based on status
             if (key.getStatus() == IdempotencyStatus.COMPLETED) {
@@ -100,19 +102,21 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
                 return;
             }
 
-            if (key.getStatus() == IdempotencyStatus.PROCESSING) {
+            // A key this request just created is PROCESSING too, but it is
+            // ours to process; only someone else's in-flight key is waited on
+            if (!claim.created() && key.getStatus() == IdempotencyStatus.PROCESSING) {
                 // Wait for concurrent request to complete
                 log.info("Request already processing, waiting: {}", idempotencyKey);
                 try {
-                    boolean completed = waitForCompletion(idempotencyKey);
-
-                    if (completed) {
-                        // Retrieve and return cached response
-                        IdempotencyKey completedKey = idempotencyService
-                                .createOrGet(idempotencyKey, userId, request.getRequestURI(),
-                                        request.getMethod(), requestBody,
-                                        extractIpAddress(request), request.getHeader("User-Agent"));
-                        sendCachedResponse(wrappedResponse, completedKey);
+                    Optional<IdempotencyKey> settled = completionNotifier.await(idempotencyKey, MAX_WAIT_TIME);
+
+                    if (settled.isPresent()) {
+                        // Return the original request's outcome
+                        if (settled.get().isCompleted()) {
+                            sendCachedResponse(wrappedResponse, settled.get());
+                        } else {
+                            sendCachedFailure(wrappedResponse, settled.get());
+                        }
                         return;
                     } else {
                         sendError(wrappedResponse, HttpStatus.REQUEST_TIMEOUT,
@@ -177,6 +181,16 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
         String path = request.getRequestURI();
         String method = request.getMethod();
 
+        // Gateway callbacks are deduplicated by the payment row itself
+        if (path.contains("/api/v1/payments/upi/callback")) {
+            return false;
+        }
+
+        // Batch items carry their own idempotency keys
+        if (path.contains("/api/v1/payments/bill/batch")) {
+            return false;
+        }
+
         // Apply to POST payment endpoints
         return "POST".equalsIgnoreCase(method) &&
                 (path.contains("/api/v1/payments/card") ||
@@ -215,27 +229,6 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
         return ip;
     }
 
-    private Object parseRequestBody(ContentCachingRequestWrapper request) throws IOException {
-        byte[] body = request.getContentAsByteArray();
-        if (body.length > 0) {
-            return objectMapper.readValue(body, Object.class);
-        }
-        return null;
-    }
-
-    private boolean waitForCompletion(String idempotencyKey) throws InterruptedException {
-        long startTime = System.currentTimeMillis();
-
-        while (System.currentTimeMillis() - startTime < MAX_WAIT_TIME_MS) {
-            if (!idempotencyService.isProcessing(idempotencyKey)) {
-                return true;
-            }
-            Thread.sleep(POLL_INTERVAL_MS);
-        }
-
-        return false;
-    }
-
     private void sendCachedResponse(
             ContentCachingResponseWrapper response,
             IdempotencyKey key) throws IOException {
@@ -249,6 +242,20 @@ public class IdempotencyInterceptor extends OncePerRequestFilter {
         response.copyBodyToResponse();
     }
 
+    private void sendCachedFailure(
+            ContentCachingResponseWrapper response,
+            IdempotencyKey key) throws IOException {
+
+        response.setStatus(key.getResponseCode() != null
+                ? key.getResponseCode() : HttpStatus.INTERNAL_SERVER_ERROR.value());
+        response.setContentType("application/json");
+        response.setHeader("X-Idempotency-Cached", "true");
+
+        String body = key.getErrorMessage() != null ? key.getErrorMessage() : "";
+        response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        response.copyBodyToResponse();
+    }
+
     private void sendError(
             HttpServletResponse response,
             HttpStatus status,
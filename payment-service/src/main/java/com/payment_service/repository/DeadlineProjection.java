@@ -0,0 +1,9 @@
+package com.payment_service.repository;
+
+import java.time.LocalDateTime;
+
+public interface DeadlineProjection {
+	Long getId();
+
+	LocalDateTime getDeadline();
+}
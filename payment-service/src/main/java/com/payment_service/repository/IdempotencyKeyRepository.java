@@ -1,6 +1,7 @@
 package com.payment_service.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,15 +43,72 @@ public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey,
     int deleteExpiredKeys(@Param("now") LocalDateTime now);
 
     /**
-     * Find processing keys older than threshold (stuck requests)
+     * Claim a key as PROCESSING in one statement. Returns 1 if this call
+     * inserted it, 0 if the key already exists.
      */
-    @Query("SELECT i FROM IdempotencyKey i WHERE i.status = :status AND i.createdAt < :threshold")
-    List<IdempotencyKey> findStuckProcessingKeys(
-            @Param("status") IdempotencyStatus status,
-            @Param("threshold") LocalDateTime threshold);
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, user_id, request_path, request_method, "
+            + "request_hash, status, created_at, expires_at, request_ip, user_agent) "
+            + "VALUES (:idempotencyKey, :userId, :requestPath, :requestMethod, :requestHash, 'PROCESSING', "
+            + ":createdAt, :expiresAt, :requestIp, :userAgent) "
+            + "ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int claim(
+            @Param("idempotencyKey") String idempotencyKey,
+            @Param("userId") Long userId,
+            @Param("requestPath") String requestPath,
+            @Param("requestMethod") String requestMethod,
+            @Param("requestHash") String requestHash,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("expiresAt") LocalDateTime expiresAt,
+            @Param("requestIp") String requestIp,
+            @Param("userAgent") String userAgent);
+
+    /**
+     * Processing keys older than threshold (stuck requests), row-locked until
+     * the caller's transaction ends; a concurrent sweep skips them
+     */
+    @Query(value = "SELECT * FROM idempotency_keys WHERE status = 'PROCESSING' AND created_at < :threshold "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<IdempotencyKey> lockStuckProcessingKeys(@Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Fail the given keys if they are still processing
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IdempotencyKey i SET i.status = :failed, i.errorMessage = :errorMessage, "
+            + "i.completedAt = :now WHERE i.idempotencyKey IN :keys AND i.status = :processing")
+    int failProcessingKeys(
+            @Param("keys") Collection<String> keys,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") LocalDateTime now,
+            @Param("failed") IdempotencyStatus failed,
+            @Param("processing") IdempotencyStatus processing);
+
+    /**
+     * Fail processing keys older than threshold (stuck requests). Returns
+     * the rows it failed so their waiters can be told. Must run inside a
+     * transaction; the returned keys are detached.
+     */
+    default List<IdempotencyKey> failStuckProcessingKeys(String errorMessage, LocalDateTime threshold,
+            LocalDateTime now) {
+        List<IdempotencyKey> stuck = lockStuckProcessingKeys(threshold);
+        if (stuck.isEmpty()) {
+            return stuck;
+        }
+        // The rows are locked, so every one of them is still PROCESSING
+        failProcessingKeys(stuck.stream().map(IdempotencyKey::getIdempotencyKey).toList(),
+                errorMessage, now, IdempotencyStatus.FAILED, IdempotencyStatus.PROCESSING);
+        stuck.forEach(key -> {
+            key.setStatus(IdempotencyStatus.FAILED);
+            key.setErrorMessage(errorMessage);
+            key.setCompletedAt(now);
+        });
+        return stuck;
+    }
 
     /**
-     * Count processing requests for a user (rate limiting)
+     * Count processing requests for a user (in-flight limit fallback when
+     * Redis is unavailable)
      */
     @Query("SELECT COUNT(i) FROM IdempotencyKey i WHERE i.userId = :userId AND i.status = :status")
     long countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") IdempotencyStatus status);
@@ -1,9 +1,11 @@
 package com.payment_service.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -20,5 +22,49 @@ public interface OutboxEventRepository extends JpaRepository<OutboxEvent, String
            "AND e.retryCount >= 5")
     List<OutboxEvent> findDeadLetterEvents();
     
+    // Due events, row-locked until the caller's transaction ends; concurrent pollers skip them
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND retry_count < 5 " +
+                   "AND (next_retry_at IS NULL OR next_retry_at <= :now) " +
+                   "ORDER BY created_at ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockPendingBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
+    
+    // Moves next_retry_at to the end of the lease, so other pollers pass over
+    // the locked events once the claiming transaction commits
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextRetryAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<String> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    /**
+     * Claims up to {@code limit} due events. Must run inside a transaction,
+     * which should be kept short: the row locks last until it commits.
+     */
+    default List<OutboxEvent> claimPendingBatch(int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        List<OutboxEvent> events = lockPendingBatch(limit, now);
+        if (!events.isEmpty()) {
+            lease(events.stream().map(OutboxEvent::getId).toList(), leaseUntil);
+        }
+        return events;
+    }
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.processedAt = :now WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<String> ids,
+                 @Param("status") OutboxStatus status,
+                 @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.retryCount = :retryCount, " +
+           "e.errorMessage = :errorMessage, e.nextRetryAt = :nextRetryAt WHERE e.id = :id")
+    int markFailed(@Param("id") String id,
+                   @Param("status") OutboxStatus status,
+                   @Param("retryCount") int retryCount,
+                   @Param("errorMessage") String errorMessage,
+                   @Param("nextRetryAt") LocalDateTime nextRetryAt);
+    
     void deleteByStatusAndCreatedAtBefore(OutboxStatus status, LocalDateTime before);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :before")
+    int deleteByCreatedAtBefore(@Param("before") LocalDateTime before);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.payment_service.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,8 +11,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.payment_service.entity.Payment;
 import com.payment_service.enums.PaymentStatus;
@@ -31,8 +34,24 @@ JpaSpecificationExecutor<Payment>{
     
     boolean existsByIdempotencyKey(String idempotencyKey);
     
+    List<Payment> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+    
     Optional<Payment> findByGatewayPaymentId(String gatewayPaymentId);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.upiTransactionId = :upiTransactionId")
+    Optional<Payment> findByUpiTransactionIdForUpdate(@Param("upiTransactionId") String upiTransactionId);
+    
+    // UPI collect requests awaiting confirmation, walked in id order by the status poller
+    @Query("SELECT p FROM Payment p WHERE p.paymentMethod = 'UPI' " +
+           "AND p.status = 'PROCESSING' AND p.upiTransactionId IS NOT NULL " +
+           "AND p.id > :afterId AND p.updatedAt < :settledBefore ORDER BY p.id ASC")
+    List<Payment> findPendingUpiConfirmations(
+        @Param("afterId") Long afterId,
+        @Param("settledBefore") LocalDateTime settledBefore,
+        Pageable pageable
+    );
+    
     // Paginated user payments (no N+1)
     @Query("SELECT p FROM Payment p WHERE p.userId = :userId ORDER BY p.createdAt DESC")
     Page<Payment> findByUserId(@Param("userId") Long userId, Pageable pageable);
@@ -45,7 +64,7 @@ JpaSpecificationExecutor<Payment>{
         Pageable pageable
     );
     
-    // Merchant payments
+    // Merchant payments (settlement files stream through SettlementExportService)
     @Query("SELECT p FROM Payment p WHERE p.merchantId = :merchantId " +
            "AND p.status = 'COMPLETED' ORDER BY p.createdAt DESC")
     Page<Payment> findCompletedMerchantPayments(
@@ -76,6 +95,56 @@ JpaSpecificationExecutor<Payment>{
            "AND p.expiresAt < :now")
     List<Payment> findExpiredPendingPayments(@Param("now") LocalDateTime now);
     
+    // Pending payment deadlines, paged by id, to rebuild the deadline index
+    @Query("SELECT p.id AS id, p.expiresAt AS deadline FROM Payment p " +
+           "WHERE p.status IN :statuses AND p.expiresAt IS NOT NULL " +
+           "AND p.id > :afterId ORDER BY p.id ASC")
+    List<DeadlineProjection> findPendingDeadlines(
+        @Param("statuses") Collection<PaymentStatus> statuses,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+    
+    // Due payments among the given ids, row-locked until the caller's transaction ends;
+    // rows that moved on are skipped
+    @Query(value = "SELECT * FROM payments WHERE id IN (:ids) AND status IN (:statuses) " +
+           "AND expires_at <= :now FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Payment> lockDuePayments(
+        @Param("ids") Collection<Long> ids,
+        @Param("statuses") Collection<String> statuses,
+        @Param("now") LocalDateTime now
+    );
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :expired, p.failedAt = :now, p.failureReason = :reason, " +
+           "p.updatedAt = :now, p.version = p.version + 1 WHERE p.id IN :ids")
+    int markExpired(
+        @Param("ids") Collection<Long> ids,
+        @Param("expired") PaymentStatus expired,
+        @Param("reason") String reason,
+        @Param("now") LocalDateTime now
+    );
+    
+    // Expire a batch of due payments in one transaction. Returns the expired rows,
+    // detached and showing their new state, so their outcomes can be recorded.
+    @Transactional
+    default List<Payment> expirePayments(Collection<Long> ids, Collection<String> statuses, LocalDateTime now) {
+        List<Payment> due = lockDuePayments(ids, statuses, now);
+        if (due.isEmpty()) {
+            return due;
+        }
+        String reason = "Payment timeout - expired";
+        markExpired(due.stream().map(Payment::getId).toList(), PaymentStatus.EXPIRED, reason, now);
+        due.forEach(payment -> {
+            payment.setStatus(PaymentStatus.EXPIRED);
+            payment.setFailedAt(now);
+            payment.setFailureReason(reason);
+            payment.setUpdatedAt(now);
+            payment.setVersion(payment.getVersion() + 1);
+        });
+        return due;
+    }
+    
     // Statistics queries
     @Query("SELECT COUNT(p) FROM Payment p WHERE p.status = :status")
     long countByStatus(@Param("status") PaymentStatus status);
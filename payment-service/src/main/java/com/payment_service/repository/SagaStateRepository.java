@@ -1,12 +1,16 @@
 package com.payment_service.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.payment_service.entity.SagaState;
 import com.payment_service.enums.SagaStatus;
@@ -18,4 +22,19 @@ public interface SagaStateRepository extends JpaRepository<SagaState, Long> {
 
 	@Query("SELECT s FROM SagaState s WHERE s.status IN ('STARTED', 'PROCESSING') " + "AND s.createdAt < :timeout")
 	List<SagaState> findStaleSagas(@Param("timeout") LocalDateTime timeout);
+
+	// Open saga creation times, paged by id, to rebuild the deadline index
+	@Query("SELECT s.id AS id, s.createdAt AS deadline FROM SagaState s "
+			+ "WHERE s.status IN :statuses AND s.id > :afterId ORDER BY s.id ASC")
+	List<DeadlineProjection> findOpenSagas(@Param("statuses") Collection<SagaStatus> statuses,
+			@Param("afterId") Long afterId, Pageable pageable);
+
+	// Time out a batch of sagas in one statement; finished sagas are skipped
+	@Modifying
+	@Transactional
+	@Query("UPDATE SagaState s SET s.status = :failed, s.errorMessage = :reason, "
+			+ "s.updatedAt = :now, s.version = s.version + 1 "
+			+ "WHERE s.id IN :ids AND s.status IN :statuses")
+	int failSagas(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<SagaStatus> statuses,
+			@Param("failed") SagaStatus failed, @Param("reason") String reason, @Param("now") LocalDateTime now);
 }
@@ -38,8 +38,8 @@ public class IdempotencyCleanupScheduler {
     public void cleanupStuckRequests() {
         log.info("Starting stuck requests cleanup");
         try {
-            idempotencyService.cleanupStuckRequests();
-            log.info("Stuck requests cleanup completed");
+            int failed = idempotencyService.cleanupStuckRequests();
+            log.info("Stuck requests cleanup completed: {} keys failed", failed);
         } catch (Exception e) {
             log.error("Error during stuck requests cleanup", e);
         }
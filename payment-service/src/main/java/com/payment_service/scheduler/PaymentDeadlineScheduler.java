@@ -0,0 +1,204 @@
+package com.payment_service.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.payment_service.entity.Payment;
+import com.payment_service.enums.PaymentStatus;
+import com.payment_service.enums.SagaStatus;
+import com.payment_service.repository.DeadlineProjection;
+import com.payment_service.repository.PaymentRepository;
+import com.payment_service.repository.SagaStateRepository;
+import com.payment_service.service.PaymentAnalyticsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deadline index for pending payments and open sagas, kept in Redis sorted
+ * sets scored by due time (epoch millis). Each tick atomically pops what is
+ * due and expires it with one bulk UPDATE per batch, so expiry is accurate
+ * to the tick and an idle tick is a single ZRANGEBYSCORE. Expired payments
+ * are reported to {@link PaymentAnalyticsService} like any other outcome.
+ *
+ * The sets are rebuilt from the database on startup and periodically, which
+ * covers entries lost with Redis; the bulk UPDATEs re-check status, so stale
+ * or duplicate entries are harmless.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentDeadlineScheduler {
+	private static final String PAYMENT_DEADLINES = "payment:deadlines:payments";
+    private static final String SAGA_DEADLINES = "payment:deadlines:sagas";
+    private static final Set<PaymentStatus> EXPIRABLE_PAYMENT_STATUSES =
+        EnumSet.of(PaymentStatus.INITIATED, PaymentStatus.PENDING_AUTHORIZATION);
+    private static final List<String> EXPIRABLE_PAYMENT_STATUS_NAMES =
+        EXPIRABLE_PAYMENT_STATUSES.stream().map(Enum::name).toList();
+    private static final Set<SagaStatus> OPEN_SAGA_STATUSES =
+        EnumSet.of(SagaStatus.STARTED, SagaStatus.PROCESSING);
+
+    // Pop up to ARGV[2] members due at or before ARGV[1]
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> POP_DUE = new DefaultRedisScript<>(
+        "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+        "if #due > 0 then redis.call('ZREM', KEYS[1], unpack(due)) end " +
+        "return due",
+        List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PaymentRepository paymentRepository;
+    private final SagaStateRepository sagaStateRepository;
+    private final PaymentAnalyticsService paymentAnalytics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.deadlines.batch-size:500}")
+    private int batchSize;
+
+    @Value("${payment.deadlines.saga-timeout:PT30M}")
+    private Duration sagaTimeout;
+
+    public void schedulePaymentExpiry(Long paymentId, LocalDateTime expiresAt) {
+        if (paymentId == null || expiresAt == null) {
+            return;
+        }
+        add(PAYMENT_DEADLINES, paymentId, expiresAt);
+    }
+
+    public void scheduleSagaTimeout(Long sagaRowId) {
+        if (sagaRowId == null) {
+            return;
+        }
+        add(SAGA_DEADLINES, sagaRowId, LocalDateTime.now().plus(sagaTimeout));
+    }
+
+    @Scheduled(fixedDelayString = "${payment.deadlines.tick-ms:1000}")
+    public void tick() {
+        try {
+            int expired = drain(PAYMENT_DEADLINES, this::expirePayments);
+            int timedOut = drain(SAGA_DEADLINES, ids -> sagaStateRepository.failSagas(
+                ids, OPEN_SAGA_STATUSES, SagaStatus.FAILED,
+                "Saga timeout - exceeded " + sagaTimeout.toMinutes() + " minutes", LocalDateTime.now()));
+
+            if (expired > 0) {
+                log.info("Expired {} pending payments", expired);
+                meterRegistry.counter("payment.deadlines.expired", "kind", "payment").increment(expired);
+            }
+            if (timedOut > 0) {
+                log.warn("Timed out {} stale sagas", timedOut);
+                meterRegistry.counter("payment.deadlines.expired", "kind", "saga").increment(timedOut);
+            }
+        } catch (Exception e) {
+            log.error("Error during deadline tick", e);
+        }
+    }
+
+    /**
+     * Re-register every pending deadline from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${payment.deadlines.resync-interval-ms:900000}",
+               fixedDelayString = "${payment.deadlines.resync-interval-ms:900000}")
+    public void resync() {
+        try {
+            int payments = rebuild(PAYMENT_DEADLINES,
+                (afterId, page) -> paymentRepository.findPendingDeadlines(EXPIRABLE_PAYMENT_STATUSES, afterId, page),
+                DeadlineProjection::getDeadline);
+            int sagas = rebuild(SAGA_DEADLINES,
+                (afterId, page) -> sagaStateRepository.findOpenSagas(OPEN_SAGA_STATUSES, afterId, page),
+                row -> row.getDeadline().plus(sagaTimeout));
+            log.info("Deadline index synced: {} payments, {} sagas", payments, sagas);
+        } catch (Exception e) {
+            log.error("Failed to rebuild deadline index", e);
+        }
+    }
+
+    private int expirePayments(List<Long> ids) {
+        List<Payment> expired = paymentRepository.expirePayments(
+            ids, EXPIRABLE_PAYMENT_STATUS_NAMES, LocalDateTime.now());
+        // Committed by now, so each outcome is counted straight away
+        expired.forEach(paymentAnalytics::recordOutcome);
+        return expired.size();
+    }
+
+    private int drain(String key, Function<List<Long>, Integer> expire) {
+        int total = 0;
+        List<Long> due;
+        do {
+            long now = System.currentTimeMillis();
+            @SuppressWarnings("unchecked")
+            List<String> members = redisTemplate.execute(POP_DUE, List.of(key),
+                String.valueOf(now), String.valueOf(batchSize));
+            if (members == null || members.isEmpty()) {
+                break;
+            }
+            due = members.stream().map(Long::valueOf).toList();
+            try {
+                total += expire.apply(due);
+            } catch (RuntimeException e) {
+                // Put them back so the next tick retries
+                Set<TypedTuple<String>> retry = members.stream()
+                    .map(member -> (TypedTuple<String>) new DefaultTypedTuple<>(member, (double) now))
+                    .collect(Collectors.toSet());
+                redisTemplate.opsForZSet().add(key, retry);
+                throw e;
+            }
+        } while (due.size() == batchSize);
+        return total;
+    }
+
+    private int rebuild(String key, BiFunction<Long, Pageable, List<DeadlineProjection>> pager,
+                        Function<DeadlineProjection, LocalDateTime> deadline) {
+        int total = 0;
+        long afterId = 0L;
+        List<DeadlineProjection> page;
+        do {
+            page = pager.apply(afterId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            Set<TypedTuple<String>> entries = new HashSet<>(page.size() * 2);
+            for (DeadlineProjection row : page) {
+                entries.add(new DefaultTypedTuple<>(row.getId().toString(), (double) toEpochMillis(deadline.apply(row))));
+            }
+            redisTemplate.opsForZSet().add(key, entries);
+            total += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == batchSize);
+        return total;
+    }
+
+    private void add(String key, Long id, LocalDateTime deadline) {
+        try {
+            redisTemplate.opsForZSet().add(key, id.toString(), toEpochMillis(deadline));
+        } catch (Exception e) {
+            // The periodic resync picks it up
+            log.warn("Failed to register deadline {} in {}: {}", id, key, e.getMessage());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,117 @@
+package com.payment_service.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.payment_service.DTOs.UpiStatusResponse;
+import com.payment_service.clients.PaymentGatewayClient;
+import com.payment_service.entity.Payment;
+import com.payment_service.repository.PaymentRepository;
+import com.payment_service.service.UpiConfirmationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Central fallback for UPI confirmations that never arrive via callback.
+ * One instance at a time walks the pending collect requests in pages and
+ * asks the gateway for their status in a single batched lookup per page,
+ * instead of one sleeping thread per payment.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpiStatusPoller {
+	private static final String LOCK_KEY = "payment:upi:status-poller";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGatewayClient gatewayClient;
+    private final UpiConfirmationService confirmationService;
+    private final RedissonClient redissonClient;
+
+    @Value("${payment.upi.poll-batch-size:200}")
+    private int batchSize;
+
+    @Value("${payment.upi.poll-min-age:PT5S}")
+    private Duration minAge;
+
+    @Value("${payment.upi.confirmation-timeout:PT3M}")
+    private Duration confirmationTimeout;
+
+    @Scheduled(fixedDelayString = "${payment.upi.poll-interval-ms:5000}")
+    public void pollPendingConfirmations() {
+        RLock lock = redissonClient.getLock(LOCK_KEY);
+        boolean acquired = false;
+        try {
+            acquired = lock.tryLock(0, 60, TimeUnit.SECONDS);
+            if (!acquired) {
+                return; // Another instance is polling
+            }
+            int resolved = pollOnce();
+            if (resolved > 0) {
+                log.info("UPI status poller resolved {} payments", resolved);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error during UPI status polling", e);
+        } finally {
+            if (acquired && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int pollOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        // Give the callback a head start before spending a gateway lookup
+        LocalDateTime settledBefore = now.minus(minAge);
+        LocalDateTime expiredBefore = now.minus(confirmationTimeout);
+
+        int resolved = 0;
+        long afterId = 0L;
+        List<Payment> page;
+        do {
+            page = paymentRepository.findPendingUpiConfirmations(
+                afterId, settledBefore, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+
+            Map<String, UpiStatusResponse> statuses = gatewayClient.checkUpiStatusBatch(
+                page.stream().map(Payment::getUpiTransactionId).toList());
+
+            for (Payment payment : page) {
+                String upiTransactionId = payment.getUpiTransactionId();
+                UpiStatusResponse status = statuses.get(upiTransactionId);
+                try {
+                    if (status != null && (status.isCompleted() || status.isFailed())) {
+                        if (confirmationService.applyStatus(status)) {
+                            resolved++;
+                        }
+                    } else if (payment.getCreatedAt().isBefore(expiredBefore)) {
+                        if (confirmationService.expire(upiTransactionId)) {
+                            resolved++;
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to resolve UPI payment {}: {}",
+                        payment.getPaymentReference(), e.getMessage());
+                }
+            }
+        } while (page.size() == batchSize);
+
+        return resolved;
+    }
+}
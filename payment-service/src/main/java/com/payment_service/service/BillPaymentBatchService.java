@@ -0,0 +1,15 @@
+package com.payment_service.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.payment_service.DTOs.BillPaymentBatchResponse;
+import com.payment_service.DTOs.BillPaymentRequest;
+
+public interface BillPaymentBatchService {
+	/**
+	 * Starts the batch in the background and completes with its outcome.
+	 * Throws ServiceUnavailableException when too many batches are running.
+	 */
+	public CompletableFuture<BillPaymentBatchResponse> processBatch(List<BillPaymentRequest> requests, String ipAddress);
+}
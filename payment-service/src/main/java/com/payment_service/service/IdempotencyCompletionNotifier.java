@@ -0,0 +1,173 @@
+package com.payment_service.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.payment_service.entity.IdempotencyKey;
+import com.payment_service.repository.IdempotencyKeyRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wakes requests that are waiting on an idempotency key another request is
+ * still processing. Duplicates on this instance share one future per key;
+ * other instances are told over a Redis topic when the key settles, so no
+ * waiter has to poll the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyCompletionNotifier {
+    private static final String CHANNEL = "payment:idempotency:settled";
+    private static final int HOT_KEY_WARN_THRESHOLD = 10;
+
+    private final RedissonClient redissonClient;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, Waiters> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger blockedThreads = new AtomicInteger();
+
+    private RTopic topic;
+    private int listenerId;
+    private DistributionSummary waitersPerKey;
+
+    private static final class Waiters {
+        private final CompletableFuture<IdempotencyKey> settled = new CompletableFuture<>();
+        private final AtomicInteger blocked = new AtomicInteger();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        topic = redissonClient.getTopic(CHANNEL, StringCodec.INSTANCE);
+        listenerId = topic.addListener(String.class, (channel, key) -> settle(key, null));
+
+        Gauge.builder("idempotency.waiters.blocked", blockedThreads, AtomicInteger::get)
+            .description("Threads blocked on an in-flight idempotency key")
+            .register(meterRegistry);
+        Gauge.builder("idempotency.waiters.keys", waiters, ConcurrentHashMap::size)
+            .description("In-flight idempotency keys with at least one waiter")
+            .register(meterRegistry);
+        waitersPerKey = DistributionSummary.builder("idempotency.waiters.per_key")
+            .description("Threads blocked on the same key when a new waiter arrives")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (topic != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    /**
+     * Block until the key leaves PROCESSING or the timeout elapses.
+     *
+     * @return the settled key, or empty if it is still processing
+     */
+    public Optional<IdempotencyKey> await(String idempotencyKey, Duration timeout)
+            throws InterruptedException {
+        Waiters entry = waiters.computeIfAbsent(idempotencyKey, k -> new Waiters());
+        int blocked = entry.blocked.incrementAndGet();
+        blockedThreads.incrementAndGet();
+        waitersPerKey.record(blocked);
+        if (blocked == HOT_KEY_WARN_THRESHOLD) {
+            log.warn("{} requests blocked on idempotency key {}", blocked, idempotencyKey);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "notified";
+        try {
+            // The original request may have settled before we registered
+            Optional<IdempotencyKey> current = findSettled(idempotencyKey);
+            if (current.isPresent()) {
+                outcome = "already_settled";
+                return current;
+            }
+
+            IdempotencyKey settled = entry.settled.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return settled != null ? Optional.of(settled) : findSettled(idempotencyKey);
+
+        } catch (TimeoutException | ExecutionException e) {
+            // Last look in case the notification was lost
+            Optional<IdempotencyKey> current = findSettled(idempotencyKey);
+            outcome = current.isPresent() ? "recovered" : "timeout";
+            return current;
+        } finally {
+            blockedThreads.decrementAndGet();
+            if (entry.blocked.decrementAndGet() == 0) {
+                waiters.remove(idempotencyKey, entry);
+            }
+            Timer.builder("idempotency.wait")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Announce that a key left PROCESSING. Deferred to after commit when
+     * called inside a transaction, so waiters never read the old row.
+     */
+    public void publish(IdempotencyKey key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish(key);
+                }
+            });
+        } else {
+            doPublish(key);
+        }
+    }
+
+    private void doPublish(IdempotencyKey key) {
+        settle(key.getIdempotencyKey(), key);
+        try {
+            topic.publish(key.getIdempotencyKey());
+        } catch (Exception e) {
+            // Remote waiters fall back to their timeout re-check
+            log.warn("Failed to publish idempotency settlement for {}: {}",
+                key.getIdempotencyKey(), e.getMessage());
+        }
+    }
+
+    private void settle(String idempotencyKey, IdempotencyKey settled) {
+        Waiters entry = waiters.remove(idempotencyKey);
+        if (entry == null) {
+            return; // Nobody on this instance is waiting
+        }
+        try {
+            // Remote notification: load once for every local waiter
+            entry.settled.complete(settled != null ? settled : findSettled(idempotencyKey).orElse(null));
+        } catch (Exception e) {
+            entry.settled.completeExceptionally(e);
+        }
+    }
+
+    private Optional<IdempotencyKey> findSettled(String idempotencyKey) {
+        return idempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
+            .filter(key -> !key.isProcessing());
+    }
+}
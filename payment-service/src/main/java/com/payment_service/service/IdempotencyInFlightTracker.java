@@ -0,0 +1,97 @@
+package com.payment_service.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user count of payment requests in flight, kept in Redis so the check
+ * in front of every payment POST is one round trip instead of a COUNT over
+ * the idempotency table.
+ *
+ * The count is a sorted set of the user's in-flight idempotency keys scored
+ * by start time rather than a bare INCR/DECR counter. Acquire and release
+ * are each a single atomic script or command. A release that never happens
+ * (crash, lost connection) only holds its slot until the processing
+ * timeout, when the member ages out. Releasing twice cannot push the count
+ * below zero. The whole set also carries a TTL, so idle users leave nothing
+ * behind.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyInFlightTracker {
+    private static final String KEY_PREFIX = "payment:idempotency:inflight:";
+
+    // KEYS[1] user set; ARGV: now, stale-before, member, limit, ttl-ms.
+    // Returns the in-flight count including this request, or -1 when full.
+    private static final DefaultRedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+        "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[2]) " +
+        "if not redis.call('ZSCORE', KEYS[1], ARGV[3]) then " +
+        "  if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[4]) then return -1 end " +
+        "  redis.call('ZADD', KEYS[1], ARGV[1], ARGV[3]) " +
+        "end " +
+        "redis.call('PEXPIRE', KEYS[1], ARGV[5]) " +
+        "return redis.call('ZCARD', KEYS[1])",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.idempotency.max-in-flight-per-user:10}")
+    private int maxInFlightPerUser;
+
+    @Value("${payment.idempotency.processing-timeout:PT5M}")
+    private Duration processingTimeout;
+
+    /**
+     * Takes one of the user's in-flight slots for {@code idempotencyKey}.
+     * Taking a slot the key already holds is a no-op that succeeds.
+     *
+     * @return false if the user already has the maximum in flight
+     * @throws org.springframework.dao.DataAccessException if Redis is unavailable
+     */
+    public boolean tryAcquire(Long userId, String idempotencyKey) {
+        long now = System.currentTimeMillis();
+        Long inFlight = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + userId),
+            String.valueOf(now),
+            String.valueOf(now - processingTimeout.toMillis()),
+            idempotencyKey,
+            String.valueOf(maxInFlightPerUser),
+            String.valueOf(processingTimeout.toMillis()));
+
+        if (inFlight == null || inFlight < 0) {
+            meterRegistry.counter("idempotency.inflight.rejected").increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Frees the slot held by {@code idempotencyKey}. Never throws; a slot
+     * that cannot be released here ages out after the processing timeout.
+     */
+    public void release(Long userId, String idempotencyKey) {
+        try {
+            redisTemplate.opsForZSet().remove(KEY_PREFIX + userId, idempotencyKey);
+        } catch (Exception e) {
+            log.warn("Failed to release in-flight slot for {}: {}", idempotencyKey, e.getMessage());
+        }
+    }
+
+    public int getMaxInFlightPerUser() {
+        return maxInFlightPerUser;
+    }
+
+    public Duration getProcessingTimeout() {
+        return processingTimeout;
+    }
+}
@@ -1,13 +1,13 @@
 package com.payment_service.service;
 
-import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +20,7 @@ import com.payment_service.exception.IdempotencyException;
 import com.payment_service.exception.IdempotencyConflictException;
 import com.payment_service.repository.IdempotencyKeyRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,67 +33,76 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class IdempotencyService {
     private static final int IDEMPOTENCY_KEY_EXPIRY_HOURS = 24;
-    private static final int MAX_CONCURRENT_REQUESTS_PER_USER = 10;
-    private static final int PROCESSING_TIMEOUT_MINUTES = 5;
 
     private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyCompletionNotifier completionNotifier;
+    private final IdempotencyInFlightTracker inFlightTracker;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Outcome of {@link #createOrGet}: the key, and whether this request
+     * created it. Only the request that created a key runs the payment;
+     * anyone else either replays its outcome or waits for it.
+     */
+    public record ClaimResult(IdempotencyKey key, boolean created) {
+    }
 
     /**
      * Create or retrieve an idempotency key.
      * Returns existing key if found, creates new one if not.
      * 
+     * A new key is claimed with a single INSERT ... ON CONFLICT DO NOTHING, so
+     * the common path is one statement plus one Redis call, and losing a race
+     * costs one extra SELECT. If the user is over the in-flight limit the
+     * exception rolls the claim back with this transaction.
+     * 
      * @throws IdempotencyConflictException if request body doesn't match existing
      *                                      key
      * @throws IdempotencyException         if too many concurrent requests
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public IdempotencyKey createOrGet(
+    public ClaimResult createOrGet(
             String idempotencyKey,
             Long userId,
             String requestPath,
             String requestMethod,
-            Object requestBody,
+            byte[] requestBody,
             String ipAddress,
             String userAgent) {
 
         log.debug("Processing idempotency key: {} for user: {}", idempotencyKey, userId);
 
-        // Check for existing key
-        Optional<IdempotencyKey> existing = idempotencyKeyRepository
-                .findByIdempotencyKeyAndUserId(idempotencyKey, userId);
-
         String requestHash = hashRequest(requestBody);
 
-        if (existing.isPresent()) {
-            IdempotencyKey existingKey = existing.get();
-
-            // Check if expired
-            if (existingKey.isExpired()) {
-                log.warn("Idempotency key expired: {}", idempotencyKey);
-                // Delete expired and create new
-                idempotencyKeyRepository.delete(existingKey);
-                return createNew(idempotencyKey, userId, requestPath, requestMethod,
-                        requestHash, ipAddress, userAgent);
-            }
-
-            // Verify request body matches
-            if (!existingKey.getRequestHash().equals(requestHash)) {
-                log.error("Request body mismatch for idempotency key: {}", idempotencyKey);
-                throw new IdempotencyConflictException(
-                        "Request body does not match original request for this idempotency key");
-            }
-
-            log.debug("Found existing idempotency key with status: {}", existingKey.getStatus());
-            return existingKey;
+        ClaimResult result = claim(idempotencyKey, userId, requestPath, requestMethod,
+                requestHash, ipAddress, userAgent);
+
+        // Check if expired
+        if (!result.created() && result.key().isExpired()) {
+            log.warn("Idempotency key expired: {}", idempotencyKey);
+            // Delete expired and claim again; another request may re-claim it first
+            idempotencyKeyRepository.delete(result.key());
+            idempotencyKeyRepository.flush();
+            result = claim(idempotencyKey, userId, requestPath, requestMethod,
+                    requestHash, ipAddress, userAgent);
+        }
+
+        if (result.created()) {
+            checkConcurrentRequestLimit(userId, idempotencyKey);
+            return result;
         }
 
-        // Check rate limit
-        checkConcurrentRequestLimit(userId);
+        // Verify request body matches
+        IdempotencyKey existingKey = result.key();
+        if (!existingKey.getRequestHash().equals(requestHash)) {
+            log.error("Request body mismatch for idempotency key: {}", idempotencyKey);
+            throw new IdempotencyConflictException(
+                    "Request body does not match original request for this idempotency key");
+        }
 
-        // Create new key
-        return createNew(idempotencyKey, userId, requestPath, requestMethod,
-                requestHash, ipAddress, userAgent);
+        log.debug("Found existing idempotency key with status: {}", existingKey.getStatus());
+        return result;
     }
 
     /**
@@ -110,7 +120,8 @@ public class IdempotencyService {
                     key.setResponseCode(responseCode);
                     key.setResponseBody(serializeResponse(responseBody));
                     key.setCompletedAt(LocalDateTime.now());
-                    idempotencyKeyRepository.save(key);
+                    completionNotifier.publish(idempotencyKeyRepository.save(key));
+                    inFlightTracker.release(key.getUserId(), idempotencyKey);
                 });
     }
 
@@ -127,7 +138,8 @@ public class IdempotencyService {
                     key.setErrorMessage(errorMessage);
                     key.setResponseCode(responseCode);
                     key.setCompletedAt(LocalDateTime.now());
-                    idempotencyKeyRepository.save(key);
+                    completionNotifier.publish(idempotencyKeyRepository.save(key));
+                    inFlightTracker.release(key.getUserId(), idempotencyKey);
                 });
     }
 
@@ -161,30 +173,36 @@ public class IdempotencyService {
     }
 
     /**
-     * Clean up stuck processing requests (scheduled job)
+     * Clean up stuck processing requests (scheduled job). Their in-flight
+     * slots age out in Redis after the same timeout.
      */
     @Transactional
-    public void cleanupStuckRequests() {
+    public int cleanupStuckRequests() {
         log.info("Cleaning up stuck processing requests");
 
-        LocalDateTime threshold = LocalDateTime.now().minusMinutes(PROCESSING_TIMEOUT_MINUTES);
-        var stuckKeys = idempotencyKeyRepository.findStuckProcessingKeys(
-                IdempotencyStatus.PROCESSING, threshold);
+        LocalDateTime now = LocalDateTime.now();
+        List<IdempotencyKey> failed = idempotencyKeyRepository.failStuckProcessingKeys(
+                "Request timeout - processing took too long",
+                now.minus(inFlightTracker.getProcessingTimeout()),
+                now);
 
-        stuckKeys.forEach(key -> {
-            log.warn("Found stuck processing request: {}", key.getIdempotencyKey());
-            key.setStatus(IdempotencyStatus.FAILED);
-            key.setErrorMessage("Request timeout - processing took too long");
-            key.setCompletedAt(LocalDateTime.now());
-            idempotencyKeyRepository.save(key);
-        });
+        // Duplicates blocked on these keys get the failure instead of their own timeout
+        failed.forEach(completionNotifier::publish);
 
-        log.info("Cleaned up {} stuck requests", stuckKeys.size());
+        if (!failed.isEmpty()) {
+            log.warn("Failed {} stuck processing requests", failed.size());
+        }
+        return failed.size();
     }
 
     // Private helper methods
 
-    private IdempotencyKey createNew(
+    /**
+     * Claim the key with a single INSERT ... ON CONFLICT DO NOTHING. Returns
+     * the inserted key if this call created it, otherwise the row that was
+     * already there.
+     */
+    private ClaimResult claim(
             String idempotencyKey,
             Long userId,
             String requestPath,
@@ -193,44 +211,62 @@ public class IdempotencyService {
             String ipAddress,
             String userAgent) {
 
-        IdempotencyKey newKey = IdempotencyKey.builder()
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusHours(IDEMPOTENCY_KEY_EXPIRY_HOURS);
+
+        if (idempotencyKeyRepository.claim(idempotencyKey, userId, requestPath, requestMethod,
+                requestHash, now, expiresAt, ipAddress, userAgent) == 0) {
+            log.debug("Idempotency key already exists: {}", idempotencyKey);
+            return new ClaimResult(findExisting(idempotencyKey, userId), false);
+        }
+
+        // The row is exactly what was inserted; no need to read it back
+        return new ClaimResult(IdempotencyKey.builder()
                 .idempotencyKey(idempotencyKey)
                 .userId(userId)
                 .requestPath(requestPath)
                 .requestMethod(requestMethod)
                 .requestHash(requestHash)
                 .status(IdempotencyStatus.PROCESSING)
-                .expiresAt(LocalDateTime.now().plusHours(IDEMPOTENCY_KEY_EXPIRY_HOURS))
+                .createdAt(now)
+                .expiresAt(expiresAt)
                 .requestIp(ipAddress)
                 .userAgent(userAgent)
-                .build();
+                .build(), true);
+    }
 
-        try {
-            return idempotencyKeyRepository.save(newKey);
-        } catch (DataIntegrityViolationException e) {
-            // Race condition - another thread created it
-            log.debug("Concurrent creation detected for key: {}", idempotencyKey);
-            return idempotencyKeyRepository.findByIdempotencyKeyAndUserId(idempotencyKey, userId)
-                    .orElseThrow(() -> new IdempotencyException("Failed to create or retrieve idempotency key"));
-        }
+    private IdempotencyKey findExisting(String idempotencyKey, Long userId) {
+        // Keys are unique across users; another user's key is not visible here
+        return idempotencyKeyRepository.findByIdempotencyKeyAndUserId(idempotencyKey, userId)
+                .orElseThrow(() -> new IdempotencyException("Failed to create or retrieve idempotency key"));
     }
 
-    private void checkConcurrentRequestLimit(Long userId) {
-        long processingCount = idempotencyKeyRepository
-                .countByUserIdAndStatus(userId, IdempotencyStatus.PROCESSING);
+    private void checkConcurrentRequestLimit(Long userId, String idempotencyKey) {
+        int limit = inFlightTracker.getMaxInFlightPerUser();
+        boolean allowed;
+        try {
+            allowed = inFlightTracker.tryAcquire(userId, idempotencyKey);
+        } catch (DataAccessException e) {
+            // Redis is down; fall back to counting in the database. The claim
+            // just inserted is already PROCESSING, hence the strict comparison.
+            log.warn("In-flight tracker unavailable, counting in database: {}", e.getMessage());
+            meterRegistry.counter("idempotency.inflight.fallback").increment();
+            allowed = idempotencyKeyRepository
+                    .countByUserIdAndStatus(userId, IdempotencyStatus.PROCESSING) <= limit;
+        }
 
-        if (processingCount >= MAX_CONCURRENT_REQUESTS_PER_USER) {
-            log.error("User {} exceeded concurrent request limit: {}", userId, processingCount);
+        if (!allowed) {
+            log.error("User {} exceeded concurrent request limit of {}", userId, limit);
             throw new IdempotencyException(
                     "Too many concurrent payment requests. Please wait for existing requests to complete.");
         }
     }
 
-    private String hashRequest(Object requestBody) {
+    private String hashRequest(byte[] requestBody) {
         try {
-            String json = objectMapper.writeValueAsString(requestBody);
+            // Fingerprint the raw bytes as received; retries resend the same payload
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(json.getBytes(StandardCharsets.UTF_8));
+            byte[] hash = digest.digest(requestBody != null ? requestBody : new byte[0]);
             return HexFormat.of().formatHex(hash);
         } catch (Exception e) {
             log.error("Failed to hash request", e);
@@ -239,6 +275,9 @@ public class IdempotencyService {
     }
 
     private String serializeResponse(Object response) {
+        if (response instanceof String body) {
+            return body; // Already the JSON written to the client
+        }
         try {
             return objectMapper.writeValueAsString(response);
         } catch (Exception e) {
@@ -0,0 +1,30 @@
+package com.payment_service.service;
+
+import com.payment_service.DTOs.PaymentAnalyticsResponse;
+import com.payment_service.entity.Payment;
+import com.payment_service.enums.AnalyticsWindow;
+import com.payment_service.enums.LatencyStage;
+import com.payment_service.enums.PaymentMethod;
+
+public interface PaymentAnalyticsService {
+	/**
+	 * Counts a payment that reached COMPLETED, FAILED or EXPIRED, with its
+	 * end-to-end latency. Other statuses are ignored. Inside a transaction
+	 * the payment is only counted once it commits.
+	 */
+	public void recordOutcome(Payment payment);
+
+	public void recordLatency(PaymentMethod method, String gatewayName, String currency,
+			LatencyStage stage, long latencyNanos);
+
+	/**
+	 * This instance's view of the window, read live.
+	 */
+	public PaymentAnalyticsResponse getLocalAnalytics(AnalyticsWindow window);
+
+	/**
+	 * This instance's live view merged with the latest snapshot every other
+	 * instance has published.
+	 */
+	public PaymentAnalyticsResponse getClusterAnalytics(AnalyticsWindow window);
+}
@@ -7,6 +7,7 @@ public interface PaymentSagaOrchestrator {
 	public SagaResult executeCardPaymentSaga(PaymentSagaData data);
 	public SagaResult executeUpiPaymentSaga(PaymentSagaData data);
 	public SagaResult executeBillPaymentSaga(PaymentSagaData data);
+	public SagaResult resumeUpiPaymentSaga(PaymentSagaData data, boolean confirmed, String reason);
 	public void compensateSaga(String sagaId, PaymentSagaData data, Exception error);
 	
 }
@@ -0,0 +1,18 @@
+package com.payment_service.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import com.payment_service.DTOs.SettlementSummary;
+import com.payment_service.enums.SettlementFileFormat;
+
+public interface SettlementExportService {
+	/**
+	 * Writes the merchant's payments completed in [from, to) to {@code out}
+	 * and returns the totals computed along the way. The stream is flushed
+	 * but not closed.
+	 */
+	public SettlementSummary export(Long merchantId, LocalDateTime from, LocalDateTime to,
+			SettlementFileFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.payment_service.service;
+
+import com.payment_service.DTOs.UpiCallbackRequest;
+import com.payment_service.DTOs.UpiStatusResponse;
+
+public interface UpiConfirmationService {
+	public boolean verifyCallbackSignature(UpiCallbackRequest callback, String signature);
+	public boolean handleCallback(UpiCallbackRequest callback);
+	public boolean applyStatus(UpiStatusResponse status);
+	public boolean expire(String upiTransactionId);
+}
@@ -0,0 +1,408 @@
+package com.payment_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking_common.reference.ReferenceGenerator;
+import com.payment_service.DTOs.BillPaymentBatchResponse;
+import com.payment_service.DTOs.BillPaymentRequest;
+import com.payment_service.DTOs.BillerValidationResponse;
+import com.payment_service.DTOs.FraudCheckResult;
+import com.payment_service.DTOs.HoldResponse;
+import com.payment_service.DTOs.PaymentResponse;
+import com.payment_service.DTOs.PaymentSagaData;
+import com.payment_service.DTOs.SagaResult;
+import com.payment_service.clients.AccountServiceClient;
+import com.payment_service.clients.FraudServiceClient;
+import com.payment_service.clients.PaymentGatewayClient;
+import com.payment_service.entity.Payment;
+import com.payment_service.enums.PaymentMethod;
+import com.payment_service.enums.PaymentStatus;
+import com.payment_service.enums.PaymentType;
+import com.payment_service.exception.ServiceUnavailableException;
+import com.payment_service.repository.PaymentRepository;
+import com.payment_service.scheduler.PaymentDeadlineScheduler;
+import com.payment_service.service.BillPaymentBatchService;
+import com.payment_service.service.OutboxService;
+import com.payment_service.service.PaymentAnalyticsService;
+import com.payment_service.service.PaymentSagaOrchestrator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Processes autopay runs of bill payments in bulk:
+ * 1. Validate every bill, at most N in flight per biller; the validation
+ *    cache collapses repeats so each biller/bill number is checked once
+ * 2. Per chunk: persist the payments with an expiry deadline, fraud check
+ *    and reserve funds in parallel, then run the bill sagas with at most N
+ *    in flight per biller
+ * 3. Checkpoint the chunk's outcomes and outbox events in one transaction
+ *
+ * The batch runs on its own coordinator pool, off the request thread. The
+ * bill sagas are not transactional, so the lanes only borrow a connection
+ * for each saga state write, not for the remote calls in between.
+ *
+ * A rerun with the same idempotency keys reports payments that already
+ * reached a final status and resumes the ones still INITIATED under their
+ * original reference, so holds, debits and the biller payment dedupe on it.
+ */
+@Slf4j
+@Service
+public class BillPaymentBatchServiceImpl implements BillPaymentBatchService {
+	private final PaymentRepository paymentRepository;
+	private final PaymentSagaOrchestrator sagaOrchestrator;
+	private final PaymentGatewayClient gatewayClient;
+	private final AccountServiceClient accountClient;
+	private final FraudServiceClient fraudClient;
+	private final OutboxService outboxService;
+	private final PaymentAnalyticsService paymentAnalytics;
+	private final ReferenceGenerator referenceGenerator;
+	private final TransactionTemplate transactionTemplate;
+	private final PaymentDeadlineScheduler deadlineScheduler;
+	private final ThreadPoolTaskExecutor billPaymentExecutor;
+	private final ThreadPoolTaskExecutor coordinatorExecutor;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${payment.bill-batch.chunk-size:200}")
+	private int chunkSize;
+
+	@Value("${payment.bill-batch.per-biller-concurrency:8}")
+	private int perBillerConcurrency;
+
+	@Value("${payment.bill-batch.reserve-concurrency:16}")
+	private int reserveConcurrency;
+
+	public BillPaymentBatchServiceImpl(PaymentRepository paymentRepository,
+			PaymentSagaOrchestrator sagaOrchestrator,
+			PaymentGatewayClient gatewayClient,
+			AccountServiceClient accountClient,
+			FraudServiceClient fraudClient,
+			OutboxService outboxService,
+			PaymentAnalyticsService paymentAnalytics,
+			ReferenceGenerator referenceGenerator,
+			TransactionTemplate transactionTemplate,
+			PaymentDeadlineScheduler deadlineScheduler,
+			@Qualifier("billPaymentExecutor") ThreadPoolTaskExecutor billPaymentExecutor,
+			@Qualifier("billBatchCoordinatorExecutor") ThreadPoolTaskExecutor coordinatorExecutor,
+			MeterRegistry meterRegistry) {
+		this.paymentRepository = paymentRepository;
+		this.sagaOrchestrator = sagaOrchestrator;
+		this.gatewayClient = gatewayClient;
+		this.accountClient = accountClient;
+		this.fraudClient = fraudClient;
+		this.outboxService = outboxService;
+		this.paymentAnalytics = paymentAnalytics;
+		this.referenceGenerator = referenceGenerator;
+		this.transactionTemplate = transactionTemplate;
+		this.deadlineScheduler = deadlineScheduler;
+		this.billPaymentExecutor = billPaymentExecutor;
+		this.coordinatorExecutor = coordinatorExecutor;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public CompletableFuture<BillPaymentBatchResponse> processBatch(List<BillPaymentRequest> requests,
+			String ipAddress) {
+		try {
+			return CompletableFuture.supplyAsync(() -> runBatch(requests, ipAddress), coordinatorExecutor);
+		} catch (TaskRejectedException e) {
+			meterRegistry.counter("payment.bill.batch.rejected").increment();
+			throw new ServiceUnavailableException("Too many bill payment batches running, retry later");
+		}
+	}
+
+	private BillPaymentBatchResponse runBatch(List<BillPaymentRequest> requests, String ipAddress) {
+		long startedAt = System.nanoTime();
+
+		List<Payment> alreadySettled = new ArrayList<>();
+		List<BillItem> items = newItems(requests, alreadySettled);
+		int duplicates = requests.size() - items.size();
+
+		Map<String, List<BillItem>> byBiller = groupByBiller(items);
+		runPerBiller(byBiller, perBillerConcurrency, this::validate);
+
+		List<BillItem> ordered = byBiller.values().stream().flatMap(List::stream).toList();
+		for (int from = 0; from < ordered.size(); from += chunkSize) {
+			processChunk(ordered.subList(from, Math.min(from + chunkSize, ordered.size())), ipAddress);
+		}
+
+		List<PaymentResponse> payments = new ArrayList<>(items.size() + alreadySettled.size());
+		alreadySettled.forEach(payment -> payments.add(PaymentServiceImpl.mapToResponse(payment)));
+		items.forEach(item -> payments.add(PaymentServiceImpl.mapToResponse(item.payment)));
+
+		int completed = (int) items.stream().filter(item -> item.payment.getStatus() == PaymentStatus.COMPLETED).count();
+		int failed = items.size() - completed;
+
+		meterRegistry.counter("payment.bill.batch.payments", "outcome", "completed").increment(completed);
+		meterRegistry.counter("payment.bill.batch.payments", "outcome", "failed").increment(failed);
+		meterRegistry.counter("payment.bill.batch.payments", "outcome", "duplicate").increment(duplicates);
+		long elapsed = System.nanoTime() - startedAt;
+		meterRegistry.timer("payment.bill.batch").record(elapsed, TimeUnit.NANOSECONDS);
+
+		log.info("Bill payment batch finished: {} submitted, {} completed, {} failed, {} duplicates across {} billers in {}ms",
+				requests.size(), completed, failed, duplicates, byBiller.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+		return BillPaymentBatchResponse.builder()
+				.submitted(requests.size())
+				.completed(completed)
+				.failed(failed)
+				.duplicates(duplicates)
+				.payments(payments)
+				.build();
+	}
+
+	// Helper methods
+	private List<BillItem> newItems(List<BillPaymentRequest> requests, List<Payment> alreadySettled) {
+		Set<String> keys = requests.stream()
+				.map(BillPaymentRequest::getIdempotencyKey)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+
+		Map<String, Payment> existing = keys.isEmpty() ? Map.of()
+				: paymentRepository.findByIdempotencyKeyIn(keys).stream()
+						.collect(Collectors.toMap(Payment::getIdempotencyKey, Function.identity()));
+
+		// Retried runs and repeated keys within a run are paid once. A payment
+		// left INITIATED by an interrupted run is resumed, not reported as paid.
+		Set<String> seen = new HashSet<>();
+		List<BillItem> items = new ArrayList<>(requests.size());
+		for (BillPaymentRequest request : requests) {
+			String key = request.getIdempotencyKey();
+			if (key != null && !seen.add(key)) {
+				continue;
+			}
+			BillItem item = new BillItem(request);
+			if (key != null && existing.containsKey(key)) {
+				Payment payment = existing.get(key);
+				if (payment.getStatus() != PaymentStatus.INITIATED) {
+					alreadySettled.add(payment);
+					continue;
+				}
+				item.payment = payment;
+			}
+			items.add(item);
+		}
+		return items;
+	}
+
+	private Map<String, List<BillItem>> groupByBiller(List<BillItem> items) {
+		return items.stream().collect(Collectors.groupingBy(
+				item -> item.request.getBillerId(), LinkedHashMap::new, Collectors.toList()));
+	}
+
+	private void validate(BillItem item) {
+		try {
+			BillerValidationResponse validation = gatewayClient.validateBiller(
+					item.request.getBillerId(), item.request.getBillNumber());
+			if (validation == null || !validation.isValid()) {
+				item.failureReason = "Invalid biller information";
+			}
+		} catch (Exception e) {
+			log.warn("Biller validation failed for {} - {}: {}",
+					item.request.getBillerId(), item.request.getBillNumber(), e.getMessage());
+			item.failureReason = "Biller validation failed: " + e.getMessage();
+		}
+	}
+
+	private void processChunk(List<BillItem> chunk, String ipAddress) {
+		List<BillItem> fresh = chunk.stream().filter(item -> item.payment == null).toList();
+		List<Payment> saved = paymentRepository.saveAll(fresh.stream()
+				.map(item -> newPayment(item.request, ipAddress))
+				.toList());
+		for (int i = 0; i < fresh.size(); i++) {
+			fresh.get(i).payment = saved.get(i);
+			deadlineScheduler.schedulePaymentExpiry(saved.get(i).getId(), saved.get(i).getExpiresAt());
+		}
+
+		List<BillItem> payable = chunk.stream().filter(BillItem::isPayable).toList();
+		runPerBiller(Map.of("reserve", payable), reserveConcurrency, this::screenAndReserve);
+		runPerBiller(groupByBiller(payable.stream().filter(BillItem::isPayable).toList()),
+				perBillerConcurrency, this::pay);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			chunk.forEach(BillItem::applyOutcome);
+			paymentRepository.saveAll(chunk.stream().map(item -> item.payment).toList());
+
+			for (BillItem item : chunk) {
+				Payment payment = item.payment;
+				outboxService.saveEvent("PAYMENT", payment.getPaymentReference(),
+						payment.getStatus() == PaymentStatus.COMPLETED ? "PaymentCompleted" : "PaymentFailed",
+						"banking.payment.status", payment);
+				paymentAnalytics.recordOutcome(payment);
+			}
+		});
+	}
+
+	private Payment newPayment(BillPaymentRequest request, String ipAddress) {
+		BigDecimal feeAmount = PaymentServiceImpl.calculateFee(request.getAmount(), PaymentMethod.NET_BANKING);
+
+		return Payment.builder()
+				.paymentReference(referenceGenerator.nextReference("PAY"))
+				.idempotencyKey(request.getIdempotencyKey())
+				.userId(request.getUserId())
+				.accountId(request.getAccountId())
+				.amount(request.getAmount())
+				.feeAmount(feeAmount)
+				.totalAmount(request.getAmount().add(feeAmount))
+				.currency("INR")
+				.status(PaymentStatus.INITIATED)
+				.paymentMethod(PaymentMethod.NET_BANKING)
+				.paymentType(PaymentType.BILL_PAYMENT)
+				.description("Bill Payment: " + request.getBillerName())
+				.billerId(request.getBillerId())
+				.billNumber(request.getBillNumber())
+				.correlationId(UUID.randomUUID().toString())
+				.ipAddress(ipAddress)
+				.expiresAt(LocalDateTime.now().plusMinutes(30))
+				.build();
+	}
+
+	private void screenAndReserve(BillItem item) {
+		Payment payment = item.payment;
+		try {
+			FraudCheckResult fraudCheck = fraudClient.quickCheck(payment.getUserId(), payment.getTotalAmount(),
+					PaymentMethod.NET_BANKING, payment.getPaymentReference());
+			if (fraudCheck != null) {
+				payment.setFraudScore(fraudCheck.getFraudScore());
+				if (fraudCheck.isBlocked()) {
+					item.failureReason = "Payment blocked: " + fraudCheck.getReason();
+					return;
+				}
+			}
+		} catch (Exception e) {
+			log.warn("Fraud check failed for bill payment {}: {}", payment.getPaymentReference(), e.getMessage());
+			item.failureReason = "Fraud check failed: " + e.getMessage();
+			return;
+		}
+		reserveFunds(item);
+	}
+
+	private void reserveFunds(BillItem item) {
+		Payment payment = item.payment;
+		try {
+			HoldResponse hold = accountClient.placeHold(
+					payment.getAccountId(),
+					payment.getTotalAmount(),
+					"Bill payment: " + payment.getPaymentReference(),
+					payment.getPaymentReference());
+
+			if (hold == null || !hold.isSuccess()) {
+				item.failureReason = "Funds reservation failed";
+				return;
+			}
+			item.holdReference = hold.getHoldReference();
+
+		} catch (Exception e) {
+			log.warn("Could not reserve funds for bill payment {}: {}", payment.getPaymentReference(), e.getMessage());
+			item.failureReason = "Funds reservation failed: " + e.getMessage();
+		}
+	}
+
+	private void pay(BillItem item) {
+		Payment payment = item.payment;
+		PaymentSagaData sagaData = PaymentSagaData.builder()
+				.paymentReference(payment.getPaymentReference())
+				.userId(payment.getUserId())
+				.accountId(payment.getAccountId())
+				.amount(payment.getTotalAmount())
+				.paymentMethod(PaymentMethod.NET_BANKING)
+				.billerId(payment.getBillerId())
+				.billNumber(payment.getBillNumber())
+				.holdReference(item.holdReference)
+				.fundsReserved(item.holdReference != null)
+				.build();
+
+		try {
+			item.result = sagaOrchestrator.executeBillPaymentSaga(sagaData);
+		} catch (Exception e) {
+			// The saga compensates its own failures; this only covers it not starting
+			log.error("Bill payment saga for {} did not run: {}", payment.getPaymentReference(), e.getMessage());
+			item.failureReason = e.getMessage();
+			releaseHold(item);
+		}
+	}
+
+	private void releaseHold(BillItem item) {
+		if (item.holdReference == null) {
+			return;
+		}
+		try {
+			accountClient.releaseHold(item.holdReference);
+		} catch (Exception e) {
+			log.error("Failed to release hold {}: {}", item.holdReference, e.getMessage());
+		}
+	}
+
+	/**
+	 * Runs {@code action} over every item with at most {@code lanes} items in
+	 * flight per group, and waits for all of them. Each lane drains its
+	 * group's queue, so one slow biller never holds back the others.
+	 */
+	private void runPerBiller(Map<String, List<BillItem>> groups, int lanes, Consumer<BillItem> action) {
+		List<CompletableFuture<Void>> running = new ArrayList<>();
+
+		groups.values().forEach(group -> {
+			Queue<BillItem> queue = new ConcurrentLinkedQueue<>(group);
+			for (int i = 0; i < Math.min(lanes, group.size()); i++) {
+				running.add(CompletableFuture.runAsync(() -> {
+					BillItem item;
+					while ((item = queue.poll()) != null) {
+						action.accept(item);
+					}
+				}, billPaymentExecutor));
+			}
+		});
+
+		CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+	}
+
+	private static final class BillItem {
+		private final BillPaymentRequest request;
+		private Payment payment;
+		private String holdReference;
+		private SagaResult result;
+		private String failureReason;
+
+		private BillItem(BillPaymentRequest request) {
+			this.request = request;
+		}
+
+		private boolean isPayable() {
+			return failureReason == null;
+		}
+
+		private void applyOutcome() {
+			if (failureReason == null && result != null && result.isSuccess()) {
+				payment.setStatus(PaymentStatus.COMPLETED);
+				payment.setCompletedAt(LocalDateTime.now());
+				return;
+			}
+			payment.setStatus(PaymentStatus.FAILED);
+			payment.setFailedAt(LocalDateTime.now());
+			payment.setFailureReason(failureReason != null ? failureReason
+					: result != null ? result.getErrorMessage() : "Bill payment not processed");
+		}
+	}
+}
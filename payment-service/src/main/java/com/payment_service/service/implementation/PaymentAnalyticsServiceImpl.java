@@ -0,0 +1,349 @@
+package com.payment_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment_service.DTOs.PaymentAnalyticsEntry;
+import com.payment_service.DTOs.PaymentAnalyticsResponse;
+import com.payment_service.entity.Payment;
+import com.payment_service.enums.AnalyticsWindow;
+import com.payment_service.enums.LatencyStage;
+import com.payment_service.enums.PaymentMethod;
+import com.payment_service.enums.PaymentStatus;
+import com.payment_service.service.PaymentAnalyticsService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process payment analytics, so dashboards no longer need GROUP BY scans
+ * over the payments table.
+ *
+ * Every terminal status change and every gateway authorize and capture call
+ * is recorded into rolling 1m and 1h windows per payment method, gateway
+ * and currency. Each window holds outcome counts, the approved amount and
+ * HdrHistogram latency distributions.
+ *
+ * Every publish interval the windows are rolled up. The roll-up refreshes
+ * the Micrometer gauges and is written to Redis under this instance's id
+ * with a TTL. Cluster reads merge this instance's live windows with the
+ * latest snapshot of every other instance that published within the TTL.
+ * Peer data is therefore up to one publish interval old.
+ */
+@Slf4j
+@Service
+public class PaymentAnalyticsServiceImpl implements PaymentAnalyticsService {
+    private static final String INSTANCES_KEY = "payment:analytics:instances";
+    private static final String SNAPSHOT_KEY = "payment:analytics:snapshot:";
+    private static final TypeReference<Map<String, PaymentStatsAggregate.Encoded>> SNAPSHOT_TYPE =
+            new TypeReference<>() {
+            };
+    private static final double[] GAUGE_PERCENTILES = {50.0, 95.0, 99.0};
+
+    private final Map<PaymentStatsKey, KeyStats> stats = new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId;
+    private final Duration instanceTtl;
+    private final int maxKeys;
+    private final Counter droppedKeys;
+
+    public PaymentAnalyticsServiceImpl(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.name:payment-service}") String applicationName,
+            @Value("${payment.analytics.instance-ttl:PT30S}") Duration instanceTtl,
+            @Value("${payment.analytics.max-keys:256}") int maxKeys) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        // Fresh per start so a restarted instance never merges its own stale snapshot
+        this.instanceId = applicationName + ":" + UUID.randomUUID();
+        this.instanceTtl = instanceTtl;
+        this.maxKeys = maxKeys;
+        this.droppedKeys = Counter.builder("payment.analytics.dropped")
+                .description("Analytics samples dropped because max-keys was reached")
+                .register(meterRegistry);
+    }
+
+    public void recordOutcome(Payment payment) {
+        PaymentStatus status = payment.getStatus();
+        if (status != PaymentStatus.COMPLETED && status != PaymentStatus.FAILED
+                && status != PaymentStatus.EXPIRED) {
+            return;
+        }
+
+        PaymentStatsKey key = PaymentStatsKey.of(
+                payment.getPaymentMethod(), payment.getGatewayName(), payment.getCurrency());
+        long amountMinor = payment.getAmount() != null
+                ? payment.getAmount().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue()
+                : 0L;
+        long endToEndMillis = payment.getCreatedAt() != null
+                ? Duration.between(payment.getCreatedAt(), LocalDateTime.now()).toMillis()
+                : -1L;
+
+        afterCommit(() -> {
+            KeyStats keyStats = statsFor(key);
+            if (keyStats == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (PaymentStatsWindow window : keyStats.windows) {
+                window.recordOutcome(now, status, amountMinor);
+                if (endToEndMillis >= 0) {
+                    window.recordLatency(now, LatencyStage.END_TO_END, endToEndMillis);
+                }
+            }
+            meterRegistry.counter("payment.analytics.outcomes",
+                    keyStats.tags.and("status", status.name())).increment();
+            if (status == PaymentStatus.COMPLETED) {
+                meterRegistry.counter("payment.analytics.approved.amount", keyStats.tags)
+                        .increment(amountMinor / 100.0);
+            }
+        });
+    }
+
+    public void recordLatency(PaymentMethod method, String gatewayName, String currency,
+            LatencyStage stage, long latencyNanos) {
+        if (method == null) {
+            return;
+        }
+        KeyStats keyStats = statsFor(PaymentStatsKey.of(method, gatewayName, currency));
+        if (keyStats == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long millis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        for (PaymentStatsWindow window : keyStats.windows) {
+            window.recordLatency(now, stage, millis);
+        }
+    }
+
+    public PaymentAnalyticsResponse getLocalAnalytics(AnalyticsWindow window) {
+        return toResponse(window, localAggregates(window, System.currentTimeMillis()), 1, false);
+    }
+
+    public PaymentAnalyticsResponse getClusterAnalytics(AnalyticsWindow window) {
+        long now = System.currentTimeMillis();
+        Map<PaymentStatsKey, PaymentStatsAggregate> merged = localAggregates(window, now);
+        int instances = 1;
+        boolean partial = false;
+
+        try {
+            Set<String> peers = redisTemplate.opsForZSet().rangeByScore(
+                    INSTANCES_KEY, now - instanceTtl.toMillis(), Double.POSITIVE_INFINITY);
+            List<String> keys = new ArrayList<>();
+            if (peers != null) {
+                for (String peer : peers) {
+                    if (!peer.equals(instanceId)) {
+                        keys.add(snapshotKey(window, peer));
+                    }
+                }
+            }
+
+            List<String> payloads = keys.isEmpty() ? List.of() : redisTemplate.opsForValue().multiGet(keys);
+            for (String payload : payloads != null ? payloads : List.<String>of()) {
+                if (payload == null) {
+                    continue; // Snapshot expired between the two reads
+                }
+                try {
+                    Map<String, PaymentStatsAggregate.Encoded> snapshot = objectMapper.readValue(payload, SNAPSHOT_TYPE);
+                    for (Map.Entry<String, PaymentStatsAggregate.Encoded> entry : snapshot.entrySet()) {
+                        merged.computeIfAbsent(PaymentStatsKey.decode(entry.getKey()), k -> new PaymentStatsAggregate())
+                                .merge(PaymentStatsAggregate.decode(entry.getValue()));
+                    }
+                    instances++;
+                } catch (Exception e) {
+                    log.warn("Skipping unreadable analytics snapshot: {}", e.getMessage());
+                    partial = true;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read peer analytics, returning this instance only: {}", e.getMessage());
+            partial = true;
+        }
+
+        return toResponse(window, merged, instances, partial);
+    }
+
+    /**
+     * Rolls every window up once, refreshing the gauges, and publishes the
+     * roll-up for the other instances.
+     */
+    @Scheduled(fixedDelayString = "${payment.analytics.publish-interval-ms:5000}")
+    public void publish() {
+        long now = System.currentTimeMillis();
+        Map<AnalyticsWindow, Map<String, PaymentStatsAggregate.Encoded>> snapshots = new EnumMap<>(AnalyticsWindow.class);
+        for (AnalyticsWindow window : AnalyticsWindow.values()) {
+            snapshots.put(window, new HashMap<>());
+        }
+
+        stats.forEach((key, keyStats) -> {
+            PaymentStatsAggregate[] latest = new PaymentStatsAggregate[keyStats.windows.length];
+            for (AnalyticsWindow window : AnalyticsWindow.values()) {
+                PaymentStatsAggregate aggregate = keyStats.windows[window.ordinal()].aggregate(now);
+                latest[window.ordinal()] = aggregate;
+                if (!aggregate.isEmpty()) {
+                    snapshots.get(window).put(key.encode(), aggregate.encode());
+                }
+            }
+            keyStats.latest = latest;
+        });
+
+        try {
+            for (Map.Entry<AnalyticsWindow, Map<String, PaymentStatsAggregate.Encoded>> snapshot : snapshots.entrySet()) {
+                redisTemplate.opsForValue().set(snapshotKey(snapshot.getKey(), instanceId),
+                        objectMapper.writeValueAsString(snapshot.getValue()), instanceTtl);
+            }
+            redisTemplate.opsForZSet().add(INSTANCES_KEY, instanceId, now);
+            redisTemplate.opsForZSet().removeRangeByScore(INSTANCES_KEY, 0, now - instanceTtl.toMillis());
+        } catch (Exception e) {
+            // Local views and gauges are still current; peers just see us as gone
+            log.warn("Failed to publish payment analytics snapshot: {}", e.getMessage());
+        }
+    }
+
+    private Map<PaymentStatsKey, PaymentStatsAggregate> localAggregates(AnalyticsWindow window, long now) {
+        Map<PaymentStatsKey, PaymentStatsAggregate> aggregates = new HashMap<>();
+        stats.forEach((key, keyStats) -> {
+            PaymentStatsAggregate aggregate = keyStats.windows[window.ordinal()].aggregate(now);
+            if (!aggregate.isEmpty()) {
+                aggregates.put(key, aggregate);
+            }
+        });
+        return aggregates;
+    }
+
+    private static PaymentAnalyticsResponse toResponse(AnalyticsWindow window,
+            Map<PaymentStatsKey, PaymentStatsAggregate> aggregates, int instances, boolean partial) {
+        List<PaymentAnalyticsEntry> entries = new ArrayList<>();
+        Map<String, BigDecimal> approvedByCurrency = new TreeMap<>();
+
+        aggregates.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator
+                        .comparing(PaymentStatsKey::method)
+                        .thenComparing(PaymentStatsKey::gatewayName)
+                        .thenComparing(PaymentStatsKey::currency)))
+                .forEach(entry -> {
+                    entries.add(entry.getValue().toEntry(entry.getKey()));
+                    approvedByCurrency.merge(entry.getKey().currency(),
+                            entry.getValue().getApprovedAmount(), BigDecimal::add);
+                });
+
+        return PaymentAnalyticsResponse.builder()
+                .window(window)
+                .generatedAt(LocalDateTime.now())
+                .instances(instances)
+                .partial(partial)
+                .approvedAmountByCurrency(approvedByCurrency)
+                .entries(entries)
+                .build();
+    }
+
+    private KeyStats statsFor(PaymentStatsKey key) {
+        KeyStats keyStats = stats.get(key);
+        if (keyStats != null) {
+            return keyStats;
+        }
+        if (stats.size() >= maxKeys) {
+            // Gateway names come from requests; never let them grow the map without bound
+            droppedKeys.increment();
+            return null;
+        }
+        return stats.computeIfAbsent(key, this::register);
+    }
+
+    private KeyStats register(PaymentStatsKey key) {
+        KeyStats keyStats = new KeyStats(key);
+        for (AnalyticsWindow window : AnalyticsWindow.values()) {
+            Tags tags = keyStats.tags.and("window", window.getLabel());
+            gauge("payment.analytics.window.attempts", "Terminal payments in the window",
+                    keyStats, window, tags, PaymentStatsAggregate::getAttempts);
+            gauge("payment.analytics.window.approval.rate", "Approved share of terminal payments in the window",
+                    keyStats, window, tags, PaymentStatsAggregate::getApprovalRate);
+            gauge("payment.analytics.window.approved.amount", "Amount approved in the window",
+                    keyStats, window, tags, aggregate -> aggregate.getApprovedAmount().doubleValue());
+            for (LatencyStage stage : LatencyStage.values()) {
+                for (double percentile : GAUGE_PERCENTILES) {
+                    gauge("payment.analytics.window.latency", "Latency in milliseconds over the window",
+                            keyStats, window,
+                            tags.and("stage", stage.name(), "quantile", String.valueOf(percentile / 100)),
+                            aggregate -> aggregate.getLatencyMillis(stage, percentile));
+                }
+            }
+        }
+        return keyStats;
+    }
+
+    private void gauge(String name, String description, KeyStats keyStats, AnalyticsWindow window,
+            Tags tags, ToDoubleFunction<PaymentStatsAggregate> value) {
+        Gauge.builder(name, keyStats, ks -> {
+                    PaymentStatsAggregate[] latest = ks.latest;
+                    return latest != null ? value.applyAsDouble(latest[window.ordinal()]) : 0.0;
+                })
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static String snapshotKey(AnalyticsWindow window, String instance) {
+        return SNAPSHOT_KEY + window.getLabel() + ":" + instance;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class KeyStats {
+        private final Tags tags;
+        private final PaymentStatsWindow[] windows = new PaymentStatsWindow[AnalyticsWindow.values().length];
+        // Roll-up from the last publish; read by the gauges
+        private volatile PaymentStatsAggregate[] latest;
+
+        private KeyStats(PaymentStatsKey key) {
+            this.tags = Tags.of("method", key.method().name(), "gateway", key.gatewayName(),
+                    "currency", key.currency());
+            for (AnalyticsWindow window : AnalyticsWindow.values()) {
+                windows[window.ordinal()] = new PaymentStatsWindow(window);
+            }
+        }
+    }
+}
@@ -15,7 +15,6 @@ import com.payment_service.DTOs.GatewayCaptureResponse;
 import com.payment_service.DTOs.HoldResponse;
 import com.payment_service.DTOs.PaymentSagaData;
 import com.payment_service.DTOs.SagaResult;
-import com.payment_service.DTOs.UpiStatusResponse;
 import com.payment_service.DTOs.UpiTransactionResponse;
 import com.payment_service.clients.AccountServiceClient;
 import com.payment_service.clients.FraudServiceClient;
@@ -23,10 +22,13 @@ import com.payment_service.clients.MerchantServiceClient;
 import com.payment_service.clients.NotificationServiceClient;
 import com.payment_service.clients.PaymentGatewayClient;
 import com.payment_service.entity.SagaState;
+import com.payment_service.enums.LatencyStage;
 import com.payment_service.enums.SagaStatus;
 import com.payment_service.exception.FraudException;
 import com.payment_service.exception.PaymentGatewayException;
 import com.payment_service.repository.SagaStateRepository;
+import com.payment_service.scheduler.PaymentDeadlineScheduler;
+import com.payment_service.service.PaymentAnalyticsService;
 import com.payment_service.service.PaymentSagaOrchestrator;
 
 import lombok.RequiredArgsConstructor;
@@ -41,6 +43,8 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
     private final FraudServiceClient fraudClient;
     private final NotificationServiceClient notificationClient;
     private final MerchantServiceClient merchantClient;
+    private final PaymentDeadlineScheduler deadlineScheduler;
+    private final PaymentAnalyticsService paymentAnalytics;
     
     /**
      * Execute card payment saga
@@ -57,7 +61,8 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
             .status(SagaStatus.STARTED)
             .payload(toJson(data))
             .build();
-        sagaStateRepository.save(saga);
+        saga = sagaStateRepository.save(saga);
+        deadlineScheduler.scheduleSagaTimeout(saga.getId());
         
         try {
             // Step 1: Quick fraud check (sync - 50ms)
@@ -91,6 +96,7 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
             
             // Step 3: Authorize payment with gateway
             log.info("Saga [{}] Step 3: Authorize with gateway", sagaId);
+            long authorizeStarted = System.nanoTime();
             GatewayAuthorizationResponse authResponse = gatewayClient.authorizePayment(
                 data.getGatewayName(),
                 data.getCardToken(),
@@ -99,6 +105,11 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
                 data.getPaymentReference()
             );
             
+            // Capture/refund/void must go to the gateway that authorized
+            data.setGatewayName(authResponse.getGatewayName());
+            paymentAnalytics.recordLatency(data.getPaymentMethod(), data.getGatewayName(), data.getCurrency(),
+                LatencyStage.AUTHORIZE, System.nanoTime() - authorizeStarted);
+            
             if (!authResponse.isSuccess()) {
                 throw new PaymentGatewayException(
                     "Authorization failed: " + authResponse.getErrorMessage()
@@ -112,11 +123,14 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
             
             // Step 4: Capture payment
             log.info("Saga [{}] Step 4: Capture payment", sagaId);
+            long captureStarted = System.nanoTime();
             GatewayCaptureResponse captureResponse = gatewayClient.capturePayment(
                 data.getGatewayName(),
                 authResponse.getGatewayPaymentId(),
                 data.getAmount()
             );
+            paymentAnalytics.recordLatency(data.getPaymentMethod(), data.getGatewayName(), data.getCurrency(),
+                LatencyStage.CAPTURE, System.nanoTime() - captureStarted);
             
             if (!captureResponse.isSuccess()) {
                 throw new PaymentGatewayException(
@@ -198,7 +212,8 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
             .status(SagaStatus.STARTED)
             .payload(toJson(data))
             .build();
-        sagaStateRepository.save(saga);
+        saga = sagaStateRepository.save(saga);
+        deadlineScheduler.scheduleSagaTimeout(saga.getId());
         
         try {
             // Step 1: Fraud check
@@ -228,22 +243,14 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
             data.setUpiTransactionId(upiResponse.getTransactionId());
             data.setPaymentAuthorized(true);
             
-            // Step 3: Poll for UPI status (with timeout)
-            log.info("Saga [{}] Step 3: Wait for UPI confirmation", sagaId);
-            boolean confirmed = waitForUpiConfirmation(
-                upiResponse.getTransactionId(), 
-                180 // 3 minutes timeout
-            );
-            
-            if (!confirmed) {
-                throw new PaymentGatewayException("UPI transaction timeout");
-            }
-            
-            data.setPaymentCaptured(true);
+            // Step 3: Suspend until the collect request is confirmed. The
+            // confirmation arrives via the gateway callback or the batched
+            // status poller, both of which call resumeUpiPaymentSaga.
+            log.info("Saga [{}] Step 3: Awaiting UPI confirmation for {}", 
+                sagaId, upiResponse.getTransactionId());
+            updateSagaStep(sagaId, "AWAIT_UPI_CONFIRMATION", SagaStatus.PROCESSING);
             
-            // Complete saga
-            completeSaga(sagaId);
-            return SagaResult.success(sagaId, "UPI payment completed");
+            return SagaResult.pending(sagaId, "Awaiting UPI confirmation");
             
         } catch (Exception e) {
             log.error("UPI saga [{}] failed: {}", sagaId, e.getMessage());
@@ -253,9 +260,33 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
     }
     
     /**
-     * Execute bill payment saga
+     * Resume a suspended UPI saga once the collect request reached a
+     * terminal state at the gateway.
      */
     @Transactional
+    public SagaResult resumeUpiPaymentSaga(PaymentSagaData data, boolean confirmed, String reason) {
+        String sagaId = data.getSagaId();
+        
+        if (confirmed) {
+            data.setPaymentCaptured(true);
+            completeSaga(sagaId);
+            log.info("UPI saga [{}] resumed and completed", sagaId);
+            return SagaResult.success(sagaId, "UPI payment completed");
+        }
+        
+        // A declined or expired collect request never moved money, so there
+        // is no authorization to void on the UPI rail.
+        data.setPaymentAuthorized(false);
+        log.warn("UPI saga [{}] resumed with failure: {}", sagaId, reason);
+        compensateSaga(sagaId, data, new PaymentGatewayException(reason));
+        return SagaResult.failure(sagaId, reason);
+    }
+    
+    /**
+     * Execute bill payment saga. Not transactional: each saga state write
+     * commits on its own, so batch runs do not hold a connection across the
+     * debit and the biller payment.
+     */
     public SagaResult executeBillPaymentSaga(PaymentSagaData data) {
         String sagaId = UUID.randomUUID().toString();
         data.setSagaId(sagaId);
@@ -266,7 +297,8 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
             .status(SagaStatus.STARTED)
             .payload(toJson(data))
             .build();
-        sagaStateRepository.save(saga);
+        saga = sagaStateRepository.save(saga);
+        deadlineScheduler.scheduleSagaTimeout(saga.getId());
         
         try {
             // Step 1: Validate biller
@@ -280,7 +312,8 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
                 throw new IllegalArgumentException("Invalid biller information");
             }
             
-            // Step 2: Debit account
+            // Step 2: Debit account. Batch runs reserve funds with a hold
+            // up front; the debit settles it the same way card payments do.
             if (data.getAccountId() != null) {
                 accountClient.debitWithIdempotency(
                     data.getAccountId(),
@@ -289,6 +322,11 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
                     data.getPaymentReference()
                 );
                 data.setAccountDebited(true);
+                
+                if (data.isFundsReserved()) {
+                    accountClient.releaseHold(data.getHoldReference());
+                    data.setFundsReserved(false);
+                }
             }
             
             // Step 3: Pay bill through gateway
@@ -402,32 +440,6 @@ public class PaymentSagaOrchestratorImpl implements PaymentSagaOrchestrator{
         });
     }
     
-    private boolean waitForUpiConfirmation(String transactionId, int timeoutSeconds) {
-        // Poll UPI gateway for status
-        int attempts = timeoutSeconds / 5; // Poll every 5 seconds
-        
-        for (int i = 0; i < attempts; i++) {
-            try {
-                Thread.sleep(5000);
-                UpiStatusResponse status = gatewayClient.checkUpiStatus(transactionId);
-                
-                if (status.isCompleted()) {
-                    return true;
-                }
-                if (status.isFailed()) {
-                    return false;
-                }
-                // Continue polling if pending
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return false;
-            }
-        }
-        
-        return false; // Timeout
-    }
-    
     private String extractErrorCode(Exception e) {
         if (e instanceof PaymentGatewayException) {
             return ((PaymentGatewayException) e).getErrorCode();
@@ -12,6 +12,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.banking_common.reference.ReferenceGenerator;
 import com.payment_service.DTOs.BillPaymentRequest;
 import com.payment_service.DTOs.CardPaymentRequest;
 import com.payment_service.DTOs.PaymentResponse;
@@ -26,8 +27,10 @@ import com.payment_service.enums.PaymentType;
 import com.payment_service.exception.RateLimitExceededException;
 import com.payment_service.exception.ResourceNotFoundException;
 import com.payment_service.repository.PaymentRepository;
+import com.payment_service.scheduler.PaymentDeadlineScheduler;
 import com.payment_service.service.EventSourcingService;
 import com.payment_service.service.OutboxService;
+import com.payment_service.service.PaymentAnalyticsService;
 import com.payment_service.service.PaymentGatewayService;
 import com.payment_service.service.PaymentSagaOrchestrator;
 import com.payment_service.service.PaymentService;
@@ -46,6 +49,9 @@ public class PaymentServiceImpl implements PaymentService{
     private final OutboxService outboxService;
     private final RateLimitService rateLimitService;
     private final PaymentGatewayService gatewayService;
+    private final ReferenceGenerator referenceGenerator;
+    private final PaymentDeadlineScheduler deadlineScheduler;
+    private final PaymentAnalyticsService paymentAnalytics;
     
     @Transactional
     @DistributedLock(key = "payment:user:#{#request.userId}")
@@ -113,6 +119,7 @@ public class PaymentServiceImpl implements PaymentService{
             .build();
         
         payment = paymentRepository.save(payment);
+        deadlineScheduler.schedulePaymentExpiry(payment.getId(), payment.getExpiresAt());
         
         // 7. Store event (Event Sourcing)
         eventSourcingService.storeEvent(
@@ -142,6 +149,7 @@ public class PaymentServiceImpl implements PaymentService{
         payment = paymentRepository.findByPaymentReference(paymentRef)
             .orElseThrow();
         
+        payment.setGatewayName(sagaData.getGatewayName());
         if (sagaResult.isSuccess()) {
             payment.setStatus(PaymentStatus.COMPLETED);
             payment.setCompletedAt(LocalDateTime.now());
@@ -165,6 +173,7 @@ public class PaymentServiceImpl implements PaymentService{
             "banking.payment.status",
             payment
         );
+        paymentAnalytics.recordOutcome(payment);
         
         log.info("Card payment processed: {} - Status: {}", paymentRef, payment.getStatus());
         return mapToResponse(payment);
@@ -221,6 +230,7 @@ public class PaymentServiceImpl implements PaymentService{
             .build();
         
         payment = paymentRepository.save(payment);
+        deadlineScheduler.schedulePaymentExpiry(payment.getId(), payment.getExpiresAt());
         
         // Execute UPI saga
         PaymentSagaData sagaData = PaymentSagaData.builder()
@@ -232,6 +242,16 @@ public class PaymentServiceImpl implements PaymentService{
             .build();
         
         SagaResult result = sagaOrchestrator.executeUpiPaymentSaga(sagaData);
+        payment.setSagaId(result.getSagaId());
+        
+        if (result.isPending()) {
+            // Collect request is out; UpiConfirmationService finishes the
+            // payment when the callback or the status poller reports back.
+            payment.setStatus(PaymentStatus.PROCESSING);
+            payment.setUpiTransactionId(sagaData.getUpiTransactionId());
+            payment = paymentRepository.save(payment);
+            return mapToResponse(payment);
+        }
         
         // Update status
         payment.setStatus(result.isSuccess() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED);
@@ -249,6 +269,7 @@ public class PaymentServiceImpl implements PaymentService{
         outboxService.saveEvent("PAYMENT", paymentRef, 
             result.isSuccess() ? "PaymentCompleted" : "PaymentFailed",
             "banking.payment.status", payment);
+        paymentAnalytics.recordOutcome(payment);
         
         return mapToResponse(payment);
     }
@@ -302,6 +323,7 @@ public class PaymentServiceImpl implements PaymentService{
             .paymentReference(paymentRef)
             .userId(userId)
             .amount(totalAmount)
+            .accountId(request.getAccountId())
             .paymentMethod(PaymentMethod.NET_BANKING)
             .billerId(request.getBillerId())
             .billNumber(request.getBillNumber())
@@ -322,6 +344,7 @@ public class PaymentServiceImpl implements PaymentService{
         outboxService.saveEvent("PAYMENT", paymentRef,
             result.isSuccess() ? "PaymentCompleted" : "PaymentFailed",
             "banking.payment.status", payment);
+        paymentAnalytics.recordOutcome(payment);
         
         return mapToResponse(payment);
     }
@@ -332,7 +355,7 @@ public class PaymentServiceImpl implements PaymentService{
     @Transactional(readOnly = true)
     public Page<PaymentResponse> getUserPayments(Long userId, Pageable pageable) {
         Page<Payment> payments = paymentRepository.findByUserId(userId, pageable);
-        return payments.map(this::mapToResponse);
+        return payments.map(PaymentServiceImpl::mapToResponse);
     }
     
     /**
@@ -347,7 +370,7 @@ public class PaymentServiceImpl implements PaymentService{
     
     // Helper methods
     private String generatePaymentReference() {
-        return "PAY" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return referenceGenerator.nextReference("PAY");
     }
     
     private BigDecimal calculateTax(BigDecimal amount) {
@@ -355,7 +378,7 @@ public class PaymentServiceImpl implements PaymentService{
         return amount.multiply(new BigDecimal("0.18")).setScale(2, RoundingMode.HALF_UP);
     }
     
-    private BigDecimal calculateFee(BigDecimal amount, PaymentMethod method) {
+    static BigDecimal calculateFee(BigDecimal amount, PaymentMethod method) {
         BigDecimal feePercentage = switch (method) {
             case CREDIT_CARD -> new BigDecimal("0.025"); // 2.5%
             case DEBIT_CARD -> new BigDecimal("0.01");   // 1%
@@ -379,7 +402,7 @@ public class PaymentServiceImpl implements PaymentService{
         }
     }
     
-    private PaymentResponse mapToResponse(Payment p) {
+    static PaymentResponse mapToResponse(Payment p) {
         return PaymentResponse.builder()
             .id(p.getId())
             .paymentReference(p.getPaymentReference())
@@ -404,7 +427,7 @@ public class PaymentServiceImpl implements PaymentService{
             .build();
     }
     
-    private String maskUpiId(String upiId) {
+    private static String maskUpiId(String upiId) {
         if (upiId == null) return null;
         String[] parts = upiId.split("@");
         if (parts.length != 2) return upiId;
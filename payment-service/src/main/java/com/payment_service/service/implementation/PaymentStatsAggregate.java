@@ -0,0 +1,201 @@
+package com.payment_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+import com.payment_service.DTOs.LatencySummary;
+import com.payment_service.DTOs.PaymentAnalyticsEntry;
+import com.payment_service.enums.LatencyStage;
+import com.payment_service.enums.PaymentStatus;
+
+/**
+ * Outcome counts, approved amount and latency histograms for one payment
+ * method, gateway and currency over some span of time. Instances are not
+ * thread-safe; {@link PaymentStatsWindow} guards the ones it records into.
+ *
+ * Latencies are kept in milliseconds with two significant digits, up to
+ * one hour. Amounts are summed in minor units (two decimals).
+ */
+final class PaymentStatsAggregate {
+    static final long HIGHEST_LATENCY_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private long approved;
+    private long declined;
+    private long expired;
+    private long approvedAmountMinor;
+    // Allocated on first use; most keys never see an authorize or capture
+    private final AbstractHistogram[] latencies = new AbstractHistogram[LatencyStage.values().length];
+
+    /**
+     * Wire form published to Redis for the other instances to merge.
+     */
+    record Encoded(long approved, long declined, long expired, long approvedAmountMinor,
+            Map<LatencyStage, String> latencies) {
+    }
+
+    void recordOutcome(PaymentStatus status, long amountMinor) {
+        switch (status) {
+            case COMPLETED -> {
+                approved++;
+                approvedAmountMinor += amountMinor;
+            }
+            case FAILED -> declined++;
+            case EXPIRED -> expired++;
+            default -> {
+                // Not a terminal outcome
+            }
+        }
+    }
+
+    void recordLatency(LatencyStage stage, long millis) {
+        AbstractHistogram histogram = latencies[stage.ordinal()];
+        if (histogram == null) {
+            // Slots hold at most a few minutes of traffic; int counts halve the footprint
+            histogram = new IntCountsHistogram(HIGHEST_LATENCY_MILLIS, SIGNIFICANT_DIGITS);
+            latencies[stage.ordinal()] = histogram;
+        }
+        histogram.recordValue(Math.max(0, Math.min(millis, HIGHEST_LATENCY_MILLIS)));
+    }
+
+    void merge(PaymentStatsAggregate other) {
+        approved += other.approved;
+        declined += other.declined;
+        expired += other.expired;
+        approvedAmountMinor += other.approvedAmountMinor;
+        for (int i = 0; i < latencies.length; i++) {
+            AbstractHistogram source = other.latencies[i];
+            if (source == null || source.getTotalCount() == 0) {
+                continue;
+            }
+            if (latencies[i] == null) {
+                latencies[i] = new Histogram(HIGHEST_LATENCY_MILLIS, SIGNIFICANT_DIGITS);
+            }
+            latencies[i].add(source);
+        }
+    }
+
+    void reset() {
+        approved = 0;
+        declined = 0;
+        expired = 0;
+        approvedAmountMinor = 0;
+        for (AbstractHistogram histogram : latencies) {
+            if (histogram != null) {
+                histogram.reset();
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        if (approved + declined + expired > 0) {
+            return false;
+        }
+        for (AbstractHistogram histogram : latencies) {
+            if (histogram != null && histogram.getTotalCount() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getApproved() {
+        return approved;
+    }
+
+    long getAttempts() {
+        return approved + declined + expired;
+    }
+
+    BigDecimal getApprovedAmount() {
+        return BigDecimal.valueOf(approvedAmountMinor, 2);
+    }
+
+    double getApprovalRate() {
+        long attempts = getAttempts();
+        return attempts == 0 ? 0.0 : (double) approved / attempts;
+    }
+
+    /**
+     * Latency at {@code percentile} (0-100) in milliseconds, or 0 when the
+     * stage has no samples.
+     */
+    long getLatencyMillis(LatencyStage stage, double percentile) {
+        AbstractHistogram histogram = latencies[stage.ordinal()];
+        if (histogram == null || histogram.getTotalCount() == 0) {
+            return 0L;
+        }
+        return histogram.getValueAtPercentile(percentile);
+    }
+
+    PaymentAnalyticsEntry toEntry(PaymentStatsKey key) {
+        Map<LatencyStage, LatencySummary> summaries = new EnumMap<>(LatencyStage.class);
+        for (LatencyStage stage : LatencyStage.values()) {
+            AbstractHistogram histogram = latencies[stage.ordinal()];
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                continue;
+            }
+            summaries.put(stage, LatencySummary.builder()
+                    .count(histogram.getTotalCount())
+                    .meanMs(histogram.getMean())
+                    .p50Ms(histogram.getValueAtPercentile(50.0))
+                    .p95Ms(histogram.getValueAtPercentile(95.0))
+                    .p99Ms(histogram.getValueAtPercentile(99.0))
+                    .maxMs(histogram.getMaxValue())
+                    .build());
+        }
+
+        return PaymentAnalyticsEntry.builder()
+                .paymentMethod(key.method())
+                .gatewayName(key.gatewayName())
+                .currency(key.currency())
+                .attempts(getAttempts())
+                .approved(approved)
+                .declined(declined)
+                .expired(expired)
+                .approvalRate(getApprovalRate())
+                .approvedAmount(getApprovedAmount())
+                .latencies(summaries)
+                .build();
+    }
+
+    Encoded encode() {
+        Map<LatencyStage, String> encoded = new EnumMap<>(LatencyStage.class);
+        for (LatencyStage stage : LatencyStage.values()) {
+            AbstractHistogram histogram = latencies[stage.ordinal()];
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                continue;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            encoded.put(stage, Base64.getEncoder().encodeToString(
+                    Arrays.copyOf(buffer.array(), length)));
+        }
+        return new Encoded(approved, declined, expired, approvedAmountMinor, encoded);
+    }
+
+    static PaymentStatsAggregate decode(Encoded encoded) throws DataFormatException {
+        PaymentStatsAggregate aggregate = new PaymentStatsAggregate();
+        aggregate.approved = encoded.approved();
+        aggregate.declined = encoded.declined();
+        aggregate.expired = encoded.expired();
+        aggregate.approvedAmountMinor = encoded.approvedAmountMinor();
+        if (encoded.latencies() != null) {
+            for (Map.Entry<LatencyStage, String> entry : encoded.latencies().entrySet()) {
+                aggregate.latencies[entry.getKey().ordinal()] = Histogram.decodeFromCompressedByteBuffer(
+                        ByteBuffer.wrap(Base64.getDecoder().decode(entry.getValue())), 0);
+            }
+        }
+        return aggregate;
+    }
+}
@@ -0,0 +1,25 @@
+package com.payment_service.service.implementation;
+
+import com.payment_service.enums.PaymentMethod;
+
+/**
+ * Analytics dimension: amounts are only summed within one currency.
+ */
+record PaymentStatsKey(PaymentMethod method, String gatewayName, String currency) {
+    static final String NO_GATEWAY = "NONE";
+
+    static PaymentStatsKey of(PaymentMethod method, String gatewayName, String currency) {
+        return new PaymentStatsKey(method,
+                gatewayName != null ? gatewayName : NO_GATEWAY,
+                currency != null ? currency : "INR");
+    }
+
+    String encode() {
+        return method.name() + '|' + gatewayName + '|' + currency;
+    }
+
+    static PaymentStatsKey decode(String value) {
+        String[] parts = value.split("\\|", 3);
+        return new PaymentStatsKey(PaymentMethod.valueOf(parts[0]), parts[1], parts[2]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.payment_service.service.implementation;
+
+import com.payment_service.enums.AnalyticsWindow;
+import com.payment_service.enums.LatencyStage;
+import com.payment_service.enums.PaymentStatus;
+
+/**
+ * Rolling window of {@link PaymentStatsAggregate}s for one key: a ring of
+ * wall-clock aligned slots, each reset when the ring comes back round to
+ * it. Slots are aligned to the epoch rather than to startup so every
+ * instance's windows line up when they are merged.
+ */
+final class PaymentStatsWindow {
+
+    private final long slotMillis;
+    private final Slot[] slots;
+
+    PaymentStatsWindow(AnalyticsWindow window) {
+        this.slotMillis = window.getSlotMillis();
+        this.slots = new Slot[window.getSlots()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    void recordOutcome(long nowMillis, PaymentStatus status, long amountMinor) {
+        long epoch = nowMillis / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        synchronized (slot) {
+            slot.roll(epoch);
+            slot.stats.recordOutcome(status, amountMinor);
+        }
+    }
+
+    void recordLatency(long nowMillis, LatencyStage stage, long millis) {
+        long epoch = nowMillis / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        synchronized (slot) {
+            slot.roll(epoch);
+            slot.stats.recordLatency(stage, millis);
+        }
+    }
+
+    /**
+     * Merges every slot still inside the window into a fresh aggregate.
+     */
+    PaymentStatsAggregate aggregate(long nowMillis) {
+        long current = nowMillis / slotMillis;
+        PaymentStatsAggregate result = new PaymentStatsAggregate();
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                if (slot.epoch > current - slots.length && slot.epoch <= current) {
+                    result.merge(slot.stats);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static final class Slot {
+        private long epoch = -1;
+        private final PaymentStatsAggregate stats = new PaymentStatsAggregate();
+
+        private void roll(long now) {
+            if (epoch != now) {
+                stats.reset();
+                epoch = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.payment_service.service.implementation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.payment_service.DTOs.SettlementTotals;
+import com.payment_service.enums.SettlementFileFormat;
+
+/**
+ * Writes settlement files one record at a time. Every file is a header, one
+ * D record per payment and one T (trailer) record per currency with that
+ * currency's row count and totals.
+ *
+ * CSV: a column header line, then D and T rows sharing the same columns;
+ * T rows carry the row count in the payment_reference column.
+ * FIXED_WIDTH: H, D and T records padded to fixed column widths, amounts
+ * right-aligned with two decimals.
+ */
+abstract class SettlementFileWriter {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    protected final Writer out;
+
+    protected SettlementFileWriter(Writer out) {
+        this.out = out;
+    }
+
+    static SettlementFileWriter of(SettlementFileFormat format, Writer out) {
+        return switch (format) {
+            case CSV -> new Csv(out);
+            case FIXED_WIDTH -> new FixedWidth(out);
+        };
+    }
+
+    abstract void header(Long merchantId, LocalDateTime from, LocalDateTime to) throws IOException;
+
+    abstract void row(Row row) throws IOException;
+
+    abstract void trailer(SettlementTotals totals) throws IOException;
+
+    /**
+     * One settlement line read straight off the cursor. A single instance
+     * is reused for the whole export.
+     */
+    static final class Row {
+        String paymentReference;
+        LocalDateTime completedAt;
+        String paymentMethod;
+        String paymentType;
+        String currency;
+        BigDecimal amount;
+        BigDecimal taxAmount;
+        BigDecimal feeAmount;
+        BigDecimal totalAmount;
+        BigDecimal refundedAmount;
+        String gatewayName;
+        String gatewayPaymentId;
+        String externalTransactionId;
+
+        void read(ResultSet rs) throws SQLException {
+            paymentReference = rs.getString(1);
+            Timestamp completed = rs.getTimestamp(2);
+            completedAt = completed != null ? completed.toLocalDateTime() : null;
+            paymentMethod = rs.getString(3);
+            paymentType = rs.getString(4);
+            currency = rs.getString(5);
+            amount = orZero(rs.getBigDecimal(6));
+            taxAmount = orZero(rs.getBigDecimal(7));
+            feeAmount = orZero(rs.getBigDecimal(8));
+            totalAmount = orZero(rs.getBigDecimal(9));
+            refundedAmount = orZero(rs.getBigDecimal(10));
+            gatewayName = rs.getString(11);
+            gatewayPaymentId = rs.getString(12);
+            externalTransactionId = rs.getString(13);
+        }
+
+        BigDecimal netAmount() {
+            return amount.subtract(refundedAmount);
+        }
+
+        private static BigDecimal orZero(BigDecimal value) {
+            return value != null ? value : BigDecimal.ZERO;
+        }
+    }
+
+    protected static String amount(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    protected static String timestamp(LocalDateTime value) {
+        return value != null ? TIMESTAMP.format(value) : "";
+    }
+
+    private static final class Csv extends SettlementFileWriter {
+
+        private Csv(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void header(Long merchantId, LocalDateTime from, LocalDateTime to) throws IOException {
+            out.write("record_type,payment_reference,completed_at,payment_method,payment_type,currency,"
+                    + "amount,tax_amount,fee_amount,total_amount,refunded_amount,net_amount,"
+                    + "gateway_name,gateway_payment_id,external_transaction_id\n");
+        }
+
+        @Override
+        void row(Row row) throws IOException {
+            out.write("D,");
+            field(row.paymentReference);
+            field(timestamp(row.completedAt));
+            field(row.paymentMethod);
+            field(row.paymentType);
+            field(row.currency);
+            out.write(amount(row.amount));
+            out.write(',');
+            out.write(amount(row.taxAmount));
+            out.write(',');
+            out.write(amount(row.feeAmount));
+            out.write(',');
+            out.write(amount(row.totalAmount));
+            out.write(',');
+            out.write(amount(row.refundedAmount));
+            out.write(',');
+            out.write(amount(row.netAmount()));
+            out.write(',');
+            field(row.gatewayName);
+            field(row.gatewayPaymentId);
+            escape(row.externalTransactionId);
+            out.write('\n');
+        }
+
+        @Override
+        void trailer(SettlementTotals totals) throws IOException {
+            out.write("T," + totals.getCount() + ",,,," + totals.getCurrency() + ","
+                    + amount(totals.getAmount()) + "," + amount(totals.getTaxAmount()) + ","
+                    + amount(totals.getFeeAmount()) + "," + amount(totals.getTotalAmount()) + ","
+                    + amount(totals.getRefundedAmount()) + "," + amount(totals.getNetAmount()) + ",,,\n");
+        }
+
+        private void field(String value) throws IOException {
+            escape(value);
+            out.write(',');
+        }
+
+        private void escape(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    private static final class FixedWidth extends SettlementFileWriter {
+        private static final int REFERENCE = 50;
+        private static final int CODE = 20;
+        private static final int AMOUNT = 18;
+        private static final int GATEWAY_ID = 100;
+
+        private FixedWidth(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void header(Long merchantId, LocalDateTime from, LocalDateTime to) throws IOException {
+            out.write('H');
+            right(String.valueOf(merchantId), CODE, '0');
+            left(timestamp(from), 19);
+            left(timestamp(to), 19);
+            left(timestamp(LocalDateTime.now()), 19);
+            out.write('\n');
+        }
+
+        @Override
+        void row(Row row) throws IOException {
+            out.write('D');
+            left(row.paymentReference, REFERENCE);
+            left(timestamp(row.completedAt), 19);
+            left(row.paymentMethod, CODE);
+            left(row.paymentType, CODE);
+            left(row.currency, 3);
+            right(amount(row.amount), AMOUNT, ' ');
+            right(amount(row.taxAmount), AMOUNT, ' ');
+            right(amount(row.feeAmount), AMOUNT, ' ');
+            right(amount(row.totalAmount), AMOUNT, ' ');
+            right(amount(row.refundedAmount), AMOUNT, ' ');
+            right(amount(row.netAmount()), AMOUNT, ' ');
+            left(row.gatewayName, CODE);
+            left(row.gatewayPaymentId, GATEWAY_ID);
+            left(row.externalTransactionId, GATEWAY_ID);
+            out.write('\n');
+        }
+
+        @Override
+        void trailer(SettlementTotals totals) throws IOException {
+            out.write('T');
+            left(totals.getCurrency(), 3);
+            right(String.valueOf(totals.getCount()), 12, '0');
+            right(amount(totals.getAmount()), AMOUNT, ' ');
+            right(amount(totals.getTaxAmount()), AMOUNT, ' ');
+            right(amount(totals.getFeeAmount()), AMOUNT, ' ');
+            right(amount(totals.getTotalAmount()), AMOUNT, ' ');
+            right(amount(totals.getRefundedAmount()), AMOUNT, ' ');
+            right(amount(totals.getNetAmount()), AMOUNT, ' ');
+            out.write('\n');
+        }
+
+        private void left(String value, int width) throws IOException {
+            String text = value != null ? value : "";
+            if (text.length() >= width) {
+                out.write(text, 0, width);
+                return;
+            }
+            out.write(text);
+            pad(width - text.length(), ' ');
+        }
+
+        private void right(String value, int width, char padding) throws IOException {
+            if (value.length() >= width) {
+                out.write(value, value.length() - width, width);
+                return;
+            }
+            pad(width - value.length(), padding);
+            out.write(value);
+        }
+
+        private void pad(int count, char padding) throws IOException {
+            for (int i = 0; i < count; i++) {
+                out.write(padding);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.payment_service.service.implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.payment_service.DTOs.PaymentSagaData;
+import com.payment_service.DTOs.SagaResult;
+import com.payment_service.DTOs.UpiCallbackRequest;
+import com.payment_service.DTOs.UpiStatusResponse;
+import com.payment_service.entity.Payment;
+import com.payment_service.enums.PaymentStatus;
+import com.payment_service.exception.ResourceNotFoundException;
+import com.payment_service.repository.PaymentRepository;
+import com.payment_service.service.OutboxService;
+import com.payment_service.service.PaymentAnalyticsService;
+import com.payment_service.service.PaymentSagaOrchestrator;
+import com.payment_service.service.UpiConfirmationService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finishes UPI payments whose saga was suspended after the collect request
+ * went out. Confirmations come from the gateway callback or from
+ * {@link com.payment_service.scheduler.UpiStatusPoller}; both paths take a
+ * row lock on the payment and only act while it is still PROCESSING, so a
+ * late duplicate from the other path is a no-op.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UpiConfirmationServiceImpl implements UpiConfirmationService {
+	private final PaymentRepository paymentRepository;
+    private final PaymentSagaOrchestrator sagaOrchestrator;
+    private final OutboxService outboxService;
+    private final PaymentAnalyticsService paymentAnalytics;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${payment.upi.callback-secret:}")
+    private String callbackSecret;
+    
+    @PostConstruct
+    void checkCallbackSecret() {
+        if (callbackSecret == null || callbackSecret.isBlank()) {
+            log.warn("payment.upi.callback-secret is not set; every UPI callback will be rejected "
+                + "and UPI payments will only settle through the status poller");
+        }
+    }
+    
+    /**
+     * The callback endpoint is open to the gateway without a JWT, so this
+     * HMAC is its only authentication. Fails closed: with no secret
+     * configured nothing is accepted.
+     */
+    public boolean verifyCallbackSignature(UpiCallbackRequest callback, String signature) {
+        if (callbackSecret == null || callbackSecret.isBlank()) {
+            meterRegistry.counter("payment.upi.callback.rejected", "reason", "no_secret").increment();
+            return false;
+        }
+        if (signature == null) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(callbackSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(
+                (callback.getTransactionId() + "|" + callback.getStatus())
+                    .getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(expected, HexFormat.of().parseHex(signature.toLowerCase()));
+        } catch (Exception e) {
+            log.warn("Rejecting UPI callback with unreadable signature: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    @Transactional
+    public boolean handleCallback(UpiCallbackRequest callback) {
+        String status = callback.getStatus().toUpperCase();
+        
+        return switch (status) {
+            case "SUCCESS", "COMPLETED" -> resolve(callback.getTransactionId(), PaymentStatus.COMPLETED, null, "callback", true);
+            case "FAILURE", "FAILED", "DECLINED" -> resolve(callback.getTransactionId(), PaymentStatus.FAILED,
+                callback.getFailureReason() != null ? callback.getFailureReason() : "UPI transaction declined",
+                "callback", true);
+            default -> false; // Still pending at the gateway
+        };
+    }
+    
+    @Transactional
+    public boolean applyStatus(UpiStatusResponse status) {
+        if (status.isCompleted()) {
+            return resolve(status.getTransactionId(), PaymentStatus.COMPLETED, null, "poller", false);
+        }
+        if (status.isFailed()) {
+            return resolve(status.getTransactionId(), PaymentStatus.FAILED, "UPI transaction declined", "poller", false);
+        }
+        return false;
+    }
+    
+    @Transactional
+    public boolean expire(String upiTransactionId) {
+        return resolve(upiTransactionId, PaymentStatus.EXPIRED, "UPI transaction timeout", "timeout", false);
+    }
+    
+    private boolean resolve(String upiTransactionId, PaymentStatus outcome, String reason,
+                            String source, boolean requireKnown) {
+        Optional<Payment> locked = paymentRepository.findByUpiTransactionIdForUpdate(upiTransactionId);
+        if (locked.isEmpty()) {
+            if (requireKnown) {
+                throw new ResourceNotFoundException("Unknown UPI transaction: " + upiTransactionId);
+            }
+            return false;
+        }
+        
+        Payment payment = locked.get();
+        if (payment.getStatus() != PaymentStatus.PROCESSING) {
+            log.debug("UPI confirmation for {} ignored, payment already {}",
+                payment.getPaymentReference(), payment.getStatus());
+            meterRegistry.counter("payment.upi.confirmation.duplicate", "source", source).increment();
+            return false;
+        }
+        
+        PaymentSagaData sagaData = PaymentSagaData.builder()
+            .sagaId(payment.getSagaId())
+            .paymentReference(payment.getPaymentReference())
+            .userId(payment.getUserId())
+            .accountId(payment.getAccountId())
+            .amount(payment.getTotalAmount())
+            .paymentMethod(payment.getPaymentMethod())
+            .upiId(payment.getUpiId())
+            .upiTransactionId(upiTransactionId)
+            .paymentAuthorized(true)
+            .build();
+        
+        SagaResult result = sagaOrchestrator.resumeUpiPaymentSaga(
+            sagaData, outcome == PaymentStatus.COMPLETED, reason);
+        
+        if (result.isSuccess()) {
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setCompletedAt(LocalDateTime.now());
+        } else {
+            payment.setStatus(outcome == PaymentStatus.EXPIRED ? PaymentStatus.EXPIRED : PaymentStatus.FAILED);
+            payment.setFailedAt(LocalDateTime.now());
+            payment.setFailureReason(result.getErrorMessage());
+        }
+        payment = paymentRepository.save(payment);
+        
+        outboxService.saveEvent("PAYMENT", payment.getPaymentReference(),
+            result.isSuccess() ? "PaymentCompleted" : "PaymentFailed",
+            "banking.payment.status", payment);
+        paymentAnalytics.recordOutcome(payment);
+        
+        if (payment.getCreatedAt() != null) {
+            meterRegistry.timer("payment.upi.confirmation.latency", "source", source)
+                .record(Duration.between(payment.getCreatedAt(), LocalDateTime.now()));
+        }
+        meterRegistry.counter("payment.upi.confirmation",
+            "source", source, "status", payment.getStatus().name()).increment();
+        
+        log.info("UPI payment {} resolved via {}: {}", 
+            payment.getPaymentReference(), source, payment.getStatus());
+        return true;
+    }
+}
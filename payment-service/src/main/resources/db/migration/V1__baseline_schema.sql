@@ -0,0 +1,139 @@
+-- Tables as they stood before migrations were introduced. Databases that
+-- already had them are baselined below V1 (see spring.flyway in
+-- application.yaml), so every statement only creates what is missing.
+
+CREATE TABLE IF NOT EXISTS payments (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    payment_reference       VARCHAR(50)    NOT NULL,
+    idempotency_key         VARCHAR(100),
+    user_id                 BIGINT         NOT NULL,
+    account_id              BIGINT,
+    merchant_id             BIGINT,
+    amount                  NUMERIC(19, 4) NOT NULL,
+    tax_amount              NUMERIC(19, 4),
+    fee_amount              NUMERIC(19, 4),
+    total_amount            NUMERIC(19, 4),
+    currency                VARCHAR(3)     NOT NULL,
+    status                  VARCHAR(30)    NOT NULL,
+    payment_method          VARCHAR(30)    NOT NULL,
+    payment_type            VARCHAR(30)    NOT NULL,
+    description             VARCHAR(500),
+    card_token              VARCHAR(100),
+    card_last_four          VARCHAR(4),
+    card_brand              VARCHAR(20),
+    upi_id                  VARCHAR(100),
+    upi_transaction_id      VARCHAR(50),
+    biller_id               VARCHAR(50),
+    bill_number             VARCHAR(100),
+    gateway_name            VARCHAR(50),
+    gateway_payment_id      VARCHAR(100),
+    external_transaction_id VARCHAR(100),
+    saga_id                 VARCHAR(36),
+    correlation_id          VARCHAR(36),
+    fraud_score             NUMERIC(5, 2),
+    fraud_status            VARCHAR(20),
+    risk_level              VARCHAR(20),
+    failure_reason          VARCHAR(500),
+    gateway_error_code      VARCHAR(50),
+    gateway_error_message   VARCHAR(500),
+    recipient_id            BIGINT,
+    recipient_account_id    BIGINT,
+    recipient_name          VARCHAR(100),
+    refunded_amount         NUMERIC(19, 4),
+    refund_reference        VARCHAR(50),
+    created_at              TIMESTAMP(6)   NOT NULL,
+    updated_at              TIMESTAMP(6),
+    completed_at            TIMESTAMP(6),
+    failed_at               TIMESTAMP(6),
+    expires_at              TIMESTAMP(6),
+    version                 BIGINT,
+    metadata                JSONB,
+    ip_address              VARCHAR(45),
+    user_agent              VARCHAR(500),
+    device_fingerprint      VARCHAR(100)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_payment_ref ON payments (payment_reference);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_idempotency ON payments (idempotency_key);
+CREATE INDEX IF NOT EXISTS idx_user_id ON payments (user_id);
+CREATE INDEX IF NOT EXISTS idx_merchant_id ON payments (merchant_id);
+CREATE INDEX IF NOT EXISTS idx_status ON payments (status);
+CREATE INDEX IF NOT EXISTS idx_payment_method ON payments (payment_method);
+CREATE INDEX IF NOT EXISTS idx_created_at ON payments (created_at);
+CREATE INDEX IF NOT EXISTS idx_composite ON payments (user_id, status, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_external_ref ON payments (external_transaction_id);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key   VARCHAR(100)  NOT NULL PRIMARY KEY,
+    user_id           BIGINT        NOT NULL,
+    request_path      VARCHAR(255)  NOT NULL,
+    request_method    VARCHAR(10)   NOT NULL,
+    request_hash      VARCHAR(64)   NOT NULL,
+    status            VARCHAR(20)   NOT NULL,
+    payment_reference VARCHAR(50),
+    response_code     INTEGER,
+    response_body     TEXT,
+    error_message     VARCHAR(1000),
+    created_at        TIMESTAMP(6)  NOT NULL,
+    completed_at      TIMESTAMP(6),
+    expires_at        TIMESTAMP(6)  NOT NULL,
+    request_ip        VARCHAR(45),
+    user_agent        VARCHAR(500)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idem_user_created ON idempotency_keys (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_idem_status ON idempotency_keys (status);
+CREATE INDEX IF NOT EXISTS idx_idem_expires ON idempotency_keys (expires_at);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             VARCHAR(36)   NOT NULL PRIMARY KEY,
+    aggregate_type VARCHAR(50)   NOT NULL,
+    aggregate_id   VARCHAR(50)   NOT NULL,
+    event_type     VARCHAR(100)  NOT NULL,
+    topic          VARCHAR(100)  NOT NULL,
+    payload        TEXT          NOT NULL,
+    status         VARCHAR(20)   NOT NULL,
+    retry_count    INTEGER,
+    created_at     TIMESTAMP(6)  NOT NULL,
+    processed_at   TIMESTAMP(6),
+    error_message  VARCHAR(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_status ON outbox_events (status);
+CREATE INDEX IF NOT EXISTS idx_outbox_created ON outbox_events (created_at);
+
+CREATE TABLE IF NOT EXISTS payment_events (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_id   VARCHAR(50)   NOT NULL,
+    sequence       BIGINT        NOT NULL,
+    event_type     VARCHAR(100)  NOT NULL,
+    event_data     TEXT          NOT NULL,
+    user_id        BIGINT,
+    correlation_id VARCHAR(36),
+    causation_id   VARCHAR(36),
+    occurred_at    TIMESTAMP(6)  NOT NULL,
+    metadata       JSONB
+);
+
+CREATE INDEX IF NOT EXISTS idx_aggregate_id ON payment_events (aggregate_id);
+CREATE INDEX IF NOT EXISTS idx_event_type ON payment_events (event_type);
+CREATE INDEX IF NOT EXISTS idx_occurred_at ON payment_events (occurred_at);
+
+CREATE TABLE IF NOT EXISTS saga_states (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    saga_id       VARCHAR(36)   NOT NULL,
+    saga_type     VARCHAR(50)   NOT NULL,
+    status        VARCHAR(30)   NOT NULL,
+    current_step  VARCHAR(50),
+    payload       TEXT,
+    error_message VARCHAR(1000),
+    retry_count   INTEGER,
+    created_at    TIMESTAMP(6)  NOT NULL,
+    updated_at    TIMESTAMP(6),
+    completed_at  TIMESTAMP(6),
+    version       BIGINT
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_saga_id ON saga_states (saga_id);
+CREATE INDEX IF NOT EXISTS idx_saga_status ON saga_states (status);
+CREATE INDEX IF NOT EXISTS idx_saga_type ON saga_states (saga_type);
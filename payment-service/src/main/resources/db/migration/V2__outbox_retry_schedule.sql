@@ -0,0 +1,3 @@
+-- Failed publishes back off until next_retry_at; claimPendingBatch also
+-- moves it forward as the lease on a claimed batch
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP(6);
@@ -0,0 +1,7 @@
+-- idx_upi_txn: callbacks and poller results lock the payment by its UPI
+-- transaction id. idx_method_status: the poller walks PROCESSING UPI
+-- payments in id order (findPendingUpiConfirmations) without scanning the
+-- rest of the table. Built concurrently so payments keep writing meanwhile;
+-- Flyway runs a migration holding only such statements outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_upi_txn ON payments (upi_transaction_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_method_status ON payments (payment_method, status, id);
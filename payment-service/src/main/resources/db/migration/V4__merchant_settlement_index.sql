@@ -0,0 +1,5 @@
+-- Settlement exports read one merchant's COMPLETED payments in completed_at
+-- order; with this index the export streams in index order instead of
+-- sorting the merchant's whole history. Built concurrently, outside a
+-- transaction like V3.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_merchant_settlement ON payments (merchant_id, status, completed_at);
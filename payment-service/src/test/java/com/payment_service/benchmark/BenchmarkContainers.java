@@ -0,0 +1,48 @@
+package com.payment_service.benchmark;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistrar;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.kafka.KafkaContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Throwaway Postgres, Redis and Kafka, so a benchmark needs nothing but
+ * Docker. Flyway migrates the database on startup; the numbers include
+ * Docker's networking, so compare runs on the same machine only.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class BenchmarkContainers {
+
+	private static final int REDIS_PORT = 6379;
+
+	@Bean
+	@ServiceConnection
+	PostgreSQLContainer<?> postgres() {
+		return new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+	}
+
+	@Bean
+	@ServiceConnection(name = "redis")
+	GenericContainer<?> redis() {
+		return new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(REDIS_PORT);
+	}
+
+	@Bean
+	@ServiceConnection
+	KafkaContainer kafka() {
+		return new KafkaContainer(DockerImageName.parse("apache/kafka-native:3.8.0"));
+	}
+
+	// RedissonConfig reads its own properties rather than Spring's Redis connection details
+	@Bean
+	DynamicPropertyRegistrar redissonProperties(GenericContainer<?> redis) {
+		return registry -> {
+			registry.add("spring.redis.host", redis::getHost);
+			registry.add("spring.redis.port", () -> redis.getMappedPort(REDIS_PORT));
+		};
+	}
+}
@@ -0,0 +1,240 @@
+package com.payment_service.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP stub standing in for Razorpay, Stripe and the downstream
+ * account/fraud/merchant/notification services, so the payment flows can be
+ * driven end to end without leaving the machine.
+ *
+ * Razorpay is served under {@code /razorpay}, Stripe under {@code /stripe}
+ * and the internal services from the root, matching the paths the clients
+ * call. Every response is delayed by {@link Profile#sample()} and fails with
+ * a 503 at the configured error rate; gateway calls additionally decline at
+ * the configured decline rate.
+ */
+final class GatewaySimulator implements AutoCloseable {
+
+	/**
+	 * Latency and failure distribution for one group of routes. Latency is a
+	 * fixed base plus an exponentially distributed tail with the given mean,
+	 * which is close enough to what real gateways show (a tight body and a
+	 * long right tail).
+	 */
+	record Profile(long baseLatencyMs, long tailMeanMs, double errorRate, double declineRate) {
+
+		static Profile fromSystemProperties(String prefix, Profile defaults) {
+			return new Profile(
+					Long.getLong(prefix + ".latency-ms", defaults.baseLatencyMs()),
+					Long.getLong(prefix + ".tail-mean-ms", defaults.tailMeanMs()),
+					doubleProperty(prefix + ".error-rate", defaults.errorRate()),
+					doubleProperty(prefix + ".decline-rate", defaults.declineRate()));
+		}
+
+		long sample() {
+			if (tailMeanMs <= 0) {
+				return baseLatencyMs;
+			}
+			double u = ThreadLocalRandom.current().nextDouble();
+			return baseLatencyMs + (long) (-tailMeanMs * Math.log(1 - u));
+		}
+
+		boolean fails() {
+			return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+		}
+
+		boolean declines() {
+			return declineRate > 0 && ThreadLocalRandom.current().nextDouble() < declineRate;
+		}
+
+		private static double doubleProperty(String key, double defaultValue) {
+			String value = System.getProperty(key);
+			return value != null ? Double.parseDouble(value) : defaultValue;
+		}
+	}
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+
+	private GatewaySimulator(HttpServer server, ExecutorService executor) {
+		this.server = server;
+		this.executor = executor;
+	}
+
+	static GatewaySimulator start(Profile gateways, Profile services) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+		ExecutorService executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+
+		GatewaySimulator simulator = new GatewaySimulator(server, executor);
+		simulator.registerRazorpay(gateways);
+		simulator.registerStripe(gateways);
+		simulator.registerServices(services);
+		server.start();
+		return simulator;
+	}
+
+	String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	String razorpayUrl() {
+		return baseUrl() + "/razorpay";
+	}
+
+	String stripeUrl() {
+		return baseUrl() + "/stripe";
+	}
+
+	Map<String, Long> requestCounts() {
+		Map<String, Long> snapshot = new TreeMap<>();
+		requestCounts.forEach((route, count) -> snapshot.put(route, count.sum()));
+		return snapshot;
+	}
+
+	void resetCounts() {
+		requestCounts.clear();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void registerRazorpay(Profile profile) {
+		// Razorpay clients bind responses to camelCase DTOs
+		route("/razorpay/payments", profile, path -> {
+			if (path.endsWith("/capture")) {
+				return "razorpay.capture";
+			}
+			if (path.endsWith("/refund")) {
+				return "razorpay.refund";
+			}
+			if (path.endsWith("/void")) {
+				return "razorpay.void";
+			}
+			return "razorpay.authorize";
+		}, (name, declined) -> switch (name) {
+			case "razorpay.authorize" -> declined
+					? "{\"id\":\"pay_" + id() + "\",\"status\":\"failed\",\"errorCode\":\"BAD_REQUEST_ERROR\","
+							+ "\"errorDescription\":\"Card declined by issuer\"}"
+					: "{\"id\":\"pay_" + id() + "\",\"status\":\"authorized\",\"captured\":false}";
+			case "razorpay.capture" -> "{\"id\":\"pay_" + id() + "\",\"status\":\"captured\",\"captured\":true}";
+			case "razorpay.refund" -> "{\"id\":\"rfnd_" + id() + "\",\"status\":\"refunded\"}";
+			default -> "";
+		});
+	}
+
+	private void registerStripe(Profile profile) {
+		// Stripe responses are parsed as maps with snake_case keys
+		route("/stripe/charges", profile,
+				path -> path.endsWith("/capture") ? "stripe.capture" : "stripe.authorize",
+				(name, declined) -> switch (name) {
+					case "stripe.authorize" -> declined
+							? "{\"id\":\"ch_" + id() + "\",\"status\":\"failed\",\"captured\":false,"
+									+ "\"failure_code\":\"card_declined\",\"failure_message\":\"Your card was declined.\"}"
+							: "{\"id\":\"ch_" + id() + "\",\"status\":\"succeeded\",\"captured\":false,"
+									+ "\"authorization_code\":\"" + id().substring(0, 6) + "\"}";
+					default -> "{\"id\":\"ch_" + id() + "\",\"status\":\"succeeded\",\"captured\":true}";
+				});
+		route("/stripe/refunds", profile, path -> "stripe.refund",
+				(name, declined) -> "{\"id\":\"re_" + id() + "\",\"status\":\"succeeded\"}");
+	}
+
+	private void registerServices(Profile profile) {
+		Profile neverDeclines = new Profile(profile.baseLatencyMs(), profile.tailMeanMs(), profile.errorRate(), 0);
+
+		route("/api/v1/accounts", neverDeclines, path -> {
+			if (path.endsWith("/holds")) {
+				return "account.hold";
+			}
+			if (path.contains("/holds/")) {
+				return "account.release";
+			}
+			return path.endsWith("/debit") ? "account.debit" : "account.credit";
+		}, (name, declined) -> "account.hold".equals(name)
+				? "{\"holdReference\":\"HOLD-" + id() + "\",\"success\":true}"
+				: "");
+		route("/api/v1/fraud", neverDeclines,
+				path -> path.endsWith("/quick-check") ? "fraud.quick-check" : "fraud.deep-analysis",
+				(name, declined) -> "fraud.quick-check".equals(name)
+						? "{\"blocked\":false,\"fraudScore\":0.05,\"riskLevel\":\"LOW\"}"
+						: "");
+		route("/api/v1/merchants", neverDeclines,
+				path -> path.endsWith("/reverse") ? "merchant.reverse" : "merchant.credit",
+				(name, declined) -> "");
+		route("/api/v1/notifications", neverDeclines, path -> "notification.payment", (name, declined) -> "");
+	}
+
+	private interface Responder {
+		String body(String routeName, boolean declined);
+	}
+
+	private void route(String context, Profile profile, Function<String, String> namer, Responder responder) {
+		server.createContext(context, exchange -> {
+			try {
+				exchange.getRequestBody().readAllBytes();
+				String name = namer.apply(exchange.getRequestURI().getPath());
+				requestCounts.computeIfAbsent(name, key -> new LongAdder()).increment();
+
+				sleep(profile.sample());
+
+				if (profile.fails()) {
+					respond(exchange, 503, "{\"error\":{\"code\":\"SERVER_ERROR\",\"message\":\"simulated outage\"}}");
+					return;
+				}
+
+				String body = responder.body(name, profile.declines());
+				respond(exchange, body.isEmpty() ? 204 : 200, body);
+			} finally {
+				exchange.close();
+			}
+		});
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		if (body.isEmpty()) {
+			exchange.sendResponseHeaders(status, -1);
+			return;
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			TimeUnit.MILLISECONDS.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String id() {
+		return UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+	}
+}
@@ -0,0 +1,112 @@
+package com.payment_service.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Outbox relay throughput and lag in either mode. Writes
+ * {@code -Dbenchmark.outbox.events} events (50,000 by default) in commits of
+ * {@code -Dbenchmark.outbox.events-per-commit} (10 by default), the way
+ * payment sagas write them, and waits until the relay has marked every one
+ * SENT. Lag is processed_at - created_at per event, so it covers the poll
+ * interval or linger, the Kafka acknowledgement and the status update.
+ *
+ * Run once per mode and compare:
+ * {@code mvn -o -Pbenchmark test -Dtest=OutboxRelayBenchmark -Dbenchmark.outbox.mode=polling}
+ * and {@code -Dbenchmark.outbox.mode=wal}, against a local Postgres
+ * (wal_level=logical for wal mode) and Kafka. The events are deleted
+ * afterwards; they go to {@code -Dbenchmark.outbox.topic}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"logging.level.com.payment_service=WARN",
+		"logging.level.org.hibernate.SQL=WARN",
+		"payment.outbox.relay-mode=${benchmark.outbox.mode:polling}",
+		"payment.outbox.poll-interval-ms=${benchmark.outbox.poll-interval-ms:100}"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OutboxRelayBenchmark {
+
+	private static final int EVENTS = Integer.getInteger("benchmark.outbox.events", 50_000);
+	private static final int EVENTS_PER_COMMIT = Integer.getInteger("benchmark.outbox.events-per-commit", 10);
+	private static final String TOPIC = System.getProperty("benchmark.outbox.topic", "benchmark.outbox");
+	private static final long TIMEOUT_MS = Long.getLong("benchmark.outbox.timeout-ms", 300_000L);
+
+	private final String runId = "BENCH-" + UUID.randomUUID().toString().substring(0, 8);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${payment.outbox.relay-mode}")
+	private String relayMode;
+
+	@AfterAll
+	void cleanup() {
+		jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_type = 'BENCHMARK' AND aggregate_id = ?",
+				runId);
+	}
+
+	@Test
+	void relayThroughputAndLag() throws InterruptedException {
+		long started = System.nanoTime();
+		// One autocommitted statement per commit; created_at is the row's own insert time
+		for (int written = 0; written < EVENTS; written += EVENTS_PER_COMMIT) {
+			jdbcTemplate.update("INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, topic, "
+					+ "payload, status, retry_count, created_at) "
+					+ "SELECT gen_random_uuid()::text, 'BENCHMARK', ?, 'BenchmarkEvent', ?, "
+					+ "'{\"sequence\":' || g || '}', 'PENDING', 0, clock_timestamp()::timestamp "
+					+ "FROM generate_series(?, ?) g",
+					runId, TOPIC, written + 1, Math.min(written + EVENTS_PER_COMMIT, EVENTS));
+		}
+		long writtenAt = System.nanoTime();
+
+		long deadline = writtenAt + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+		int sent = 0;
+		while (System.nanoTime() < deadline) {
+			sent = count("SENT");
+			if (sent == EVENTS) {
+				break;
+			}
+			Thread.sleep(20);
+		}
+		long relayedAt = System.nanoTime();
+
+		double writeSeconds = (writtenAt - started) / 1e9;
+		double totalSeconds = (relayedAt - started) / 1e9;
+		System.out.printf("%n=== outbox relay, %s mode, %,d events in commits of %d ===%n", relayMode, EVENTS,
+				EVENTS_PER_COMMIT);
+		System.out.printf("write             %14.2f s %,12.0f events/s%n", writeSeconds, EVENTS / writeSeconds);
+		System.out.printf("write to relayed  %14.2f s %,12.0f events/s%n", totalSeconds, sent / totalSeconds);
+		System.out.printf("drain after write %14.2f s%n", (relayedAt - writtenAt) / 1e9);
+
+		List<Map<String, Object>> lag = jdbcTemplate.queryForList(
+				"SELECT percentile_cont(p) WITHIN GROUP (ORDER BY extract(epoch FROM processed_at - created_at)) "
+						+ "* 1000 AS ms, p FROM outbox_events, unnest(ARRAY[0.5, 0.95, 0.99, 1.0]) p "
+						+ "WHERE aggregate_type = 'BENCHMARK' AND aggregate_id = ? AND status = 'SENT' GROUP BY p "
+						+ "ORDER BY p",
+				runId);
+		lag.forEach(row -> System.out.printf("lag p%-14s %10.1f ms%n",
+				Math.round(((Number) row.get("p")).doubleValue() * 100), ((Number) row.get("ms")).doubleValue()));
+
+		assertThat(sent).as("events marked SENT").isEqualTo(EVENTS);
+		assertThat(count("FAILED")).isZero();
+	}
+
+	private int count(String status) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE aggregate_type = 'BENCHMARK' "
+				+ "AND aggregate_id = ? AND status = ?", Integer.class, runId, status);
+	}
+}
@@ -0,0 +1,361 @@
+package com.payment_service.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment_service.DTOs.BillPaymentRequest;
+import com.payment_service.DTOs.CardPaymentRequest;
+import com.payment_service.DTOs.UpiPaymentRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end throughput benchmark for the three payment entry points. Requests
+ * go through MockMvc, so the security chain, the idempotency filter, the
+ * controller, the sagas and the real Postgres/Redis/Kafka round trips are all
+ * on the measured path; only the external HTTP dependencies are replaced by
+ * {@link GatewaySimulator}. Postgres, Redis and Kafka run in throwaway
+ * containers ({@link BenchmarkContainers}), so only Docker is needed.
+ *
+ * Each run checks that at least {@code -Dbenchmark.min-throughput} req/s
+ * (50 by default) got through with no unhandled errors, that no request
+ * created more than one payment, and that concurrent replays of one
+ * Idempotency-Key all get the first request's answer from a single payment.
+ *
+ * Excluded from the regular build. Run with {@code mvn -o -Pbenchmark test};
+ * tune with
+ * {@code -Dbenchmark.requests}, {@code -Dbenchmark.concurrency},
+ * {@code -Dbenchmark.warmup}, {@code -Dbenchmark.card.gateway} and the
+ * {@code benchmark.gateway.*} / {@code benchmark.services.*} profile
+ * properties (latency-ms, tail-mean-ms, error-rate, decline-rate).
+ *
+ * DB and Redis counts are deltas over the measured window divided by the
+ * number of requests, so they include whatever the background relays and
+ * schedulers did in that window. Redis counts cover the Lettuce connection
+ * only; Redisson locks and topics are not included.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.com.payment_service=WARN",
+		"logging.level.com.payment_service.benchmark=INFO",
+		"logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureMockMvc
+@Import(BenchmarkContainers.class)
+class PaymentThroughputBenchmark {
+
+	private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2000);
+	private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+	private static final int WARMUP = Integer.getInteger("benchmark.warmup", 200);
+	private static final String CARD_GATEWAY = System.getProperty("benchmark.card.gateway", "AUTO");
+	private static final double MIN_THROUGHPUT = Double.parseDouble(
+			System.getProperty("benchmark.min-throughput", "50"));
+	private static final int REPLAYS = Integer.getInteger("benchmark.replays", 8);
+
+	// The fraud quick-check gives up after 50ms, so internal services default to a few ms
+	private static final GatewaySimulator SIMULATOR = startSimulator(
+			GatewaySimulator.Profile.fromSystemProperties("benchmark.gateway",
+					new GatewaySimulator.Profile(40, 25, 0.005, 0.02)),
+			GatewaySimulator.Profile.fromSystemProperties("benchmark.services",
+					new GatewaySimulator.Profile(2, 3, 0.0, 0.0)));
+
+	// Rate limiting is per user, so every request gets its own user
+	private static final AtomicLong USER_IDS = new AtomicLong(System.currentTimeMillis() % 100_000_000L * 1_000);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void simulatorProperties(DynamicPropertyRegistry registry) {
+		registry.add("payment.gateway.razorpay.base-url", SIMULATOR::razorpayUrl);
+		registry.add("payment.gateway.razorpay.api-key", () -> "rzp_test_benchmark");
+		registry.add("payment.gateway.razorpay.api-secret", () -> "benchmark");
+		registry.add("payment.gateway.stripe.base-url", SIMULATOR::stripeUrl);
+		registry.add("payment.gateway.stripe.secret-key", () -> "sk_test_benchmark");
+		registry.add("services.account-service.url", SIMULATOR::baseUrl);
+		registry.add("services.fraud-service.url", SIMULATOR::baseUrl);
+		registry.add("services.merchant-service.url", SIMULATOR::baseUrl);
+		registry.add("services.notification-service.url", SIMULATOR::baseUrl);
+	}
+
+	@AfterAll
+	static void stopSimulator() {
+		SIMULATOR.close();
+	}
+
+	@Test
+	void cardPayments() throws Exception {
+		run("card", "/api/v1/payments/card", userId -> CardPaymentRequest.builder()
+				.userId(userId)
+				.accountId(userId)
+				.merchantId(1L)
+				.amount(new BigDecimal("499.00"))
+				.currency("INR")
+				.cardToken("tok_" + UUID.randomUUID().toString().replace("-", ""))
+				.cardLastFour("4242")
+				.cardBrand("VISA")
+				.gatewayName(CARD_GATEWAY)
+				.description("benchmark")
+				.build());
+	}
+
+	@Test
+	void upiPayments() throws Exception {
+		run("upi", "/api/v1/payments/upi", userId -> UpiPaymentRequest.builder()
+				.userId(userId)
+				.accountId(userId)
+				.amount(new BigDecimal("250.00"))
+				.upiId("bench" + userId + "@okbank")
+				.recipientName("Benchmark Merchant")
+				.description("benchmark")
+				.build());
+	}
+
+	@Test
+	void billPayments() throws Exception {
+		run("bill", "/api/v1/payments/bill", userId -> BillPaymentRequest.builder()
+				.userId(userId)
+				.accountId(userId)
+				.amount(new BigDecimal("1200.00"))
+				.billerId("ELEC-" + (userId % 50))
+				.billNumber("BN" + userId)
+				.billerName("Electricity Board")
+				.description("benchmark")
+				.build());
+	}
+
+	private void run(String name, String path, LongFunction<Object> requestFactory) throws Exception {
+		drive(path, requestFactory, WARMUP, new long[WARMUP], new ConcurrentHashMap<>());
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		long redisBefore = redisCommandCount();
+		SIMULATOR.resetCounts();
+
+		long[] latencies = new long[REQUESTS];
+		Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+		long firstUser = USER_IDS.get() + 1;
+		long elapsed = drive(path, requestFactory, REQUESTS, latencies, statuses);
+		long lastUser = USER_IDS.get();
+
+		long statements = statistics.getPrepareStatementCount();
+		long transactions = statistics.getTransactionCount();
+		long redisCommands = redisCommandCount() - redisBefore;
+
+		report(name, elapsed, latencies, statuses, statements, transactions, redisCommands);
+
+		long accepted = statuses.entrySet().stream()
+				.filter(entry -> entry.getKey() < 300)
+				.mapToLong(entry -> entry.getValue().sum())
+				.sum();
+		assertThat(statuses).as("%s unhandled errors", name).doesNotContainKey(500);
+		assertThat(accepted / (elapsed / 1e9)).as("%s accepted req/s", name).isGreaterThanOrEqualTo(MIN_THROUGHPUT);
+
+		// Every request had its own user and key, so no user may own two payments
+		Map<String, Object> rows = jdbcTemplate.queryForMap("SELECT COUNT(*) AS payments, "
+				+ "COUNT(DISTINCT user_id) AS users FROM payments WHERE user_id BETWEEN ? AND ?", firstUser, lastUser);
+		assertThat(((Number) rows.get("payments")).longValue()).as("%s payments per user", name)
+				.isEqualTo(((Number) rows.get("users")).longValue())
+				.isGreaterThanOrEqualTo(accepted);
+
+		replay(name, path, requestFactory);
+	}
+
+	/**
+	 * Sends one request {@link #REPLAYS} times at once under the same
+	 * Idempotency-Key. One of them processes it, the others wait for it or
+	 * get its cached response, so all of them see the same answer.
+	 */
+	private void replay(String name, String path, LongFunction<Object> requestFactory) throws Exception {
+		long userId = USER_IDS.incrementAndGet();
+		String key = UUID.randomUUID().toString();
+		byte[] body = objectMapper.writeValueAsBytes(requestFactory.apply(userId));
+
+		ExecutorService senders = Executors.newFixedThreadPool(REPLAYS);
+		List<Future<MockHttpServletResponse>> sent = new ArrayList<>();
+		try {
+			for (int i = 0; i < REPLAYS; i++) {
+				sent.add(senders.submit(() -> perform(path, userId, key, body)));
+			}
+			List<MockHttpServletResponse> responses = new ArrayList<>();
+			for (Future<MockHttpServletResponse> response : sent) {
+				responses.add(response.get(1, TimeUnit.MINUTES));
+			}
+
+			assertThat(responses).extracting(MockHttpServletResponse::getStatus).as("%s replay statuses", name)
+					.containsOnly(responses.get(0).getStatus());
+			if (responses.get(0).getStatus() < 300) {
+				Set<String> references = new HashSet<>();
+				for (MockHttpServletResponse response : responses) {
+					references.add(objectMapper.readTree(response.getContentAsByteArray())
+							.path("paymentReference").asText());
+				}
+				assertThat(references).as("%s replay payment references", name).hasSize(1);
+			}
+		} finally {
+			senders.shutdownNow();
+		}
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE user_id = ?", Integer.class,
+				userId)).as("%s payments for a replayed key", name).isLessThanOrEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = ?",
+				Integer.class, key)).isEqualTo(1);
+	}
+
+	/**
+	 * Fires {@code count} requests from {@link #CONCURRENCY} closed-loop
+	 * workers and returns the wall-clock time in nanoseconds.
+	 */
+	private long drive(String path, LongFunction<Object> requestFactory, int count, long[] latencies,
+			Map<Integer, LongAdder> statuses) throws InterruptedException {
+		AtomicInteger next = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+		long start = System.nanoTime();
+
+		for (int i = 0; i < CONCURRENCY; i++) {
+			workers.execute(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < count) {
+					long userId = USER_IDS.incrementAndGet();
+					long begin = System.nanoTime();
+					int status = send(path, userId, requestFactory.apply(userId));
+					latencies[index] = System.nanoTime() - begin;
+					statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+				}
+			});
+		}
+
+		workers.shutdown();
+		if (!workers.awaitTermination(30, TimeUnit.MINUTES)) {
+			workers.shutdownNow();
+			throw new IllegalStateException("Benchmark workers did not finish");
+		}
+		return System.nanoTime() - start;
+	}
+
+	private int send(String path, long userId, Object request) {
+		try {
+			return perform(path, userId, UUID.randomUUID().toString(), objectMapper.writeValueAsBytes(request))
+					.getStatus();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (Exception e) {
+			// Unhandled exceptions surface through MockMvc instead of as a 500
+			return 500;
+		}
+	}
+
+	private MockHttpServletResponse perform(String path, long userId, String idempotencyKey, byte[] body)
+			throws Exception {
+		return mockMvc.perform(post(path)
+				.with(jwt().jwt(token -> token.subject(String.valueOf(userId)))
+						.authorities(new SimpleGrantedAuthority("ROLE_USER")))
+				.header("Idempotency-Key", idempotencyKey)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+				.andReturn()
+				.getResponse();
+	}
+
+	private long redisCommandCount() {
+		return meterRegistry.find("lettuce.command.completion").timers().stream()
+				.mapToLong(Timer::count)
+				.sum();
+	}
+
+	private void report(String name, long elapsedNanos, long[] latencies, Map<Integer, LongAdder> statuses,
+			long statements, long transactions, long redisCommands) {
+		long[] sorted = latencies.clone();
+		Arrays.sort(sorted);
+		double seconds = elapsedNanos / 1e9;
+
+		Map<Integer, Long> statusCounts = new TreeMap<>();
+		statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+
+		StringBuilder out = new StringBuilder()
+				.append(String.format("=== %s payments: %d requests, concurrency %d ===%n", name, REQUESTS, CONCURRENCY))
+				.append(String.format("throughput        %10.1f req/s%n", REQUESTS / seconds))
+				.append(String.format("latency p50       %10.2f ms%n", percentile(sorted, 0.50) / 1e6))
+				.append(String.format("latency p99       %10.2f ms%n", percentile(sorted, 0.99) / 1e6))
+				.append(String.format("latency max       %10.2f ms%n", sorted[sorted.length - 1] / 1e6))
+				.append(String.format("db statements     %10.2f per payment%n", (double) statements / REQUESTS))
+				.append(String.format("db transactions   %10.2f per payment%n", (double) transactions / REQUESTS))
+				.append(String.format("redis commands    %10.2f per payment%n", (double) redisCommands / REQUESTS))
+				.append(String.format("http status       %s%n", statusCounts));
+		SIMULATOR.requestCounts().forEach((route, count) -> out.append(
+				String.format("  %-22s %8.2f per payment%n", route, (double) count / REQUESTS)));
+
+		log.info("Benchmark results{}{}", System.lineSeparator(), out);
+	}
+
+	private static long percentile(long[] sorted, double quantile) {
+		int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+	}
+
+	private static GatewaySimulator startSimulator(GatewaySimulator.Profile gateways,
+			GatewaySimulator.Profile services) {
+		try {
+			return GatewaySimulator.start(gateways, services);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
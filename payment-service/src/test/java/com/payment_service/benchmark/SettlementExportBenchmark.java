@@ -0,0 +1,235 @@
+package com.payment_service.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payment_service.DTOs.SettlementSummary;
+import com.payment_service.entity.Payment;
+import com.payment_service.enums.SettlementFileFormat;
+import com.payment_service.repository.PaymentRepository;
+import com.payment_service.service.SettlementExportService;
+
+/**
+ * Settlement export over a synthetic merchant. Seeds
+ * {@code -Dbenchmark.settlement.rows} completed payments (10M by default)
+ * with generate_series, then reports throughput and peak heap for the
+ * streaming exporter in both formats against the OFFSET-paged entity query
+ * it replaces. The paged baseline only reads the first
+ * {@code -Dbenchmark.settlement.baseline-rows} rows, because OFFSET paging
+ * over the full set is quadratic and would run for hours.
+ *
+ * Run with {@code mvn -o -Pbenchmark test -Dtest=SettlementExportBenchmark}
+ * against a local Postgres. The synthetic rows are deleted afterwards.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"logging.level.com.payment_service=WARN",
+		"logging.level.org.hibernate.SQL=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SettlementExportBenchmark {
+
+	private static final long ROWS = Long.getLong("benchmark.settlement.rows", 10_000_000L);
+	private static final int BASELINE_ROWS = Integer.getInteger("benchmark.settlement.baseline-rows", 200_000);
+	private static final int SEED_BATCH = 1_000_000;
+	private static final LocalDateTime FROM = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	// Far outside any real merchant id range
+	private final long merchantId = 9_000_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private SettlementExportService settlementExportService;
+
+	@BeforeAll
+	void seed() {
+		long started = System.nanoTime();
+		for (long from = 1; from <= ROWS; from += SEED_BATCH) {
+			long to = Math.min(from + SEED_BATCH - 1, ROWS);
+			jdbcTemplate.update(
+					"INSERT INTO payments (payment_reference, user_id, merchant_id, amount, tax_amount, fee_amount, "
+							+ "total_amount, refunded_amount, currency, status, payment_method, payment_type, "
+							+ "gateway_name, gateway_payment_id, created_at, updated_at, completed_at, version) "
+							+ "SELECT 'STL-' || ? || '-' || g, g % 100000, ?, a, round(a * 0.18, 2), round(a * 0.015, 2), "
+							+ "a + round(a * 0.18, 2) + round(a * 0.015, 2), CASE WHEN g % 50 = 0 THEN a ELSE 0 END, "
+							+ "'INR', 'COMPLETED', (ARRAY['CREDIT_CARD','DEBIT_CARD','UPI','NET_BANKING'])[1 + g % 4], "
+							+ "'MERCHANT_PAYMENT', 'RAZORPAY', 'pay_' || md5(g::text), "
+							+ "ts, ts, ts, 0 "
+							+ "FROM (SELECT g, (1 + (g % 50000) / 10.0)::numeric(19,4) AS a, "
+							+ "?::timestamp + make_interval(secs => g * 0.01) AS ts "
+							+ "FROM generate_series(?::bigint, ?::bigint) g) s",
+					merchantId, merchantId, FROM, from, to);
+		}
+		jdbcTemplate.execute("ANALYZE payments");
+		System.out.printf("%nSeeded %,d payments for merchant %d in %ds%n", ROWS, merchantId,
+				TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+	}
+
+	@AfterAll
+	void cleanup() {
+		jdbcTemplate.update("DELETE FROM payments WHERE merchant_id = ?", merchantId);
+	}
+
+	@Test
+	void streamingCsv() throws Exception {
+		exportAndReport(SettlementFileFormat.CSV);
+	}
+
+	@Test
+	void streamingFixedWidth() throws Exception {
+		exportAndReport(SettlementFileFormat.FIXED_WIDTH);
+	}
+
+	@Test
+	void exportReadsTheSettlementIndex() {
+		String plan = String.join("\n", jdbcTemplate.queryForList(
+				"EXPLAIN SELECT payment_reference FROM payments WHERE merchant_id = ? AND status = 'COMPLETED' "
+						+ "AND completed_at >= ? AND completed_at < ? ORDER BY completed_at, id",
+				String.class, merchantId, FROM, FROM.plusYears(10)));
+		System.out.printf("%n=== export plan ===%n%s%n", plan);
+		assertThat(plan).contains("idx_merchant_settlement");
+	}
+
+	@Test
+	void offsetPagedBaseline() {
+		int pageSize = 1000;
+		HeapSampler heap = HeapSampler.start();
+		long started = System.nanoTime();
+		long[] read = {0};
+		BigDecimal[] total = {BigDecimal.ZERO};
+
+		for (int page = 0; read[0] < BASELINE_ROWS; page++) {
+			int pageNumber = page;
+			boolean more = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+				Page<Payment> payments = paymentRepository.findCompletedMerchantPayments(
+						merchantId, PageRequest.of(pageNumber, pageSize));
+				payments.forEach(payment -> total[0] = total[0].add(payment.getTotalAmount()));
+				read[0] += payments.getNumberOfElements();
+				return payments.hasNext();
+			}));
+			if (!more) {
+				break;
+			}
+		}
+
+		long elapsed = System.nanoTime() - started;
+		report("OFFSET paged entities", read[0], elapsed, -1, heap.stop());
+		System.out.printf("  extrapolated to %,d rows: >= %ds (page cost grows with OFFSET)%n",
+				ROWS, TimeUnit.NANOSECONDS.toSeconds((long) (elapsed * ((double) ROWS / read[0]))));
+	}
+
+	private void exportAndReport(SettlementFileFormat format) throws Exception {
+		CountingOutputStream out = new CountingOutputStream();
+		HeapSampler heap = HeapSampler.start();
+		long started = System.nanoTime();
+
+		SettlementSummary summary = settlementExportService.export(merchantId, FROM,
+				FROM.plusYears(10), format, out);
+
+		long elapsed = System.nanoTime() - started;
+		report("streaming " + format, summary.getRows(), elapsed, out.count, heap.stop());
+		summary.getTotals().forEach(totals -> System.out.printf(
+				"  %s: %,d payments, total %s, fees %s, net %s%n", totals.getCurrency(), totals.getCount(),
+				totals.getTotalAmount().toPlainString(), totals.getFeeAmount().toPlainString(),
+				totals.getNetAmount().toPlainString()));
+
+		assertThat(summary.getRows()).isEqualTo(ROWS);
+	}
+
+	private static void report(String name, long rows, long elapsedNanos, long bytes, long peakHeapBytes) {
+		double seconds = elapsedNanos / 1e9;
+		System.out.printf("%n=== %s ===%n", name);
+		System.out.printf("rows              %,14d%n", rows);
+		System.out.printf("elapsed           %14.1f s%n", seconds);
+		System.out.printf("throughput        %,14.0f rows/s%n", rows / seconds);
+		if (bytes >= 0) {
+			System.out.printf("output            %14.1f MB (%.1f MB/s)%n", bytes / 1e6, bytes / 1e6 / seconds);
+		}
+		System.out.printf("peak heap used    %14.1f MB%n", peakHeapBytes / 1e6);
+	}
+
+	private static final class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+
+	/**
+	 * Samples used heap every 20ms on a daemon thread. Coarse, but enough to
+	 * tell a flat profile from one that grows with the row count.
+	 */
+	private static final class HeapSampler {
+		private final AtomicBoolean running = new AtomicBoolean(true);
+		private final AtomicLong peak = new AtomicLong();
+		private final Thread thread;
+
+		private HeapSampler() {
+			MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+			System.gc();
+			thread = new Thread(() -> {
+				while (running.get()) {
+					peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+					try {
+						Thread.sleep(20);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}, "heap-sampler");
+			thread.setDaemon(true);
+		}
+
+		static HeapSampler start() {
+			HeapSampler sampler = new HeapSampler();
+			sampler.thread.start();
+			return sampler;
+		}
+
+		long stop() {
+			running.set(false);
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return peak.get();
+		}
+	}
+}
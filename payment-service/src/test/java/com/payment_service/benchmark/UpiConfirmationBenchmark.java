@@ -0,0 +1,347 @@
+package com.payment_service.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment_service.DTOs.UpiCallbackRequest;
+import com.payment_service.DTOs.UpiPaymentRequest;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load test for asynchronous UPI confirmation. Starts
+ * {@code -Dbenchmark.upi.payments} UPI payments (2,000 by default) from
+ * {@code -Dbenchmark.concurrency} workers, then confirms half of them
+ * through signed gateway callbacks and leaves the rest to the status
+ * poller. Reports initiation and callback latency, the most pool
+ * connections in use at once, and how long confirmation took.
+ *
+ * The saga used to sleep-poll for up to three minutes holding a request
+ * thread and a connection per payment; the assertions check that starting
+ * a payment no longer waits for its confirmation, that the pool never runs
+ * dry, and that duplicate callbacks change nothing.
+ *
+ * Run with {@code mvn -o -Pbenchmark test -Dtest=UpiConfirmationBenchmark}
+ * against the local infrastructure (Postgres, Redis, Kafka), like
+ * {@link PaymentThroughputBenchmark}. The payments are left in place under
+ * their synthetic users.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"logging.level.com.payment_service=WARN",
+		"logging.level.com.payment_service.benchmark=INFO",
+		"logging.level.org.hibernate.SQL=WARN",
+		"payment.upi.callback-secret=" + UpiConfirmationBenchmark.CALLBACK_SECRET,
+		"payment.upi.poll-interval-ms=200",
+		"payment.upi.poll-min-age=PT1S"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UpiConfirmationBenchmark {
+
+	static final String CALLBACK_SECRET = "benchmark-upi-secret";
+
+	private static final int PAYMENTS = Integer.getInteger("benchmark.upi.payments", 2000);
+	private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+	private static final long CONFIRM_TIMEOUT_MS = Long.getLong("benchmark.upi.confirm-timeout-ms", 120_000L);
+
+	private static final GatewaySimulator SIMULATOR = startSimulator();
+
+	// Rate limiting is per user, so every payment gets its own user
+	private static final AtomicLong USER_IDS = new AtomicLong(System.currentTimeMillis() % 100_000_000L * 1_000);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@DynamicPropertySource
+	static void simulatorProperties(DynamicPropertyRegistry registry) {
+		registry.add("services.account-service.url", SIMULATOR::baseUrl);
+		registry.add("services.fraud-service.url", SIMULATOR::baseUrl);
+		registry.add("services.merchant-service.url", SIMULATOR::baseUrl);
+		registry.add("services.notification-service.url", SIMULATOR::baseUrl);
+	}
+
+	@AfterAll
+	void stopSimulator() {
+		SIMULATOR.close();
+	}
+
+	@Test
+	void confirmationsDoNotHoldRequestsOrConnections() throws Exception {
+		int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+		PoolSampler pool = PoolSampler.start(dataSource.unwrap(HikariDataSource.class));
+
+		// Phase 1: start the payments; each request returns once the collect request is out
+		List<String> references = Collections.synchronizedList(new ArrayList<>());
+		long started = System.nanoTime();
+		long[] initiation = drive(PAYMENTS, index -> initiate(references));
+		double initiationSeconds = (System.nanoTime() - started) / 1e9;
+		assertThat(references).hasSize(PAYMENTS);
+
+		List<String> upiTransactionIds = new ArrayList<>(PAYMENTS);
+		for (String reference : references) {
+			Map<String, Object> row = jdbcTemplate.queryForMap(
+					"SELECT status, upi_transaction_id FROM payments WHERE payment_reference = ?", reference);
+			// The poller may already have settled the earliest ones
+			assertThat(row.get("status")).as("status of %s", reference).isIn("PROCESSING", "COMPLETED");
+			upiTransactionIds.add((String) row.get("upi_transaction_id"));
+		}
+
+		// Phase 2: callbacks for the first half; the poller settles the rest, and whichever
+		// path comes second for a payment finds it settled
+		int viaCallback = PAYMENTS / 2;
+		double duplicatesBefore = duplicateCallbacks();
+		long confirmStarted = System.nanoTime();
+		long[] callbacks = drive(viaCallback, index -> callback(upiTransactionIds.get(index)));
+		long[] duplicates = drive(viaCallback, index -> callback(upiTransactionIds.get(index)));
+
+		long deadline = confirmStarted + TimeUnit.MILLISECONDS.toNanos(CONFIRM_TIMEOUT_MS);
+		int completed = 0;
+		while (System.nanoTime() < deadline) {
+			completed = countCompleted(references);
+			if (completed == PAYMENTS) {
+				break;
+			}
+			Thread.sleep(100);
+		}
+		double confirmSeconds = (System.nanoTime() - confirmStarted) / 1e9;
+		int peakConnections = pool.stop();
+
+		StringBuilder out = new StringBuilder()
+				.append(String.format("=== UPI confirmation: %d payments, concurrency %d ===%n", PAYMENTS, CONCURRENCY))
+				.append(String.format("initiation        %10.1f req/s%n", PAYMENTS / initiationSeconds))
+				.append(latencies("initiation", initiation))
+				.append(latencies("callback", callbacks))
+				.append(latencies("duplicate callback", duplicates))
+				.append(String.format("all confirmed in  %10.2f s (callbacks sent for %d)%n", confirmSeconds,
+						viaCallback))
+				.append(String.format("peak connections  %10d of %d%n", peakConnections, poolSize));
+		log.info("Benchmark results{}{}", System.lineSeparator(), out);
+
+		assertThat(completed).as("payments COMPLETED").isEqualTo(PAYMENTS);
+		// A request that waited for confirmation would take seconds; the poller's min age alone is one
+		assertThat(percentile(initiation, 0.99)).as("initiation p99").isLessThan(TimeUnit.SECONDS.toNanos(1));
+		assertThat(peakConnections).as("peak pool connections").isLessThan(poolSize);
+		// Every repeated callback found its payment already settled and did nothing
+		assertThat(duplicateCallbacks() - duplicatesBefore).as("duplicate callbacks ignored")
+				.isGreaterThanOrEqualTo(viaCallback);
+	}
+
+	private int initiate(List<String> references) {
+		long userId = USER_IDS.incrementAndGet();
+		UpiPaymentRequest request = UpiPaymentRequest.builder()
+				.userId(userId)
+				.accountId(userId)
+				.amount(new BigDecimal("250.00"))
+				.upiId("bench" + userId + "@okbank")
+				.recipientName("Benchmark Merchant")
+				.description("benchmark")
+				.build();
+		MvcResult result = perform(() -> mockMvc.perform(post("/api/v1/payments/upi")
+				.with(jwt().jwt(token -> token.subject(String.valueOf(userId)))
+						.authorities(new SimpleGrantedAuthority("ROLE_USER")))
+				.header("Idempotency-Key", UUID.randomUUID().toString())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsBytes(request)))
+				.andReturn());
+		int status = result.getResponse().getStatus();
+		if (status < 300) {
+			try {
+				references.add(objectMapper.readTree(result.getResponse().getContentAsByteArray())
+						.get("paymentReference").asText());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return status;
+	}
+
+	private int callback(String upiTransactionId) {
+		UpiCallbackRequest callback = UpiCallbackRequest.builder()
+				.transactionId(upiTransactionId)
+				.status("SUCCESS")
+				.build();
+		return perform(() -> mockMvc.perform(post("/api/v1/payments/upi/callback")
+				.header("X-UPI-Signature", sign(callback))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsBytes(callback)))
+				.andReturn())
+				.getResponse().getStatus();
+	}
+
+	private double duplicateCallbacks() {
+		Counter counter = meterRegistry.find("payment.upi.confirmation.duplicate").tag("source", "callback").counter();
+		return counter != null ? counter.count() : 0;
+	}
+
+	private int countCompleted(List<String> references) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE payment_reference = ANY (?) "
+				+ "AND status = 'COMPLETED'", Integer.class, (Object) references.toArray(String[]::new));
+	}
+
+	/**
+	 * Runs {@code count} calls from {@link #CONCURRENCY} closed-loop workers
+	 * and returns each call's latency in nanoseconds, sorted.
+	 */
+	private static long[] drive(int count, IntUnaryOperator call) throws InterruptedException {
+		long[] latencies = new long[count];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+		for (int i = 0; i < CONCURRENCY; i++) {
+			workers.execute(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < count) {
+					long begin = System.nanoTime();
+					if (call.applyAsInt(index) >= 300) {
+						failures.incrementAndGet();
+					}
+					latencies[index] = System.nanoTime() - begin;
+				}
+			});
+		}
+		workers.shutdown();
+		if (!workers.awaitTermination(30, TimeUnit.MINUTES)) {
+			workers.shutdownNow();
+			throw new IllegalStateException("Benchmark workers did not finish");
+		}
+		assertThat(failures.get()).as("failed requests").isZero();
+		Arrays.sort(latencies);
+		return latencies;
+	}
+
+	private static MvcResult perform(MockMvcCall call) {
+		try {
+			return call.perform();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private interface MockMvcCall {
+		MvcResult perform() throws Exception;
+	}
+
+	private static String sign(UpiCallbackRequest callback) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(CALLBACK_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+			return HexFormat.of().formatHex(mac.doFinal(
+					(callback.getTransactionId() + "|" + callback.getStatus()).getBytes(StandardCharsets.UTF_8)));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String latencies(String name, long[] sorted) {
+		return String.format("%-18s p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%n", name,
+				percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+	}
+
+	private static long percentile(long[] sorted, double quantile) {
+		int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+	}
+
+	private static GatewaySimulator startSimulator() {
+		try {
+			return GatewaySimulator.start(new GatewaySimulator.Profile(40, 25, 0, 0),
+					new GatewaySimulator.Profile(2, 3, 0, 0));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Samples active pool connections every 5ms on a daemon thread.
+	 */
+	private static final class PoolSampler {
+		private final AtomicBoolean running = new AtomicBoolean(true);
+		private final AtomicInteger peak = new AtomicInteger();
+		private final Thread thread;
+
+		private PoolSampler(HikariDataSource hikari) {
+			thread = new Thread(() -> {
+				while (running.get()) {
+					if (hikari.getHikariPoolMXBean() != null) {
+						peak.accumulateAndGet(hikari.getHikariPoolMXBean().getActiveConnections(), Math::max);
+					}
+					try {
+						Thread.sleep(5);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}, "pool-sampler");
+			thread.setDaemon(true);
+		}
+
+		static PoolSampler start(HikariDataSource hikari) {
+			PoolSampler sampler = new PoolSampler(hikari);
+			sampler.thread.start();
+			return sampler;
+		}
+
+		int stop() throws InterruptedException {
+			running.set(false);
+			thread.join();
+			return peak.get();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.payment_service.clients;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GatewayRouterTest {
+
+	private CircuitBreakerRegistry breakers;
+	private ExecutorService executor;
+	private GatewayRouter router;
+
+	@BeforeEach
+	void setUp() {
+		breakers = CircuitBreakerRegistry.ofDefaults();
+		executor = Executors.newFixedThreadPool(4);
+		router = new GatewayRouter(breakers, executor, new SimpleMeterRegistry(),
+				List.of("RAZORPAY", "STRIPE"), 128, Duration.ofMinutes(1), 5, 0.25, 0.0,
+				Duration.ofMillis(300), true, Duration.ofMillis(5), Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void routesToFasterGateway() {
+		for (int i = 0; i < 10; i++) {
+			router.timed("RAZORPAY", stubGateway(40), ok -> true);
+			router.timed("STRIPE", stubGateway(5), ok -> true);
+		}
+
+		assertEquals("STRIPE", router.selectGateway(GatewayRouter.AUTO));
+		assertEquals("RAZORPAY", router.selectGateway("razorpay"));
+	}
+
+	@Test
+	void skipsGatewayWithOpenBreakerOrHighErrorRate() {
+		for (int i = 0; i < 10; i++) {
+			router.timed("RAZORPAY", stubGateway(1), ok -> true);
+			router.timed("STRIPE", stubGateway(20), ok -> true);
+		}
+		assertEquals("RAZORPAY", router.selectGateway(null));
+
+		breakers.circuitBreaker("razorpay").transitionToOpenState();
+		assertEquals("STRIPE", router.selectGateway(null));
+
+		breakers.circuitBreaker("razorpay").transitionToClosedState();
+		for (int i = 0; i < 10; i++) {
+			router.timed("RAZORPAY", stubGateway(1), ok -> false); // Brownout: fast but failing
+		}
+		assertEquals("STRIPE", router.selectGateway(null));
+	}
+
+	@Test
+	void hedgeReturnsFasterDuplicate() {
+		for (int i = 0; i < 10; i++) {
+			router.hedged("upi-status", stubGateway(5));
+		}
+
+		// First attempt stalls, the hedge fired after ~p95 answers quickly
+		AtomicInteger calls = new AtomicInteger();
+		long start = System.nanoTime();
+		String result = router.hedged("upi-status", () -> {
+			int attempt = calls.incrementAndGet();
+			return stubGateway(attempt == 1 ? 2000 : 5).get() + "-" + attempt;
+		});
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals("ok-2", result);
+		assertTrue(elapsedMs < 1000, "hedged call took " + elapsedMs + " ms");
+	}
+
+	private static Supplier<String> stubGateway(long latencyMs) {
+		return () -> {
+			try {
+				Thread.sleep(latencyMs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "ok";
+		};
+	}
+}
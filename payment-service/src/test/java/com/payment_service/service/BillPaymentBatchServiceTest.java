@@ -0,0 +1,265 @@
+package com.payment_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking_common.reference.ReferenceGenerator;
+import com.payment_service.DTOs.BillPaymentBatchResponse;
+import com.payment_service.DTOs.BillPaymentRequest;
+import com.payment_service.DTOs.BillerValidationResponse;
+import com.payment_service.DTOs.FraudCheckResult;
+import com.payment_service.DTOs.HoldResponse;
+import com.payment_service.DTOs.PaymentSagaData;
+import com.payment_service.DTOs.SagaResult;
+import com.payment_service.clients.AccountServiceClient;
+import com.payment_service.clients.FraudServiceClient;
+import com.payment_service.clients.PaymentGatewayClient;
+import com.payment_service.entity.Payment;
+import com.payment_service.enums.PaymentStatus;
+import com.payment_service.exception.ServiceUnavailableException;
+import com.payment_service.repository.PaymentRepository;
+import com.payment_service.scheduler.PaymentDeadlineScheduler;
+import com.payment_service.service.implementation.BillPaymentBatchServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BillPaymentBatchServiceTest {
+
+	private static final int PER_BILLER = 2;
+
+	private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+	private final PaymentSagaOrchestrator sagaOrchestrator = mock(PaymentSagaOrchestrator.class);
+	private final PaymentGatewayClient gatewayClient = mock(PaymentGatewayClient.class);
+	private final AccountServiceClient accountClient = mock(AccountServiceClient.class);
+	private final FraudServiceClient fraudClient = mock(FraudServiceClient.class);
+	private final OutboxService outboxService = mock(OutboxService.class);
+	private final PaymentAnalyticsService paymentAnalytics = mock(PaymentAnalyticsService.class);
+	private final ReferenceGenerator referenceGenerator = mock(ReferenceGenerator.class);
+	private final PaymentDeadlineScheduler deadlineScheduler = mock(PaymentDeadlineScheduler.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicLong ids = new AtomicLong();
+	private final AtomicInteger references = new AtomicInteger();
+
+	private ThreadPoolTaskExecutor laneExecutor;
+	private ThreadPoolTaskExecutor coordinatorExecutor;
+	private BillPaymentBatchService service;
+
+	@BeforeEach
+	void setUp() {
+		laneExecutor = executor(16, 64);
+		coordinatorExecutor = executor(1, 1);
+		service = new BillPaymentBatchServiceImpl(paymentRepository, sagaOrchestrator, gatewayClient, accountClient,
+				fraudClient, outboxService, paymentAnalytics, referenceGenerator,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), deadlineScheduler, laneExecutor,
+				coordinatorExecutor, meterRegistry);
+		ReflectionTestUtils.setField(service, "chunkSize", 3);
+		ReflectionTestUtils.setField(service, "perBillerConcurrency", PER_BILLER);
+		ReflectionTestUtils.setField(service, "reserveConcurrency", 4);
+
+		when(referenceGenerator.nextReference("PAY")).thenAnswer(invocation -> "PAY" + references.incrementAndGet());
+		when(paymentRepository.saveAll(any())).thenAnswer(invocation -> {
+			List<Payment> saved = new ArrayList<>();
+			invocation.<Iterable<Payment>>getArgument(0).forEach(payment -> {
+				if (payment.getId() == null) {
+					payment.setId(ids.incrementAndGet());
+				}
+				saved.add(payment);
+			});
+			return saved;
+		});
+		when(gatewayClient.validateBiller(anyString(), anyString()))
+				.thenReturn(BillerValidationResponse.builder().valid(true).build());
+		when(fraudClient.quickCheck(any(), any(), any(), anyString()))
+				.thenReturn(FraudCheckResult.builder().blocked(false).fraudScore(BigDecimal.ONE).build());
+		when(accountClient.placeHold(any(), any(), anyString(), anyString())).thenAnswer(invocation ->
+				HoldResponse.builder().success(true).holdReference("HOLD-" + invocation.getArgument(3)).build());
+		when(sagaOrchestrator.executeBillPaymentSaga(any()))
+				.thenAnswer(invocation -> SagaResult.success("saga", "Bill payment completed"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		laneExecutor.shutdown();
+		coordinatorExecutor.shutdown();
+	}
+
+	@Test
+	void paysEveryBillAndCheckpointsTheOutcomes() {
+		BillPaymentBatchResponse response = service.processBatch(List.of(
+				bill("ELEC", "E-1", "k1"), bill("ELEC", "E-2", "k2"), bill("WATER", "W-1", "k3"),
+				bill("GAS", "G-1", "k4")), "10.0.0.1").join();
+
+		assertThat(response.getSubmitted()).isEqualTo(4);
+		assertThat(response.getCompleted()).isEqualTo(4);
+		assertThat(response.getFailed()).isZero();
+		assertThat(response.getPayments()).extracting("status").containsOnly(PaymentStatus.COMPLETED);
+		verify(outboxService, times(4)).saveEvent(eq("PAYMENT"), anyString(), eq("PaymentCompleted"),
+				eq("banking.payment.status"), any());
+		verify(deadlineScheduler, times(4)).schedulePaymentExpiry(any(), any());
+		verify(paymentAnalytics, times(4)).recordOutcome(any());
+	}
+
+	@Test
+	void sagaRunsWithTheReservedHold() {
+		service.processBatch(List.of(bill("ELEC", "E-1", "k1")), "10.0.0.1").join();
+
+		verify(sagaOrchestrator).executeBillPaymentSaga(argThat(
+				data -> data.isFundsReserved() && ("HOLD-" + data.getPaymentReference()).equals(data.getHoldReference())));
+	}
+
+	@Test
+	void invalidOrBlockedBillsAreNotPaid() {
+		when(gatewayClient.validateBiller("ELEC", "E-BAD"))
+				.thenReturn(BillerValidationResponse.builder().valid(false).build());
+		when(fraudClient.quickCheck(any(), argThat(amount -> amount.compareTo(new BigDecimal("600")) > 0), any(),
+				anyString()))
+				.thenReturn(FraudCheckResult.builder().blocked(true).reason("velocity").build());
+
+		BillPaymentRequest large = bill("ELEC", "E-2", "k2");
+		large.setAmount(new BigDecimal("666.00"));
+
+		BillPaymentBatchResponse response = service.processBatch(List.of(
+				bill("ELEC", "E-BAD", "k1"), large, bill("ELEC", "E-3", "k3")), "10.0.0.1").join();
+
+		assertThat(response.getCompleted()).isEqualTo(1);
+		assertThat(response.getFailed()).isEqualTo(2);
+		ArgumentCaptor<Payment> outcomes = ArgumentCaptor.forClass(Payment.class);
+		verify(paymentAnalytics, times(3)).recordOutcome(outcomes.capture());
+		assertThat(outcomes.getAllValues()).extracting(Payment::getFailureReason)
+				.contains("Invalid biller information", "Payment blocked: velocity");
+		verify(sagaOrchestrator, times(1)).executeBillPaymentSaga(any());
+		verify(accountClient, times(1)).placeHold(any(), any(), anyString(), anyString());
+	}
+
+	@Test
+	void failedSagaFailsOnlyItsPayment() {
+		when(sagaOrchestrator.executeBillPaymentSaga(argThat(
+				data -> "W-1".equals(data.getBillNumber()))))
+				.thenReturn(SagaResult.failure("saga", "Biller timeout"));
+
+		BillPaymentBatchResponse response = service.processBatch(List.of(
+				bill("ELEC", "E-1", "k1"), bill("WATER", "W-1", "k2")), "10.0.0.1").join();
+
+		assertThat(response.getCompleted()).isEqualTo(1);
+		assertThat(response.getFailed()).isEqualTo(1);
+		verify(outboxService).saveEvent(eq("PAYMENT"), anyString(), eq("PaymentFailed"), anyString(), any());
+	}
+
+	@Test
+	void rerunReportsSettledPaymentsAndResumesInitiatedOnes() {
+		Payment settled = Payment.builder().id(100L).paymentReference("PAY-OLD-1").idempotencyKey("k1")
+				.status(PaymentStatus.COMPLETED).build();
+		Payment interrupted = Payment.builder().id(101L).paymentReference("PAY-OLD-2").idempotencyKey("k2")
+				.userId(7L).accountId(70L).billerId("ELEC").billNumber("E-2")
+				.totalAmount(new BigDecimal("100.00")).status(PaymentStatus.INITIATED).build();
+		when(paymentRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of(settled, interrupted));
+
+		BillPaymentBatchResponse response = service.processBatch(List.of(
+				bill("ELEC", "E-1", "k1"), bill("ELEC", "E-2", "k2"), bill("ELEC", "E-2", "k2")), "10.0.0.1").join();
+
+		assertThat(response.getSubmitted()).isEqualTo(3);
+		assertThat(response.getDuplicates()).isEqualTo(2);
+		assertThat(response.getCompleted()).isEqualTo(1);
+		assertThat(response.getPayments()).extracting("paymentReference").containsExactly("PAY-OLD-1", "PAY-OLD-2");
+		// Resumed under its original reference, so the hold and debit dedupe on it
+		verify(accountClient).placeHold(eq(70L), any(), anyString(), eq("PAY-OLD-2"));
+		verify(sagaOrchestrator, times(1)).executeBillPaymentSaga(any());
+		verify(deadlineScheduler, never()).schedulePaymentExpiry(any(), any());
+	}
+
+	@Test
+	void perBillerLanesStayWithinTheLimit() {
+		Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+		Map<String, AtomicInteger> peak = new ConcurrentHashMap<>();
+		when(sagaOrchestrator.executeBillPaymentSaga(any())).thenAnswer(invocation -> {
+			String biller = invocation.<PaymentSagaData>getArgument(0).getBillerId();
+			int now = inFlight.computeIfAbsent(biller, b -> new AtomicInteger()).incrementAndGet();
+			peak.computeIfAbsent(biller, b -> new AtomicInteger()).accumulateAndGet(now, Math::max);
+			Thread.sleep(20);
+			inFlight.get(biller).decrementAndGet();
+			return SagaResult.success("saga", "ok");
+		});
+		ReflectionTestUtils.setField(service, "chunkSize", 100);
+
+		List<BillPaymentRequest> bills = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			bills.add(bill(i % 2 == 0 ? "ELEC" : "WATER", "B-" + i, "k" + i));
+		}
+		assertThat(service.processBatch(bills, "10.0.0.1").join().getCompleted()).isEqualTo(12);
+
+		assertThat(peak.get("ELEC").get()).isBetween(1, PER_BILLER);
+		assertThat(peak.get("WATER").get()).isBetween(1, PER_BILLER);
+	}
+
+	@Test
+	void runsOffTheCallingThreadAndRefusesBatchesBeyondTheQueue() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		when(gatewayClient.validateBiller(anyString(), anyString())).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return BillerValidationResponse.builder().valid(true).build();
+		});
+
+		// One running, one queued; the caller is not blocked by either
+		var running = service.processBatch(List.of(bill("ELEC", "E-1", "k1")), "10.0.0.1");
+		var queued = service.processBatch(List.of(bill("ELEC", "E-2", "k2")), "10.0.0.1");
+		assertThat(running).isNotDone();
+
+		assertThatThrownBy(() -> service.processBatch(List.of(bill("ELEC", "E-3", "k3")), "10.0.0.1"))
+				.isInstanceOf(ServiceUnavailableException.class);
+		assertThat(meterRegistry.get("payment.bill.batch.rejected").counter().count()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(running.join().getCompleted()).isEqualTo(1);
+		assertThat(queued.join().getCompleted()).isEqualTo(1);
+	}
+
+	private static BillPaymentRequest bill(String billerId, String billNumber, String idempotencyKey) {
+		return BillPaymentRequest.builder()
+				.userId(7L)
+				.accountId(70L)
+				.amount(new BigDecimal("100.00"))
+				.billerId(billerId)
+				.billNumber(billNumber)
+				.billerName(billerId + " Board")
+				.idempotencyKey(idempotencyKey)
+				.build();
+	}
+
+	private static ThreadPoolTaskExecutor executor(int threads, int queue) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(queue);
+		executor.initialize();
+		return executor;
+	}
+}
@@ -0,0 +1,29 @@
+package com.transaction_service.DTOs;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferItemRequest {
+	@NotNull(message = "Destination account is required")
+    private Long destinationAccountId;
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @DecimalMax(value = "1000000.00", message = "Amount exceeds maximum limit")
+    private BigDecimal amount;
+    
+    @Size(max = 500, message = "Description too long")
+    private String description;
+}
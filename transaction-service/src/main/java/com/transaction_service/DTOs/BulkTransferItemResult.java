@@ -0,0 +1,27 @@
+package com.transaction_service.DTOs;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.transaction_service.enums.BulkTransferItemStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkTransferItemResult {
+	private Integer sequence;
+	private String itemReference;
+	private Long destinationAccountId;
+	private BigDecimal amount;
+	private BulkTransferItemStatus status;
+	private String failureReason;
+	private LocalDateTime processedAt;
+}
@@ -0,0 +1,31 @@
+package com.transaction_service.DTOs;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.transaction_service.enums.BulkTransferStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferJobResponse {
+	private String jobReference;
+	private Long sourceAccountId;
+	private String currency;
+	private BulkTransferStatus status;
+	private Integer totalItems;
+	private BigDecimal totalAmount;
+	private Integer processedItems;
+	private Integer succeededItems;
+	private Integer failedItems;
+	private BigDecimal succeededAmount;
+	private String failureReason;
+	private LocalDateTime createdAt;
+	private LocalDateTime completedAt;
+}
@@ -0,0 +1,36 @@
+package com.transaction_service.DTOs;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferRequest {
+	@NotNull(message = "Source account is required")
+    private Long sourceAccountId;
+    
+    @NotBlank(message = "Currency is required")
+    @Pattern(regexp = "^[A-Z]{3}$", message = "Invalid currency code")
+    private String currency = "INR";
+    
+    @Size(max = 500, message = "Description too long")
+    private String description;
+    
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 100000, message = "A bulk transfer accepts at most 100000 items")
+    private List<@Valid BulkTransferItemRequest> items;
+    
+    private String idempotencyKey; // Set from header
+}
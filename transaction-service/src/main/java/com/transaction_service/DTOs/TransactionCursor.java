@@ -0,0 +1,43 @@
+package com.transaction_service.DTOs;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Opaque position in a user's history ordered by (created_at DESC, id DESC).
+ * Encoded as URL-safe Base64 so clients treat it as a token.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionCursor {
+	private static final String SEPARATOR = "_";
+
+	private LocalDateTime createdAt;
+	private Long id;
+
+	public static TransactionCursor from(TransactionResponse last) {
+		return new TransactionCursor(last.getCreatedAt(), last.getId());
+	}
+
+	public String encode() {
+		// Postgres keeps microseconds; never hand out a finer position than the DB stores
+		String raw = createdAt.truncatedTo(ChronoUnit.MICROS) + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static TransactionCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int idx = raw.lastIndexOf(SEPARATOR);
+			return new TransactionCursor(LocalDateTime.parse(raw.substring(0, idx)),
+					Long.parseLong(raw.substring(idx + 1)));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+}
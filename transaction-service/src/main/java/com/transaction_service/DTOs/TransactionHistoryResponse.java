@@ -0,0 +1,27 @@
+package com.transaction_service.DTOs;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Keyset (cursor) page of a user's transaction history.
+ * totalElements is only populated when explicitly requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionHistoryResponse {
+	private List<TransactionResponse> content;
+	private int size;
+	private boolean hasMore;
+	private String nextCursor;
+	private Long totalElements;
+}
@@ -3,7 +3,6 @@ package com.transaction_service.client;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -48,23 +47,16 @@ private final WebClient webClient;
     }
     
     /**
-     * Deep fraud analysis (async)
+     * Deep fraud analysis (blocking - run on the side-effect executor).
+     * Failures propagate so the dispatcher counts them.
      */
-    public CompletableFuture<FraudAnalysisResult> deepAnalysis(TransferSagaData data) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return webClient.post()
-                    .uri("/api/v1/fraud/deep-analysis")
-                    .bodyValue(data)
-                    .retrieve()
-                    .bodyToMono(FraudAnalysisResult.class)
-                    .block(Duration.ofSeconds(5));
-                    
-            } catch (Exception e) {
-                log.error("Deep fraud analysis failed: {}", e.getMessage());
-                return null;
-            }
-        });
+    public FraudAnalysisResult deepAnalysis(TransferSagaData data) {
+        return webClient.post()
+            .uri("/api/v1/fraud/deep-analysis")
+            .bodyValue(data)
+            .retrieve()
+            .bodyToMono(FraudAnalysisResult.class)
+            .block(Duration.ofSeconds(5));
     }
     
     private FraudCheckResult quickCheckFallback(TransferSagaData data, Exception e) {
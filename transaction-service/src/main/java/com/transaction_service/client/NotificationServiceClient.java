@@ -1,5 +1,6 @@
 package com.transaction_service.client;
 
+import java.time.Duration;
 import java.util.Map;
 
 import org.springframework.stereotype.Service;
@@ -16,17 +17,16 @@ import lombok.extern.slf4j.Slf4j;
 public class NotificationServiceClient {
 	private final WebClient webClient;
 
+	/**
+	 * Blocking - run on the side-effect executor. Failures propagate so the
+	 * dispatcher counts them and times the whole call.
+	 */
 	public void sendTransactionNotification(TransferSagaData data) {
-		try {
-			webClient.post().uri("/api/v1/notifications/transaction")
-					.bodyValue(Map.of("userId", data.getUserId(), "transactionReference",
-							data.getTransactionReference(), "amount", data.getAmount(), "type", "TRANSFER_COMPLETED"))
-					.retrieve().bodyToMono(Void.class)
-					.subscribe(result -> log.info("Notification sent for: {}", data.getTransactionReference()),
-							error -> log.error("Failed to send notification: {}", error.getMessage()));
-
-		} catch (Exception e) {
-			log.error("Notification failed: {}", e.getMessage());
-		}
+		webClient.post().uri("/api/v1/notifications/transaction")
+				.bodyValue(Map.of("userId", data.getUserId(), "transactionReference",
+						data.getTransactionReference(), "amount", data.getAmount(), "type", "TRANSFER_COMPLETED"))
+				.retrieve().bodyToMono(Void.class)
+				.block(Duration.ofSeconds(5));
+		log.info("Notification sent for: {}", data.getTransactionReference());
 	}
 }
@@ -0,0 +1,75 @@
+package com.transaction_service.configuration;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class AsyncConfig {
+
+	/**
+	 * Bounded pool for post-transfer side effects (deep fraud analysis,
+	 * notifications). Keeps blocking HTTP calls off the common ForkJoin pool;
+	 * a full queue rejects instead of growing without limit.
+	 */
+	@Bean(name = "transferSideEffectExecutor")
+	public ThreadPoolTaskExecutor transferSideEffectExecutor(MeterRegistry meterRegistry,
+			@Value("${transaction.side-effects.core-pool-size:4}") int corePoolSize,
+			@Value("${transaction.side-effects.max-pool-size:16}") int maxPoolSize,
+			@Value("${transaction.side-effects.queue-capacity:1000}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(corePoolSize);
+		executor.setMaxPoolSize(maxPoolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("transfer-side-effect-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		executor.initialize();
+
+		// executor.queued, executor.active, executor.pool.size, executor.completed ...
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "transfer.side-effects");
+		return executor;
+	}
+
+	/**
+	 * Runs bulk transfer jobs (one thread per job).
+	 */
+	@Bean(name = "bulkTransferJobExecutor")
+	public ThreadPoolTaskExecutor bulkTransferJobExecutor(MeterRegistry meterRegistry,
+			@Value("${transaction.bulk.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(maxConcurrentJobs);
+		executor.setMaxPoolSize(maxConcurrentJobs);
+		executor.setQueueCapacity(1000);
+		executor.setThreadNamePrefix("bulk-transfer-");
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "transfer.bulk.jobs");
+		return executor;
+	}
+
+	/**
+	 * Bounded concurrency towards account-service for bulk credits. Caller runs
+	 * when saturated, which throttles the job thread instead of dropping work.
+	 */
+	@Bean(name = "bulkTransferCreditExecutor")
+	public ThreadPoolTaskExecutor bulkTransferCreditExecutor(MeterRegistry meterRegistry,
+			@Value("${transaction.bulk.credit-concurrency:16}") int creditConcurrency) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(creditConcurrency);
+		executor.setMaxPoolSize(creditConcurrency);
+		executor.setQueueCapacity(creditConcurrency * 4);
+		executor.setThreadNamePrefix("bulk-credit-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "transfer.bulk.credits");
+		return executor;
+	}
+}
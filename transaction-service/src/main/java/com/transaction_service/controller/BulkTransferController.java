@@ -0,0 +1,136 @@
+package com.transaction_service.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.transaction_service.DTOs.ApiResponseDTO;
+import com.transaction_service.DTOs.BulkTransferJobResponse;
+import com.transaction_service.DTOs.BulkTransferRequest;
+import com.transaction_service.exception.RateLimitExceededException;
+import com.transaction_service.service.BulkTransferService;
+import com.transaction_service.service.RateLimitService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/transactions/bulk")
+@RequiredArgsConstructor
+@Tag(name = "Bulk Transfers")
+@SecurityRequirement(name = "bearerAuth")
+public class BulkTransferController {
+	private final BulkTransferService bulkTransferService;
+	private final RateLimitService rateLimitService;
+
+	/**
+	 * Submit bulk transfer (up to 100k items) Idempotent via header Processed
+	 * asynchronously in chunks
+	 */
+	@PostMapping
+	@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+	@Operation(summary = "Create bulk transfer (payouts)")
+	public ResponseEntity<ApiResponseDTO<BulkTransferJobResponse>> createBulkTransfer(
+			@Valid @RequestBody BulkTransferRequest request,
+			@RequestHeader(value = "Idempotency-Key", required = true) String idempotencyKey,
+			Authentication authentication) {
+
+		Long userId = extractUserId(authentication);
+		checkRateLimit(userId);
+
+		request.setIdempotencyKey(idempotencyKey);
+		BulkTransferJobResponse response = bulkTransferService.createBulkTransfer(request, userId);
+
+		return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.body(ApiResponseDTO.success(response, "Bulk transfer accepted"));
+	}
+
+	/**
+	 * Submit bulk transfer as CSV: destinationAccountId,amount[,description]
+	 */
+	@PostMapping(value = "/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+	@Operation(summary = "Create bulk transfer from CSV file")
+	public ResponseEntity<ApiResponseDTO<BulkTransferJobResponse>> createBulkTransferFromFile(
+			@RequestPart("file") MultipartFile file, @RequestParam Long sourceAccountId,
+			@RequestParam(defaultValue = "INR") String currency,
+			@RequestParam(required = false) String description,
+			@RequestHeader(value = "Idempotency-Key", required = true) String idempotencyKey,
+			Authentication authentication) throws IOException {
+
+		Long userId = extractUserId(authentication);
+		checkRateLimit(userId);
+
+		BulkTransferRequest request = bulkTransferService.parseCsv(file.getInputStream(), sourceAccountId, currency,
+				description);
+		request.setIdempotencyKey(idempotencyKey);
+		BulkTransferJobResponse response = bulkTransferService.createBulkTransfer(request, userId);
+
+		return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.body(ApiResponseDTO.success(response, "Bulk transfer accepted"));
+	}
+
+	/**
+	 * Get bulk transfer progress
+	 */
+	@GetMapping("/{jobReference}")
+	@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+	public ResponseEntity<ApiResponseDTO<BulkTransferJobResponse>> getBulkTransfer(
+			@PathVariable String jobReference, Authentication authentication) {
+
+		Long userId = extractUserId(authentication);
+
+		return ResponseEntity.ok(ApiResponseDTO.success(bulkTransferService.getJob(jobReference, userId),
+				"Bulk transfer retrieved"));
+	}
+
+	/**
+	 * Stream per-item results as NDJSON
+	 */
+	@GetMapping(value = "/{jobReference}/results", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+	public ResponseEntity<StreamingResponseBody> streamResults(@PathVariable String jobReference,
+			Authentication authentication) {
+
+		Long userId = extractUserId(authentication);
+
+		// Resolve ownership before the response is committed
+		bulkTransferService.getJob(jobReference, userId);
+
+		StreamingResponseBody body = out -> bulkTransferService.streamResults(jobReference, userId, out);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	private void checkRateLimit(Long userId) {
+		if (!rateLimitService.checkLimit("bulk-transfer:" + userId, 5, Duration.ofMinutes(1))) {
+			throw new RateLimitExceededException("Too many bulk transfer requests");
+		}
+	}
+
+	private Long extractUserId(Authentication authentication) {
+		Jwt jwt = (Jwt) authentication.getPrincipal();
+		return Long.parseLong(jwt.getClaimAsString("user_id"));
+	}
+}
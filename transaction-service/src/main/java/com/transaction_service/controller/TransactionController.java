@@ -25,10 +25,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.transaction_service.DTOs.ApiResponseDTO;
 import com.transaction_service.DTOs.TransactionFilterRequest;
+import com.transaction_service.DTOs.TransactionHistoryResponse;
 import com.transaction_service.DTOs.TransactionResponse;
 import com.transaction_service.DTOs.TransactionSummaryResponse;
 import com.transaction_service.DTOs.TransferRequest;
 import com.transaction_service.exception.RateLimitExceededException;
+import com.transaction_service.scheduler.TransactionSummaryScheduler;
 import com.transaction_service.service.RateLimitService;
 import com.transaction_service.service.TransactionService;
 
@@ -50,6 +52,7 @@ import lombok.extern.slf4j.Slf4j;
 public class TransactionController {
 	private final TransactionService transactionService;
 	private final RateLimitService rateLimitService;
+	private final TransactionSummaryScheduler transactionSummaryScheduler;
 
 	/**
 	 * Create transfer transaction Idempotent via header Rate limited Input
@@ -106,6 +109,25 @@ public class TransactionController {
 		return ResponseEntity.ok(ApiResponseDTO.success(transactions, "Transactions retrieved successfully"));
 	}
 
+	/**
+	 * Get user transaction history Cursor (keyset) paginated No COUNT by default
+	 * First page served from recent-transactions cache
+	 */
+	@GetMapping("/history")
+	@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+	@Operation(summary = "Get transaction history (cursor paginated)")
+	public ResponseEntity<ApiResponseDTO<TransactionHistoryResponse>> getTransactionHistory(
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size,
+			@RequestParam(defaultValue = "false") boolean includeTotal, Authentication authentication) {
+
+		Long userId = extractUserId(authentication);
+
+		TransactionHistoryResponse history = transactionService.getTransactionHistory(userId, cursor, size,
+				includeTotal);
+
+		return ResponseEntity.ok(ApiResponseDTO.success(history, "Transactions retrieved successfully"));
+	}
+
 	/**
 	 * Get transaction by reference
 	 */
@@ -135,6 +157,23 @@ public class TransactionController {
 		return ResponseEntity.ok(ApiResponseDTO.success(summary, "Summary retrieved"));
 	}
 
+	/**
+	 * Get summary for a date range (week, month, year) Reads daily rollup rows
+	 */
+	@GetMapping("/summary/range")
+	@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+	public ResponseEntity<ApiResponseDTO<TransactionSummaryResponse>> getRangeSummary(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			Authentication authentication) {
+
+		Long userId = extractUserId(authentication);
+
+		TransactionSummaryResponse summary = transactionService.getUserSummary(userId, from, to);
+
+		return ResponseEntity.ok(ApiResponseDTO.success(summary, "Summary retrieved"));
+	}
+
 	/**
 	 * Cancel pending transaction
 	 */
@@ -163,6 +202,20 @@ public class TransactionController {
 		return ResponseEntity.ok(ApiResponseDTO.success(transactions, "Search completed"));
 	}
 
+	/**
+	 * Admin: Rebuild daily summary rollup from raw transactions
+	 */
+	@PostMapping("/admin/summaries/rebuild")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<ApiResponseDTO<Integer>> rebuildSummaries(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+		int rows = transactionSummaryScheduler.backfill(from, to);
+
+		return ResponseEntity.ok(ApiResponseDTO.success(rows, "Summary rebuild completed"));
+	}
+
 	private Long extractUserId(Authentication authentication) {
 		Jwt jwt = (Jwt) authentication.getPrincipal();
 		return Long.parseLong(jwt.getClaimAsString("user_id"));
@@ -0,0 +1,86 @@
+package com.transaction_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.transaction_service.enums.BulkTransferItemStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One payout line of a bulk transfer job. Rows are written with JDBC
+ * batches, so this mapping is used for reads.
+ */
+@Entity
+@Table(
+    name = "bulk_transfer_items",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_bulk_item_job_sequence", columnNames = {"job_id", "sequence"})
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false)
+    private Integer sequence;
+
+    @Column(name = "destination_account_id", nullable = false)
+    private Long destinationAccountId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BulkTransferItemStatus status;
+
+    @Column(name = "item_reference", nullable = false, length = 60)
+    private String itemReference;
+
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Idempotency key of the aggregate debit that covered this item, stamped
+    // before the debit is sent so a resumed job re-sends the same key and total
+    @Column(name = "debit_key", length = 80)
+    private String debitKey;
+
+    // Credit attempts, one per run that reached this item
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    // Set before the refund is sent; a resumed job replays it instead of crediting again
+    @Column(name = "refund_key", length = 80)
+    private String refundKey;
+
+    @Column(name = "refunded_amount", precision = 19, scale = 4)
+    private BigDecimal refundedAmount;
+}
@@ -0,0 +1,119 @@
+package com.transaction_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.transaction_service.enums.BulkTransferStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(
+    name = "bulk_transfer_jobs",
+    indexes = {
+        @Index(name = "idx_bulk_job_ref", columnList = "job_reference", unique = true),
+        @Index(name = "idx_bulk_job_idempotency", columnList = "idempotency_key", unique = true),
+        @Index(name = "idx_bulk_job_user", columnList = "user_id, created_at"),
+        @Index(name = "idx_bulk_job_status", columnList = "status, updated_at")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_reference", unique = true, nullable = false, length = 50)
+    private String jobReference;
+
+    @Column(name = "idempotency_key", unique = true, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "source_account_id", nullable = false)
+    private Long sourceAccountId;
+
+    @Column(length = 3, nullable = false)
+    private String currency;
+
+    @Column(length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private BulkTransferStatus status;
+
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount;
+
+    @Column(name = "hold_reference", length = 50)
+    private String holdReference;
+
+    @Column(name = "processed_items", nullable = false)
+    private Integer processedItems;
+
+    @Column(name = "succeeded_items", nullable = false)
+    private Integer succeededItems;
+
+    @Column(name = "failed_items", nullable = false)
+    private Integer failedItems;
+
+    @Column(name = "succeeded_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal succeededAmount;
+
+    // Checkpoint: every item with sequence <= this value has a final status
+    @Column(name = "last_processed_sequence", nullable = false)
+    private Integer lastProcessedSequence;
+
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+
+    // Failed attempts to place the aggregate hold; the job stays PENDING until the limit
+    @Column(name = "reserve_attempts")
+    private Integer reserveAttempts;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Version
+    private Long version;
+
+    public boolean isTerminal() {
+        return status == BulkTransferStatus.COMPLETED
+                || status == BulkTransferStatus.PARTIALLY_COMPLETED
+                || status == BulkTransferStatus.FAILED;
+    }
+}
@@ -25,7 +25,7 @@ import lombok.NoArgsConstructor;
 @Entity
 @Table(name = "saga_state", indexes = {
     @Index(name = "idx_saga_id", columnList = "saga_id", unique = true),
-    @Index(name = "idx_status", columnList = "status"),
+    @Index(name = "idx_saga_status", columnList = "status"),
     @Index(name = "idx_saga_type", columnList = "saga_type")
 })
 @Data
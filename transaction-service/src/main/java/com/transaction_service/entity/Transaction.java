@@ -35,7 +35,8 @@ import lombok.NoArgsConstructor;
         @Index(name = "idx_status", columnList = "status"),
         @Index(name = "idx_created_at", columnList = "created_at"),
         @Index(name = "idx_idempotency", columnList = "idempotency_key", unique = true),
-        @Index(name = "idx_composite", columnList = "user_id, status, created_at") // ✅ Composite for common queries
+        @Index(name = "idx_composite", columnList = "user_id, status, created_at"), // ✅ Composite for common queries
+        @Index(name = "idx_user_created_id", columnList = "user_id, created_at, id") // Keyset history pagination
     }
 )
 @Data
@@ -0,0 +1,72 @@
+package com.transaction_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.transaction_service.enums.TransactionStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rollup of transactions per user, per day (by created_at), per status.
+ * Maintained incrementally on status changes and rebuilt by the backfill job.
+ */
+@Entity
+@Table(
+    name = "transaction_daily_summaries",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_summary_user_date_status", columnNames = {"user_id", "summary_date", "status"})
+    },
+    indexes = {
+        @Index(name = "idx_daily_summary_date", columnList = "summary_date")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TransactionStatus status;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount;
+
+    @Column(name = "total_fees", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalFees;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
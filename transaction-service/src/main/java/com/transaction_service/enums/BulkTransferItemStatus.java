@@ -0,0 +1,7 @@
+package com.transaction_service.enums;
+
+public enum BulkTransferItemStatus {
+	PENDING,
+    COMPLETED,
+    FAILED
+}
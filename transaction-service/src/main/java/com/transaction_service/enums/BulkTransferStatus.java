@@ -0,0 +1,10 @@
+package com.transaction_service.enums;
+
+public enum BulkTransferStatus {
+	PENDING,             // Job and items persisted
+    FUNDS_RESERVED,      // Aggregate hold placed on source account
+    PROCESSING,          // Chunks being applied
+    COMPLETED,           // All items credited
+    PARTIALLY_COMPLETED, // Some items failed (refunded to source)
+    FAILED               // Nothing credited
+}
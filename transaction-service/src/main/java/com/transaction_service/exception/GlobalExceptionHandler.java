@@ -48,6 +48,20 @@ public class GlobalExceptionHandler {
             .body(ApiResponseDTO.error("400", ex.getMessage()));
     }
     
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiResponseDTO<Void>> handleNotFound(ResourceNotFoundException ex) {
+        return ResponseEntity
+            .status(HttpStatus.NOT_FOUND)
+            .body(ApiResponseDTO.error("404", ex.getMessage()));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponseDTO<Void>> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponseDTO.error("400", ex.getMessage()));
+    }
+    
     @ExceptionHandler(ServiceUnavailableException.class)
     public ResponseEntity<ApiResponseDTO<Void>> handleServiceUnavailable(ServiceUnavailableException ex) {
         log.error("Service unavailable: {}", ex.getMessage());
@@ -0,0 +1,586 @@
+package com.transaction_service.patterns;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction_service.DTOs.HoldResponse;
+import com.transaction_service.DTOs.TransferSagaData;
+import com.transaction_service.client.AccountServiceClient;
+import com.transaction_service.client.FraudCheckResult;
+import com.transaction_service.client.FraudServiceClient;
+import com.transaction_service.entity.BulkTransferItem;
+import com.transaction_service.entity.BulkTransferJob;
+import com.transaction_service.entity.Transaction;
+import com.transaction_service.enums.BulkTransferItemStatus;
+import com.transaction_service.enums.BulkTransferStatus;
+import com.transaction_service.enums.TransactionStatus;
+import com.transaction_service.enums.TransactionType;
+import com.transaction_service.repository.BulkTransferItemRepository;
+import com.transaction_service.repository.BulkTransferJobRepository;
+import com.transaction_service.service.OutboxService;
+import com.transaction_service.service.RecentTransactionCacheService;
+import com.transaction_service.service.TransactionSummaryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies a bulk transfer job:
+ * 1. One hold for the aggregate amount
+ * 2. Per chunk: a quick fraud check per item, one debit for the items that
+ *    passed, parallel credits, a refund per failed credit, then a single DB
+ *    transaction checkpointing the chunk with one transaction row per item
+ * 3. Release hold and finalize
+ *
+ * Every account-service call carries an idempotency key derived from item
+ * ids and recorded on the items before the call goes out, so a job
+ * interrupted mid-chunk is re-run from its checkpoint and re-sends exactly
+ * the same keys and amounts, whatever the chunk size is by then.
+ */
+@Slf4j
+@Component
+public class BulkTransferProcessor {
+	private static final String LOCK_PREFIX = "lock:transaction:bulk:";
+
+	private final BulkTransferJobRepository jobRepository;
+	private final BulkTransferItemRepository itemRepository;
+	private final AccountServiceClient accountClient;
+	private final FraudServiceClient fraudClient;
+	private final OutboxService outboxService;
+	private final TransactionSummaryService transactionSummaryService;
+	private final RecentTransactionCacheService recentTransactionCache;
+	private final TransactionTemplate transactionTemplate;
+	private final JdbcTemplate jdbcTemplate;
+	private final RedisTemplate<String, String> redisTemplate;
+	private final ThreadPoolTaskExecutor jobExecutor;
+	private final ThreadPoolTaskExecutor creditExecutor;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${transaction.bulk.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${transaction.bulk.lock-lease:PT5M}")
+	private Duration lockLease;
+
+	@Value("${transaction.bulk.max-reserve-attempts:5}")
+	private int maxReserveAttempts;
+
+	public BulkTransferProcessor(BulkTransferJobRepository jobRepository,
+			BulkTransferItemRepository itemRepository,
+			AccountServiceClient accountClient,
+			FraudServiceClient fraudClient,
+			OutboxService outboxService,
+			TransactionSummaryService transactionSummaryService,
+			RecentTransactionCacheService recentTransactionCache,
+			TransactionTemplate transactionTemplate,
+			JdbcTemplate jdbcTemplate,
+			RedisTemplate<String, String> redisTemplate,
+			@Qualifier("bulkTransferJobExecutor") ThreadPoolTaskExecutor jobExecutor,
+			@Qualifier("bulkTransferCreditExecutor") ThreadPoolTaskExecutor creditExecutor,
+			MeterRegistry meterRegistry) {
+		this.jobRepository = jobRepository;
+		this.itemRepository = itemRepository;
+		this.accountClient = accountClient;
+		this.fraudClient = fraudClient;
+		this.outboxService = outboxService;
+		this.transactionSummaryService = transactionSummaryService;
+		this.recentTransactionCache = recentTransactionCache;
+		this.transactionTemplate = transactionTemplate;
+		this.jdbcTemplate = jdbcTemplate;
+		this.redisTemplate = redisTemplate;
+		this.jobExecutor = jobExecutor;
+		this.creditExecutor = creditExecutor;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public void submit(Long jobId) {
+		jobExecutor.execute(() -> process(jobId));
+	}
+
+	/**
+	 * Resume jobs left unfinished by a crash or restart
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void resumeOnStartup() {
+		resumeStalledJobs();
+	}
+
+	@Scheduled(fixedDelay = 60000, initialDelay = 60000)
+	public void resumeStalledJobs() {
+		try {
+			List<Long> jobIds = jobRepository.findResumableJobIds(LocalDateTime.now().minus(lockLease));
+			if (!jobIds.isEmpty()) {
+				log.info("Resuming {} bulk transfer jobs", jobIds.size());
+				jobIds.forEach(this::submit);
+			}
+		} catch (Exception e) {
+			log.error("Error resuming bulk transfer jobs: {}", e.getMessage(), e);
+		}
+	}
+
+	public void process(Long jobId) {
+		String lockKey = LOCK_PREFIX + jobId;
+		String lockValue = UUID.randomUUID().toString();
+
+		if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, lockValue, lockLease))) {
+			log.debug("Bulk transfer job {} is already running elsewhere", jobId);
+			return;
+		}
+
+		try {
+			BulkTransferJob job = jobRepository.findById(jobId).orElse(null);
+			if (job == null || job.isTerminal()) {
+				return;
+			}
+
+			if (job.getHoldReference() == null && !reserveFunds(job)) {
+				return;
+			}
+			job = updateStatus(job.getId(), BulkTransferStatus.PROCESSING);
+
+			long startedAt = System.nanoTime();
+			int processedInRun = 0;
+
+			while (true) {
+				List<BulkTransferItem> chunk = itemRepository.findChunk(job.getId(),
+						job.getLastProcessedSequence(), PageRequest.of(0, chunkSize));
+				if (chunk.isEmpty()) {
+					break;
+				}
+
+				job = processChunk(job, chunk);
+				processedInRun += chunk.size();
+				redisTemplate.expire(lockKey, lockLease);
+			}
+
+			finalizeJob(job);
+
+			double seconds = Math.max((System.nanoTime() - startedAt) / 1e9, 0.001);
+			log.info("Bulk transfer {} finished: {} items in {}s ({} items/s)", job.getJobReference(),
+					processedInRun, String.format("%.1f", seconds), String.format("%.0f", processedInRun / seconds));
+
+		} catch (Exception e) {
+			// Leave the job in place; resumeStalledJobs picks it up from the checkpoint
+			log.error("Bulk transfer job {} interrupted: {}", jobId, e.getMessage(), e);
+			meterRegistry.counter("transactions.bulk.interrupted").increment();
+
+		} finally {
+			String currentValue = redisTemplate.opsForValue().get(lockKey);
+			if (lockValue.equals(currentValue)) {
+				redisTemplate.delete(lockKey);
+			}
+		}
+	}
+
+	// Helper methods
+
+	/**
+	 * Place the aggregate hold. The hold carries the job reference as its
+	 * idempotency key, so a failed attempt is left PENDING for
+	 * resumeStalledJobs to retry; the job only fails once the attempts run out.
+	 */
+	private boolean reserveFunds(BulkTransferJob job) {
+		try {
+			HoldResponse hold = accountClient.placeHold(job.getSourceAccountId(), job.getTotalAmount(),
+					"Bulk transfer " + job.getJobReference(), job.getJobReference());
+
+			transactionTemplate.executeWithoutResult(status -> {
+				BulkTransferJob current = jobRepository.findById(job.getId()).orElseThrow();
+				current.setHoldReference(hold.getHoldReference());
+				current.setStatus(BulkTransferStatus.FUNDS_RESERVED);
+				current.setFailureReason(null);
+				jobRepository.save(current);
+			});
+			return true;
+
+		} catch (Exception e) {
+			int attempts = (job.getReserveAttempts() != null ? job.getReserveAttempts() : 0) + 1;
+			String reason = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+
+			if (attempts < maxReserveAttempts) {
+				log.warn("Bulk transfer {} could not reserve funds (attempt {} of {}), will retry: {}",
+						job.getJobReference(), attempts, maxReserveAttempts, reason);
+				transactionTemplate.executeWithoutResult(status -> {
+					BulkTransferJob current = jobRepository.findById(job.getId()).orElseThrow();
+					current.setReserveAttempts(attempts);
+					current.setFailureReason(reason);
+					jobRepository.save(current);
+				});
+				return false;
+			}
+
+			log.warn("Bulk transfer {} could not reserve funds after {} attempts: {}", job.getJobReference(),
+					attempts, reason);
+			transactionTemplate.executeWithoutResult(status -> {
+				itemRepository.failPendingItems(job.getId(), BulkTransferItemStatus.FAILED, "Funds reservation failed");
+				BulkTransferJob current = jobRepository.findById(job.getId()).orElseThrow();
+				current.setStatus(BulkTransferStatus.FAILED);
+				current.setReserveAttempts(attempts);
+				current.setFailedItems(current.getTotalItems());
+				current.setProcessedItems(current.getTotalItems());
+				current.setFailureReason(reason);
+				current.setCompletedAt(LocalDateTime.now());
+				jobRepository.save(current);
+				publishJobEvent(current, "BulkTransferFailed");
+			});
+			return false;
+		}
+	}
+
+	private BulkTransferJob processChunk(BulkTransferJob job, List<BulkTransferItem> chunk) {
+		long chunkStart = System.nanoTime();
+
+		// Fraud check items not yet debited; blocked ones never enter a debit
+		List<BulkTransferItem> unscreened = chunk.stream()
+				.filter(item -> item.getStatus() == BulkTransferItemStatus.PENDING && item.getDebitKey() == null)
+				.toList();
+		Map<Long, FraudCheckResult> checks = screen(job, unscreened);
+		List<BulkTransferItem> cleared = unscreened.stream().filter(item -> !checks.get(item.getId()).isBlocked())
+				.toList();
+
+		// Record the debit key on the items before the debit goes out
+		String debitKey = cleared.isEmpty() ? null
+				: job.getJobReference() + "-" + cleared.get(0).getId() + "-" + cleared.get(cleared.size() - 1).getId()
+						+ "-DEBIT";
+		List<BulkTransferItem> payable = claim(chunk, checks, cleared, debitKey);
+
+		// One debit per key; an earlier run's key covers the same items and total as before
+		debit(job, payable);
+
+		// Credits in parallel on the bounded credit executor (caller runs when saturated)
+		List<CompletableFuture<String>> credits = new ArrayList<>(payable.size());
+		for (BulkTransferItem item : payable) {
+			credits.add(CompletableFuture.supplyAsync(() -> settle(job, item), creditExecutor));
+		}
+		Map<Long, String> errors = new HashMap<>();
+		for (int i = 0; i < payable.size(); i++) {
+			String error = credits.get(i).join();
+			if (error != null) {
+				errors.put(payable.get(i).getId(), error);
+			}
+		}
+
+		BigDecimal succeededAmount = BigDecimal.ZERO;
+		int failed = 0;
+		List<Object[]> updates = new ArrayList<>(chunk.size());
+		List<Transaction> transactions = new ArrayList<>(chunk.size());
+		LocalDateTime now = LocalDateTime.now();
+
+		for (BulkTransferItem item : chunk) {
+			// Fraud-blocked items were failed when the chunk was claimed
+			String error = item.getDebitKey() == null ? item.getFailureReason() : errors.get(item.getId());
+			if (error != null) {
+				failed++;
+			} else {
+				succeededAmount = succeededAmount.add(item.getAmount());
+			}
+			updates.add(new Object[] {
+					error == null ? BulkTransferItemStatus.COMPLETED.name() : BulkTransferItemStatus.FAILED.name(),
+					error, Timestamp.valueOf(now), item.getId() });
+			transactions.add(toTransaction(job, item, error, now));
+		}
+
+		int failedItems = failed;
+		BigDecimal chunkSucceededAmount = succeededAmount;
+		int lastSequence = chunk.get(chunk.size() - 1).getSequence();
+
+		// Checkpoint chunk: item statuses + history rows + rollup + job counters + outbox in one transaction
+		BulkTransferJob updated = transactionTemplate.execute(status -> {
+			jdbcTemplate.batchUpdate("UPDATE bulk_transfer_items SET status = ?, failure_reason = ?, "
+					+ "processed_at = ? WHERE id = ?", updates);
+			insertTransactions(transactions);
+			transactionSummaryService.recordNewTransactions(transactions);
+
+			BulkTransferJob current = jobRepository.findById(job.getId()).orElseThrow();
+			current.setProcessedItems(current.getProcessedItems() + chunk.size());
+			current.setSucceededItems(current.getSucceededItems() + chunk.size() - failedItems);
+			current.setFailedItems(current.getFailedItems() + failedItems);
+			current.setSucceededAmount(current.getSucceededAmount().add(chunkSucceededAmount));
+			current.setLastProcessedSequence(lastSequence);
+			BulkTransferJob saved = jobRepository.save(current);
+
+			outboxService.saveEvent("BULK_TRANSFER", saved.getJobReference(), "BulkTransferChunkProcessed",
+					"banking.transaction.status",
+					Map.of("jobReference", saved.getJobReference(),
+							"firstSequence", chunk.get(0).getSequence(),
+							"lastSequence", lastSequence,
+							"succeeded", chunk.size() - failedItems,
+							"failed", failedItems,
+							"succeededAmount", chunkSucceededAmount));
+			return saved;
+		});
+		recentTransactionCache.evict(job.getUserId());
+
+		meterRegistry.counter("transactions.bulk.items", "result", "completed").increment(chunk.size() - failed);
+		meterRegistry.counter("transactions.bulk.items", "result", "failed").increment(failed);
+		meterRegistry.timer("transactions.bulk.chunk.time").record(Duration.ofNanos(System.nanoTime() - chunkStart));
+		return updated;
+	}
+
+	private Map<Long, FraudCheckResult> screen(BulkTransferJob job, List<BulkTransferItem> items) {
+		List<CompletableFuture<FraudCheckResult>> futures = new ArrayList<>(items.size());
+		for (BulkTransferItem item : items) {
+			TransferSagaData data = TransferSagaData.builder()
+					.transactionReference(item.getItemReference())
+					.sourceAccountId(job.getSourceAccountId())
+					.destinationAccountId(item.getDestinationAccountId())
+					.amount(item.getAmount())
+					.currency(job.getCurrency())
+					.userId(job.getUserId())
+					.build();
+			futures.add(CompletableFuture.supplyAsync(() -> fraudClient.quickCheck(data), creditExecutor));
+		}
+
+		Map<Long, FraudCheckResult> checks = new HashMap<>();
+		for (int i = 0; i < items.size(); i++) {
+			checks.put(items.get(i).getId(), futures.get(i).join());
+		}
+		return checks;
+	}
+
+	/**
+	 * Fail the fraud-blocked items, stamp the debit key on the cleared ones and
+	 * count an attempt on everything about to be credited, in one transaction.
+	 *
+	 * @return the items to credit, with their debit key and attempt number
+	 */
+	private List<BulkTransferItem> claim(List<BulkTransferItem> chunk, Map<Long, FraudCheckResult> checks,
+			List<BulkTransferItem> cleared, String debitKey) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> blocked = new ArrayList<>();
+		checks.forEach((itemId, check) -> {
+			if (check.isBlocked()) {
+				blocked.add(new Object[] { truncate("Blocked by fraud rules: " + check.getReason()), now, itemId });
+			}
+		});
+
+		Set<Long> clearedSet = cleared.stream().map(BulkTransferItem::getId).collect(Collectors.toSet());
+		Long[] clearedIds = clearedSet.toArray(Long[]::new);
+		List<BulkTransferItem> payable = chunk.stream()
+				.filter(item -> item.getDebitKey() != null || clearedSet.contains(item.getId()))
+				.toList();
+		Long[] payableIds = payable.stream().map(BulkTransferItem::getId).toArray(Long[]::new);
+
+		Map<Long, Integer> attempts = new HashMap<>();
+		transactionTemplate.executeWithoutResult(status -> {
+			if (!blocked.isEmpty()) {
+				jdbcTemplate.batchUpdate("UPDATE bulk_transfer_items SET status = 'FAILED', failure_reason = ?, "
+						+ "processed_at = ? WHERE id = ?", blocked);
+			}
+			if (clearedIds.length > 0) {
+				jdbcTemplate.update(connection -> {
+					PreparedStatement statement = connection.prepareStatement(
+							"UPDATE bulk_transfer_items SET debit_key = ? WHERE id = ANY (?) AND debit_key IS NULL");
+					statement.setString(1, debitKey);
+					statement.setArray(2, connection.createArrayOf("bigint", clearedIds));
+					return statement;
+				});
+			}
+			if (payableIds.length > 0) {
+				jdbcTemplate.query(connection -> {
+					PreparedStatement statement = connection.prepareStatement(
+							"UPDATE bulk_transfer_items SET attempts = COALESCE(attempts, 0) + 1 "
+									+ "WHERE id = ANY (?) RETURNING id, attempts");
+					statement.setArray(1, connection.createArrayOf("bigint", payableIds));
+					return statement;
+				}, rs -> {
+					attempts.put(rs.getLong("id"), rs.getInt("attempts"));
+				});
+			}
+		});
+
+		for (BulkTransferItem item : chunk) {
+			FraudCheckResult check = checks.get(item.getId());
+			if (check != null && check.isBlocked()) {
+				item.setStatus(BulkTransferItemStatus.FAILED);
+				item.setFailureReason(truncate("Blocked by fraud rules: " + check.getReason()));
+			} else if (check != null) {
+				item.setDebitKey(debitKey);
+			}
+			if (attempts.containsKey(item.getId())) {
+				item.setAttempts(attempts.get(item.getId()));
+			}
+		}
+		return payable;
+	}
+
+	private void debit(BulkTransferJob job, List<BulkTransferItem> payable) {
+		String[] debitKeys = payable.stream().map(BulkTransferItem::getDebitKey).distinct().toArray(String[]::new);
+		if (debitKeys.length == 0) {
+			return;
+		}
+
+		// Totals over every item carrying the key, including ones an earlier, larger chunk already checkpointed
+		Map<String, BigDecimal> totals = new LinkedHashMap<>();
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(
+					"SELECT debit_key, SUM(amount) AS total FROM bulk_transfer_items "
+							+ "WHERE job_id = ? AND debit_key = ANY (?) GROUP BY debit_key ORDER BY debit_key");
+			statement.setLong(1, job.getId());
+			statement.setArray(2, connection.createArrayOf("varchar", debitKeys));
+			return statement;
+		}, rs -> {
+			totals.put(rs.getString("debit_key"), rs.getBigDecimal("total"));
+		});
+
+		totals.forEach((key, total) -> accountClient.debitWithIdempotency(job.getSourceAccountId(), total, key,
+				job.getJobReference()));
+	}
+
+	/**
+	 * Credit one item, refunding the source if the credit fails. Refund
+	 * failures propagate and interrupt the job, which resumes from the
+	 * checkpoint and replays the recorded refund.
+	 *
+	 * @return null on success, failure reason otherwise
+	 */
+	private String settle(BulkTransferJob job, BulkTransferItem item) {
+		if (item.getRefundKey() != null) {
+			// Refunded on an earlier attempt: never credit again, just make sure the refund landed
+			accountClient.creditWithIdempotency(job.getSourceAccountId(), item.getRefundedAmount(),
+					item.getRefundKey(), item.getItemReference());
+			return item.getFailureReason();
+		}
+
+		String error = credit(item);
+		if (error != null) {
+			refund(job, item, error);
+		}
+		return error;
+	}
+
+	/**
+	 * @return null on success, failure reason otherwise
+	 */
+	private String credit(BulkTransferItem item) {
+		try {
+			accountClient.creditWithIdempotency(item.getDestinationAccountId(), item.getAmount(),
+					item.getItemReference() + "-CREDIT", item.getItemReference());
+			return null;
+		} catch (Exception e) {
+			return truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+		}
+	}
+
+	private void refund(BulkTransferJob job, BulkTransferItem item, String reason) {
+		BigDecimal alreadyRefunded = item.getRefundedAmount() != null ? item.getRefundedAmount() : BigDecimal.ZERO;
+		BigDecimal refundAmount = item.getAmount().subtract(alreadyRefunded);
+		if (refundAmount.signum() <= 0) {
+			return;
+		}
+
+		// Record the refund first, keyed per item and attempt, so a crash before
+		// the checkpoint replays this refund rather than issuing another one
+		String refundKey = item.getItemReference() + "-REFUND-" + item.getAttempts();
+		int recorded = jdbcTemplate.update("UPDATE bulk_transfer_items SET refund_key = ?, "
+				+ "refunded_amount = COALESCE(refunded_amount, 0) + ?, failure_reason = ? "
+				+ "WHERE id = ? AND refund_key IS NULL", refundKey, refundAmount, reason, item.getId());
+		if (recorded == 0) {
+			throw new IllegalStateException("Refund already recorded for bulk item " + item.getItemReference());
+		}
+
+		accountClient.creditWithIdempotency(job.getSourceAccountId(), refundAmount, refundKey,
+				item.getItemReference());
+	}
+
+	private Transaction toTransaction(BulkTransferJob job, BulkTransferItem item, String error,
+			LocalDateTime now) {
+		boolean blocked = item.getDebitKey() == null;
+		return Transaction.builder()
+				.transactionReference(item.getItemReference())
+				.userId(job.getUserId())
+				.sourceAccountId(job.getSourceAccountId())
+				.destinationAccountId(item.getDestinationAccountId())
+				.amount(item.getAmount())
+				.feeAmount(BigDecimal.ZERO)
+				.currency(job.getCurrency())
+				.status(error == null ? TransactionStatus.COMPLETED : TransactionStatus.FAILED)
+				.type(TransactionType.TRANSFER)
+				.description(item.getDescription() != null ? item.getDescription() : job.getDescription())
+				.fraudStatus(blocked ? "REJECTED" : "APPROVED")
+				.failureReason(error)
+				.processedBy("BULK:" + job.getJobReference())
+				.createdAt(now)
+				.completedAt(error == null ? now : null)
+				.build();
+	}
+
+	private void insertTransactions(List<Transaction> transactions) {
+		jdbcTemplate.batchUpdate("INSERT INTO transactions (transaction_reference, user_id, source_account_id, "
+				+ "destination_account_id, amount, fee_amount, currency, status, type, description, fraud_status, "
+				+ "failure_reason, processed_by, created_at, updated_at, completed_at, version) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+				transactions.stream().map(t -> new Object[] {
+						t.getTransactionReference(), t.getUserId(), t.getSourceAccountId(),
+						t.getDestinationAccountId(), t.getAmount(), t.getFeeAmount(), t.getCurrency(),
+						t.getStatus().name(), t.getType().name(), t.getDescription(), t.getFraudStatus(),
+						t.getFailureReason(), t.getProcessedBy(), Timestamp.valueOf(t.getCreatedAt()),
+						Timestamp.valueOf(t.getCreatedAt()),
+						t.getCompletedAt() != null ? Timestamp.valueOf(t.getCompletedAt()) : null })
+						.toList());
+	}
+
+	private static String truncate(String reason) {
+		return reason.length() > 500 ? reason.substring(0, 500) : reason;
+	}
+
+	private void finalizeJob(BulkTransferJob job) {
+		accountClient.releaseHold(job.getHoldReference());
+
+		BulkTransferStatus finalStatus = job.getFailedItems() == 0 ? BulkTransferStatus.COMPLETED
+				: job.getSucceededItems() == 0 ? BulkTransferStatus.FAILED
+						: BulkTransferStatus.PARTIALLY_COMPLETED;
+
+		transactionTemplate.executeWithoutResult(status -> {
+			BulkTransferJob current = jobRepository.findById(job.getId()).orElseThrow();
+			current.setStatus(finalStatus);
+			current.setCompletedAt(LocalDateTime.now());
+			jobRepository.save(current);
+			publishJobEvent(current, "BulkTransferCompleted");
+		});
+	}
+
+	private BulkTransferJob updateStatus(Long jobId, BulkTransferStatus newStatus) {
+		return transactionTemplate.execute(status -> {
+			BulkTransferJob current = jobRepository.findById(jobId).orElseThrow();
+			current.setStatus(newStatus);
+			return jobRepository.save(current);
+		});
+	}
+
+	private void publishJobEvent(BulkTransferJob job, String eventType) {
+		outboxService.saveEvent("BULK_TRANSFER", job.getJobReference(), eventType, "banking.transaction.status",
+				Map.of("jobReference", job.getJobReference(),
+						"userId", job.getUserId(),
+						"sourceAccountId", job.getSourceAccountId(),
+						"status", job.getStatus().name(),
+						"totalItems", job.getTotalItems(),
+						"succeededItems", job.getSucceededItems(),
+						"failedItems", job.getFailedItems(),
+						"succeededAmount", job.getSucceededAmount()));
+	}
+}
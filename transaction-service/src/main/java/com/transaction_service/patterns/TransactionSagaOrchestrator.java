@@ -2,7 +2,6 @@ package com.transaction_service.patterns;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,7 +12,6 @@ import com.transaction_service.DTOs.TransferSagaData;
 import com.transaction_service.client.AccountServiceClient;
 import com.transaction_service.client.FraudCheckResult;
 import com.transaction_service.client.FraudServiceClient;
-import com.transaction_service.client.NotificationServiceClient;
 import com.transaction_service.entity.SagaState;
 import com.transaction_service.enums.SagaStatus;
 import com.transaction_service.exception.FraudException;
@@ -31,7 +29,7 @@ public class TransactionSagaOrchestrator {
     private final SagaStateRepository sagaStateRepository;
     private final AccountServiceClient accountClient;
     private final FraudServiceClient fraudClient;
-    private final NotificationServiceClient notificationClient;
+    private final TransferSideEffectDispatcher sideEffectDispatcher;
     private final TransactionRepository transactionRepository;
     private final OutboxService outboxService;
 
@@ -101,16 +99,13 @@ public class TransactionSagaOrchestrator {
             accountClient.releaseHold(hold.getHoldReference());
             updateSagaStep(sagaId, "RELEASE_HOLD", SagaStatus.PROCESSING);
 
-            // Step 7: Async fraud analysis (deep check)
-            CompletableFuture.runAsync(() -> fraudClient.deepAnalysis(sagaData));
-
-            // Step 8: Send notifications (async)
-            CompletableFuture.runAsync(() -> notificationClient.sendTransactionNotification(sagaData));
-
             // Complete saga
             completeSaga(sagaId);
             log.info("Saga [{}] completed successfully", sagaId);
 
+            // Step 7: Deep fraud analysis + notifications (bounded executor, after commit)
+            sideEffectDispatcher.dispatchCompletedTransfer(sagaData);
+
             return SagaResult.success(sagaId, "Transfer completed");
 
         } catch (Exception e) {
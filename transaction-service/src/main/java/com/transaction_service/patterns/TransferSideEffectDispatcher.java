@@ -0,0 +1,97 @@
+package com.transaction_service.patterns;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.transaction_service.DTOs.TransferSagaData;
+import com.transaction_service.client.FraudServiceClient;
+import com.transaction_service.client.NotificationServiceClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs post-transfer side effects on the bounded side-effect executor once
+ * the transfer has committed. The clients block and throw, so the latency
+ * timer covers each remote call end to end. Failures and rejections are
+ * counted and logged; the TransactionCompleted outbox event remains the
+ * durable record for downstream consumers.
+ */
+@Slf4j
+@Component
+public class TransferSideEffectDispatcher {
+	private static final String DEEP_FRAUD_ANALYSIS = "deep_fraud_analysis";
+	private static final String NOTIFICATION = "notification";
+
+	private final ThreadPoolTaskExecutor executor;
+	private final FraudServiceClient fraudClient;
+	private final NotificationServiceClient notificationClient;
+	private final MeterRegistry meterRegistry;
+
+	public TransferSideEffectDispatcher(
+			@Qualifier("transferSideEffectExecutor") ThreadPoolTaskExecutor executor,
+			FraudServiceClient fraudClient,
+			NotificationServiceClient notificationClient,
+			MeterRegistry meterRegistry) {
+		this.executor = executor;
+		this.fraudClient = fraudClient;
+		this.notificationClient = notificationClient;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public void dispatchCompletedTransfer(TransferSagaData sagaData) {
+		Runnable dispatch = () -> {
+			submit(DEEP_FRAUD_ANALYSIS, sagaData, () -> fraudClient.deepAnalysis(sagaData));
+			submit(NOTIFICATION, sagaData, () -> notificationClient.sendTransactionNotification(sagaData));
+		};
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					dispatch.run();
+				}
+			});
+		} else {
+			dispatch.run();
+		}
+	}
+
+	private void submit(String type, TransferSagaData sagaData, Runnable task) {
+		long enqueuedAt = System.nanoTime();
+		try {
+			executor.execute(() -> {
+				long startedAt = System.nanoTime();
+				timer("transfer.side-effects.queue.wait", type).record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+				try {
+					task.run();
+				} catch (Exception e) {
+					meterRegistry.counter("transfer.side-effects.failed", "type", type).increment();
+					log.error("Side effect {} failed for {}: {}", type, sagaData.getTransactionReference(),
+							e.getMessage());
+				} finally {
+					timer("transfer.side-effects.latency", type).record(System.nanoTime() - startedAt,
+							TimeUnit.NANOSECONDS);
+				}
+			});
+		} catch (TaskRejectedException | RejectedExecutionException e) {
+			meterRegistry.counter("transfer.side-effects.rejected", "type", type).increment();
+			log.warn("Side effect {} rejected for {} (queue full)", type, sagaData.getTransactionReference());
+		}
+	}
+
+	private Timer timer(String name, String type) {
+		return Timer.builder(name)
+				.tag("type", type)
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,27 @@
+package com.transaction_service.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.transaction_service.entity.BulkTransferItem;
+import com.transaction_service.enums.BulkTransferItemStatus;
+
+public interface BulkTransferItemRepository extends JpaRepository<BulkTransferItem, Long> {
+
+	// Keyset chunk after the job checkpoint (unique job_id, sequence index)
+	@Query("SELECT i FROM BulkTransferItem i WHERE i.jobId = :jobId AND i.sequence > :afterSequence "
+			+ "ORDER BY i.sequence ASC")
+	List<BulkTransferItem> findChunk(@Param("jobId") Long jobId, @Param("afterSequence") int afterSequence,
+			Pageable pageable);
+
+	@Modifying
+	@Query("UPDATE BulkTransferItem i SET i.status = :status, i.failureReason = :reason, "
+			+ "i.processedAt = CURRENT_TIMESTAMP WHERE i.jobId = :jobId AND i.status = 'PENDING'")
+	int failPendingItems(@Param("jobId") Long jobId, @Param("status") BulkTransferItemStatus status,
+			@Param("reason") String reason);
+}
@@ -0,0 +1,22 @@
+package com.transaction_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.transaction_service.entity.BulkTransferJob;
+
+public interface BulkTransferJobRepository extends JpaRepository<BulkTransferJob, Long> {
+	Optional<BulkTransferJob> findByJobReference(String jobReference);
+
+	Optional<BulkTransferJob> findByIdempotencyKey(String idempotencyKey);
+
+	// Jobs interrupted by a crash or an account-service outage
+	@Query("SELECT j.id FROM BulkTransferJob j WHERE j.status IN ('PENDING', 'FUNDS_RESERVED', 'PROCESSING') "
+			+ "AND j.updatedAt < :staleTime")
+	List<Long> findResumableJobIds(@Param("staleTime") LocalDateTime staleTime);
+}
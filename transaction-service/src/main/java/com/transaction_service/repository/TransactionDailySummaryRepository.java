@@ -0,0 +1,67 @@
+package com.transaction_service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.transaction_service.entity.TransactionDailySummary;
+
+public interface TransactionDailySummaryRepository extends JpaRepository<TransactionDailySummary, Long> {
+
+    // Atomic increment (or decrement with negative deltas) of one rollup bucket
+    @Modifying
+    @Query(value = "INSERT INTO transaction_daily_summaries " +
+            "(user_id, summary_date, status, transaction_count, total_amount, total_fees, updated_at) " +
+            "VALUES (:userId, :summaryDate, :status, :countDelta, :amountDelta, :feeDelta, now()) " +
+            "ON CONFLICT (user_id, summary_date, status) DO UPDATE SET " +
+            "transaction_count = transaction_daily_summaries.transaction_count + EXCLUDED.transaction_count, " +
+            "total_amount = transaction_daily_summaries.total_amount + EXCLUDED.total_amount, " +
+            "total_fees = transaction_daily_summaries.total_fees + EXCLUDED.total_fees, " +
+            "updated_at = now()", nativeQuery = true)
+    int applyDelta(
+            @Param("userId") Long userId,
+            @Param("summaryDate") LocalDate summaryDate,
+            @Param("status") String status,
+            @Param("countDelta") long countDelta,
+            @Param("amountDelta") BigDecimal amountDelta,
+            @Param("feeDelta") BigDecimal feeDelta);
+
+    // Range read: a handful of rows per user instead of scanning raw transactions
+    @Query(value = "SELECT " +
+            "COALESCE(SUM(s.transaction_count), 0) as totalCount, " +
+            "COALESCE(SUM(s.total_amount), 0) as totalAmount, " +
+            "COALESCE(SUM(s.total_fees), 0) as totalFees " +
+            "FROM transaction_daily_summaries s " +
+            "WHERE s.user_id = :userId " +
+            "AND s.status = :status " +
+            "AND s.summary_date BETWEEN :from AND :to", nativeQuery = true)
+    TransactionSummaryProjection sumForRange(
+            @Param("userId") Long userId,
+            @Param("status") String status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_daily_summaries WHERE summary_date = :summaryDate", nativeQuery = true)
+    int deleteForDate(@Param("summaryDate") LocalDate summaryDate);
+
+    // Backfill: recompute one day from the raw table in a single set-based statement
+    @Modifying
+    @Query(value = "INSERT INTO transaction_daily_summaries " +
+            "(user_id, summary_date, status, transaction_count, total_amount, total_fees, updated_at) " +
+            "SELECT t.user_id, :summaryDate, t.status, COUNT(*), " +
+            "COALESCE(SUM(t.amount), 0), COALESCE(SUM(t.fee_amount), 0), now() " +
+            "FROM transactions t " +
+            "WHERE t.created_at >= :start AND t.created_at < :end " +
+            "AND t.status NOT IN ('INITIATED', 'FRAUD_CHECK_PENDING') " +
+            "GROUP BY t.user_id, t.status", nativeQuery = true)
+    int rebuildForDate(
+            @Param("summaryDate") LocalDate summaryDate,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+}
@@ -34,6 +34,29 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
     @Query(value = "SELECT t FROM Transaction t WHERE t.userId = :userId", countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.userId = :userId")
     Page<Transaction> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
+    long countByUserId(Long userId);
+
+    // Keyset history: newest first, served by idx_user_created_id (no OFFSET, no COUNT)
+    @Query(value = "SELECT * FROM transactions t " +
+            "WHERE t.user_id = :userId " +
+            "ORDER BY t.created_at DESC, t.id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Transaction> findLatestByUserId(
+            @Param("userId") Long userId,
+            @Param("limit") int limit);
+
+    // Keyset history: rows strictly older than the (created_at, id) cursor
+    @Query(value = "SELECT * FROM transactions t " +
+            "WHERE t.user_id = :userId " +
+            "AND (t.created_at, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.created_at DESC, t.id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Transaction> findByUserIdBeforeCursor(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("limit") int limit);
+
     // Optimized query with index hint
     @Query(value = "SELECT t FROM Transaction t " +
             "WHERE t.userId = :userId " +
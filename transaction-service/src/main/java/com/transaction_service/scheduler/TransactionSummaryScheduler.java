@@ -0,0 +1,42 @@
+package com.transaction_service.scheduler;
+
+import java.time.LocalDate;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.transaction_service.service.TransactionSummaryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionSummaryScheduler {
+	private final TransactionSummaryService transactionSummaryService;
+
+	/**
+	 * Reconcile yesterday's rollup against raw transactions
+	 */
+	@Scheduled(cron = "0 30 2 * * *") // 2:30 AM daily
+	public void reconcileYesterday() {
+		try {
+			transactionSummaryService.rebuildDay(LocalDate.now().minusDays(1));
+		} catch (Exception e) {
+			log.error("Error reconciling daily transaction summaries: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Backfill an inclusive date range, one transaction per day
+	 */
+	public int backfill(LocalDate from, LocalDate to) {
+		int rows = 0;
+		for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+			rows += transactionSummaryService.rebuildDay(day);
+		}
+		log.info("Daily transaction summary backfill {} -> {} completed: {} rows", from, to, rows);
+		return rows;
+	}
+}
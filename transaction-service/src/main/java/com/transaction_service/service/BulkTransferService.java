@@ -0,0 +1,19 @@
+package com.transaction_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.transaction_service.DTOs.BulkTransferJobResponse;
+import com.transaction_service.DTOs.BulkTransferRequest;
+
+public interface BulkTransferService {
+	public BulkTransferJobResponse createBulkTransfer(BulkTransferRequest request, Long userId);
+
+	public BulkTransferRequest parseCsv(InputStream csv, Long sourceAccountId, String currency, String description)
+			throws IOException;
+
+	public BulkTransferJobResponse getJob(String jobReference, Long userId);
+
+	public void streamResults(String jobReference, Long userId, OutputStream out) throws IOException;
+}
@@ -0,0 +1,24 @@
+package com.transaction_service.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.transaction_service.DTOs.TransactionResponse;
+
+public interface RecentTransactionCacheService {
+	public int getCapacity();
+
+	public Optional<List<TransactionResponse>> getRecent(Long userId);
+
+	/**
+	 * Version to pass to {@link #populate}; read it before querying, so the
+	 * rebuild is dropped if a write lands in between. Negative if unknown.
+	 */
+	public long currentVersion(Long userId);
+
+	public void populate(Long userId, List<TransactionResponse> transactions, long version);
+
+	public void recordTransaction(Long userId, TransactionResponse transaction);
+
+	public void evict(Long userId);
+}
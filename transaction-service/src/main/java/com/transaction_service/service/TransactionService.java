@@ -7,6 +7,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.transaction_service.DTOs.TransactionFilterRequest;
+import com.transaction_service.DTOs.TransactionHistoryResponse;
 import com.transaction_service.DTOs.TransactionResponse;
 import com.transaction_service.DTOs.TransactionSummaryResponse;
 import com.transaction_service.DTOs.TransferRequest;
@@ -16,8 +17,12 @@ public interface TransactionService {
 
 	public Page<TransactionResponse> getUserTransactions(Long userId, Pageable pageable);
 
+	public TransactionHistoryResponse getTransactionHistory(Long userId, String cursor, int size, boolean includeTotal);
+
 	public TransactionSummaryResponse getUserSummary(Long userId, LocalDate date);
 
+	public TransactionSummaryResponse getUserSummary(Long userId, LocalDate from, LocalDate to);
+
 	public TransactionResponse getTransactionByReference(String transactionReference);
 
 	public void cancelTransaction(String transactionReference, Long userId);
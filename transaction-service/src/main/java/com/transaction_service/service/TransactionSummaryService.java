@@ -0,0 +1,18 @@
+package com.transaction_service.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.transaction_service.DTOs.TransactionSummaryResponse;
+import com.transaction_service.entity.Transaction;
+import com.transaction_service.enums.TransactionStatus;
+
+public interface TransactionSummaryService {
+	public void recordStatusChange(Transaction transaction, TransactionStatus previousStatus);
+
+	public void recordNewTransactions(List<Transaction> transactions);
+
+	public TransactionSummaryResponse getSummary(Long userId, LocalDate from, LocalDate to, TransactionStatus status);
+
+	public int rebuildDay(LocalDate date);
+}
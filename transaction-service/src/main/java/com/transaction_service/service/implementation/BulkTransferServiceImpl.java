@@ -0,0 +1,308 @@
+package com.transaction_service.service.implementation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banking_common.reference.ReferenceGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction_service.DTOs.BulkTransferItemRequest;
+import com.transaction_service.DTOs.BulkTransferItemResult;
+import com.transaction_service.DTOs.BulkTransferJobResponse;
+import com.transaction_service.DTOs.BulkTransferRequest;
+import com.transaction_service.entity.BulkTransferItem;
+import com.transaction_service.entity.BulkTransferJob;
+import com.transaction_service.enums.BulkTransferStatus;
+import com.transaction_service.exception.ResourceNotFoundException;
+import com.transaction_service.patterns.BulkTransferProcessor;
+import com.transaction_service.repository.BulkTransferItemRepository;
+import com.transaction_service.repository.BulkTransferJobRepository;
+import com.transaction_service.service.BulkTransferService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkTransferServiceImpl implements BulkTransferService {
+    private static final int MAX_ITEMS = 100_000;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int RESULT_PAGE_SIZE = 1000;
+    private static final BigDecimal MAX_ITEM_AMOUNT = new BigDecimal("1000000.00");
+
+    private final BulkTransferJobRepository jobRepository;
+    private final BulkTransferItemRepository itemRepository;
+    private final BulkTransferProcessor bulkTransferProcessor;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceGenerator referenceGenerator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${transaction.bulk.max-total-amount:1000000000.00}")
+    private BigDecimal maxTotalAmount;
+
+    /**
+     * Create bulk transfer job:
+     * - Validate the whole file once
+     * - Persist job + items (JDBC batches)
+     * - Hand off to the processor after commit (hold, chunked credits)
+     */
+    @Transactional
+    public BulkTransferJobResponse createBulkTransfer(BulkTransferRequest request, Long userId) {
+        if (request.getIdempotencyKey() != null) {
+            Optional<BulkTransferJob> existing = jobRepository.findByIdempotencyKey(request.getIdempotencyKey());
+            if (existing.isPresent()) {
+                log.info("Duplicate bulk transfer request, returning existing job");
+                return mapToResponse(existing.get());
+            }
+        }
+
+        BigDecimal totalAmount = validate(request);
+
+        BulkTransferJob job = BulkTransferJob.builder()
+                .jobReference(referenceGenerator.nextReference("BULK"))
+                .idempotencyKey(request.getIdempotencyKey())
+                .userId(userId)
+                .sourceAccountId(request.getSourceAccountId())
+                .currency(request.getCurrency())
+                .description(request.getDescription())
+                .status(BulkTransferStatus.PENDING)
+                .totalItems(request.getItems().size())
+                .totalAmount(totalAmount)
+                .processedItems(0)
+                .succeededItems(0)
+                .failedItems(0)
+                .succeededAmount(BigDecimal.ZERO)
+                .lastProcessedSequence(0)
+                .reserveAttempts(0)
+                .build();
+        job = jobRepository.save(job);
+
+        insertItems(job, request.getItems());
+
+        Long jobId = job.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bulkTransferProcessor.submit(jobId);
+            }
+        });
+
+        log.info("Bulk transfer created: {} - {} items, total {}",
+                job.getJobReference(), job.getTotalItems(), totalAmount);
+        return mapToResponse(job);
+    }
+
+    /**
+     * CSV lines: destinationAccountId,amount[,description] (optional header row)
+     */
+    public BulkTransferRequest parseCsv(InputStream csv, Long sourceAccountId, String currency,
+            String description) throws IOException {
+        List<BulkTransferItemRequest> items = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            boolean firstRow = true;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1); // byte order mark from spreadsheet exports
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] cols = line.split(",", 3);
+                if (firstRow) {
+                    firstRow = false;
+                    if (isHeader(cols)) {
+                        continue;
+                    }
+                }
+                if (cols.length < 2) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected destinationAccountId,amount");
+                }
+                try {
+                    items.add(BulkTransferItemRequest.builder()
+                            .destinationAccountId(Long.parseLong(cols[0].trim()))
+                            .amount(new BigDecimal(cols[1].trim()))
+                            .description(cols.length > 2 ? cols[2].trim() : null)
+                            .build());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": invalid account or amount");
+                }
+                if (items.size() > MAX_ITEMS) {
+                    throw new IllegalArgumentException("A bulk transfer accepts at most " + MAX_ITEMS + " items");
+                }
+            }
+        }
+
+        return BulkTransferRequest.builder()
+                .sourceAccountId(sourceAccountId)
+                .currency(currency)
+                .description(description)
+                .items(items)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public BulkTransferJobResponse getJob(String jobReference, Long userId) {
+        return mapToResponse(findOwnedJob(jobReference, userId));
+    }
+
+    /**
+     * Write per-item results as NDJSON, paging by sequence so memory stays flat.
+     */
+    public void streamResults(String jobReference, Long userId, OutputStream out) throws IOException {
+        BulkTransferJob job = findOwnedJob(jobReference, userId);
+
+        int afterSequence = 0;
+        while (true) {
+            List<BulkTransferItem> page = itemRepository.findChunk(job.getId(), afterSequence,
+                    PageRequest.of(0, RESULT_PAGE_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (BulkTransferItem item : page) {
+                out.write(objectMapper.writeValueAsBytes(mapToResult(item)));
+                out.write('\n');
+            }
+            out.flush();
+            afterSequence = page.get(page.size() - 1).getSequence();
+        }
+    }
+
+    // Helper methods
+
+    // A header names both columns; a data row with a typo in one still fails as a data row
+    private static boolean isHeader(String[] cols) {
+        return !isNumber(cols[0]) && (cols.length < 2 || !isNumber(cols[1]));
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            new BigDecimal(value.trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private BigDecimal validate(BulkTransferRequest request) {
+        List<BulkTransferItemRequest> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one transfer is required");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("A bulk transfer accepts at most " + MAX_ITEMS + " items");
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items.size(); i++) {
+            BulkTransferItemRequest item = items.get(i);
+            if (item.getDestinationAccountId() == null || item.getAmount() == null) {
+                throw new IllegalArgumentException("Item " + (i + 1) + ": destination and amount are required");
+            }
+            if (item.getDestinationAccountId().equals(request.getSourceAccountId())) {
+                throw new IllegalArgumentException("Item " + (i + 1) + ": cannot transfer to source account");
+            }
+            if (item.getAmount().signum() <= 0 || item.getAmount().compareTo(MAX_ITEM_AMOUNT) > 0) {
+                throw new IllegalArgumentException("Item " + (i + 1) + ": invalid amount");
+            }
+            total = total.add(item.getAmount());
+        }
+
+        if (total.compareTo(maxTotalAmount) > 0) {
+            throw new IllegalArgumentException("Bulk transfer total exceeds maximum limit");
+        }
+        return total;
+    }
+
+    private void insertItems(BulkTransferJob job, List<BulkTransferItemRequest> items) {
+        String sql = "INSERT INTO bulk_transfer_items "
+                + "(job_id, sequence, destination_account_id, amount, description, status, item_reference, "
+                + "attempts, refunded_amount) "
+                + "VALUES (?, ?, ?, ?, ?, 'PENDING', ?, 0, 0)";
+
+        for (int from = 0; from < items.size(); from += INSERT_BATCH_SIZE) {
+            int offset = from;
+            int batchSize = Math.min(INSERT_BATCH_SIZE, items.size() - from);
+
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    BulkTransferItemRequest item = items.get(offset + i);
+                    int sequence = offset + i + 1;
+                    ps.setLong(1, job.getId());
+                    ps.setInt(2, sequence);
+                    ps.setLong(3, item.getDestinationAccountId());
+                    ps.setBigDecimal(4, item.getAmount());
+                    ps.setString(5, item.getDescription());
+                    ps.setString(6, job.getJobReference() + "-" + sequence);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batchSize;
+                }
+            });
+        }
+    }
+
+    private BulkTransferJob findOwnedJob(String jobReference, Long userId) {
+        BulkTransferJob job = jobRepository.findByJobReference(jobReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk transfer not found"));
+        if (!job.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Bulk transfer not found");
+        }
+        return job;
+    }
+
+    private BulkTransferJobResponse mapToResponse(BulkTransferJob job) {
+        return BulkTransferJobResponse.builder()
+                .jobReference(job.getJobReference())
+                .sourceAccountId(job.getSourceAccountId())
+                .currency(job.getCurrency())
+                .status(job.getStatus())
+                .totalItems(job.getTotalItems())
+                .totalAmount(job.getTotalAmount())
+                .processedItems(job.getProcessedItems())
+                .succeededItems(job.getSucceededItems())
+                .failedItems(job.getFailedItems())
+                .succeededAmount(job.getSucceededAmount())
+                .failureReason(job.getFailureReason())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private BulkTransferItemResult mapToResult(BulkTransferItem item) {
+        return BulkTransferItemResult.builder()
+                .sequence(item.getSequence())
+                .itemReference(item.getItemReference())
+                .destinationAccountId(item.getDestinationAccountId())
+                .amount(item.getAmount())
+                .status(item.getStatus())
+                .failureReason(item.getFailureReason())
+                .processedAt(item.getProcessedAt())
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.transaction_service.service.implementation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction_service.DTOs.TransactionResponse;
+import com.transaction_service.service.RecentTransactionCacheService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user "latest N transactions" list in Redis (newest first).
+ *
+ * Writers only prepend to an existing list (LPUSHX + LTRIM) after the DB
+ * commit, so a cold key is never filled with a partial history; readers
+ * rebuild cold keys from the keyset query.
+ *
+ * Every write and evict also bumps a per-user version. A reader takes the
+ * version before its query and the rebuild is dropped if it has moved, so
+ * a list built from a snapshot that misses a concurrent write is never
+ * installed. Both sides run as scripts, so nothing interleaves with the
+ * replace.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecentTransactionCacheServiceImpl implements RecentTransactionCacheService {
+	private static final String KEY_PREFIX = "txn:recent:";
+	private static final String VERSION_PREFIX = "txn:recent:version:";
+
+	// KEYS: list, version; ARGV: expected version, capacity, ttl ms, values...
+	private static final DefaultRedisScript<Long> POPULATE = new DefaultRedisScript<>(
+			"if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+			"redis.call('DEL', KEYS[1]) " +
+			"redis.call('RPUSH', KEYS[1], unpack(ARGV, 4)) " +
+			"redis.call('LTRIM', KEYS[1], 0, tonumber(ARGV[2]) - 1) " +
+			"redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+			"return 1",
+			Long.class);
+
+	// KEYS: list, version; ARGV: value, capacity, ttl ms
+	private static final DefaultRedisScript<Long> RECORD = new DefaultRedisScript<>(
+			"redis.call('INCR', KEYS[2]) " +
+			"redis.call('PEXPIRE', KEYS[2], ARGV[3]) " +
+			"local length = redis.call('LPUSHX', KEYS[1], ARGV[1]) " +
+			"if length > tonumber(ARGV[2]) then redis.call('LTRIM', KEYS[1], 0, tonumber(ARGV[2]) - 1) end " +
+			"return length",
+			Long.class);
+
+	// KEYS: list, version; ARGV: ttl ms
+	private static final DefaultRedisScript<Long> EVICT = new DefaultRedisScript<>(
+			"redis.call('INCR', KEYS[2]) " +
+			"redis.call('PEXPIRE', KEYS[2], ARGV[1]) " +
+			"return redis.call('DEL', KEYS[1])",
+			Long.class);
+
+	private final RedisTemplate<String, String> redisTemplate;
+	private final ObjectMapper objectMapper;
+
+	@Value("${transaction.history.recent-cache-size:50}")
+	private int capacity;
+
+	@Value("${transaction.history.recent-cache-ttl:PT30M}")
+	private Duration ttl;
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public Optional<List<TransactionResponse>> getRecent(Long userId) {
+		try {
+			List<String> cached = redisTemplate.opsForList().range(key(userId), 0, capacity - 1);
+			if (cached == null || cached.isEmpty()) {
+				return Optional.empty();
+			}
+
+			List<TransactionResponse> result = new ArrayList<>(cached.size());
+			for (String json : cached) {
+				result.add(objectMapper.readValue(json, TransactionResponse.class));
+			}
+			return Optional.of(result);
+
+		} catch (Exception e) {
+			log.warn("Recent transaction cache read failed for user {}: {}", userId, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	public long currentVersion(Long userId) {
+		try {
+			String version = redisTemplate.opsForValue().get(versionKey(userId));
+			return version == null ? 0L : Long.parseLong(version);
+		} catch (Exception e) {
+			log.warn("Recent transaction cache version read failed for user {}: {}", userId, e.getMessage());
+			return -1L;
+		}
+	}
+
+	public void populate(Long userId, List<TransactionResponse> transactions, long version) {
+		if (transactions.isEmpty() || version < 0) {
+			return;
+		}
+		try {
+			Object[] args = new Object[transactions.size() + 3];
+			args[0] = String.valueOf(version);
+			args[1] = String.valueOf(capacity);
+			args[2] = String.valueOf(ttl.toMillis());
+			for (int i = 0; i < transactions.size(); i++) {
+				args[i + 3] = objectMapper.writeValueAsString(transactions.get(i));
+			}
+
+			Long installed = redisTemplate.execute(POPULATE, List.of(key(userId), versionKey(userId)), args);
+			if (installed == null || installed == 0L) {
+				log.debug("Skipped recent transaction cache rebuild for user {}: written meanwhile", userId);
+			}
+
+		} catch (Exception e) {
+			log.warn("Recent transaction cache populate failed for user {}: {}", userId, e.getMessage());
+		}
+	}
+
+	public void recordTransaction(Long userId, TransactionResponse transaction) {
+		afterCommit(() -> {
+			try {
+				redisTemplate.execute(RECORD, List.of(key(userId), versionKey(userId)),
+						objectMapper.writeValueAsString(transaction), String.valueOf(capacity),
+						String.valueOf(ttl.toMillis()));
+			} catch (Exception e) {
+				log.warn("Recent transaction cache update failed for user {}: {}", userId, e.getMessage());
+				evictQuietly(userId);
+			}
+		});
+	}
+
+	public void evict(Long userId) {
+		afterCommit(() -> evictQuietly(userId));
+	}
+
+	private void evictQuietly(Long userId) {
+		try {
+			redisTemplate.execute(EVICT, List.of(key(userId), versionKey(userId)), String.valueOf(ttl.toMillis()));
+		} catch (Exception e) {
+			log.warn("Recent transaction cache evict failed for user {}: {}", userId, e.getMessage());
+		}
+	}
+
+	private void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	private String key(Long userId) {
+		return KEY_PREFIX + userId;
+	}
+
+	private String versionKey(Long userId) {
+		return VERSION_PREFIX + userId;
+	}
+}
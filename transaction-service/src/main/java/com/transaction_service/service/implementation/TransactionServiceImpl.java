@@ -4,12 +4,12 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import com.transaction_service.exception.ResourceNotFoundException;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,8 +18,11 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.banking_common.reference.ReferenceGenerator;
 import com.transaction_service.DTOs.SagaResult;
+import com.transaction_service.DTOs.TransactionCursor;
 import com.transaction_service.DTOs.TransactionFilterRequest;
+import com.transaction_service.DTOs.TransactionHistoryResponse;
 import com.transaction_service.DTOs.TransactionResponse;
 import com.transaction_service.DTOs.TransactionSummaryResponse;
 import com.transaction_service.DTOs.TransferRequest;
@@ -30,10 +33,11 @@ import com.transaction_service.enums.TransactionStatus;
 import com.transaction_service.enums.TransactionType;
 import com.transaction_service.patterns.TransactionSagaOrchestrator;
 import com.transaction_service.repository.TransactionRepository;
-import com.transaction_service.repository.TransactionSummaryProjection;
 import com.transaction_service.service.EventSourcingService;
 import com.transaction_service.service.OutboxService;
+import com.transaction_service.service.RecentTransactionCacheService;
 import com.transaction_service.service.TransactionService;
+import com.transaction_service.service.TransactionSummaryService;
 import com.transaction_service.specification.TransactionSpecification;
 
 import lombok.RequiredArgsConstructor;
@@ -43,10 +47,15 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
     private final TransactionSagaOrchestrator sagaOrchestrator;
     private final EventSourcingService eventSourcingService;
     private final OutboxService outboxService;
+    private final RecentTransactionCacheService recentTransactionCache;
+    private final TransactionSummaryService transactionSummaryService;
+    private final ReferenceGenerator referenceGenerator;
 
     /**
      * Create transfer with ALL patterns:
@@ -73,7 +82,7 @@ public class TransactionServiceImpl implements TransactionService {
             }
         }
 
-        // 2. Generate unique transaction reference (database sequence)
+        // 2. Generate unique, time-ordered transaction reference
         String txnRef = generateTransactionReference();
 
         // 3. Create transaction (INITIATED)
@@ -127,6 +136,9 @@ public class TransactionServiceImpl implements TransactionService {
 
         transaction = transactionRepository.save(transaction);
 
+        // INITIATED is never rolled up, so only the final status is recorded
+        transactionSummaryService.recordStatusChange(transaction, null);
+
         // 7. Publish to outbox
         outboxService.saveEvent(
                 "TRANSACTION",
@@ -135,15 +147,17 @@ public class TransactionServiceImpl implements TransactionService {
                 "banking.transaction.status",
                 transaction);
 
+        TransactionResponse response = mapToResponse(transaction);
+        recentTransactionCache.recordTransaction(userId, response);
+
         log.info("Transfer created: {} - Status: {}", txnRef, transaction.getStatus());
-        return mapToResponse(transaction);
+        return response;
     }
 
     /**
-     * Get user transactions
+     * Get user transactions (offset pagination with total count)
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "userTransactions", key = "#userId + '-' + #pageable.pageNumber")
     public Page<TransactionResponse> getUserTransactions(Long userId, Pageable pageable) {
         Page<Transaction> transactions = transactionRepository
                 .findByUserId(userId, pageable);
@@ -152,28 +166,85 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     /**
-     * Get transaction summary
+     * Get user transaction history with keyset pagination on (createdAt, id).
+     * No COUNT unless asked for; first page comes from the recent cache.
      */
     @Transactional(readOnly = true)
-    public TransactionSummaryResponse getUserSummary(Long userId, LocalDate date) {
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.plusDays(1).atStartOfDay();
+    public TransactionHistoryResponse getTransactionHistory(Long userId, String cursor, int size,
+            boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
 
-        // ✅ Single aggregate query (no loops, no N+1)
-        TransactionSummaryProjection summary = transactionRepository
-                .getUserTransactionSummary(userId, "COMPLETED", start, end);
+        List<TransactionResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = getLatestTransactions(userId, pageSize);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository
+                    .findByUserIdBeforeCursor(userId, position.getCreatedAt(), position.getId(), pageSize + 1)
+                    .stream()
+                    .map(this::mapToResponse)
+                    .toList();
+        }
 
-        return TransactionSummaryResponse.builder()
-                .totalTransactions(summary.getTotalCount())
-                .totalAmount(summary.getTotalAmount())
-                .totalFees(summary.getTotalFees())
+        // One extra row tells us whether another page exists
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionResponse> content = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return TransactionHistoryResponse.builder()
+                .content(content)
+                .size(content.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? TransactionCursor.from(content.get(content.size() - 1)).encode() : null)
+                .totalElements(includeTotal ? transactionRepository.countByUserId(userId) : null)
                 .build();
     }
 
+    /**
+     * Get transaction summary (served from daily rollup)
+     */
+    @Transactional(readOnly = true)
+    public TransactionSummaryResponse getUserSummary(Long userId, LocalDate date) {
+        return getUserSummary(userId, date, date);
+    }
+
+    /**
+     * Get transaction summary for a date range (inclusive), one rollup row per day
+     */
+    @Transactional(readOnly = true)
+    public TransactionSummaryResponse getUserSummary(Long userId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        return transactionSummaryService.getSummary(userId, from, to, TransactionStatus.COMPLETED);
+    }
+
     // Helper methods
+    private List<TransactionResponse> getLatestTransactions(Long userId, int pageSize) {
+        int capacity = recentTransactionCache.getCapacity();
+        if (pageSize >= capacity) {
+            return transactionRepository.findLatestByUserId(userId, pageSize + 1)
+                    .stream()
+                    .map(this::mapToResponse)
+                    .toList();
+        }
+
+        // The cache holds min(capacity, total) rows, so it always covers pageSize + 1
+        Optional<List<TransactionResponse>> cached = recentTransactionCache.getRecent(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long version = recentTransactionCache.currentVersion(userId);
+        List<TransactionResponse> latest = transactionRepository.findLatestByUserId(userId, capacity)
+                .stream()
+                .map(this::mapToResponse)
+                .toList();
+        recentTransactionCache.populate(userId, latest, version);
+        return latest;
+    }
+
     private String generateTransactionReference() {
-        // Use PostgreSQL sequence for guaranteed uniqueness
-        return "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8);
+        return referenceGenerator.nextReference("TXN");
     }
 
     private BigDecimal calculateFee(BigDecimal amount) {
@@ -225,8 +296,11 @@ public class TransactionServiceImpl implements TransactionService {
             throw new IllegalStateException("Cannot cancel transaction in status: " + transaction.getStatus());
         }
 
+        TransactionStatus previousStatus = transaction.getStatus();
         transaction.setStatus(TransactionStatus.CANCELLED);
         transactionRepository.save(transaction);
+        transactionSummaryService.recordStatusChange(transaction, previousStatus);
+        recentTransactionCache.evict(userId);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,117 @@
+package com.transaction_service.service.implementation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction_service.DTOs.TransactionSummaryResponse;
+import com.transaction_service.entity.Transaction;
+import com.transaction_service.enums.TransactionStatus;
+import com.transaction_service.repository.TransactionDailySummaryRepository;
+import com.transaction_service.repository.TransactionSummaryProjection;
+import com.transaction_service.service.TransactionSummaryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionSummaryServiceImpl implements TransactionSummaryService {
+	private final TransactionDailySummaryRepository summaryRepository;
+
+	/**
+	 * Move a transaction between status buckets of its day.
+	 * Runs inside the caller's transaction so the rollup commits with the row.
+	 * previousStatus == null means the transaction is new. Uncounted
+	 * statuses have no bucket, so leaving one only adds to the new bucket.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordStatusChange(Transaction transaction, TransactionStatus previousStatus) {
+		if (transaction.getStatus() == previousStatus) {
+			return;
+		}
+
+		LocalDate day = transaction.getCreatedAt().toLocalDate();
+		BigDecimal amount = transaction.getAmount();
+		BigDecimal fee = transaction.getFeeAmount() != null ? transaction.getFeeAmount() : BigDecimal.ZERO;
+
+		if (previousStatus != null && isCounted(previousStatus)) {
+			summaryRepository.applyDelta(transaction.getUserId(), day, previousStatus.name(),
+					-1, amount.negate(), fee.negate());
+		}
+		if (isCounted(transaction.getStatus())) {
+			summaryRepository.applyDelta(transaction.getUserId(), day, transaction.getStatus().name(),
+					1, amount, fee);
+		}
+	}
+
+	/**
+	 * Add a batch of new transactions, one delta per user, day and status
+	 * rather than one per row. Same transaction rules as recordStatusChange.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordNewTransactions(List<Transaction> transactions) {
+		Map<Bucket, Delta> deltas = new LinkedHashMap<>();
+		for (Transaction transaction : transactions) {
+			if (!isCounted(transaction.getStatus())) {
+				continue;
+			}
+			Bucket bucket = new Bucket(transaction.getUserId(), transaction.getCreatedAt().toLocalDate(),
+					transaction.getStatus());
+			deltas.computeIfAbsent(bucket, k -> new Delta()).add(transaction);
+		}
+
+		deltas.forEach((bucket, delta) -> summaryRepository.applyDelta(bucket.userId(), bucket.day(),
+				bucket.status().name(), delta.count, delta.amount, delta.fees));
+	}
+
+	@Transactional(readOnly = true)
+	public TransactionSummaryResponse getSummary(Long userId, LocalDate from, LocalDate to,
+			TransactionStatus status) {
+		TransactionSummaryProjection summary = summaryRepository.sumForRange(userId, status.name(), from, to);
+
+		return TransactionSummaryResponse.builder()
+				.totalTransactions(summary.getTotalCount())
+				.totalAmount(summary.getTotalAmount())
+				.totalFees(summary.getTotalFees())
+				.build();
+	}
+
+	/**
+	 * Recompute one day from raw transactions (backfill / reconciliation).
+	 */
+	@Transactional
+	public int rebuildDay(LocalDate date) {
+		summaryRepository.deleteForDate(date);
+		int rows = summaryRepository.rebuildForDate(date, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+		log.info("Rebuilt daily transaction summaries for {}: {} rows", date, rows);
+		return rows;
+	}
+
+	// Pre-flight statuses are never rolled up; rebuildForDate skips them too
+	private static boolean isCounted(TransactionStatus status) {
+		return status != TransactionStatus.INITIATED && status != TransactionStatus.FRAUD_CHECK_PENDING;
+	}
+
+	private record Bucket(Long userId, LocalDate day, TransactionStatus status) {
+	}
+
+	private static final class Delta {
+		private long count;
+		private BigDecimal amount = BigDecimal.ZERO;
+		private BigDecimal fees = BigDecimal.ZERO;
+
+		void add(Transaction transaction) {
+			count++;
+			amount = amount.add(transaction.getAmount());
+			fees = fees.add(transaction.getFeeAmount() != null ? transaction.getFeeAmount() : BigDecimal.ZERO);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+-- Tables as they stood before migrations were introduced. Databases that
+-- already had them are baselined below V1 (see spring.flyway in
+-- application.yml), so every statement only creates what is missing.
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    transaction_reference  VARCHAR(50)    NOT NULL,
+    idempotency_key        VARCHAR(100),
+    user_id                BIGINT         NOT NULL,
+    source_account_id      BIGINT         NOT NULL,
+    destination_account_id BIGINT         NOT NULL,
+    amount                 NUMERIC(19, 4) NOT NULL,
+    fee_amount             NUMERIC(19, 4),
+    currency               VARCHAR(3)     NOT NULL,
+    status                 VARCHAR(30)    NOT NULL,
+    type                   VARCHAR(30)    NOT NULL,
+    description            VARCHAR(500),
+    hold_reference         VARCHAR(50),
+    saga_id                VARCHAR(36),
+    correlation_id         VARCHAR(36),
+    fraud_score            NUMERIC(5, 2),
+    fraud_status           VARCHAR(20),
+    failure_reason         VARCHAR(500),
+    processed_by           VARCHAR(100),
+    created_at             TIMESTAMP(6)   NOT NULL,
+    updated_at             TIMESTAMP(6),
+    completed_at           TIMESTAMP(6),
+    version                BIGINT,
+    metadata               JSONB
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_transaction_ref ON transactions (transaction_reference);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_idempotency ON transactions (idempotency_key);
+CREATE INDEX IF NOT EXISTS idx_source_account ON transactions (source_account_id);
+CREATE INDEX IF NOT EXISTS idx_dest_account ON transactions (destination_account_id);
+CREATE INDEX IF NOT EXISTS idx_user_id ON transactions (user_id);
+CREATE INDEX IF NOT EXISTS idx_status ON transactions (status);
+CREATE INDEX IF NOT EXISTS idx_created_at ON transactions (created_at);
+CREATE INDEX IF NOT EXISTS idx_composite ON transactions (user_id, status, created_at);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id       VARCHAR(36)  NOT NULL UNIQUE,
+    aggregate_type VARCHAR(100) NOT NULL,
+    aggregate_id   VARCHAR(100) NOT NULL,
+    event_type     VARCHAR(100) NOT NULL,
+    topic          VARCHAR(100) NOT NULL,
+    payload        TEXT         NOT NULL,
+    status         VARCHAR(20)  NOT NULL,
+    retry_count    INTEGER,
+    max_retries    INTEGER,
+    last_error     TEXT,
+    created_at     TIMESTAMP(6) NOT NULL,
+    published_at   TIMESTAMP(6),
+    next_retry_at  TIMESTAMP(6),
+    version        BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_status_created ON outbox_events (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_aggregate ON outbox_events (aggregate_type, aggregate_id);
+
+CREATE TABLE IF NOT EXISTS transaction_event_store (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id       VARCHAR(36)  NOT NULL UNIQUE,
+    aggregate_id   VARCHAR(50)  NOT NULL,
+    aggregate_type VARCHAR(50)  NOT NULL,
+    event_type     VARCHAR(100) NOT NULL,
+    version        BIGINT       NOT NULL,
+    event_data     TEXT         NOT NULL,
+    metadata       TEXT,
+    user_id        BIGINT,
+    correlation_id VARCHAR(36),
+    causation_id   VARCHAR(36),
+    "timestamp"    TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_aggregate_id ON transaction_event_store (aggregate_id);
+CREATE INDEX IF NOT EXISTS idx_aggregate_version ON transaction_event_store (aggregate_id, version);
+CREATE INDEX IF NOT EXISTS idx_event_type ON transaction_event_store (event_type);
+
+CREATE TABLE IF NOT EXISTS saga_state (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    saga_id           VARCHAR(36)  NOT NULL,
+    saga_type         VARCHAR(50)  NOT NULL,
+    status            VARCHAR(30)  NOT NULL,
+    current_step      VARCHAR(50),
+    completed_steps   TEXT,
+    payload           TEXT         NOT NULL,
+    compensation_data TEXT,
+    error_message     TEXT,
+    retry_count       INTEGER,
+    max_retries       INTEGER,
+    created_at        TIMESTAMP(6) NOT NULL,
+    updated_at        TIMESTAMP(6),
+    completed_at      TIMESTAMP(6),
+    version           BIGINT
+);
+
+-- Index names are schema-wide in Postgres; idx_status is already on transactions
+CREATE UNIQUE INDEX IF NOT EXISTS idx_saga_id ON saga_state (saga_id);
+CREATE INDEX IF NOT EXISTS idx_saga_status ON saga_state (status);
+CREATE INDEX IF NOT EXISTS idx_saga_type ON saga_state (saga_type);
@@ -0,0 +1,5 @@
+-- Keyset history pagination: WHERE user_id = ? AND (created_at, id) < (?, ?)
+-- ORDER BY created_at DESC, id DESC reads this index backwards and stops
+-- after LIMIT rows. Built concurrently so transfers keep writing meanwhile;
+-- Flyway runs a migration holding only this statement outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_created_id ON transactions (user_id, created_at, id);
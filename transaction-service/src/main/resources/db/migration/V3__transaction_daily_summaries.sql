@@ -0,0 +1,17 @@
+-- Per-user daily rollup behind GET /summary. Status changes upsert into it
+-- with ON CONFLICT on the unique key, so the key is what keeps increments
+-- from racing into duplicate rows. Days before this migration are filled
+-- by TransactionSummaryScheduler.backfill.
+CREATE TABLE IF NOT EXISTS transaction_daily_summaries (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id           BIGINT         NOT NULL,
+    summary_date      DATE           NOT NULL,
+    status            VARCHAR(30)    NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    total_amount      NUMERIC(19, 4) NOT NULL,
+    total_fees        NUMERIC(19, 4) NOT NULL,
+    updated_at        TIMESTAMP(6),
+    CONSTRAINT uk_daily_summary_user_date_status UNIQUE (user_id, summary_date, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_summary_date ON transaction_daily_summaries (summary_date);
@@ -0,0 +1,51 @@
+-- Bulk transfer (payout) jobs and their lines. Items are inserted with JDBC
+-- batches and read in keyset chunks on (job_id, sequence), which the
+-- unique key serves; resubmitted uploads are matched on idempotency_key.
+CREATE TABLE IF NOT EXISTS bulk_transfer_jobs (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_reference           VARCHAR(50)    NOT NULL,
+    idempotency_key         VARCHAR(100),
+    user_id                 BIGINT         NOT NULL,
+    source_account_id       BIGINT         NOT NULL,
+    currency                VARCHAR(3)     NOT NULL,
+    description             VARCHAR(500),
+    status                  VARCHAR(30)    NOT NULL,
+    total_items             INTEGER        NOT NULL,
+    total_amount            NUMERIC(19, 4) NOT NULL,
+    hold_reference          VARCHAR(50),
+    processed_items         INTEGER        NOT NULL,
+    succeeded_items         INTEGER        NOT NULL,
+    failed_items            INTEGER        NOT NULL,
+    succeeded_amount        NUMERIC(19, 4) NOT NULL,
+    last_processed_sequence INTEGER        NOT NULL,
+    failure_reason          VARCHAR(500),
+    reserve_attempts        INTEGER,
+    created_at              TIMESTAMP(6)   NOT NULL,
+    updated_at              TIMESTAMP(6),
+    completed_at            TIMESTAMP(6),
+    version                 BIGINT
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_bulk_job_ref ON bulk_transfer_jobs (job_reference);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_bulk_job_idempotency ON bulk_transfer_jobs (idempotency_key);
+CREATE INDEX IF NOT EXISTS idx_bulk_job_user ON bulk_transfer_jobs (user_id, created_at);
+-- Stalled-job sweep: status IN (...) AND updated_at < ?
+CREATE INDEX IF NOT EXISTS idx_bulk_job_status ON bulk_transfer_jobs (status, updated_at);
+
+CREATE TABLE IF NOT EXISTS bulk_transfer_items (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_id                 BIGINT         NOT NULL REFERENCES bulk_transfer_jobs (id),
+    sequence               INTEGER        NOT NULL,
+    destination_account_id BIGINT         NOT NULL,
+    amount                 NUMERIC(19, 4) NOT NULL,
+    description            VARCHAR(500),
+    status                 VARCHAR(20)    NOT NULL,
+    item_reference         VARCHAR(60)    NOT NULL,
+    failure_reason         VARCHAR(500),
+    processed_at           TIMESTAMP(6),
+    debit_key              VARCHAR(80),
+    attempts               INTEGER,
+    refund_key             VARCHAR(80),
+    refunded_amount        NUMERIC(19, 4),
+    CONSTRAINT uk_bulk_item_job_sequence UNIQUE (job_id, sequence)
+);
@@ -0,0 +1,59 @@
+package com.transaction_service.DTOs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class TransactionCursorTest {
+
+	@Test
+	void roundTripsPosition() {
+		TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2041, 3, 10, 9, 30, 15, 123_456_000), 42L);
+
+		TransactionCursor decoded = TransactionCursor.decode(cursor.encode());
+
+		assertThat(decoded.getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+		assertThat(decoded.getId()).isEqualTo(42L);
+	}
+
+	@Test
+	void roundTripsWholeMinutes() {
+		// LocalDateTime.toString drops zero seconds ("2041-03-10T09:30")
+		TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2041, 3, 10, 9, 30), 7L);
+
+		assertThat(TransactionCursor.decode(cursor.encode()).getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+	}
+
+	@Test
+	void truncatesToTheMicrosecondsPostgresStores() {
+		TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2041, 3, 10, 9, 30, 15, 123_456_789), 1L);
+
+		assertThat(TransactionCursor.decode(cursor.encode()).getCreatedAt().getNano()).isEqualTo(123_456_000);
+	}
+
+	@Test
+	void encodesAsUrlSafeToken() {
+		TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2041, 3, 10, 9, 30, 15), Long.MAX_VALUE);
+
+		assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void rejectsTamperedCursors() {
+		String noId = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("2041-03-10T09:30_x".getBytes(StandardCharsets.UTF_8));
+		String noSeparator = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("2041-03-10T09:30".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : new String[] { "not a cursor", noId, noSeparator }) {
+			assertThatThrownBy(() -> TransactionCursor.decode(cursor))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessage("Invalid cursor");
+		}
+	}
+}
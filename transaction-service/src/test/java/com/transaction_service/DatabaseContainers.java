@@ -0,0 +1,22 @@
+package com.transaction_service;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * A throwaway PostgreSQL for the database tests, the same major version as
+ * docker-compose. Flyway migrates it and Hibernate validates the entities
+ * against the result, so these tests also catch a migration that is missing.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class DatabaseContainers {
+
+	@Bean
+	@ServiceConnection
+	public PostgreSQLContainer<?> postgres() {
+		return new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+	}
+}
@@ -0,0 +1,177 @@
+package com.transaction_service.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.transaction_service.DTOs.BulkTransferItemRequest;
+import com.transaction_service.DTOs.BulkTransferJobResponse;
+import com.transaction_service.DTOs.BulkTransferRequest;
+import com.transaction_service.DTOs.HoldResponse;
+import com.transaction_service.client.AccountServiceClient;
+import com.transaction_service.client.FraudCheckResult;
+import com.transaction_service.client.FraudServiceClient;
+import com.transaction_service.enums.BulkTransferStatus;
+import com.transaction_service.service.BulkTransferService;
+
+/**
+ * A bulk transfer of {@code -Dbenchmark.bulk.items} transfers (10,000 by
+ * default) from upload to completion. The account and fraud services are
+ * mocked with {@code -Dbenchmark.bulk.latency-ms} (5 by default) per call,
+ * so the figures show what chunked debits and parallel credits buy over one
+ * remote round trip per transfer, not the downstream services' own speed.
+ *
+ * Run with {@code mvn -o -Pbenchmark test -Dtest=BulkTransferBenchmark}
+ * against a local Postgres and Redis. The job and its rows are deleted
+ * afterwards.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"logging.level.com.transaction_service=WARN",
+		"logging.level.org.hibernate.SQL=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkTransferBenchmark {
+
+	private static final int ITEMS = Integer.getInteger("benchmark.bulk.items", 10_000);
+	private static final long LATENCY_MS = Long.getLong("benchmark.bulk.latency-ms", 5L);
+	private static final long TIMEOUT_MS = Long.getLong("benchmark.bulk.timeout-ms", 600_000L);
+	private static final long SOURCE = 1001L;
+
+	// Far outside any real user id range
+	private final long userId = 9_000_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+
+	@Autowired
+	private BulkTransferService bulkTransferService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockitoBean
+	private AccountServiceClient accountClient;
+
+	@MockitoBean
+	private FraudServiceClient fraudClient;
+
+	@Value("${transaction.bulk.chunk-size:500}")
+	private int chunkSize;
+
+	private String jobReference;
+
+	@AfterAll
+	void cleanup() {
+		if (jobReference != null) {
+			jdbcTemplate.update("DELETE FROM transactions WHERE processed_by = ?", "BULK:" + jobReference);
+			jdbcTemplate.update("DELETE FROM bulk_transfer_items WHERE job_id = "
+					+ "(SELECT id FROM bulk_transfer_jobs WHERE job_reference = ?)", jobReference);
+			jdbcTemplate.update("DELETE FROM bulk_transfer_jobs WHERE job_reference = ?", jobReference);
+			jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_type = 'BULK_TRANSFER' "
+					+ "AND aggregate_id = ?", jobReference);
+		}
+		jdbcTemplate.update("DELETE FROM transaction_daily_summaries WHERE user_id = ?", userId);
+	}
+
+	@Test
+	void uploadToCompletion() throws InterruptedException {
+		when(accountClient.placeHold(anyLong(), any(), anyString(), anyString()))
+				.thenReturn(HoldResponse.builder().holdReference("HOLD-BENCH").build());
+		doAnswer(invocation -> pause()).when(accountClient)
+				.debitWithIdempotency(anyLong(), any(), anyString(), anyString());
+		doAnswer(invocation -> pause()).when(accountClient)
+				.creditWithIdempotency(anyLong(), any(), anyString(), anyString());
+		when(fraudClient.quickCheck(any())).thenAnswer(invocation -> {
+			pause();
+			return FraudCheckResult.builder().blocked(false).build();
+		});
+
+		BulkTransferRequest request = request();
+		BigDecimal total = request.getItems().stream().map(BulkTransferItemRequest::getAmount)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+
+		long started = System.nanoTime();
+		BulkTransferJobResponse created = bulkTransferService.createBulkTransfer(request, userId);
+		long createdAt = System.nanoTime();
+		jobReference = created.getJobReference();
+
+		BulkTransferJobResponse job = created;
+		long deadline = createdAt + TIMEOUT_MS * 1_000_000;
+		while (!isTerminal(job.getStatus()) && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+			job = bulkTransferService.getJob(jobReference, userId);
+		}
+		long finishedAt = System.nanoTime();
+
+		double createSeconds = (createdAt - started) / 1e9;
+		double processSeconds = (finishedAt - createdAt) / 1e9;
+		System.out.printf("%n=== bulk transfer, %,d items, %d ms per remote call, chunks of %d ===%n", ITEMS,
+				LATENCY_MS, chunkSize);
+		System.out.printf("create (validate + insert) %8.2f s %12.0f items/s%n", createSeconds,
+				ITEMS / createSeconds);
+		System.out.printf("process (debit + credits)  %8.2f s %12.0f items/s%n", processSeconds,
+				ITEMS / processSeconds);
+		System.out.printf("one call per item would be %8.2f s at this latency%n", ITEMS * 2 * LATENCY_MS / 1e3);
+
+		assertThat(job.getStatus()).isEqualTo(BulkTransferStatus.COMPLETED);
+		assertThat(job.getSucceededItems()).isEqualTo(ITEMS);
+		assertThat(job.getSucceededAmount()).isEqualByComparingTo(total);
+
+		// One debit per chunk, one credit per item, no refunds
+		int chunks = (ITEMS + chunkSize - 1) / chunkSize;
+		verify(accountClient, times(chunks)).debitWithIdempotency(anyLong(), any(), anyString(), anyString());
+		verify(accountClient, times(ITEMS)).creditWithIdempotency(anyLong(), any(), anyString(), anyString());
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE processed_by = ?",
+				Integer.class, "BULK:" + jobReference)).isEqualTo(ITEMS);
+
+		// Re-uploading with the same key returns the job instead of paying twice
+		assertThat(bulkTransferService.createBulkTransfer(request, userId).getJobReference())
+				.isEqualTo(jobReference);
+	}
+
+	private BulkTransferRequest request() {
+		List<BulkTransferItemRequest> items = new ArrayList<>(ITEMS);
+		for (int i = 0; i < ITEMS; i++) {
+			items.add(BulkTransferItemRequest.builder()
+					.destinationAccountId(2_000_000L + i)
+					.amount(new BigDecimal(1 + i % 500).add(new BigDecimal("0.25")))
+					.build());
+		}
+		return BulkTransferRequest.builder()
+				.sourceAccountId(SOURCE)
+				.currency("INR")
+				.description("Benchmark payroll")
+				.idempotencyKey("bench-" + UUID.randomUUID())
+				.items(items)
+				.build();
+	}
+
+	private static Object pause() throws InterruptedException {
+		Thread.sleep(LATENCY_MS);
+		return null;
+	}
+
+	private static boolean isTerminal(BulkTransferStatus status) {
+		return status == BulkTransferStatus.COMPLETED || status == BulkTransferStatus.PARTIALLY_COMPLETED
+				|| status == BulkTransferStatus.FAILED;
+	}
+}
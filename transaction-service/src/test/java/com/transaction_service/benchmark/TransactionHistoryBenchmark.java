@@ -0,0 +1,149 @@
+package com.transaction_service.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.transaction_service.entity.Transaction;
+import com.transaction_service.repository.TransactionRepository;
+
+/**
+ * History pages for one heavy user. Seeds {@code -Dbenchmark.history.rows}
+ * transactions (1M by default; the request's figure is 50M) with
+ * generate_series, three to a timestamp so the id tie-break is exercised,
+ * then times page 1 and page {@code -Dbenchmark.history.page} (10,000 by
+ * default) through the keyset queries and through the OFFSET/COUNT query
+ * they replace. Each page size is 20.
+ *
+ * Run with {@code mvn -o -Pbenchmark test -Dtest=TransactionHistoryBenchmark}
+ * against a local Postgres. The synthetic rows are deleted afterwards.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"logging.level.com.transaction_service=WARN",
+		"logging.level.org.hibernate.SQL=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionHistoryBenchmark {
+
+	private static final long ROWS = Long.getLong("benchmark.history.rows", 1_000_000L);
+	private static final int DEEP_PAGE = Integer.getInteger("benchmark.history.page", 10_000);
+	private static final int PAGE_SIZE = 20;
+	private static final int SEED_BATCH = 1_000_000;
+	private static final int WARMUP = 5;
+	private static final int ITERATIONS = 50;
+	private static final LocalDateTime FROM = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	// Far outside any real user id range
+	private final long userId = 9_000_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@BeforeAll
+	void seed() {
+		assertThat(ROWS).isGreaterThanOrEqualTo((long) DEEP_PAGE * PAGE_SIZE);
+
+		long started = System.nanoTime();
+		for (long from = 1; from <= ROWS; from += SEED_BATCH) {
+			long to = Math.min(from + SEED_BATCH - 1, ROWS);
+			jdbcTemplate.update(
+					"INSERT INTO transactions (transaction_reference, user_id, source_account_id, "
+							+ "destination_account_id, amount, fee_amount, currency, status, type, "
+							+ "processed_by, created_at, updated_at, version) "
+							+ "SELECT 'HIST-' || ? || '-' || g, ?, 1, 2, a, round(a * 0.005, 2), 'INR', "
+							+ "'COMPLETED', 'TRANSFER', 'SYSTEM', ts, ts, 0 "
+							+ "FROM (SELECT g, (1 + (g % 50000) / 10.0)::numeric(19,4) AS a, "
+							+ "?::timestamp + make_interval(secs => g / 3) AS ts "
+							+ "FROM generate_series(?::bigint, ?::bigint) g) s",
+					userId, userId, FROM, from, to);
+		}
+		jdbcTemplate.execute("ANALYZE transactions");
+		System.out.printf("%nSeeded %,d transactions for user %d in %ds%n", ROWS, userId,
+				TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+	}
+
+	@AfterAll
+	void cleanup() {
+		jdbcTemplate.update("DELETE FROM transactions WHERE user_id = ?", userId);
+	}
+
+	@Test
+	void keysetAgainstOffsetPages() {
+		// The cursor a client holds after reading DEEP_PAGE - 1 pages
+		Map<String, Object> cursor = jdbcTemplate.queryForMap(
+				"SELECT created_at, id FROM transactions WHERE user_id = ? "
+						+ "ORDER BY created_at DESC, id DESC OFFSET ? LIMIT 1",
+				userId, (long) (DEEP_PAGE - 1) * PAGE_SIZE - 1);
+		LocalDateTime cursorCreatedAt = ((Timestamp) cursor.get("created_at")).toLocalDateTime();
+		long cursorId = ((Number) cursor.get("id")).longValue();
+		PageRequest deepOffset = PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE,
+				Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+
+		List<Long> keysetDeep = ids(transactionRepository.findByUserIdBeforeCursor(userId, cursorCreatedAt,
+				cursorId, PAGE_SIZE));
+		List<Long> offsetDeep = ids(transactionRepository.findByUserId(userId, deepOffset).getContent());
+		assertThat(keysetDeep).hasSize(PAGE_SIZE).isEqualTo(offsetDeep);
+
+		String plan = String.join("\n", jdbcTemplate.queryForList(
+				"EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM transactions t WHERE t.user_id = ? "
+						+ "AND (t.created_at, t.id) < (?, ?) ORDER BY t.created_at DESC, t.id DESC LIMIT ?",
+				String.class, userId, cursorCreatedAt, cursorId, PAGE_SIZE));
+		System.out.printf("%n=== keyset page %,d plan ===%n%s%n", DEEP_PAGE, plan);
+		assertThat(plan).contains("idx_user_created_id");
+
+		report("keyset page 1", time(() -> transactionRepository.findLatestByUserId(userId, PAGE_SIZE + 1)));
+		report("keyset page " + DEEP_PAGE, time(() -> transactionRepository.findByUserIdBeforeCursor(userId,
+				cursorCreatedAt, cursorId, PAGE_SIZE + 1)));
+		report("OFFSET page 1 + COUNT", time(() -> transactionRepository.findByUserId(userId,
+				PageRequest.of(0, PAGE_SIZE, deepOffset.getSort()))));
+		report("OFFSET page " + DEEP_PAGE + " + COUNT", time(() -> transactionRepository.findByUserId(userId,
+				deepOffset)));
+	}
+
+	private static List<Long> ids(List<Transaction> transactions) {
+		return transactions.stream().map(Transaction::getId).toList();
+	}
+
+	private static long[] time(Supplier<?> query) {
+		for (int i = 0; i < WARMUP; i++) {
+			query.get();
+		}
+		long[] nanos = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long started = System.nanoTime();
+			query.get();
+			nanos[i] = System.nanoTime() - started;
+		}
+		Arrays.sort(nanos);
+		return nanos;
+	}
+
+	private static void report(String name, long[] sortedNanos) {
+		System.out.printf("%n=== %s ===%n", name);
+		System.out.printf("median            %14.2f ms%n", sortedNanos[sortedNanos.length / 2] / 1e6);
+		System.out.printf("p95               %14.2f ms%n", sortedNanos[(int) (sortedNanos.length * 0.95)] / 1e6);
+		System.out.printf("max               %14.2f ms%n", sortedNanos[sortedNanos.length - 1] / 1e6);
+	}
+}
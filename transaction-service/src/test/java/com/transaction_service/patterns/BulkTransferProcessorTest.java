@@ -0,0 +1,304 @@
+package com.transaction_service.patterns;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction_service.DTOs.HoldResponse;
+import com.transaction_service.DatabaseContainers;
+import com.transaction_service.client.AccountServiceClient;
+import com.transaction_service.client.FraudCheckResult;
+import com.transaction_service.client.FraudServiceClient;
+import com.transaction_service.entity.BulkTransferItem;
+import com.transaction_service.entity.BulkTransferJob;
+import com.transaction_service.enums.BulkTransferItemStatus;
+import com.transaction_service.enums.BulkTransferStatus;
+import com.transaction_service.repository.BulkTransferItemRepository;
+import com.transaction_service.repository.BulkTransferJobRepository;
+import com.transaction_service.service.OutboxService;
+import com.transaction_service.service.RecentTransactionCacheService;
+import com.transaction_service.service.TransactionSummaryService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A job driven through the processor against a real database, with the
+ * account and fraud services mocked. The processor commits chunk by chunk,
+ * so these tests run outside a test transaction and delete what they wrote.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatabaseContainers.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkTransferProcessorTest {
+
+	private static final long SOURCE = 1001L;
+	private static final String HOLD = "HOLD-1";
+
+	@Autowired
+	private BulkTransferJobRepository jobRepository;
+
+	@Autowired
+	private BulkTransferItemRepository itemRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final AccountServiceClient accountClient = mock(AccountServiceClient.class);
+	private final FraudServiceClient fraudClient = mock(FraudServiceClient.class);
+
+	private JdbcTemplate jdbcTemplate;
+	private ThreadPoolTaskExecutor jobExecutor;
+	private ThreadPoolTaskExecutor creditExecutor;
+	private BulkTransferProcessor processor;
+	private BulkTransferJob job;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jobExecutor = executor("bulk-job-");
+		creditExecutor = executor("bulk-credit-");
+
+		RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+		ValueOperations<String, String> locks = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(locks);
+		when(locks.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+		when(accountClient.placeHold(eq(SOURCE), any(), anyString(), anyString()))
+				.thenReturn(HoldResponse.builder().holdReference(HOLD).build());
+		when(fraudClient.quickCheck(any())).thenReturn(FraudCheckResult.builder().blocked(false).build());
+
+		processor = new BulkTransferProcessor(jobRepository, itemRepository, accountClient, fraudClient,
+				mock(OutboxService.class), mock(TransactionSummaryService.class),
+				mock(RecentTransactionCacheService.class), new TransactionTemplate(transactionManager),
+				jdbcTemplate, redisTemplate, jobExecutor, creditExecutor, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(processor, "chunkSize", 2);
+		ReflectionTestUtils.setField(processor, "lockLease", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(processor, "maxReserveAttempts", 5);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jobExecutor.shutdown();
+		creditExecutor.shutdown();
+		if (job != null) {
+			jdbcTemplate.update("DELETE FROM transactions WHERE processed_by = ?", "BULK:" + job.getJobReference());
+			jdbcTemplate.update("DELETE FROM bulk_transfer_items WHERE job_id = ?", job.getId());
+			jdbcTemplate.update("DELETE FROM bulk_transfer_jobs WHERE id = ?", job.getId());
+		}
+	}
+
+	@Test
+	void completesEveryChunkWithOneDebitEach() {
+		List<BulkTransferItem> items = createJob("100.00", "200.00", "300.00", "400.00", "500.00");
+
+		processor.process(job.getId());
+
+		BulkTransferJob done = jobRepository.findById(job.getId()).orElseThrow();
+		assertThat(done.getStatus()).isEqualTo(BulkTransferStatus.COMPLETED);
+		assertThat(done.getSucceededItems()).isEqualTo(5);
+		assertThat(done.getSucceededAmount()).isEqualByComparingTo("1500.00");
+		assertThat(done.getLastProcessedSequence()).isEqualTo(5);
+		assertThat(statuses()).containsOnly(BulkTransferItemStatus.COMPLETED);
+		assertThat(transactionRows()).isEqualTo(5);
+
+		// Chunks of two: 1-2, 3-4, 5
+		verify(accountClient).debitWithIdempotency(SOURCE, new BigDecimal("300.0000"), debitKey(items, 0, 1),
+				job.getJobReference());
+		verify(accountClient).debitWithIdempotency(SOURCE, new BigDecimal("700.0000"), debitKey(items, 2, 3),
+				job.getJobReference());
+		verify(accountClient).debitWithIdempotency(SOURCE, new BigDecimal("500.0000"), debitKey(items, 4, 4),
+				job.getJobReference());
+		verify(accountClient, times(3)).debitWithIdempotency(any(), any(), anyString(), anyString());
+		verify(accountClient, times(5)).creditWithIdempotency(any(), any(), anyString(), anyString());
+		verify(accountClient).releaseHold(HOLD);
+	}
+
+	@Test
+	void refundsTheSourceForAFailedCredit() {
+		List<BulkTransferItem> items = createJob("100.00", "200.00");
+		BulkTransferItem bounced = items.get(1);
+		doThrow(new RuntimeException("Account frozen")).when(accountClient).creditWithIdempotency(
+				eq(bounced.getDestinationAccountId()), any(), anyString(), anyString());
+
+		processor.process(job.getId());
+
+		BulkTransferJob done = jobRepository.findById(job.getId()).orElseThrow();
+		assertThat(done.getStatus()).isEqualTo(BulkTransferStatus.PARTIALLY_COMPLETED);
+		assertThat(done.getFailedItems()).isEqualTo(1);
+		assertThat(done.getSucceededAmount()).isEqualByComparingTo("100.00");
+
+		BulkTransferItem failed = itemRepository.findById(bounced.getId()).orElseThrow();
+		assertThat(failed.getStatus()).isEqualTo(BulkTransferItemStatus.FAILED);
+		assertThat(failed.getFailureReason()).isEqualTo("Account frozen");
+		assertThat(failed.getRefundKey()).isEqualTo(bounced.getItemReference() + "-REFUND-1");
+		assertThat(failed.getRefundedAmount()).isEqualByComparingTo("200.00");
+		verify(accountClient).creditWithIdempotency(SOURCE, new BigDecimal("200.0000"),
+				bounced.getItemReference() + "-REFUND-1", bounced.getItemReference());
+	}
+
+	@Test
+	void resumesAfterAFailedRefundWithoutCreditingAgain() {
+		List<BulkTransferItem> items = createJob("100.00", "200.00");
+		BulkTransferItem bounced = items.get(1);
+		String refundKey = bounced.getItemReference() + "-REFUND-1";
+		doThrow(new RuntimeException("Account frozen")).when(accountClient).creditWithIdempotency(
+				eq(bounced.getDestinationAccountId()), any(), anyString(), anyString());
+		doThrow(new RuntimeException("Account service unavailable")).doNothing().when(accountClient)
+				.creditWithIdempotency(eq(SOURCE), any(), eq(refundKey), anyString());
+
+		processor.process(job.getId());
+
+		// Interrupted before the checkpoint; the refund is recorded but the chunk is not
+		BulkTransferJob interrupted = jobRepository.findById(job.getId()).orElseThrow();
+		assertThat(interrupted.getStatus()).isEqualTo(BulkTransferStatus.PROCESSING);
+		assertThat(interrupted.getLastProcessedSequence()).isZero();
+		assertThat(itemRepository.findById(bounced.getId()).orElseThrow().getRefundKey()).isEqualTo(refundKey);
+
+		processor.process(job.getId());
+
+		BulkTransferJob done = jobRepository.findById(job.getId()).orElseThrow();
+		assertThat(done.getStatus()).isEqualTo(BulkTransferStatus.PARTIALLY_COMPLETED);
+		assertThat(done.getSucceededItems()).isEqualTo(1);
+		assertThat(done.getFailedItems()).isEqualTo(1);
+		assertThat(transactionRows()).isEqualTo(2);
+
+		// Same debit key and total on both runs, one hold, and the bounced destination credited once
+		verify(accountClient, times(2)).debitWithIdempotency(SOURCE, new BigDecimal("300.0000"),
+				debitKey(items, 0, 1), job.getJobReference());
+		verify(accountClient, times(1)).placeHold(any(), any(), anyString(), anyString());
+		verify(accountClient, times(1)).creditWithIdempotency(eq(bounced.getDestinationAccountId()), any(),
+				anyString(), anyString());
+		verify(accountClient, times(2)).creditWithIdempotency(SOURCE, new BigDecimal("200.0000"), refundKey,
+				bounced.getItemReference());
+	}
+
+	@Test
+	void leavesFraudBlockedItemsOutOfTheDebit() {
+		List<BulkTransferItem> items = createJob("100.00", "200.00");
+		BulkTransferItem blocked = items.get(1);
+		when(fraudClient.quickCheck(argThat(data -> data != null
+				&& blocked.getItemReference().equals(data.getTransactionReference()))))
+				.thenReturn(FraudCheckResult.builder().blocked(true).reason("Velocity").build());
+
+		processor.process(job.getId());
+
+		BulkTransferJob done = jobRepository.findById(job.getId()).orElseThrow();
+		assertThat(done.getStatus()).isEqualTo(BulkTransferStatus.PARTIALLY_COMPLETED);
+		assertThat(done.getSucceededAmount()).isEqualByComparingTo("100.00");
+
+		BulkTransferItem failed = itemRepository.findById(blocked.getId()).orElseThrow();
+		assertThat(failed.getStatus()).isEqualTo(BulkTransferItemStatus.FAILED);
+		assertThat(failed.getFailureReason()).isEqualTo("Blocked by fraud rules: Velocity");
+		assertThat(failed.getDebitKey()).isNull();
+
+		verify(accountClient).debitWithIdempotency(SOURCE, new BigDecimal("100.0000"), debitKey(items, 0, 0),
+				job.getJobReference());
+		verify(accountClient, never()).creditWithIdempotency(eq(blocked.getDestinationAccountId()), any(),
+				anyString(), anyString());
+		verify(accountClient, never()).creditWithIdempotency(eq(SOURCE), any(), anyString(), anyString());
+	}
+
+	private List<BulkTransferItem> createJob(String... amounts) {
+		String reference = "BULKT" + ThreadLocalRandom.current().nextInt(1_000_000_000);
+		BigDecimal total = BigDecimal.ZERO;
+		for (String amount : amounts) {
+			total = total.add(new BigDecimal(amount));
+		}
+
+		job = jobRepository.save(BulkTransferJob.builder()
+				.jobReference(reference)
+				.userId(42L)
+				.sourceAccountId(SOURCE)
+				.currency("INR")
+				.description("Payroll")
+				.status(BulkTransferStatus.PENDING)
+				.totalItems(amounts.length)
+				.totalAmount(total)
+				.processedItems(0)
+				.succeededItems(0)
+				.failedItems(0)
+				.succeededAmount(BigDecimal.ZERO)
+				.lastProcessedSequence(0)
+				.reserveAttempts(0)
+				.build());
+
+		List<BulkTransferItem> items = new ArrayList<>();
+		for (int i = 0; i < amounts.length; i++) {
+			items.add(BulkTransferItem.builder()
+					.jobId(job.getId())
+					.sequence(i + 1)
+					.destinationAccountId(2001L + i)
+					.amount(new BigDecimal(amounts[i]))
+					.status(BulkTransferItemStatus.PENDING)
+					.itemReference(reference + "-" + (i + 1))
+					.attempts(0)
+					.refundedAmount(BigDecimal.ZERO)
+					.build());
+		}
+		return itemRepository.saveAll(items);
+	}
+
+	private String debitKey(List<BulkTransferItem> items, int first, int last) {
+		return job.getJobReference() + "-" + items.get(first).getId() + "-" + items.get(last).getId() + "-DEBIT";
+	}
+
+	private List<BulkTransferItemStatus> statuses() {
+		return jdbcTemplate.queryForList("SELECT status FROM bulk_transfer_items WHERE job_id = ?", String.class,
+				job.getId()).stream().map(BulkTransferItemStatus::valueOf).toList();
+	}
+
+	private Integer transactionRows() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE processed_by = ?",
+				Integer.class, "BULK:" + job.getJobReference());
+	}
+
+	private static ThreadPoolTaskExecutor executor(String prefix) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(2);
+		executor.setQueueCapacity(4);
+		executor.setThreadNamePrefix(prefix);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+}
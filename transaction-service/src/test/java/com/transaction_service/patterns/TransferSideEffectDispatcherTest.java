@@ -0,0 +1,80 @@
+package com.transaction_service.patterns;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.transaction_service.DTOs.TransferSagaData;
+import com.transaction_service.client.FraudServiceClient;
+import com.transaction_service.client.NotificationServiceClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Failures thrown by the blocking clients reach the dispatcher's metrics.
+ */
+class TransferSideEffectDispatcherTest {
+
+	private final FraudServiceClient fraudClient = mock(FraudServiceClient.class);
+	private final NotificationServiceClient notificationClient = mock(NotificationServiceClient.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ThreadPoolTaskExecutor executor;
+	private TransferSideEffectDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setQueueCapacity(10);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.initialize();
+		dispatcher = new TransferSideEffectDispatcher(executor, fraudClient, notificationClient, meterRegistry);
+	}
+
+	@Test
+	void countsFailedSideEffects() throws InterruptedException {
+		when(fraudClient.deepAnalysis(any())).thenThrow(new IllegalStateException("Timeout on blocking read"));
+		doThrow(new IllegalStateException("503 Service Unavailable")).when(notificationClient)
+				.sendTransactionNotification(any());
+
+		dispatchAndWait();
+
+		assertThat(failed("deep_fraud_analysis")).isEqualTo(1);
+		assertThat(failed("notification")).isEqualTo(1);
+		assertThat(meterRegistry.get("transfer.side-effects.latency").tag("type", "notification").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void successfulSideEffectsAreNotCounted() throws InterruptedException {
+		dispatchAndWait();
+
+		assertThat(meterRegistry.find("transfer.side-effects.failed").counter()).isNull();
+		assertThat(meterRegistry.get("transfer.side-effects.latency").tag("type", "deep_fraud_analysis").timer()
+				.count()).isEqualTo(1);
+	}
+
+	private void dispatchAndWait() throws InterruptedException {
+		dispatcher.dispatchCompletedTransfer(TransferSagaData.builder()
+				.transactionReference("TXN-1")
+				.userId(42L)
+				.amount(new BigDecimal("100.00"))
+				.build());
+		executor.shutdown();
+		assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private double failed(String type) {
+		return meterRegistry.get("transfer.side-effects.failed").tag("type", type).counter().count();
+	}
+}
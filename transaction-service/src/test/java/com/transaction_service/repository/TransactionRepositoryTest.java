@@ -0,0 +1,118 @@
+package com.transaction_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.transaction_service.DTOs.TransactionCursor;
+import com.transaction_service.DatabaseContainers;
+import com.transaction_service.entity.Transaction;
+import com.transaction_service.enums.TransactionStatus;
+import com.transaction_service.enums.TransactionType;
+
+/**
+ * Keyset history queries. Pages are walked through encoded cursors, the way
+ * clients page through the history endpoint.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatabaseContainers.class)
+class TransactionRepositoryTest {
+
+	private static final LocalDateTime SAME_INSTANT = LocalDateTime.of(2041, 3, 10, 9, 30, 15, 123_456_000);
+
+	private final long userId = 9_000_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void pagesThroughTiedTimestampsByIdWithoutSkippingOrRepeating() {
+		List<Long> tied = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			tied.add(save(SAME_INSTANT));
+		}
+		// Inserted last but older, so ordering has to follow created_at before id
+		long older = save(SAME_INSTANT.minusNanos(1_000));
+		long oldest = save(SAME_INSTANT.minusDays(1));
+		save(userId + 1, SAME_INSTANT);
+
+		List<Long> expected = new ArrayList<>(tied);
+		Collections.reverse(expected);
+		expected.add(older);
+		expected.add(oldest);
+
+		assertThat(walk(2)).containsExactlyElementsOf(expected);
+		assertThat(walk(5)).containsExactlyElementsOf(expected);
+		assertThat(walk(7)).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void firstPageIsNewestFirstAndLimited() {
+		long first = save(SAME_INSTANT.minusMinutes(2));
+		long second = save(SAME_INSTANT.minusMinutes(1));
+		long third = save(SAME_INSTANT);
+
+		assertThat(transactionRepository.findLatestByUserId(userId, 2))
+				.extracting(Transaction::getId)
+				.containsExactly(third, second);
+		assertThat(transactionRepository.findLatestByUserId(userId, 10))
+				.extracting(Transaction::getId)
+				.containsExactly(third, second, first);
+	}
+
+	private List<Long> walk(int pageSize) {
+		List<Long> seen = new ArrayList<>();
+		List<Transaction> page = transactionRepository.findLatestByUserId(userId, pageSize);
+		while (!page.isEmpty()) {
+			page.forEach(transaction -> seen.add(transaction.getId()));
+			Transaction last = page.get(page.size() - 1);
+			TransactionCursor cursor = TransactionCursor.decode(
+					new TransactionCursor(last.getCreatedAt(), last.getId()).encode());
+			page = transactionRepository.findByUserIdBeforeCursor(userId, cursor.getCreatedAt(), cursor.getId(),
+					pageSize);
+		}
+		return seen;
+	}
+
+	private long save(LocalDateTime createdAt) {
+		return save(userId, createdAt);
+	}
+
+	// created_at is set by Hibernate on insert, so it is moved afterwards
+	private long save(long owner, LocalDateTime createdAt) {
+		Transaction transaction = entityManager.persistFlushFind(Transaction.builder()
+				.transactionReference("TXN-TEST-" + System.nanoTime())
+				.userId(owner)
+				.sourceAccountId(1L)
+				.destinationAccountId(2L)
+				.amount(new BigDecimal("100.0000"))
+				.feeAmount(new BigDecimal("0.5000"))
+				.currency("INR")
+				.status(TransactionStatus.COMPLETED)
+				.type(TransactionType.TRANSFER)
+				.build());
+		entityManager.getEntityManager()
+				.createNativeQuery("UPDATE transactions SET created_at = :createdAt WHERE id = :id")
+				.setParameter("createdAt", createdAt)
+				.setParameter("id", transaction.getId())
+				.executeUpdate();
+		entityManager.clear();
+		return transaction.getId();
+	}
+}
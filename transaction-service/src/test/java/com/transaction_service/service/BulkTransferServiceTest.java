@@ -0,0 +1,184 @@
+package com.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banking_common.reference.ReferenceGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction_service.DTOs.BulkTransferItemRequest;
+import com.transaction_service.DTOs.BulkTransferRequest;
+import com.transaction_service.patterns.BulkTransferProcessor;
+import com.transaction_service.repository.BulkTransferItemRepository;
+import com.transaction_service.repository.BulkTransferJobRepository;
+import com.transaction_service.service.implementation.BulkTransferServiceImpl;
+
+/**
+ * Upfront validation of a bulk transfer and parsing of the uploaded CSV.
+ * Nothing here reaches the database: a rejected file never creates a job.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkTransferServiceTest {
+
+	private static final long SOURCE = 1001L;
+
+	@Mock
+	private BulkTransferJobRepository jobRepository;
+
+	@Mock
+	private BulkTransferItemRepository itemRepository;
+
+	@Mock
+	private BulkTransferProcessor bulkTransferProcessor;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private ReferenceGenerator referenceGenerator;
+
+	@Mock
+	private ObjectMapper objectMapper;
+
+	@InjectMocks
+	private BulkTransferServiceImpl bulkTransferService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(bulkTransferService, "maxTotalAmount", new BigDecimal("5000.00"));
+	}
+
+	@Test
+	void rejectsAnEmptyFile() {
+		assertRejected(request(), "At least one transfer is required");
+	}
+
+	@Test
+	void rejectsMoreItemsThanTheLimit() {
+		List<BulkTransferItemRequest> items = new ArrayList<>();
+		for (int i = 0; i <= 100_000; i++) {
+			items.add(item(2000L + i, "0.01"));
+		}
+		assertRejected(BulkTransferRequest.builder().sourceAccountId(SOURCE).currency("INR").items(items).build(),
+				"at most 100000 items");
+	}
+
+	@Test
+	void rejectsATransferBackToTheSource() {
+		assertRejected(request(item(2001L, "10.00"), item(SOURCE, "10.00")),
+				"Item 2: cannot transfer to source account");
+	}
+
+	@Test
+	void rejectsMissingZeroAndOversizedAmounts() {
+		assertRejected(request(item(2001L, null)), "Item 1: destination and amount are required");
+		assertRejected(request(item(2001L, "10.00"), item(2002L, "0.00")), "Item 2: invalid amount");
+		assertRejected(request(item(2001L, "-5.00")), "Item 1: invalid amount");
+		assertRejected(request(item(2001L, "1000000.01")), "Item 1: invalid amount");
+	}
+
+	@Test
+	void rejectsATotalOverTheLimit() {
+		assertRejected(request(item(2001L, "3000.00"), item(2002L, "2000.01")),
+				"Bulk transfer total exceeds maximum limit");
+	}
+
+	@Test
+	void skipsAHeaderRowAndKeepsDescriptions() throws IOException {
+		BulkTransferRequest request = parse("destinationAccountId,amount,description\n"
+				+ "2001,100.50,Salary, March\n"
+				+ "2002,75\n");
+
+		assertThat(request.getSourceAccountId()).isEqualTo(SOURCE);
+		assertThat(request.getItems()).extracting(BulkTransferItemRequest::getDestinationAccountId)
+				.containsExactly(2001L, 2002L);
+		assertThat(request.getItems()).extracting(BulkTransferItemRequest::getAmount)
+				.containsExactly(new BigDecimal("100.50"), new BigDecimal("75"));
+		// Only the first two commas split columns
+		assertThat(request.getItems()).extracting(BulkTransferItemRequest::getDescription)
+				.containsExactly("Salary, March", null);
+	}
+
+	@Test
+	void skipsAByteOrderMarkAndBlankLines() throws IOException {
+		BulkTransferRequest request = parse("\uFEFFaccount,amount\n\n2001,10.00\n   \n2002,20.00\n");
+
+		assertThat(request.getItems()).extracting(BulkTransferItemRequest::getDestinationAccountId)
+				.containsExactly(2001L, 2002L);
+	}
+
+	@Test
+	void keepsAFirstRowThatIsData() throws IOException {
+		BulkTransferRequest request = parse("\uFEFF2001,10.00\n\n2002,20.00\n");
+
+		assertThat(request.getItems()).extracting(BulkTransferItemRequest::getDestinationAccountId)
+				.containsExactly(2001L, 2002L);
+	}
+
+	@Test
+	void aHeaderAfterLeadingBlankLinesIsStillAHeader() throws IOException {
+		BulkTransferRequest request = parse("\n\naccount,amount\n2001,10.00\n");
+
+		assertThat(request.getItems()).hasSize(1);
+	}
+
+	@Test
+	void aMistypedFirstRowFailsInsteadOfBeingSkipped() {
+		assertThatThrownBy(() -> parse("20O1,10.00\n2002,20.00\n"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Line 1: invalid account or amount");
+	}
+
+	@Test
+	void reportsTheLineOfABadRow() {
+		assertThatThrownBy(() -> parse("account,amount\n2001,10.00\n\n2002,ten\n"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Line 4: invalid account or amount");
+		assertThatThrownBy(() -> parse("2001,10.00\n2002\n"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Line 2: expected destinationAccountId,amount");
+	}
+
+	private void assertRejected(BulkTransferRequest request, String message) {
+		assertThatThrownBy(() -> bulkTransferService.createBulkTransfer(request, 42L))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining(message);
+		verifyNoInteractions(jdbcTemplate, bulkTransferProcessor);
+	}
+
+	private BulkTransferRequest parse(String csv) throws IOException {
+		return bulkTransferService.parseCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+				SOURCE, "INR", "Payroll");
+	}
+
+	private static BulkTransferRequest request(BulkTransferItemRequest... items) {
+		return BulkTransferRequest.builder()
+				.sourceAccountId(SOURCE)
+				.currency("INR")
+				.items(List.of(items))
+				.build();
+	}
+
+	private static BulkTransferItemRequest item(Long destination, String amount) {
+		return BulkTransferItemRequest.builder()
+				.destinationAccountId(destination)
+				.amount(amount != null ? new BigDecimal(amount) : null)
+				.build();
+	}
+}
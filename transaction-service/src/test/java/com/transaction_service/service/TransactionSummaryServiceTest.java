@@ -0,0 +1,167 @@
+package com.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.transaction_service.DTOs.TransactionSummaryResponse;
+import com.transaction_service.DatabaseContainers;
+import com.transaction_service.entity.Transaction;
+import com.transaction_service.enums.TransactionStatus;
+import com.transaction_service.enums.TransactionType;
+import com.transaction_service.repository.TransactionDailySummaryRepository;
+import com.transaction_service.service.implementation.TransactionSummaryServiceImpl;
+
+/**
+ * The daily rollup as maintained by status changes, checked against a
+ * rebuild of the same day from the raw transactions.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ DatabaseContainers.class, TransactionSummaryServiceImpl.class })
+class TransactionSummaryServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2041, 3, 10);
+
+	private final long userId = 9_000_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+
+	@Autowired
+	private TransactionSummaryService summaryService;
+
+	@Autowired
+	private TransactionDailySummaryRepository summaryRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void statusChangesMoveTransactionsBetweenBuckets() {
+		Transaction completed = save(userId, TransactionStatus.COMPLETED, "100.00");
+		summaryService.recordStatusChange(completed, null);
+		Transaction reversed = save(userId, TransactionStatus.COMPLETED, "40.00");
+		summaryService.recordStatusChange(reversed, null);
+
+		changeStatus(reversed, TransactionStatus.REVERSED);
+
+		assertThat(completed(userId).getTotalTransactions()).isEqualTo(1);
+		assertThat(completed(userId).getTotalAmount()).isEqualByComparingTo("100.00");
+		assertThat(completed(userId).getTotalFees()).isEqualByComparingTo("0.50");
+		assertThat(summaryService.getSummary(userId, DAY, DAY, TransactionStatus.REVERSED).getTotalAmount())
+				.isEqualByComparingTo("40.00");
+	}
+
+	@Test
+	void preFlightStatusesAreNeverRolledUp() {
+		Transaction pending = save(userId, TransactionStatus.INITIATED, "100.00");
+		summaryService.recordStatusChange(pending, null);
+		changeStatus(pending, TransactionStatus.FRAUD_CHECK_PENDING);
+		assertThat(summaryRows(userId)).isEmpty();
+
+		changeStatus(pending, TransactionStatus.COMPLETED);
+
+		assertThat(summaryRows(userId)).containsExactly("COMPLETED 1 100 0.5");
+	}
+
+	@Test
+	void batchInsertsAddOneDeltaPerBucket() {
+		summaryService.recordNewTransactions(List.of(
+				save(userId, TransactionStatus.COMPLETED, "10.00"),
+				save(userId, TransactionStatus.COMPLETED, "20.00"),
+				save(userId, TransactionStatus.FAILED, "30.00"),
+				save(userId, TransactionStatus.INITIATED, "40.00")));
+
+		assertThat(summaryRows(userId)).containsExactlyInAnyOrder("COMPLETED 2 30 0.15", "FAILED 1 30 0.15");
+	}
+
+	@Test
+	void incrementsMatchARebuildFromRawTransactions() {
+		long otherUser = userId + 1;
+
+		summaryService.recordStatusChange(save(userId, TransactionStatus.COMPLETED, "100.00"), null);
+		summaryService.recordStatusChange(save(userId, TransactionStatus.FAILED, "200.00"), null);
+		summaryService.recordStatusChange(save(otherUser, TransactionStatus.COMPLETED, "300.00"), null);
+
+		Transaction cancelled = save(userId, TransactionStatus.INITIATED, "50.00");
+		summaryService.recordStatusChange(cancelled, null);
+		changeStatus(cancelled, TransactionStatus.CANCELLED);
+
+		// Leaves a zero-count FAILED bucket behind, which a rebuild does not write
+		Transaction retried = save(otherUser, TransactionStatus.FAILED, "75.00");
+		summaryService.recordStatusChange(retried, null);
+		changeStatus(retried, TransactionStatus.REVERSED);
+
+		summaryService.recordNewTransactions(List.of(
+				save(userId, TransactionStatus.COMPLETED, "10.00"),
+				save(userId, TransactionStatus.INITIATED, "20.00"),
+				save(otherUser, TransactionStatus.COMPLETED, "30.00")));
+
+		List<String> incremental = summaryRows(userId);
+		List<String> incrementalOther = summaryRows(otherUser);
+
+		summaryService.rebuildDay(DAY);
+
+		assertThat(summaryRows(userId)).containsExactlyInAnyOrderElementsOf(incremental);
+		assertThat(summaryRows(otherUser)).containsExactlyInAnyOrderElementsOf(incrementalOther);
+		assertThat(incremental).containsExactlyInAnyOrder(
+				"COMPLETED 2 110 0.55", "FAILED 1 200 1", "CANCELLED 1 50 0.25");
+	}
+
+	private TransactionSummaryResponse completed(long user) {
+		return summaryService.getSummary(user, DAY, DAY, TransactionStatus.COMPLETED);
+	}
+
+	// "STATUS count amount fees", skipping buckets a change has emptied
+	private List<String> summaryRows(long user) {
+		entityManager.flush();
+		entityManager.clear();
+		return summaryRepository.findAll().stream()
+				.filter(row -> row.getUserId() == user && row.getSummaryDate().equals(DAY))
+				.filter(row -> row.getTransactionCount() != 0)
+				.map(row -> row.getStatus() + " " + row.getTransactionCount() + " "
+						+ row.getTotalAmount().stripTrailingZeros().toPlainString() + " "
+						+ row.getTotalFees().stripTrailingZeros().toPlainString())
+				.toList();
+	}
+
+	private void changeStatus(Transaction transaction, TransactionStatus status) {
+		Transaction current = entityManager.find(Transaction.class, transaction.getId());
+		TransactionStatus previous = current.getStatus();
+		current.setStatus(status);
+		entityManager.flush();
+		summaryService.recordStatusChange(current, previous);
+	}
+
+	// created_at is set by Hibernate on insert, so it is moved onto DAY afterwards
+	private Transaction save(long user, TransactionStatus status, String amount) {
+		BigDecimal value = new BigDecimal(amount);
+		Transaction transaction = entityManager.persistFlushFind(Transaction.builder()
+				.transactionReference("TXN-TEST-" + System.nanoTime())
+				.userId(user)
+				.sourceAccountId(1L)
+				.destinationAccountId(2L)
+				.amount(value)
+				.feeAmount(value.multiply(new BigDecimal("0.005")).setScale(2, RoundingMode.HALF_UP))
+				.currency("INR")
+				.status(status)
+				.type(TransactionType.TRANSFER)
+				.build());
+		entityManager.getEntityManager()
+				.createNativeQuery("UPDATE transactions SET created_at = :createdAt WHERE id = :id")
+				.setParameter("createdAt", DAY.atTime(12, 0))
+				.setParameter("id", transaction.getId())
+				.executeUpdate();
+		entityManager.clear();
+		return entityManager.find(Transaction.class, transaction.getId());
+	}
+}